@@ -40,13 +40,16 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-aop")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.3")
+    // CBOR encoding for POS sync
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
 
     // 4. DATABASE
     implementation("org.springframework.boot:spring-boot-starter-data-jdbc")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.flywaydb:flyway-core")
     implementation("org.flywaydb:flyway-database-postgresql")
-    runtimeOnly("org.postgresql:postgresql")
+    // Compile scope for LISTEN/NOTIFY (PGConnection)
+    implementation("org.postgresql:postgresql")
 
     // 5. UTILITIES
     compileOnly("org.projectlombok:lombok")
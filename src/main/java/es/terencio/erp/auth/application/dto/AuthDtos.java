@@ -21,6 +21,11 @@ public final class AuthDtos {
 
     public record EmployeeInfoDto(Long id, String username, String fullName, boolean isActive, UUID lastCompanyId, UUID lastStoreId, List<CompanyTreeDto> companies, Map<String, Map<UUID, List<String>>> permissions) {}
     
+    public record SessionProfileDto(Long id, String username, String fullName, boolean isActive, UUID lastCompanyId, UUID lastStoreId) {}
+
+    /** Parts of the session that differ from the client's ETag; unchanged parts are null. */
+    public record SessionDeltaDto(String etag, SessionProfileDto profile, List<CompanyTreeDto> companies, Map<String, Map<UUID, List<String>>> permissions) {}
+
     public record GrantMatrixDto(Long grantId, String roleName, List<ModulePermissionsDto> modules) {}
     
     public record ModulePermissionsDto(String moduleName, List<PermissionNodeDto> permissions) {}
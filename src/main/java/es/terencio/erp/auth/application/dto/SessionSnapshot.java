@@ -0,0 +1,82 @@
+package es.terencio.erp.auth.application.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import es.terencio.erp.auth.application.dto.AuthDtos.EmployeeInfoDto;
+import es.terencio.erp.auth.application.dto.AuthDtos.SessionDeltaDto;
+import es.terencio.erp.auth.application.dto.AuthDtos.SessionProfileDto;
+import es.terencio.erp.organization.application.dto.OrganizationDtos.CompanyTreeDto;
+
+/**
+ * Everything {@code /api/v1/auth/me} returns, split in three parts that change
+ * independently. Each part carries a content fingerprint; the ETag joins the
+ * three, so it is the same on every node for the same data and a client can
+ * be told exactly which parts changed. The source versions record what the
+ * parts were built from, to detect staleness without rebuilding.
+ */
+public record SessionSnapshot(
+        SessionProfileDto profile,
+        String profileTag,
+        List<CompanyTreeDto> companies,
+        String companiesTag,
+        long graphVersion,
+        Map<String, Map<UUID, List<String>>> permissions,
+        String permissionsTag,
+        long permissionsGeneration) {
+
+    public String etag() {
+        return "\"" + profileTag + "." + companiesTag + "." + permissionsTag + "\"";
+    }
+
+    /** True when an If-None-Match header value names this snapshot. */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = etag();
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = stripWeak(candidate.trim());
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public EmployeeInfoDto toEmployeeInfo() {
+        return new EmployeeInfoDto(profile.id(), profile.username(), profile.fullName(), profile.isActive(),
+                profile.lastCompanyId(), profile.lastStoreId(), companies, permissions);
+    }
+
+    /**
+     * Parts that differ from the snapshot the client's ETag describes. An
+     * unknown or malformed ETag gets every part.
+     */
+    public SessionDeltaDto deltaSince(String clientEtag) {
+        String[] tags = parseTags(clientEtag);
+        return new SessionDeltaDto(etag(),
+                profileTag.equals(tags[0]) ? null : profile,
+                companiesTag.equals(tags[1]) ? null : companies,
+                permissionsTag.equals(tags[2]) ? null : permissions);
+    }
+
+    private static String[] parseTags(String clientEtag) {
+        if (clientEtag == null) {
+            return new String[3];
+        }
+        String tag = stripWeak(clientEtag.trim());
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String[] parts = tag.substring(1, tag.length() - 1).split("\\.");
+            if (parts.length == 3) {
+                return parts;
+            }
+        }
+        return new String[3];
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,8 @@
+package es.terencio.erp.auth.application.port.out;
+
+import java.util.UUID;
+import es.terencio.erp.auth.domain.model.TargetAncestry;
+
+public interface OrganizationHierarchyPort {
+    TargetAncestry resolveAncestry(UUID targetId);
+}
@@ -0,0 +1,11 @@
+package es.terencio.erp.auth.application.port.out;
+
+import java.time.Instant;
+import java.util.List;
+
+import es.terencio.erp.auth.domain.model.EmployeeTokenState;
+
+public interface TokenRevocationPort {
+    List<EmployeeTokenState> findNonDefaultStates();
+    List<EmployeeTokenState> findStatesChangedSince(Instant since);
+}
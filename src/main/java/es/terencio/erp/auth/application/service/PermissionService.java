@@ -2,25 +2,90 @@ package es.terencio.erp.auth.application.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.stereotype.Service;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import es.terencio.erp.auth.application.port.out.OrganizationHierarchyPort;
 import es.terencio.erp.auth.application.port.out.PermissionPort;
 import es.terencio.erp.auth.domain.model.AccessScope;
+import es.terencio.erp.auth.domain.model.CompiledPermissions;
+import es.terencio.erp.auth.domain.model.Permission;
 
+/**
+ * Answers permission checks from per-employee compiled bitsets and the
+ * in-memory organization hierarchy, without I/O once warm. An employee's
+ * grants are loaded and compiled on first use; changes to grants or role
+ * permissions arrive as invalidations from every node (see
+ * {@code PermissionChangeNotificationListener}).
+ */
 @Service
 public class PermissionService {
 
+    private static final long MAX_CACHED_EMPLOYEES = 10_000;
+    // Safety net in case an invalidation is ever missed
+    private static final long PERMISSIONS_TTL_MINUTES = 10;
+
     private final PermissionPort permissionPort;
+    private final OrganizationHierarchyPort organizationHierarchy;
+
+    private final Cache<Long, CompiledPermissions> compiled = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_EMPLOYEES)
+            .expireAfterWrite(PERMISSIONS_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /** Bumped on every invalidation so a load racing with it is not cached. */
+    private final AtomicLong generation = new AtomicLong();
 
-    public PermissionService(PermissionPort permissionPort) {
+    public PermissionService(PermissionPort permissionPort, OrganizationHierarchyPort organizationHierarchy) {
         this.permissionPort = permissionPort;
+        this.organizationHierarchy = organizationHierarchy;
     }
 
     public boolean hasPermission(Long employeeId, String permissionCode, UUID targetId, AccessScope scope) {
-        return permissionPort.hasPermission(employeeId, permissionCode, targetId, scope);
+        Optional<Permission> permission = Permission.fromCode(permissionCode);
+        if (permission.isEmpty()) {
+            // Codes outside the enum cannot be compiled; ask the database
+            return permissionPort.hasPermission(employeeId, permissionCode, targetId, scope);
+        }
+        return permissionsOf(employeeId).allows(permission.get(), organizationHierarchy.resolveAncestry(targetId));
     }
 
     public Map<String, Map<UUID, List<String>>> getPermissionMatrix(Long employeeId) {
         return permissionPort.getPermissionMatrix(employeeId);
     }
+
+    /**
+     * Changes whenever any cached permissions are dropped; callers caching
+     * data derived from permissions compare it to detect staleness.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void invalidate(Long employeeId) {
+        generation.incrementAndGet();
+        compiled.invalidate(employeeId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        compiled.invalidateAll();
+    }
+
+    private CompiledPermissions permissionsOf(Long employeeId) {
+        CompiledPermissions cached = compiled.getIfPresent(employeeId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        CompiledPermissions fresh = CompiledPermissions.compile(permissionPort.getPermissionMatrix(employeeId));
+        if (generation.get() == loadGeneration) {
+            compiled.put(employeeId, fresh);
+        }
+        return fresh;
+    }
 }
@@ -0,0 +1,144 @@
+package es.terencio.erp.auth.application.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import es.terencio.erp.auth.application.dto.AuthDtos.SessionProfileDto;
+import es.terencio.erp.auth.application.dto.SessionSnapshot;
+import es.terencio.erp.employees.application.dto.EmployeeDto;
+import es.terencio.erp.employees.application.port.out.EmployeePort;
+import es.terencio.erp.organization.application.dto.OrganizationDtos.CompanyTreeDto;
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
+import es.terencio.erp.organization.application.port.in.OrganizationUseCase;
+import es.terencio.erp.shared.exception.ResourceNotFoundException;
+
+/**
+ * Per-employee session snapshots for {@code /api/v1/auth/me}.
+ * <p>
+ * The company tree is rebuilt when the organization graph version moves and
+ * the permission matrix when {@link PermissionService#generation()} moves;
+ * the profile part is dropped on profile or context changes (see
+ * {@code SessionChangeListener}). Only stale parts are rebuilt, and their
+ * fingerprints are computed once per rebuild rather than per request.
+ */
+@Service
+public class SessionSnapshotService {
+
+    private static final long MAX_CACHED_SESSIONS = 10_000;
+    // Safety net in case an invalidation is ever missed
+    private static final long SESSION_TTL_MINUTES = 10;
+
+    private final EmployeePort employeePort;
+    private final OrganizationUseCase organizationUseCase;
+    private final OrganizationGraphUseCase organizationGraph;
+    private final PermissionService permissionService;
+    // Sorted map keys so equal content always hashes the same
+    private final ObjectWriter fingerprintWriter;
+
+    private final Cache<Long, SessionSnapshot> sessions = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_SESSIONS)
+            .expireAfterWrite(SESSION_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /** Bumped on every invalidation so a load racing with it is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public SessionSnapshotService(EmployeePort employeePort, OrganizationUseCase organizationUseCase,
+            OrganizationGraphUseCase organizationGraph, PermissionService permissionService,
+            ObjectMapper objectMapper) {
+        this.employeePort = employeePort;
+        this.organizationUseCase = organizationUseCase;
+        this.organizationGraph = organizationGraph;
+        this.permissionService = permissionService;
+        this.fingerprintWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    public SessionSnapshot get(Long employeeId) {
+        long graphVersion = organizationGraph.current().version();
+        long permissionsGeneration = permissionService.generation();
+        SessionSnapshot cached = sessions.getIfPresent(employeeId);
+        if (cached != null && cached.graphVersion() == graphVersion
+                && cached.permissionsGeneration() == permissionsGeneration) {
+            return cached;
+        }
+
+        long loadGeneration = generation.get();
+        SessionProfileDto profile;
+        String profileTag;
+        if (cached != null) {
+            profile = cached.profile();
+            profileTag = cached.profileTag();
+        } else {
+            profile = loadProfile(employeeId);
+            profileTag = fingerprint(profile);
+        }
+
+        List<CompanyTreeDto> companies;
+        String companiesTag;
+        if (cached != null && cached.graphVersion() == graphVersion) {
+            companies = cached.companies();
+            companiesTag = cached.companiesTag();
+        } else {
+            companies = organizationUseCase.getTreeForEmployee(employeeId);
+            companiesTag = fingerprint(companies);
+        }
+
+        Map<String, Map<UUID, List<String>>> permissions;
+        String permissionsTag;
+        if (cached != null && cached.permissionsGeneration() == permissionsGeneration) {
+            permissions = cached.permissions();
+            permissionsTag = cached.permissionsTag();
+        } else {
+            permissions = permissionService.getPermissionMatrix(employeeId);
+            permissionsTag = fingerprint(permissions);
+        }
+
+        SessionSnapshot fresh = new SessionSnapshot(profile, profileTag, companies, companiesTag, graphVersion,
+                permissions, permissionsTag, permissionsGeneration);
+        if (generation.get() == loadGeneration) {
+            sessions.put(employeeId, fresh);
+        }
+        return fresh;
+    }
+
+    public void invalidate(Long employeeId) {
+        generation.incrementAndGet();
+        sessions.invalidate(employeeId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        sessions.invalidateAll();
+    }
+
+    private SessionProfileDto loadProfile(Long employeeId) {
+        EmployeeDto employee = employeePort.findById(employeeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
+        return new SessionProfileDto(employee.id(), employee.username(), employee.fullName(), employee.isActive(),
+                employee.lastActiveCompanyId(), employee.lastActiveStoreId());
+    }
+
+    private String fingerprint(Object part) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(fingerprintWriter.writeValueAsBytes(part));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint session part", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package es.terencio.erp.auth.domain.model;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An employee's grants compiled into one permission bitset per
+ * (scope, target), indexed by {@link Permission} ordinal. Immutable once
+ * built; a check is three map lookups and a bit test.
+ */
+public final class CompiledPermissions {
+
+    private final Map<UUID, BitSet> organizationGrants;
+    private final Map<UUID, BitSet> companyGrants;
+    private final Map<UUID, BitSet> storeGrants;
+
+    private CompiledPermissions(Map<UUID, BitSet> organizationGrants, Map<UUID, BitSet> companyGrants,
+            Map<UUID, BitSet> storeGrants) {
+        this.organizationGrants = organizationGrants;
+        this.companyGrants = companyGrants;
+        this.storeGrants = storeGrants;
+    }
+
+    /**
+     * @param matrix scope name → target → permission codes, as stored; codes
+     *               without a {@link Permission} constant are not checkable and
+     *               are dropped
+     */
+    public static CompiledPermissions compile(Map<String, Map<UUID, List<String>>> matrix) {
+        Map<AccessScope, Map<UUID, BitSet>> byScope = new HashMap<>();
+        for (AccessScope scope : AccessScope.values()) {
+            byScope.put(scope, new HashMap<>());
+        }
+
+        matrix.forEach((scopeName, targets) -> {
+            Map<UUID, BitSet> grants = byScope.get(AccessScope.valueOf(scopeName));
+            targets.forEach((targetId, codes) -> {
+                BitSet bits = grants.computeIfAbsent(targetId, k -> new BitSet(Permission.values().length));
+                for (String code : codes) {
+                    Permission.fromCode(code).ifPresent(p -> bits.set(p.ordinal()));
+                }
+            });
+        });
+
+        return new CompiledPermissions(
+                Map.copyOf(byScope.get(AccessScope.ORGANIZATION)),
+                Map.copyOf(byScope.get(AccessScope.COMPANY)),
+                Map.copyOf(byScope.get(AccessScope.STORE)));
+    }
+
+    public boolean allows(Permission permission, TargetAncestry target) {
+        int bit = permission.ordinal();
+        return test(storeGrants, target.targetId(), bit)
+                || test(companyGrants, target.companyId(), bit)
+                || test(organizationGrants, target.organizationId(), bit);
+    }
+
+    private static boolean test(Map<UUID, BitSet> grants, UUID targetId, int bit) {
+        if (targetId == null) {
+            return false;
+        }
+        BitSet bits = grants.get(targetId);
+        return bits != null && bits.get(bit);
+    }
+}
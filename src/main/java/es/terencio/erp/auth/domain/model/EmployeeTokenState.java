@@ -0,0 +1,17 @@
+package es.terencio.erp.auth.domain.model;
+
+/**
+ * What a JWT must match to still be honoured: tokens issued with an older
+ * version, or for an inactive employee, are rejected.
+ */
+public record EmployeeTokenState(Long employeeId, int tokenVersion, boolean active) {
+
+    public boolean accepts(int tokenVersionClaim) {
+        return active && tokenVersionClaim >= tokenVersion;
+    }
+
+    /** Employees in this state accept every token and need no entry in memory. */
+    public boolean isDefault() {
+        return active && tokenVersion == 0;
+    }
+}
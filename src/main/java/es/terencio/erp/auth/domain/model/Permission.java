@@ -1,5 +1,11 @@
 package es.terencio.erp.auth.domain.model;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public enum Permission {
     // ── Organization / Store management ────────────────────────────────────────
     ORGANIZATION_STORE_VIEW("organization:store:view"),
@@ -63,12 +69,19 @@ public enum Permission {
     // ── Admin ───────────────────────────────────────────────────────────────────
     ADMIN_FULL_ACCESS("admin:full_access");
 
+    private static final Map<String, Permission> BY_CODE = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Permission::getCode, Function.identity()));
+
     private final String code;
 
     Permission(String code) {
         this.code = code;
     }
 
+    public static Optional<Permission> fromCode(String code) {
+        return Optional.ofNullable(BY_CODE.get(code));
+    }
+
     public String getCode() {
         return code;
     }
@@ -0,0 +1,15 @@
+package es.terencio.erp.auth.domain.model;
+
+import java.util.UUID;
+
+/**
+ * A permission target together with the company and organization whose
+ * grants also cover it. For a store these are its parents; for a company the
+ * company itself and its organization; for anything else the target itself.
+ */
+public record TargetAncestry(UUID targetId, UUID companyId, UUID organizationId) {
+
+    public static TargetAncestry unresolved(UUID targetId) {
+        return new TargetAncestry(targetId, targetId, targetId);
+    }
+}
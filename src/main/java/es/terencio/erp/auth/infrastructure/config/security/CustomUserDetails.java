@@ -12,18 +12,26 @@ public class CustomUserDetails implements UserDetails {
     private final String fullName;
     @JsonIgnore
     private final String password;
+    @JsonIgnore
+    private final int tokenVersion;
 
     public CustomUserDetails(Long id, UUID uuid, String username, String fullName, String password) {
+        this(id, uuid, username, fullName, password, 0);
+    }
+
+    public CustomUserDetails(Long id, UUID uuid, String username, String fullName, String password, int tokenVersion) {
         this.id = id;
         this.uuid = uuid;
         this.username = username;
         this.fullName = fullName;
         this.password = password;
+        this.tokenVersion = tokenVersion;
     }
 
     public Long getId() { return id; }
     public UUID getUuid() { return uuid; }
     public String getFullName() { return fullName; }
+    public int getTokenVersion() { return tokenVersion; }
 
     @Override public String getPassword() { return password; }
     @Override public String getUsername() { return username; }
@@ -3,12 +3,13 @@ package es.terencio.erp.auth.infrastructure.config.security;
 import java.util.UUID;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final JdbcClient jdbcClient;
 
@@ -18,7 +19,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        String sql = "SELECT id, uuid, username, full_name, password_hash FROM employees WHERE username = :username AND is_active = TRUE";
+        String sql = "SELECT id, uuid, username, full_name, password_hash, token_version FROM employees WHERE username = :username AND is_active = TRUE";
 
         return jdbcClient.sql(sql)
                 .param("username", username)
@@ -27,8 +28,25 @@ public class CustomUserDetailsService implements UserDetailsService {
                         rs.getObject("uuid", UUID.class),
                         rs.getString("username"),
                         rs.getString("full_name"),
-                        rs.getString("password_hash")))
+                        rs.getString("password_hash"),
+                        rs.getInt("token_version")))
                 .optional()
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose
+     * hash is below the configured BCrypt cost. Same password, so the token
+     * version is left alone.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        CustomUserDetails details = (CustomUserDetails) user;
+        jdbcClient.sql("UPDATE employees SET password_hash = :passwordHash WHERE id = :id")
+                .param("passwordHash", newPassword)
+                .param("id", details.getId())
+                .update();
+        return new CustomUserDetails(details.getId(), details.getUuid(), details.getUsername(), details.getFullName(),
+                newPassword, details.getTokenVersion());
+    }
 }
@@ -18,9 +18,11 @@ import es.terencio.erp.auth.infrastructure.config.security.CustomUserDetails;
 public class GranularSecurityAspect {
 
     private final PermissionService permissionService;
+    private final TargetIdExtractors targetIdExtractors;
 
-    public GranularSecurityAspect(PermissionService permissionService) {
+    public GranularSecurityAspect(PermissionService permissionService, TargetIdExtractors targetIdExtractors) {
         this.permissionService = permissionService;
+        this.targetIdExtractors = targetIdExtractors;
     }
 
     @Before("@annotation(requiresPermission)")
@@ -42,42 +44,13 @@ public class GranularSecurityAspect {
     }
 
     private UUID extractTargetId(JoinPoint joinPoint, String paramName) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String[] paramNames = signature.getParameterNames();
-        Object[] args = joinPoint.getArgs();
-
-        for (int i = 0; i < paramNames.length; i++) {
-            if (paramNames[i].equals(paramName)) {
-                if (args[i] instanceof UUID uuid) return uuid;
-                if (args[i] instanceof String s) return UUID.fromString(s);
-            }
-        }
-
-        for (Object arg : args) {
-            if (arg == null) continue;
-            String pkg = arg.getClass().getPackageName();
-            if (pkg.startsWith("java.") || pkg.startsWith("javax.") || pkg.startsWith("org.springframework.")) continue;
-            UUID found = tryExtractFromObject(arg, paramName);
-            if (found != null) return found;
-        }
-        return null;
-    }
-
-    private UUID tryExtractFromObject(Object obj, String paramName) {
-        Class<?> clazz = obj.getClass();
-        try {
-            Method accessor = clazz.getMethod(paramName);
-            Object value = accessor.invoke(obj);
-            if (value instanceof UUID uuid) return uuid;
-        } catch (Exception ignored) {}
-
-        String getterName = "get" + Character.toUpperCase(paramName.charAt(0)) + paramName.substring(1);
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
         try {
-            Method getter = clazz.getMethod(getterName);
-            Object value = getter.invoke(obj);
-            if (value instanceof UUID uuid) return uuid;
-        } catch (Exception ignored) {}
-
-        return null;
+            return targetIdExtractors.forMethod(method, paramName).extract(joinPoint.getArgs());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Target ID extraction failed for " + method, e);
+        }
     }
 }
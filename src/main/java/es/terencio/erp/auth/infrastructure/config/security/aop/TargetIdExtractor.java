@@ -0,0 +1,13 @@
+package es.terencio.erp.auth.infrastructure.config.security.aop;
+
+import java.util.UUID;
+
+/**
+ * Pulls the permission target id out of the arguments of one
+ * {@link RequiresPermission} method. Returns {@code null} when the value is
+ * missing at runtime (e.g. a null request body).
+ */
+@FunctionalInterface
+interface TargetIdExtractor {
+    UUID extract(Object[] args) throws Throwable;
+}
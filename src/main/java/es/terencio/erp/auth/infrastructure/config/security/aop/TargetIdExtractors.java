@@ -0,0 +1,116 @@
+package es.terencio.erp.auth.infrastructure.config.security.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Resolves, once per method, where the {@link RequiresPermission} target id
+ * lives: a named UUID/String argument, or a UUID accessor on a request body
+ * (record component or getter), called through a {@link MethodHandle}.
+ * <p>
+ * Every bean is scanned as it is created, so a {@code targetIdParam} that
+ * matches nothing fails application startup instead of the first request.
+ */
+@Component
+public class TargetIdExtractors implements BeanPostProcessor {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(UUID.class, Object.class);
+
+    private final Map<Method, TargetIdExtractor> extractors = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> type = ClassUtils.getUserClass(bean);
+        Map<Method, RequiresPermission> secured = MethodIntrospector.selectMethods(type,
+                (MethodIntrospector.MetadataLookup<RequiresPermission>) m -> m.getAnnotation(RequiresPermission.class));
+        try {
+            secured.forEach((method, annotation) -> extractors.put(method, resolve(method, annotation.targetIdParam())));
+        } catch (IllegalStateException e) {
+            throw new BeanInitializationException("Invalid @RequiresPermission on bean '" + beanName + "'", e);
+        }
+        return bean;
+    }
+
+    TargetIdExtractor forMethod(Method method, String paramName) {
+        TargetIdExtractor extractor = extractors.get(method);
+        if (extractor != null) return extractor;
+        // Methods on objects that are not beans (or seen through another declaring class)
+        return extractors.computeIfAbsent(method, m -> resolve(m, paramName));
+    }
+
+    private static TargetIdExtractor resolve(Method method, String paramName) {
+        Parameter[] parameters = method.getParameters();
+
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].getName().equals(paramName)) continue;
+            int index = i;
+            Class<?> type = parameters[i].getType();
+            if (type == UUID.class) return args -> (UUID) args[index];
+            if (type == String.class) return args -> args[index] == null ? null : UUID.fromString((String) args[index]);
+            throw unresolved(method, paramName, "argument is " + type.getSimpleName() + ", expected UUID or String");
+        }
+
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            if (type.isPrimitive() || isFrameworkType(type)) continue;
+            Method accessor = findUuidAccessor(type, paramName);
+            if (accessor == null) continue;
+            int index = i;
+            MethodHandle handle = toHandle(accessor);
+            return args -> args[index] == null ? null : (UUID) handle.invokeExact(args[index]);
+        }
+
+        throw unresolved(method, paramName, "no such UUID argument or request body accessor");
+    }
+
+    private static boolean isFrameworkType(Class<?> type) {
+        String pkg = type.getPackageName();
+        return pkg.startsWith("java.") || pkg.startsWith("javax.") || pkg.startsWith("jakarta.") || pkg.startsWith("org.springframework.");
+    }
+
+    private static Method findUuidAccessor(Class<?> type, String name) {
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                if (component.getName().equals(name) && component.getType() == UUID.class) return component.getAccessor();
+            }
+            return null;
+        }
+        String getterName = "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[] { name, getterName }) {
+            try {
+                Method m = type.getMethod(candidate);
+                if (m.getReturnType() == UUID.class && !Modifier.isStatic(m.getModifiers())) return m;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle toHandle(Method accessor) {
+        try {
+            accessor.setAccessible(true);
+            return MethodHandles.lookup().unreflect(accessor).asType(ACCESSOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Cannot access " + accessor, e);
+        }
+    }
+
+    private static IllegalStateException unresolved(Method method, String paramName, String reason) {
+        return new IllegalStateException(String.format("Cannot resolve targetIdParam '%s' on %s.%s: %s",
+                paramName, method.getDeclaringClass().getSimpleName(), method.getName(), reason));
+    }
+}
@@ -1,72 +1,146 @@
 package es.terencio.erp.auth.infrastructure.config.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import es.terencio.erp.auth.infrastructure.config.security.CustomUserDetails;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtTokenProvider {
 
+    // Principal claims, so authenticated requests need no employee lookup
+    private static final String CLAIM_EMPLOYEE_ID = "employeeId";
+    private static final String CLAIM_EMPLOYEE_UUID = "employeeUuid";
+    private static final String CLAIM_FULL_NAME = "fullName";
+    private static final String CLAIM_TOKEN_VERSION = "tokenVersion";
+
     @Value("${app.jwt.access.secret}") private String accessSecret;
     @Value("${app.jwt.access.expiration-ms}") private long accessExpirationMs;
     @Value("${app.jwt.refresh.secret}") private String refreshSecret;
     @Value("${app.jwt.refresh.expiration-ms}") private long refreshExpirationMs;
+    @Value("${app.jwt.access.verified-cache-size:10000}") private long verifiedCacheSize;
 
-    private SecretKey getSignInKey(String secret) {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-    }
+    // Keys and parsers are immutable and thread-safe; built once
+    private SecretKey accessKey;
+    private SecretKey refreshKey;
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
 
-    public String generateAccessToken(Authentication authentication) {
-        return buildToken((CustomUserDetails) authentication.getPrincipal(), accessExpirationMs, getSignInKey(accessSecret));
+    /**
+     * Access tokens that already passed signature verification, keyed by
+     * SHA-256 of the token. A hit skips HMAC verification and JSON parsing.
+     */
+    private Cache<String, VerifiedToken> verifiedAccessTokens;
+
+    private record VerifiedToken(CustomUserDetails principal, Instant expiresAt) {
     }
 
-    public String getUsernameFromAccessToken(String token) {
-        return getUsernameFromToken(token, getSignInKey(accessSecret));
+    @PostConstruct
+    void init() {
+        accessKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(accessSecret));
+        refreshKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshSecret));
+        accessParser = Jwts.parser().verifyWith(accessKey).build();
+        refreshParser = Jwts.parser().verifyWith(refreshKey).build();
+        // No entry can outlive the longest-lived access token; exp is also checked on every hit
+        verifiedAccessTokens = CacheBuilder.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(accessExpirationMs, TimeUnit.MILLISECONDS)
+                .build();
     }
 
-    public boolean validateAccessToken(String token) {
-        return validateToken(token, getSignInKey(accessSecret));
+    public String generateAccessToken(Authentication authentication) {
+        return buildToken((CustomUserDetails) authentication.getPrincipal(), accessExpirationMs, accessKey);
     }
 
-    public String generateRefreshToken(Authentication authentication) {
-        return buildToken((CustomUserDetails) authentication.getPrincipal(), refreshExpirationMs, getSignInKey(refreshSecret));
+    /**
+     * Verifies the token and rebuilds the principal from its claims. Tokens
+     * issued before the principal claims existed yield a principal without id.
+     */
+    public Optional<CustomUserDetails> getPrincipalFromAccessToken(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedAccessTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (Instant.now().isBefore(cached.expiresAt())) {
+                return Optional.of(cached.principal());
+            }
+            verifiedAccessTokens.invalidate(digest);
+            return Optional.empty();
+        }
+
+        Optional<Claims> claims = parse(token, accessParser);
+        claims.filter(c -> c.getExpiration() != null).ifPresent(c -> verifiedAccessTokens.put(digest,
+                new VerifiedToken(toPrincipal(c), c.getExpiration().toInstant())));
+        return claims.map(this::toPrincipal);
     }
 
-    public String getUsernameFromRefreshToken(String token) {
-        return getUsernameFromToken(token, getSignInKey(refreshSecret));
+    public String generateRefreshToken(Authentication authentication) {
+        return buildToken((CustomUserDetails) authentication.getPrincipal(), refreshExpirationMs, refreshKey);
     }
 
-    public boolean validateRefreshToken(String token) {
-        return validateToken(token, getSignInKey(refreshSecret));
+    public Optional<CustomUserDetails> getPrincipalFromRefreshToken(String token) {
+        return parse(token, refreshParser).map(this::toPrincipal);
     }
 
     private String buildToken(CustomUserDetails userPrincipal, long expiration, SecretKey key) {
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
                 .claim("role", userPrincipal.getAuthorities().toString())
+                .claim(CLAIM_EMPLOYEE_ID, userPrincipal.getId())
+                .claim(CLAIM_EMPLOYEE_UUID, userPrincipal.getUuid() != null ? userPrincipal.getUuid().toString() : null)
+                .claim(CLAIM_FULL_NAME, userPrincipal.getFullName())
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + expiration))
                 .signWith(key)
                 .compact();
     }
 
-    private String getUsernameFromToken(String token, SecretKey key) {
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    private Optional<Claims> parse(String token, JwtParser parser) {
+        try {
+            return Optional.of(parser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    private boolean validateToken(String token, SecretKey key) {
+    private CustomUserDetails toPrincipal(Claims claims) {
+        Number id = claims.get(CLAIM_EMPLOYEE_ID, Number.class);
+        String uuid = claims.get(CLAIM_EMPLOYEE_UUID, String.class);
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new CustomUserDetails(
+                id != null ? id.longValue() : null,
+                uuid != null ? UUID.fromString(uuid) : null,
+                claims.getSubject(),
+                claims.get(CLAIM_FULL_NAME, String.class),
+                null,
+                version != null ? version.intValue() : 0);
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
@@ -0,0 +1,87 @@
+package es.terencio.erp.auth.infrastructure.config.security.jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import es.terencio.erp.auth.application.port.out.TokenRevocationPort;
+import es.terencio.erp.auth.domain.model.EmployeeTokenState;
+
+/**
+ * In-memory view of the employees whose tokens are not all valid (inactive,
+ * deleted or with a bumped token version). Everyone else is absent, so the
+ * set stays small and checking a token is a single map lookup.
+ * <p>
+ * Refreshed in the background from {@code employees.updated_at}; a
+ * deactivation takes effect on every node within one refresh interval.
+ */
+@Component
+public class TokenRevocationRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    // updated_at is the transaction start time, so re-read a margin to catch slow commits
+    private static final Duration COMMIT_SKEW = Duration.ofMinutes(1);
+
+    private final TokenRevocationPort revocationPort;
+
+    private volatile Map<Long, EmployeeTokenState> revoked;
+    private Instant lastRefresh;
+
+    public TokenRevocationRegistry(TokenRevocationPort revocationPort) {
+        this.revocationPort = revocationPort;
+    }
+
+    public boolean accepts(Long employeeId, int tokenVersion) {
+        Map<Long, EmployeeTokenState> current = revoked;
+        if (current == null) {
+            current = reload();
+        }
+        EmployeeTokenState state = current.get(employeeId);
+        return state == null || state.accepts(tokenVersion);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-ms:5000}")
+    public synchronized void refresh() {
+        if (revoked == null) {
+            reload();
+            return;
+        }
+        try {
+            Instant startedAt = Instant.now();
+            var changed = revocationPort.findStatesChangedSince(lastRefresh.minus(COMMIT_SKEW));
+            if (!changed.isEmpty()) {
+                Map<Long, EmployeeTokenState> next = new HashMap<>(revoked);
+                for (EmployeeTokenState state : changed) {
+                    if (state.isDefault()) {
+                        next.remove(state.employeeId());
+                    } else {
+                        next.put(state.employeeId(), state);
+                    }
+                }
+                revoked = Map.copyOf(next);
+            }
+            lastRefresh = startedAt;
+        } catch (Exception e) {
+            log.error("Failed to refresh token revocation list; keeping the previous one", e);
+        }
+    }
+
+    private synchronized Map<Long, EmployeeTokenState> reload() {
+        if (revoked != null) {
+            return revoked;
+        }
+        Instant startedAt = Instant.now();
+        Map<Long, EmployeeTokenState> loaded = new HashMap<>();
+        for (EmployeeTokenState state : revocationPort.findNonDefaultStates()) {
+            loaded.put(state.employeeId(), state);
+        }
+        lastRefresh = startedAt;
+        revoked = Map.copyOf(loaded);
+        log.info("Token revocation list loaded with {} employees", loaded.size());
+        return revoked;
+    }
+}
@@ -0,0 +1,48 @@
+package es.terencio.erp.auth.infrastructure.in.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import es.terencio.erp.auth.application.service.PermissionService;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener.NotificationHandler;
+
+/**
+ * Drops compiled permissions when grants or role permissions change on any
+ * node. The notifications come from the triggers on employee_access_grants
+ * (payload: employee id) and role_permissions (payload: '*').
+ */
+@Component
+public class PermissionChangeNotificationListener implements NotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(PermissionChangeNotificationListener.class);
+
+    static final String CHANNEL = "permissions_changed";
+    private static final String ALL = "*";
+
+    private final PermissionService permissionService;
+
+    public PermissionChangeNotificationListener(PermissionService permissionService,
+            PostgresNotificationListener notificationListener) {
+        this.permissionService = permissionService;
+        notificationListener.subscribe(CHANNEL, this);
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        if (payload == null || ALL.equals(payload)) {
+            permissionService.invalidateAll();
+            return;
+        }
+        try {
+            permissionService.invalidate(Long.parseLong(payload));
+        } catch (NumberFormatException e) {
+            log.warn("Unexpected {} payload '{}', invalidating all permissions", CHANNEL, payload);
+            permissionService.invalidateAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        permissionService.invalidateAll();
+    }
+}
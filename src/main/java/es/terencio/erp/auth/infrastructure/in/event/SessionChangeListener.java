@@ -0,0 +1,50 @@
+package es.terencio.erp.auth.infrastructure.in.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import es.terencio.erp.auth.application.service.SessionSnapshotService;
+import es.terencio.erp.shared.domain.event.EmployeeSessionChangedEvent;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener.NotificationHandler;
+
+/**
+ * Drops cached session snapshots when an employee's profile or active
+ * context changes: right after commit on the node that made the change, and
+ * on every node through the employees trigger (payload: employee id).
+ */
+@Component
+public class SessionChangeListener implements NotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(SessionChangeListener.class);
+
+    static final String CHANNEL = "employee_session_changed";
+
+    private final SessionSnapshotService sessionSnapshotService;
+
+    public SessionChangeListener(SessionSnapshotService sessionSnapshotService,
+            PostgresNotificationListener notificationListener) {
+        this.sessionSnapshotService = sessionSnapshotService;
+        notificationListener.subscribe(CHANNEL, this);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChanged(EmployeeSessionChangedEvent event) {
+        sessionSnapshotService.invalidate(event.employeeId());
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        try {
+            sessionSnapshotService.invalidate(Long.parseLong(payload));
+        } catch (NumberFormatException e) {
+            log.warn("Unexpected {} payload '{}', invalidating all sessions", CHANNEL, payload);
+            sessionSnapshotService.invalidateAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        sessionSnapshotService.invalidateAll();
+    }
+}
@@ -1,7 +1,9 @@
 package es.terencio.erp.auth.infrastructure.in.web;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,18 +17,18 @@ import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import es.terencio.erp.auth.application.dto.AuthDtos.EmployeeInfoDto;
 import es.terencio.erp.auth.application.dto.AuthDtos.LoginRequest;
 import es.terencio.erp.auth.application.dto.AuthDtos.LoginResponse;
-import es.terencio.erp.auth.application.service.PermissionService;
+import es.terencio.erp.auth.application.dto.AuthDtos.SessionDeltaDto;
+import es.terencio.erp.auth.application.dto.SessionSnapshot;
+import es.terencio.erp.auth.application.service.SessionSnapshotService;
 import es.terencio.erp.auth.infrastructure.config.security.CustomUserDetails;
 import es.terencio.erp.auth.infrastructure.config.security.jwt.JwtTokenProvider;
-import es.terencio.erp.employees.application.dto.EmployeeDto;
-import es.terencio.erp.employees.application.port.out.EmployeePort;
-import es.terencio.erp.organization.application.port.in.OrganizationUseCase;
 import es.terencio.erp.shared.presentation.ApiError;
 import es.terencio.erp.shared.presentation.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -42,9 +44,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
-    private final OrganizationUseCase organizationUseCase;
-    private final EmployeePort employeePort;
-    private final PermissionService permissionService;
+    private final SessionSnapshotService sessionSnapshotService;
 
     @Value("${app.jwt.access.cookie.name}")
     private String accessCookieName;
@@ -73,14 +73,11 @@ public class AuthController {
     private long refreshExpirationMs;
 
     public AuthController(AuthenticationManager authenticationManager, JwtTokenProvider tokenProvider,
-            UserDetailsService userDetailsService, OrganizationUseCase organizationUseCase,
-            EmployeePort employeePort, PermissionService permissionService) {
+            UserDetailsService userDetailsService, SessionSnapshotService sessionSnapshotService) {
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
-        this.organizationUseCase = organizationUseCase;
-        this.employeePort = employeePort;
-        this.permissionService = permissionService;
+        this.sessionSnapshotService = sessionSnapshotService;
     }
 
     @PostMapping("/login")
@@ -109,11 +106,15 @@ public class AuthController {
     @Operation(summary = "Refresh access token")
     public ResponseEntity<?> refresh(
             @CookieValue(name = "${app.jwt.refresh.cookie.name}", required = false) String refreshToken) {
-        if (refreshToken != null && tokenProvider.validateRefreshToken(refreshToken)) {
-            String username = tokenProvider.getUsernameFromRefreshToken(refreshToken);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (!userDetails.isEnabled()) {
+        CustomUserDetails claimed = refreshToken != null
+                ? tokenProvider.getPrincipalFromRefreshToken(refreshToken).orElse(null)
+                : null;
+        if (claimed != null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claimed.getUsername());
+
+            // Refresh tokens from before a deactivation or password change are dead
+            if (!userDetails.isEnabled() || (userDetails instanceof CustomUserDetails current
+                    && claimed.getTokenVersion() < current.getTokenVersion())) {
                 return ResponseEntity.status(401).body(ApiResponse.error("User disabled",
                         new ApiError("ACCOUNT_DISABLED", "User account is disabled", null)));
             }
@@ -148,21 +149,46 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    @Operation(summary = "Get current user")
+    @Operation(summary = "Get current user", description = "Returns 304 when If-None-Match carries the current ETag")
     public ResponseEntity<ApiResponse<EmployeeInfoDto>> getCurrentUser(
-            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails) {
+            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (userDetails == null)
             return ResponseEntity.status(401).build();
 
-        EmployeeDto employee = employeePort.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-        EmployeeInfoDto userInfo = new EmployeeInfoDto(
-                userDetails.getId(), userDetails.getUsername(), userDetails.getFullName(), userDetails.isEnabled(),
-                employee.lastActiveCompanyId(), employee.lastActiveStoreId(),
-                organizationUseCase.getTreeForEmployee(userDetails.getId()),
-                permissionService.getPermissionMatrix(userDetails.getId()));
+        SessionSnapshot snapshot = sessionSnapshotService.get(userDetails.getId());
+        if (snapshot.matches(ifNoneMatch)) {
+            return notModified(snapshot);
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.success("User info fetched successfully", snapshot.toEmployeeInfo()));
+    }
+
+    @GetMapping("/me/delta")
+    @Operation(summary = "Get changed parts of the current user", description = "Send the last ETag in If-None-Match; only parts that changed are returned, the rest are null")
+    public ResponseEntity<ApiResponse<SessionDeltaDto>> getCurrentUserDelta(
+            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (userDetails == null)
+            return ResponseEntity.status(401).build();
+
+        SessionSnapshot snapshot = sessionSnapshotService.get(userDetails.getId());
+        if (snapshot.matches(ifNoneMatch)) {
+            return notModified(snapshot);
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.success("User info changes fetched successfully", snapshot.deltaSince(ifNoneMatch)));
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("User info fetched successfully", userInfo));
+    private <T> ResponseEntity<T> notModified(SessionSnapshot snapshot) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
     }
 
     private ResponseCookie createCookie(String name, String value, String path, long maxAge, boolean httpOnly,
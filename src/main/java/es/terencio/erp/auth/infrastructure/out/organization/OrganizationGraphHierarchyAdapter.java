@@ -0,0 +1,35 @@
+package es.terencio.erp.auth.infrastructure.out.organization;
+
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import es.terencio.erp.auth.application.port.out.OrganizationHierarchyPort;
+import es.terencio.erp.auth.domain.model.TargetAncestry;
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
+import es.terencio.erp.organization.domain.model.OrganizationGraph;
+import es.terencio.erp.organization.domain.model.OrganizationGraph.NodeType;
+
+/**
+ * Resolves permission scope ancestry from the in-memory organization graph.
+ * Unknown targets resolve to themselves, as the SQL check did.
+ */
+@Component
+public class OrganizationGraphHierarchyAdapter implements OrganizationHierarchyPort {
+
+    private final OrganizationGraphUseCase organizationGraph;
+
+    public OrganizationGraphHierarchyAdapter(OrganizationGraphUseCase organizationGraph) {
+        this.organizationGraph = organizationGraph;
+    }
+
+    @Override
+    public TargetAncestry resolveAncestry(UUID targetId) {
+        OrganizationGraph graph = organizationGraph.currentContaining(targetId);
+        if (!graph.contains(targetId)) {
+            return TargetAncestry.unresolved(targetId);
+        }
+        return new TargetAncestry(
+                targetId,
+                graph.ancestorOfType(targetId, NodeType.COMPANY).orElse(targetId),
+                graph.ancestorOfType(targetId, NodeType.ORGANIZATION).orElse(targetId));
+    }
+}
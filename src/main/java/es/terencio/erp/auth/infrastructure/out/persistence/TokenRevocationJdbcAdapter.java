@@ -0,0 +1,44 @@
+package es.terencio.erp.auth.infrastructure.out.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import es.terencio.erp.auth.application.port.out.TokenRevocationPort;
+import es.terencio.erp.auth.domain.model.EmployeeTokenState;
+
+@Repository
+public class TokenRevocationJdbcAdapter implements TokenRevocationPort {
+
+    private static final String STATE_COLUMNS =
+            "id, token_version, (COALESCE(is_active, FALSE) AND deleted_at IS NULL) AS active";
+
+    private final JdbcClient jdbcClient;
+
+    public TokenRevocationJdbcAdapter(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public List<EmployeeTokenState> findNonDefaultStates() {
+        return jdbcClient.sql("SELECT " + STATE_COLUMNS + " FROM employees "
+                + "WHERE token_version > 0 OR is_active IS NOT TRUE OR deleted_at IS NOT NULL")
+                .query(this::mapState)
+                .list();
+    }
+
+    @Override
+    public List<EmployeeTokenState> findStatesChangedSince(Instant since) {
+        return jdbcClient.sql("SELECT " + STATE_COLUMNS + " FROM employees WHERE updated_at >= :since")
+                .param("since", Timestamp.from(since))
+                .query(this::mapState)
+                .list();
+    }
+
+    private EmployeeTokenState mapState(ResultSet rs, int rowNum) throws SQLException {
+        return new EmployeeTokenState(rs.getLong("id"), rs.getInt("token_version"), rs.getBoolean("active"));
+    }
+}
@@ -0,0 +1,20 @@
+package es.terencio.erp.catalog.application.port.in;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import es.terencio.erp.catalog.domain.model.PricingResult;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+
+public interface ResolveEffectivePriceUseCase {
+    Optional<PricingResult> resolve(StoreId storeId, UUID customerId, ProductId productId);
+
+    /**
+     * Prices of a whole basket sold at the store, to the customer if given.
+     * Products without a price are left out.
+     */
+    Map<ProductId, PricingResult> resolveAll(StoreId storeId, UUID customerId, Collection<ProductId> productIds);
+}
@@ -0,0 +1,12 @@
+package es.terencio.erp.catalog.application.port.out;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import es.terencio.erp.catalog.domain.model.PriceSnapshot;
+
+public interface PriceCatalogPort {
+    /** Active tariffs, their prices and the store default tariffs of the company; empty if it does not exist. */
+    Optional<PriceSnapshot> loadSnapshot(UUID companyId);
+    Optional<Long> findCustomerTariffId(UUID companyId, UUID customerId);
+}
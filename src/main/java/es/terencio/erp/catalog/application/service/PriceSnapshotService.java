@@ -0,0 +1,143 @@
+package es.terencio.erp.catalog.application.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.terencio.erp.catalog.application.port.in.ResolveEffectivePriceUseCase;
+import es.terencio.erp.catalog.application.port.out.PriceCatalogPort;
+import es.terencio.erp.catalog.domain.model.PriceSnapshot;
+import es.terencio.erp.catalog.domain.model.PricingResult;
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
+import es.terencio.erp.organization.domain.model.OrganizationGraph.NodeType;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Resolves prices in memory from a {@link PriceSnapshot} per company.
+ * <p>
+ * A company's snapshot is loaded on first use; concurrent first callers
+ * share the same load. When its prices change on any node (see
+ * {@code PriceChangeNotificationListener}) a fresh snapshot is built in the
+ * background and swapped in, and callers keep using the previous one
+ * meanwhile. Reloads run one at a time in notification order, so the last
+ * one always reads the latest prices. Only the customer's tariff is read
+ * from the database, once per basket.
+ */
+@Service
+public class PriceSnapshotService implements ResolveEffectivePriceUseCase {
+    private static final Logger log = LoggerFactory.getLogger(PriceSnapshotService.class);
+
+    private final PriceCatalogPort priceCatalogPort;
+    private final OrganizationGraphUseCase organizationGraph;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final Map<UUID, CompletableFuture<Optional<PriceSnapshot>>> snapshots = new ConcurrentHashMap<>();
+    private final Set<UUID> queuedReloads = ConcurrentHashMap.newKeySet();
+    private final ExecutorService reloads = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("price-snapshot-reload").factory());
+
+    public PriceSnapshotService(PriceCatalogPort priceCatalogPort, OrganizationGraphUseCase organizationGraph,
+            PlatformTransactionManager transactionManager) {
+        this.priceCatalogPort = priceCatalogPort;
+        this.organizationGraph = organizationGraph;
+        // Tariffs, prices and store defaults read as of the same instant
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public Optional<PricingResult> resolve(StoreId storeId, UUID customerId, ProductId productId) {
+        return Optional.ofNullable(resolveAll(storeId, customerId, List.of(productId)).get(productId));
+    }
+
+    @Override
+    public Map<ProductId, PricingResult> resolveAll(StoreId storeId, UUID customerId,
+            Collection<ProductId> productIds) {
+        UUID store = storeId.value();
+        UUID companyId = organizationGraph.currentContaining(store).ancestorOfType(store, NodeType.COMPANY)
+                .orElseThrow(() -> new ResourceNotFoundException("Store not found"));
+        PriceSnapshot snapshot = snapshotOf(companyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Company not found"));
+        Long customerTariffId = customerId != null
+                ? priceCatalogPort.findCustomerTariffId(companyId, customerId).orElse(null)
+                : null;
+        return snapshot.resolveAll(productIds, store, customerTariffId);
+    }
+
+    /** Prices of the company changed; rebuilds its snapshot if this node holds one. */
+    public void companyChanged(UUID companyId) {
+        if (!snapshots.containsKey(companyId) || !queuedReloads.add(companyId)) {
+            return;
+        }
+        reloads.execute(() -> {
+            // Changes arriving from here on queue another reload
+            queuedReloads.remove(companyId);
+            try {
+                Optional<PriceSnapshot> fresh = load(companyId);
+                snapshots.put(companyId, CompletableFuture.completedFuture(fresh));
+                log.debug("Price snapshot of company {} reloaded", companyId);
+            } catch (RuntimeException e) {
+                log.warn("Could not reload the price snapshot of company {}, loading it on next use", companyId, e);
+                snapshots.remove(companyId);
+            }
+        });
+    }
+
+    /** Changes may have been missed; every snapshot is loaded again on next use. */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloads.shutdownNow();
+    }
+
+    private Optional<PriceSnapshot> snapshotOf(UUID companyId) {
+        CompletableFuture<Optional<PriceSnapshot>> snapshot = snapshots.get(companyId);
+        if (snapshot == null) {
+            CompletableFuture<Optional<PriceSnapshot>> loading = new CompletableFuture<>();
+            snapshot = snapshots.putIfAbsent(companyId, loading);
+            if (snapshot == null) {
+                snapshot = loading;
+                try {
+                    loading.complete(load(companyId));
+                } catch (RuntimeException e) {
+                    snapshots.remove(companyId, loading);
+                    loading.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return snapshot.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Optional<PriceSnapshot> load(UUID companyId) {
+        Optional<PriceSnapshot> snapshot = snapshotTransaction.execute(status -> priceCatalogPort.loadSnapshot(companyId));
+        snapshot.ifPresent(loaded -> log.info("Price snapshot of company {} loaded with {} prices",
+                companyId, loaded.priceCount()));
+        return snapshot;
+    }
+}
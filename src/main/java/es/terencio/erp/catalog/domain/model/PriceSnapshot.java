@@ -0,0 +1,174 @@
+package es.terencio.erp.catalog.domain.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+/**
+ * Immutable snapshot of a company's active tariffs and their prices.
+ * <p>
+ * A product's price is taken from the first tariff that has one: the
+ * customer's tariff, then the store's default tariff, then the company's
+ * base (default) tariff. Tariffs are found by binary search over their ids
+ * and prices in a primitive hash table per tariff, so resolving a basket
+ * only allocates its results. A new snapshot replaces the old one whenever
+ * prices change.
+ */
+public final class PriceSnapshot {
+
+    private static final long NO_TARIFF = -1;
+
+    private final UUID companyId;
+    private final Currency currency;
+    private final long baseTariffId;
+    private final long[] tariffIds;
+    private final TariffPriceTable[] tables;
+    private final Map<UUID, Long> storeDefaultTariffs;
+    private final Instant loadedAt;
+
+    private PriceSnapshot(UUID companyId, Currency currency, long baseTariffId, long[] tariffIds,
+            TariffPriceTable[] tables, Map<UUID, Long> storeDefaultTariffs) {
+        this.companyId = companyId;
+        this.currency = currency;
+        this.baseTariffId = baseTariffId;
+        this.tariffIds = tariffIds;
+        this.tables = tables;
+        this.storeDefaultTariffs = storeDefaultTariffs;
+        this.loadedAt = Instant.now();
+    }
+
+    public static Builder builder(UUID companyId, Currency currency) {
+        return new Builder(companyId, currency);
+    }
+
+    public UUID companyId() {
+        return companyId;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public int priceCount() {
+        int count = 0;
+        for (TariffPriceTable table : tables) {
+            count += table.size();
+        }
+        return count;
+    }
+
+    public Optional<PricingResult> resolve(ProductId productId, UUID storeId, Long customerTariffId) {
+        return Optional.ofNullable(resolveAll(List.of(productId), storeId, customerTariffId).get(productId));
+    }
+
+    /**
+     * Resolves every product of a basket; products without a price in any
+     * of the applicable tariffs are left out. Inactive or unknown tariffs
+     * are skipped.
+     */
+    public Map<ProductId, PricingResult> resolveAll(Collection<ProductId> productIds, UUID storeId,
+            Long customerTariffId) {
+        long customerTariff = customerTariffId != null ? customerTariffId : NO_TARIFF;
+        long storeTariff = storeId != null ? storeDefaultTariffs.getOrDefault(storeId, NO_TARIFF) : NO_TARIFF;
+        TariffPriceTable customer = tableOf(customerTariff);
+        TariffPriceTable store = tableOf(storeTariff);
+        TariffPriceTable base = tableOf(baseTariffId);
+
+        Map<ProductId, PricingResult> results = new LinkedHashMap<>();
+        for (ProductId productId : productIds) {
+            long id = productId.value();
+            long price;
+            if (customer != null && (price = customer.priceOf(id)) != TariffPriceTable.NO_PRICE) {
+                results.put(productId, result(productId, price, customerTariff, PricingContext.CUSTOMER_TARIFF));
+            } else if (store != null && (price = store.priceOf(id)) != TariffPriceTable.NO_PRICE) {
+                results.put(productId, result(productId, price, storeTariff, PricingContext.STORE_TARIFF));
+            } else if (base != null && (price = base.priceOf(id)) != TariffPriceTable.NO_PRICE) {
+                results.put(productId, result(productId, price, baseTariffId, PricingContext.BASE_TARIFF));
+            }
+        }
+        return results;
+    }
+
+    private PricingResult result(ProductId productId, long cents, long tariffId, PricingContext context) {
+        return new PricingResult(productId, Money.ofCents(cents, currency), tariffId, context);
+    }
+
+    private TariffPriceTable tableOf(long tariffId) {
+        if (tariffId == NO_TARIFF) {
+            return null;
+        }
+        int index = Arrays.binarySearch(tariffIds, tariffId);
+        return index >= 0 ? tables[index] : null;
+    }
+
+    public static final class Builder {
+        private final UUID companyId;
+        private final Currency currency;
+        private long baseTariffId = NO_TARIFF;
+        private final Map<Long, PriceColumns> tariffs = new HashMap<>();
+        private final Map<UUID, Long> storeDefaultTariffs = new HashMap<>();
+
+        private Builder(UUID companyId, Currency currency) {
+            this.companyId = companyId;
+            this.currency = currency;
+        }
+
+        /** Registers an active tariff; prices of unregistered tariffs are ignored. */
+        public Builder tariff(long tariffId, boolean base) {
+            tariffs.putIfAbsent(tariffId, new PriceColumns());
+            if (base && baseTariffId == NO_TARIFF) {
+                baseTariffId = tariffId;
+            }
+            return this;
+        }
+
+        public Builder price(long tariffId, long productId, long priceCents) {
+            PriceColumns columns = tariffs.get(tariffId);
+            if (columns != null) {
+                columns.add(productId, priceCents);
+            }
+            return this;
+        }
+
+        public Builder storeDefaultTariff(UUID storeId, long tariffId) {
+            storeDefaultTariffs.put(storeId, tariffId);
+            return this;
+        }
+
+        public PriceSnapshot build() {
+            long[] ids = tariffs.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            TariffPriceTable[] tables = new TariffPriceTable[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                PriceColumns columns = tariffs.get(ids[i]);
+                tables[i] = TariffPriceTable.of(columns.productIds, columns.prices, columns.count);
+            }
+            return new PriceSnapshot(companyId, currency, baseTariffId, ids, tables, Map.copyOf(storeDefaultTariffs));
+        }
+    }
+
+    private static final class PriceColumns {
+        long[] productIds = new long[16];
+        long[] prices = new long[16];
+        int count;
+
+        void add(long productId, long price) {
+            if (count == productIds.length) {
+                productIds = Arrays.copyOf(productIds, count * 2);
+                prices = Arrays.copyOf(prices, count * 2);
+            }
+            productIds[count] = productId;
+            prices[count] = price;
+            count++;
+        }
+    }
+}
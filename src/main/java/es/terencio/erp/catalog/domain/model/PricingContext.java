@@ -0,0 +1,8 @@
+package es.terencio.erp.catalog.domain.model;
+
+/** Where a resolved price came from, in resolution order. */
+public enum PricingContext {
+    CUSTOMER_TARIFF,
+    STORE_TARIFF,
+    BASE_TARIFF
+}
@@ -0,0 +1,10 @@
+package es.terencio.erp.catalog.domain.model;
+
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+/**
+ * Price a product sells at and the tariff it was taken from.
+ */
+public record PricingResult(ProductId productId, Money unitPrice, long tariffId, PricingContext context) {
+}
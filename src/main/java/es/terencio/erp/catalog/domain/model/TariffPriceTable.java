@@ -0,0 +1,71 @@
+package es.terencio.erp.catalog.domain.model;
+
+import java.util.Arrays;
+
+/**
+ * Product id → price in cents for one tariff. Open addressing over
+ * primitive arrays, so lookups neither box nor allocate. Immutable.
+ */
+final class TariffPriceTable {
+
+    static final long NO_PRICE = Long.MIN_VALUE;
+
+    // Product ids come from BIGSERIAL and are never negative
+    private static final long EMPTY = -1;
+
+    private final long[] productIds;
+    private final long[] prices;
+    private final int mask;
+    private final int size;
+
+    private TariffPriceTable(long[] productIds, long[] prices, int mask, int size) {
+        this.productIds = productIds;
+        this.prices = prices;
+        this.mask = mask;
+        this.size = size;
+    }
+
+    static TariffPriceTable of(long[] productIds, long[] prices, int count) {
+        // At most half full keeps probe sequences short
+        int capacity = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+        long[] keys = new long[capacity];
+        long[] values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (productIds[i] < 0) {
+                throw new IllegalArgumentException("Invalid product id " + productIds[i]);
+            }
+            int slot = slotOf(keys, mask, productIds[i]);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = productIds[i];
+                size++;
+            }
+            values[slot] = prices[i];
+        }
+        return new TariffPriceTable(keys, values, mask, size);
+    }
+
+    /** Price in cents, or {@link #NO_PRICE}. */
+    long priceOf(long productId) {
+        if (productId < 0) {
+            return NO_PRICE;
+        }
+        int slot = slotOf(productIds, mask, productId);
+        return productIds[slot] == productId ? prices[slot] : NO_PRICE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int slotOf(long[] keys, int mask, long productId) {
+        long hash = productId * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != productId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,46 @@
+package es.terencio.erp.catalog.infrastructure.in.event;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.catalog.application.service.PriceSnapshotService;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener.NotificationHandler;
+
+/**
+ * Rebuilds price snapshots on this node when a company's tariffs, prices or
+ * store default tariffs change on any node. The notifications come from the
+ * triggers in V018 (payload: the company id).
+ */
+@Component
+public class PriceChangeNotificationListener implements NotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(PriceChangeNotificationListener.class);
+
+    static final String CHANNEL = "catalog_prices_changed";
+
+    private final PriceSnapshotService priceSnapshotService;
+
+    public PriceChangeNotificationListener(PriceSnapshotService priceSnapshotService,
+            PostgresNotificationListener notificationListener) {
+        this.priceSnapshotService = priceSnapshotService;
+        notificationListener.subscribe(CHANNEL, this);
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        try {
+            priceSnapshotService.companyChanged(UUID.fromString(payload));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Unexpected {} payload '{}', dropping all price snapshots", CHANNEL, payload);
+            priceSnapshotService.invalidateAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        priceSnapshotService.invalidateAll();
+    }
+}
@@ -0,0 +1,57 @@
+package es.terencio.erp.catalog.infrastructure.out.persistence;
+
+import java.util.Currency;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.catalog.application.port.out.PriceCatalogPort;
+import es.terencio.erp.catalog.domain.model.PriceSnapshot;
+
+@Repository
+public class PriceCatalogRepositoryAdapter implements PriceCatalogPort {
+
+    private final JdbcClient jdbcClient;
+
+    public PriceCatalogRepositoryAdapter(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Optional<PriceSnapshot> loadSnapshot(UUID companyId) {
+        Optional<String> currency = jdbcClient.sql("SELECT COALESCE(currency_code, 'EUR') FROM companies WHERE id = :companyId")
+            .param("companyId", companyId)
+            .query(String.class).optional();
+        if (currency.isEmpty()) {
+            return Optional.empty();
+        }
+        PriceSnapshot.Builder builder = PriceSnapshot.builder(companyId, Currency.getInstance(currency.get().trim()));
+
+        // Highest priority first, so it wins if several tariffs are marked as default
+        jdbcClient.sql("SELECT id, is_default FROM tariffs WHERE company_id = :companyId AND active ORDER BY priority DESC, id")
+            .param("companyId", companyId)
+            .query(rs -> {
+                builder.tariff(rs.getLong("id"), rs.getBoolean("is_default"));
+            });
+        jdbcClient.sql("SELECT pp.tariff_id, pp.product_id, pp.price FROM product_prices pp JOIN tariffs t ON t.id = pp.tariff_id WHERE t.company_id = :companyId AND t.active")
+            .param("companyId", companyId)
+            .query(rs -> {
+                builder.price(rs.getLong("tariff_id"), rs.getLong("product_id"), rs.getLong("price"));
+            });
+        jdbcClient.sql("SELECT ss.store_id, ss.default_tariff_id FROM store_settings ss JOIN stores s ON s.id = ss.store_id WHERE s.company_id = :companyId AND ss.default_tariff_id IS NOT NULL")
+            .param("companyId", companyId)
+            .query(rs -> {
+                builder.storeDefaultTariff(rs.getObject("store_id", UUID.class), rs.getLong("default_tariff_id"));
+            });
+        return Optional.of(builder.build());
+    }
+
+    @Override
+    public Optional<Long> findCustomerTariffId(UUID companyId, UUID customerId) {
+        return jdbcClient.sql("SELECT tariff_id FROM customers WHERE uuid = :customerId AND company_id = :companyId AND deleted_at IS NULL AND tariff_id IS NOT NULL")
+            .param("customerId", customerId).param("companyId", companyId)
+            .query(Long.class).optional();
+    }
+}
@@ -0,0 +1,12 @@
+package es.terencio.erp.crm.application.port.in;
+
+import java.util.UUID;
+
+import es.terencio.erp.crm.domain.model.CustomerFacetCounts;
+
+public interface CustomerFacetsUseCase {
+
+    CustomerFacetCounts getFacets(UUID companyId);
+
+    void reconcileAll();
+}
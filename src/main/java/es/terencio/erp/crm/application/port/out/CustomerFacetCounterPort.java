@@ -0,0 +1,24 @@
+package es.terencio.erp.crm.application.port.out;
+
+import java.util.List;
+import java.util.Map;
+
+import es.terencio.erp.crm.domain.model.CustomerFacetCounts;
+import es.terencio.erp.crm.domain.model.CustomerFacetValue;
+import es.terencio.erp.shared.domain.identifier.CompanyId;
+
+public interface CustomerFacetCounterPort {
+
+    void applyDeltas(CompanyId companyId, Map<CustomerFacetValue, Long> deltas);
+
+    CustomerFacetCounts findByCompanyId(CompanyId companyId);
+
+    List<CompanyId> findCompaniesToReconcile();
+
+    /**
+     * Rebuilds the counters of a company from the customers table.
+     *
+     * @return number of buckets whose stored value had drifted
+     */
+    int reconcile(CompanyId companyId);
+}
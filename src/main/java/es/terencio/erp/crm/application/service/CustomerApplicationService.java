@@ -1,7 +1,11 @@
 package es.terencio.erp.crm.application.service;
 
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,10 +15,14 @@ import es.terencio.erp.crm.application.port.in.command.CreateCustomerCommand;
 import es.terencio.erp.crm.application.port.in.command.IngestLeadCommand;
 import es.terencio.erp.crm.application.port.in.command.UpdateCustomerCommand;
 import es.terencio.erp.crm.application.port.in.query.SearchCustomerQuery;
+import es.terencio.erp.crm.application.port.out.CustomerFacetCounterPort;
 import es.terencio.erp.crm.application.port.out.CustomerRepositoryPort;
 import es.terencio.erp.crm.domain.model.BillingInfo;
 import es.terencio.erp.crm.domain.model.ContactInfo;
 import es.terencio.erp.crm.domain.model.Customer;
+import es.terencio.erp.crm.domain.model.CustomerFacetValue;
+import es.terencio.erp.crm.domain.model.MarketingProfile;
+import es.terencio.erp.shared.domain.event.CustomerChangedEvent;
 import es.terencio.erp.shared.domain.identifier.CompanyId;
 import es.terencio.erp.shared.domain.query.PageResult;
 import es.terencio.erp.shared.domain.valueobject.Email;
@@ -29,6 +37,8 @@ import lombok.extern.slf4j.Slf4j;
 public class CustomerApplicationService implements IngestLeadUseCase, ManageCustomerUseCase {
 
     private final CustomerRepositoryPort customerRepository;
+    private final CustomerFacetCounterPort facetCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -55,7 +65,7 @@ public class CustomerApplicationService implements IngestLeadUseCase, ManageCust
                 command.consent()
         );
 
-        customerRepository.save(lead);
+        persist(lead, null);
     }
 
     @Override
@@ -103,7 +113,7 @@ public class CustomerApplicationService implements IngestLeadUseCase, ManageCust
             ));
         }
 
-        return customerRepository.save(customer);
+        return persist(customer, null);
     }
 
     @Override
@@ -111,6 +121,7 @@ public class CustomerApplicationService implements IngestLeadUseCase, ManageCust
     public Customer update(UUID companyId, UUID customerUuid, UpdateCustomerCommand command) {
 
         Customer customer = getByUuid(companyId, customerUuid);
+        Customer before = customer.toBuilder().build();
 
         customer.rename(command.legalName(), command.commercialName());
 
@@ -144,14 +155,71 @@ public class CustomerApplicationService implements IngestLeadUseCase, ManageCust
             ));
         }
 
-        return customerRepository.save(customer);
+        return persist(customer, before);
     }
 
     @Override
     @Transactional
     public void delete(UUID companyId, UUID customerUuid) {
         Customer customer = getByUuid(companyId, customerUuid);
+        Customer before = customer.toBuilder().build();
         customer.deactivate();
-        customerRepository.save(customer);
+        persist(customer, before);
+    }
+
+    /**
+     * Persists the customer and propagates the change to derived data in the
+     * same transaction: facet counters are moved from the {@code before}
+     * snapshot to the saved state and a {@link CustomerChangedEvent} lists the
+     * columns that actually changed. {@code before} is null for new customers.
+     */
+    private Customer persist(Customer customer, Customer before) {
+        Customer saved = customerRepository.save(customer);
+
+        Set<CustomerFacetValue> previousFacets = before != null ? CustomerFacetValue.of(before) : Set.of();
+        facetCounter.applyDeltas(saved.getCompanyId(), CustomerFacetValue.diff(previousFacets, CustomerFacetValue.of(saved)));
+
+        UUID companyId = saved.getCompanyId().value();
+        Long customerId = saved.getId().value();
+        if (before == null) {
+            eventPublisher.publishEvent(CustomerChangedEvent.created(companyId, customerId));
+        } else {
+            Set<String> changed = changedColumns(before, saved);
+            if (!changed.isEmpty()) {
+                eventPublisher.publishEvent(CustomerChangedEvent.updated(companyId, customerId, changed));
+            }
+        }
+        return saved;
+    }
+
+    private Set<String> changedColumns(Customer before, Customer after) {
+        Set<String> changed = new HashSet<>();
+        if (before.getType() != after.getType()) changed.add(CustomerChangedEvent.TYPE);
+        if (before.isActive() != after.isActive()) changed.add(CustomerChangedEvent.ACTIVE);
+        if (!Objects.equals(before.getDeletedAt(), after.getDeletedAt())) changed.add(CustomerChangedEvent.DELETED_AT);
+
+        if (!Objects.equals(
+                before.getContactInfo() != null ? before.getContactInfo().email() : null,
+                after.getContactInfo() != null ? after.getContactInfo().email() : null)) {
+            changed.add(CustomerChangedEvent.EMAIL);
+        }
+        if (!Objects.equals(
+                before.getContactInfo() != null ? before.getContactInfo().city() : null,
+                after.getContactInfo() != null ? after.getContactInfo().city() : null)) {
+            changed.add(CustomerChangedEvent.CITY);
+        }
+
+        MarketingProfile mpBefore = before.getMarketingProfile();
+        MarketingProfile mpAfter = after.getMarketingProfile();
+        if (!Objects.equals(mpBefore != null ? mpBefore.origin() : null, mpAfter != null ? mpAfter.origin() : null)) {
+            changed.add(CustomerChangedEvent.ORIGIN);
+        }
+        if (!Objects.equals(mpBefore != null ? mpBefore.tags() : null, mpAfter != null ? mpAfter.tags() : null)) {
+            changed.add(CustomerChangedEvent.TAGS);
+        }
+        if (!Objects.equals(mpBefore != null ? mpBefore.status() : null, mpAfter != null ? mpAfter.status() : null)) {
+            changed.add(CustomerChangedEvent.MARKETING_STATUS);
+        }
+        return changed;
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package es.terencio.erp.crm.application.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.crm.application.port.in.CustomerFacetsUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Nightly safety net for the incremental facet counters. Catches drift from
+ * writers that bypass the CRM service (e.g. marketing status updates issued
+ * directly from bounce/unsubscribe handling).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerFacetReconciliationJob {
+
+    private final CustomerFacetsUseCase customerFacetsUseCase;
+
+    @Scheduled(cron = "${terencio.crm.facets.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        log.info("Starting nightly customer facet reconciliation");
+        customerFacetsUseCase.reconcileAll();
+    }
+}
@@ -0,0 +1,51 @@
+package es.terencio.erp.crm.application.service;
+
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.terencio.erp.crm.application.port.in.CustomerFacetsUseCase;
+import es.terencio.erp.crm.application.port.out.CustomerFacetCounterPort;
+import es.terencio.erp.crm.domain.model.CustomerFacetCounts;
+import es.terencio.erp.shared.domain.identifier.CompanyId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerFacetService implements CustomerFacetsUseCase {
+
+    private final CustomerFacetCounterPort facetCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerFacetCounts getFacets(UUID companyId) {
+        return facetCounter.findByCompanyId(new CompanyId(companyId));
+    }
+
+    @Override
+    public void reconcileAll() {
+        int companies = 0;
+        int drifted = 0;
+
+        // One transaction per company keeps the exclusive counter lock short
+        for (CompanyId companyId : facetCounter.findCompaniesToReconcile()) {
+            try {
+                Integer fixed = transactionTemplate.execute(status -> facetCounter.reconcile(companyId));
+                if (fixed != null && fixed > 0) {
+                    log.warn("Customer facet counters drifted for company {}: {} buckets corrected", companyId, fixed);
+                    drifted += fixed;
+                }
+                companies++;
+            } catch (Exception e) {
+                log.error("Failed to reconcile customer facet counters for company {}", companyId, e);
+            }
+        }
+
+        log.info("Customer facet reconciliation finished: {} companies, {} buckets corrected", companies, drifted);
+    }
+}
@@ -0,0 +1,13 @@
+package es.terencio.erp.crm.domain.model;
+
+/**
+ * Dimensions over which customer counters are maintained per company.
+ */
+public enum CustomerFacet {
+    TOTAL,
+    TYPE,
+    MARKETING_STATUS,
+    ORIGIN,
+    CITY,
+    TAG
+}
@@ -0,0 +1,16 @@
+package es.terencio.erp.crm.domain.model;
+
+import java.util.Map;
+
+/**
+ * Read model with every facet counter of a company.
+ */
+public record CustomerFacetCounts(
+        long total,
+        Map<String, Long> byType,
+        Map<String, Long> byMarketingStatus,
+        Map<String, Long> byOrigin,
+        Map<String, Long> byCity,
+        Map<String, Long> byTag
+) {
+}
@@ -0,0 +1,72 @@
+package es.terencio.erp.crm.domain.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A single counted bucket (facet + value) that a customer contributes to.
+ */
+public record CustomerFacetValue(CustomerFacet facet, String value) {
+
+    public static final String ALL = "*";
+
+    /**
+     * Buckets a customer currently counts towards. Soft-deleted (or absent)
+     * customers contribute to nothing.
+     */
+    public static Set<CustomerFacetValue> of(Customer customer) {
+        Set<CustomerFacetValue> values = new HashSet<>();
+        if (customer == null || customer.getDeletedAt() != null) {
+            return values;
+        }
+
+        values.add(new CustomerFacetValue(CustomerFacet.TOTAL, ALL));
+        if (customer.getType() != null) {
+            values.add(new CustomerFacetValue(CustomerFacet.TYPE, customer.getType().name()));
+        }
+
+        ContactInfo contact = customer.getContactInfo();
+        if (contact != null && contact.city() != null) {
+            values.add(new CustomerFacetValue(CustomerFacet.CITY, contact.city()));
+        }
+
+        MarketingProfile profile = customer.getMarketingProfile();
+        if (profile != null) {
+            if (profile.status() != null) {
+                values.add(new CustomerFacetValue(CustomerFacet.MARKETING_STATUS, profile.status().name()));
+            }
+            if (profile.origin() != null) {
+                values.add(new CustomerFacetValue(CustomerFacet.ORIGIN, profile.origin()));
+            }
+            if (profile.tags() != null) {
+                for (String tag : profile.tags()) {
+                    if (tag != null) {
+                        values.add(new CustomerFacetValue(CustomerFacet.TAG, tag));
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Counter deltas (+1 / -1) needed to move from the {@code before} snapshot
+     * to the {@code after} snapshot. Unchanged buckets are omitted.
+     */
+    public static Map<CustomerFacetValue, Long> diff(Set<CustomerFacetValue> before, Set<CustomerFacetValue> after) {
+        Map<CustomerFacetValue, Long> deltas = new HashMap<>();
+        for (CustomerFacetValue value : before) {
+            if (!after.contains(value)) {
+                deltas.put(value, -1L);
+            }
+        }
+        for (CustomerFacetValue value : after) {
+            if (!before.contains(value)) {
+                deltas.put(value, 1L);
+            }
+        }
+        return deltas;
+    }
+}
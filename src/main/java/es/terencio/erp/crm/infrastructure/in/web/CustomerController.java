@@ -16,11 +16,13 @@ import org.springframework.web.bind.annotation.RestController;
 import es.terencio.erp.auth.domain.model.AccessScope;
 import es.terencio.erp.auth.domain.model.Permission;
 import es.terencio.erp.auth.infrastructure.config.security.aop.RequiresPermission;
+import es.terencio.erp.crm.application.port.in.CustomerFacetsUseCase;
 import es.terencio.erp.crm.application.port.in.ManageCustomerUseCase;
 import es.terencio.erp.crm.application.port.in.query.SearchCustomerQuery;
 import es.terencio.erp.crm.domain.model.Customer;
 import es.terencio.erp.crm.domain.model.CustomerType;
 import es.terencio.erp.crm.infrastructure.in.web.dto.CreateCustomerRequest;
+import es.terencio.erp.crm.infrastructure.in.web.dto.CustomerFacetsResponse;
 import es.terencio.erp.crm.infrastructure.in.web.dto.CustomerResponse;
 import es.terencio.erp.crm.infrastructure.in.web.dto.UpdateCustomerRequest;
 import es.terencio.erp.shared.domain.query.PageResult;
@@ -37,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class CustomerController {
 
     private final ManageCustomerUseCase manageCustomerUseCase;
+    private final CustomerFacetsUseCase customerFacetsUseCase;
 
     @GetMapping
     @Operation(summary = "Search customers with paginated filters")
@@ -56,6 +59,14 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "Get customer counts by type, marketing status, origin, city and tag")
+    @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
+    public ResponseEntity<ApiResponse<CustomerFacetsResponse>> getFacets(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(ApiResponse.success(
+                CustomerFacetsResponse.fromDomain(customerFacetsUseCase.getFacets(companyId))));
+    }
+
     @GetMapping("/{customerUuid}")
     @Operation(summary = "Get customer details")
     @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
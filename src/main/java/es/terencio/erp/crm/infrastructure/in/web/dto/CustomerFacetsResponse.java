@@ -0,0 +1,25 @@
+package es.terencio.erp.crm.infrastructure.in.web.dto;
+
+import java.util.Map;
+
+import es.terencio.erp.crm.domain.model.CustomerFacetCounts;
+
+public record CustomerFacetsResponse(
+        long total,
+        Map<String, Long> byType,
+        Map<String, Long> byMarketingStatus,
+        Map<String, Long> byOrigin,
+        Map<String, Long> byCity,
+        Map<String, Long> byTag
+) {
+    public static CustomerFacetsResponse fromDomain(CustomerFacetCounts counts) {
+        return new CustomerFacetsResponse(
+                counts.total(),
+                counts.byType(),
+                counts.byMarketingStatus(),
+                counts.byOrigin(),
+                counts.byCity(),
+                counts.byTag()
+        );
+    }
+}
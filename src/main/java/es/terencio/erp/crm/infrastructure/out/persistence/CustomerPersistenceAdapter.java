@@ -35,7 +35,9 @@ public class CustomerPersistenceAdapter implements CustomerRepositoryPort {
     @Override
     public Customer save(Customer customer) {
         CustomerJpaEntity entity = toEntity(customer);
-        CustomerJpaEntity savedEntity = repository.save(entity);
+        // Flush right away: derived data (segment membership) is re-evaluated with
+        // plain SQL against the customers row later in the same transaction
+        CustomerJpaEntity savedEntity = repository.saveAndFlush(entity);
         return toDomain(savedEntity);
     }
 
@@ -0,0 +1,177 @@
+package es.terencio.erp.crm.infrastructure.out.persistence;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.crm.application.port.out.CustomerFacetCounterPort;
+import es.terencio.erp.crm.domain.model.CustomerFacet;
+import es.terencio.erp.crm.domain.model.CustomerFacetCounts;
+import es.terencio.erp.crm.domain.model.CustomerFacetValue;
+import es.terencio.erp.shared.domain.identifier.CompanyId;
+
+/**
+ * Facet counters stored in {@code customer_facet_counts}.
+ * <p>
+ * Incremental writers take a shared transaction-scoped advisory lock per
+ * company and reconciliation takes the exclusive one, so a rebuild never
+ * interleaves with in-flight deltas while deltas never block each other.
+ */
+@Repository
+public class JdbcCustomerFacetCounterAdapter implements CustomerFacetCounterPort {
+
+    private static final String LOCK_PREFIX = "crm_customer_facets:";
+
+    private static final Comparator<CustomerFacetValue> LOCK_ORDER = Comparator
+            .comparing(CustomerFacetValue::facet)
+            .thenComparing(CustomerFacetValue::value);
+
+    private static final String ACTUAL_COUNTS_CTE = """
+            actual AS (
+                SELECT 'TOTAL' AS facet, '*' AS facet_value, COUNT(*) AS total
+                FROM customers WHERE company_id = :companyId AND deleted_at IS NULL
+                HAVING COUNT(*) > 0
+                UNION ALL
+                SELECT 'TYPE', type, COUNT(*)
+                FROM customers WHERE company_id = :companyId AND deleted_at IS NULL AND type IS NOT NULL
+                GROUP BY type
+                UNION ALL
+                SELECT 'MARKETING_STATUS', marketing_status, COUNT(*)
+                FROM customers WHERE company_id = :companyId AND deleted_at IS NULL AND marketing_status IS NOT NULL
+                GROUP BY marketing_status
+                UNION ALL
+                SELECT 'ORIGIN', origin, COUNT(*)
+                FROM customers WHERE company_id = :companyId AND deleted_at IS NULL AND origin IS NOT NULL
+                GROUP BY origin
+                UNION ALL
+                SELECT 'CITY', city, COUNT(*)
+                FROM customers WHERE company_id = :companyId AND deleted_at IS NULL AND city IS NOT NULL
+                GROUP BY city
+                UNION ALL
+                SELECT 'TAG', t.tag, COUNT(DISTINCT c.id)
+                FROM customers c CROSS JOIN LATERAL unnest(c.tags) AS t(tag)
+                WHERE c.company_id = :companyId AND c.deleted_at IS NULL AND t.tag IS NOT NULL
+                GROUP BY t.tag
+            )
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public JdbcCustomerFacetCounterAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void applyDeltas(CompanyId companyId, Map<CustomerFacetValue, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        jdbc.queryForList("SELECT pg_advisory_xact_lock_shared(hashtext(:lockKey))",
+                new MapSqlParameterSource("lockKey", LOCK_PREFIX + companyId.value()));
+
+        // Stable row order keeps concurrent upserts from deadlocking on each other
+        SqlParameterSource[] batch = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(LOCK_ORDER))
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("companyId", companyId.value())
+                        .addValue("facet", e.getKey().facet().name())
+                        .addValue("value", e.getKey().value())
+                        .addValue("delta", e.getValue()))
+                .toArray(SqlParameterSource[]::new);
+
+        String sql = """
+                INSERT INTO customer_facet_counts (company_id, facet, facet_value, total, updated_at)
+                VALUES (:companyId, :facet, :value, GREATEST(:delta, 0), NOW())
+                ON CONFLICT (company_id, facet, facet_value) DO UPDATE
+                SET total = GREATEST(customer_facet_counts.total + :delta, 0), updated_at = NOW()
+                """;
+        jdbc.batchUpdate(sql, batch);
+    }
+
+    @Override
+    public CustomerFacetCounts findByCompanyId(CompanyId companyId) {
+        String sql = """
+                SELECT facet, facet_value, total
+                FROM customer_facet_counts
+                WHERE company_id = :companyId AND total > 0
+                ORDER BY facet, total DESC, facet_value
+                """;
+
+        Map<CustomerFacet, Map<String, Long>> grouped = new EnumMap<>(CustomerFacet.class);
+        for (CustomerFacet facet : CustomerFacet.values()) {
+            grouped.put(facet, new LinkedHashMap<>());
+        }
+
+        jdbc.query(sql, new MapSqlParameterSource("companyId", companyId.value()), rs -> {
+            CustomerFacet facet = parseFacet(rs.getString("facet"));
+            if (facet != null) {
+                grouped.get(facet).put(rs.getString("facet_value"), rs.getLong("total"));
+            }
+        });
+
+        return new CustomerFacetCounts(
+                grouped.get(CustomerFacet.TOTAL).getOrDefault(CustomerFacetValue.ALL, 0L),
+                grouped.get(CustomerFacet.TYPE),
+                grouped.get(CustomerFacet.MARKETING_STATUS),
+                grouped.get(CustomerFacet.ORIGIN),
+                grouped.get(CustomerFacet.CITY),
+                grouped.get(CustomerFacet.TAG));
+    }
+
+    @Override
+    public List<CompanyId> findCompaniesToReconcile() {
+        return jdbc.queryForList("SELECT id FROM companies", new MapSqlParameterSource(), UUID.class)
+                .stream()
+                .map(CompanyId::new)
+                .toList();
+    }
+
+    @Override
+    public int reconcile(CompanyId companyId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("companyId", companyId.value())
+                .addValue("lockKey", LOCK_PREFIX + companyId.value());
+
+        jdbc.queryForList("SELECT pg_advisory_xact_lock(hashtext(:lockKey))", params);
+
+        String sql = "WITH " + ACTUAL_COUNTS_CTE + """
+                , upserted AS (
+                    INSERT INTO customer_facet_counts (company_id, facet, facet_value, total, updated_at)
+                    SELECT :companyId, facet, facet_value, total, NOW() FROM actual
+                    ON CONFLICT (company_id, facet, facet_value) DO UPDATE
+                    SET total = EXCLUDED.total, updated_at = NOW()
+                    WHERE customer_facet_counts.total <> EXCLUDED.total
+                    RETURNING 1
+                ), removed AS (
+                    DELETE FROM customer_facet_counts f
+                    WHERE f.company_id = :companyId
+                      AND NOT EXISTS (
+                          SELECT 1 FROM actual a
+                          WHERE a.facet = f.facet AND a.facet_value = f.facet_value)
+                    RETURNING f.total
+                )
+                SELECT (SELECT COUNT(*) FROM upserted)
+                     + (SELECT COUNT(*) FROM removed WHERE total > 0)
+                """;
+
+        Long drifted = jdbc.queryForObject(sql, params, Long.class);
+        return drifted != null ? drifted.intValue() : 0;
+    }
+
+    private CustomerFacet parseFacet(String value) {
+        try {
+            return CustomerFacet.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package es.terencio.erp.devices.application.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Latest activity seen for a device since the last flush; either timestamp
+ * may be null.
+ */
+public record DeviceActivity(
+    UUID deviceId,
+    Instant lastAuthenticatedAt,
+    Instant lastSyncAt
+) {}
@@ -0,0 +1,26 @@
+package es.terencio.erp.devices.application.dto;
+
+import java.util.UUID;
+
+public record DeviceAuthResult(Outcome outcome, UUID deviceId, UUID storeId) {
+
+    public enum Outcome {
+        AUTHENTICATED,
+        BLOCKED,
+        REJECTED
+    }
+
+    private static final DeviceAuthResult REJECTED = new DeviceAuthResult(Outcome.REJECTED, null, null);
+
+    public static DeviceAuthResult authenticated(UUID deviceId, UUID storeId) {
+        return new DeviceAuthResult(Outcome.AUTHENTICATED, deviceId, storeId);
+    }
+
+    public static DeviceAuthResult blocked(UUID deviceId) {
+        return new DeviceAuthResult(Outcome.BLOCKED, deviceId, null);
+    }
+
+    public static DeviceAuthResult rejected() {
+        return REJECTED;
+    }
+}
@@ -0,0 +1,17 @@
+package es.terencio.erp.devices.application.dto;
+
+/**
+ * Why a device waiting for changes was woken up. On any of them the device
+ * re-syncs its context from the version it has.
+ */
+public record DeviceChange(long version, Reason reason) {
+
+    public enum Reason {
+        /** The store context moved to {@code version}. */
+        CONTEXT_CHANGED,
+        /** The device itself was blocked, re-keyed or moved. */
+        DEVICE_CHANGED,
+        /** Changes may have been missed (notification channel reconnected). */
+        RESYNC
+    }
+}
@@ -0,0 +1,15 @@
+package es.terencio.erp.devices.application.dto;
+
+import java.util.UUID;
+import es.terencio.erp.devices.domain.model.DeviceStatus;
+
+/**
+ * What API key validation needs to know about a device.
+ */
+public record DeviceCredentials(
+    UUID deviceId,
+    UUID storeId,
+    String deviceSecret,
+    int apiKeyVersion,
+    DeviceStatus status
+) {}
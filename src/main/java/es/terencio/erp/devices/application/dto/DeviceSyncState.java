@@ -0,0 +1,20 @@
+package es.terencio.erp.devices.application.dto;
+
+import java.util.UUID;
+import es.terencio.erp.devices.domain.model.DeviceStatus;
+
+/**
+ * A device together with the sync versions of its store. {@code version} is
+ * the latest change of any kind; {@code storeVersion} and
+ * {@code settingsVersion} are the versions at which the store row and its
+ * settings last changed. All are 0 for a store that has not changed since
+ * versioning was introduced.
+ */
+public record DeviceSyncState(
+    UUID deviceId,
+    UUID storeId,
+    DeviceStatus status,
+    long version,
+    long storeVersion,
+    long settingsVersion
+) {}
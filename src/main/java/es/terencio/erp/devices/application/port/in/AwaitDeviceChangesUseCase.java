@@ -0,0 +1,20 @@
+package es.terencio.erp.devices.application.port.in;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import es.terencio.erp.devices.application.dto.DeviceChange;
+
+/**
+ * Long-poll for POS devices: blocks until something the device syncs changes.
+ */
+public interface AwaitDeviceChangesUseCase {
+    /**
+     * @param deviceId The UUID of the authenticated device
+     * @param sinceVersion The version of the device's current context
+     * @param timeout How long to wait at most
+     * @return the change, or empty when nothing changed in time
+     */
+    Optional<DeviceChange> awaitChange(UUID deviceId, long sinceVersion, Duration timeout);
+}
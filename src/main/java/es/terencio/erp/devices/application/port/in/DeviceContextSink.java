@@ -0,0 +1,24 @@
+package es.terencio.erp.devices.application.port.in;
+
+import java.util.List;
+
+import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
+import es.terencio.erp.organization.domain.model.Store;
+import es.terencio.erp.organization.domain.model.StoreSettings;
+
+/**
+ * Receives the sections of a device context in order, so the transport can
+ * encode them as they come without building a response object first.
+ * {@link #store} and {@link #settings} are called once each (with null when
+ * unchanged in a delta), {@link #user} once per user row, and
+ * {@link #removedUsers} once, last.
+ */
+public interface DeviceContextSink {
+    void store(Store store);
+
+    void settings(StoreSettings settings);
+
+    void user(EmployeeSyncDto user);
+
+    void removedUsers(List<Long> employeeIds);
+}
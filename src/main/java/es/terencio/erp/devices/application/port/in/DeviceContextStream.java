@@ -0,0 +1,19 @@
+package es.terencio.erp.devices.application.port.in;
+
+/**
+ * Context information for a POS device, as of {@link #version()}, ready to
+ * be written.
+ * <p>
+ * A full snapshot ({@link #full()}) carries the store, its settings and every
+ * active user. A delta carries only what changed after the version the
+ * device already has: store and settings only when they changed, the rows of
+ * changed users (all rows of each user replace the ones the device has) and
+ * the ids of users that lost access to the store.
+ */
+public interface DeviceContextStream {
+    long version();
+
+    boolean full();
+
+    void writeTo(DeviceContextSink sink);
+}
@@ -1,19 +1,21 @@
 package es.terencio.erp.devices.application.port.in;
 
+import java.util.Optional;
 import java.util.UUID;
 
-import es.terencio.erp.devices.application.dto.DeviceContextDto;
-
 /**
  * Use case for retrieving device context information.
- * Used by POS terminals during initial sync/handshake.
+ * Used by POS terminals during initial sync/handshake and later polls.
  */
 public interface GetDeviceContextUseCase {
     /**
-     * Get complete context for a device including store, settings, and users.
+     * Prepare the context for a device: a full snapshot when
+     * {@code sinceVersion} is null or not a version this store has issued,
+     * otherwise what changed since then.
      * 
      * @param deviceId The UUID of the authenticated device
-     * @return DeviceContextDto containing all necessary information
+     * @param sinceVersion The version of the device's current context, if any
+     * @return the context to write, or empty when nothing changed
      */
-    DeviceContextDto getContext(UUID deviceId);
+    Optional<DeviceContextStream> openContext(UUID deviceId, Long sinceVersion);
 }
@@ -4,7 +4,10 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import es.terencio.erp.devices.application.dto.DeviceActivity;
+import es.terencio.erp.devices.application.dto.DeviceCredentials;
 import es.terencio.erp.devices.application.dto.DeviceDto;
+import es.terencio.erp.devices.application.dto.DeviceSyncState;
 
 public interface DevicePort {
     List<DeviceDto> findAll();
@@ -13,6 +16,11 @@ public interface DevicePort {
     Optional<CodeInfo> findByCode(String code);
     UUID registerDevice(String code, String hardwareId, UUID storeId, String serialCode, String deviceSecret);
     Optional<DeviceDto> findById(UUID deviceId);
+    Optional<DeviceCredentials> findCredentials(UUID deviceId);
+    void updateActivity(List<DeviceActivity> activity);
+    Optional<DeviceSyncState> findSyncState(UUID deviceId);
+    /** Employees whose sync data for the store changed in (sinceVersion, upToVersion]. */
+    List<Long> findEmployeesChangedBetween(UUID storeId, long sinceVersion, long upToVersion);
 
     record CodeInfo(String code, UUID storeId, String storeName, String storeCode, String preassignedName, Instant expiresAt, boolean isUsed) {}
 }
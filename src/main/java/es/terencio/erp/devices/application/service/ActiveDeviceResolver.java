@@ -0,0 +1,43 @@
+package es.terencio.erp.devices.application.service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.devices.application.dto.DeviceCredentials;
+import es.terencio.erp.devices.application.dto.DeviceSyncState;
+import es.terencio.erp.devices.application.port.out.DevicePort;
+import es.terencio.erp.devices.domain.model.DeviceStatus;
+import es.terencio.erp.shared.exception.RegistrationException;
+
+/**
+ * Looks up the device behind a POS request, failing unless it exists and is
+ * active.
+ */
+@Component
+public class ActiveDeviceResolver {
+
+    private final DevicePort devicePort;
+
+    public ActiveDeviceResolver(DevicePort devicePort) {
+        this.devicePort = devicePort;
+    }
+
+    public DeviceCredentials credentials(UUID deviceId) {
+        return requireActive(devicePort.findCredentials(deviceId), DeviceCredentials::status);
+    }
+
+    public DeviceSyncState syncState(UUID deviceId) {
+        return requireActive(devicePort.findSyncState(deviceId), DeviceSyncState::status);
+    }
+
+    private static <T> T requireActive(Optional<T> device, Function<T, DeviceStatus> status) {
+        T found = device.orElseThrow(() -> new RegistrationException("Device not found"));
+        if (status.apply(found) != DeviceStatus.ACTIVE) {
+            throw new RegistrationException("Device is not active");
+        }
+        return found;
+    }
+}
@@ -0,0 +1,85 @@
+package es.terencio.erp.devices.application.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.devices.application.dto.DeviceActivity;
+import es.terencio.erp.devices.application.port.out.DevicePort;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind for device activity timestamps. Requests only record the
+ * latest instant per device in memory; a flush every few seconds writes all
+ * of them in one batched UPDATE. Timestamps are informational, so a crash
+ * loses at most one flush interval.
+ */
+@Component
+public class DeviceActivityTracker {
+    private static final Logger log = LoggerFactory.getLogger(DeviceActivityTracker.class);
+
+    private final DevicePort devicePort;
+    private final ConcurrentHashMap<UUID, Instant> authenticated = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Instant> synced = new ConcurrentHashMap<>();
+
+    public DeviceActivityTracker(DevicePort devicePort) {
+        this.devicePort = devicePort;
+    }
+
+    public void recordAuthentication(UUID deviceId) {
+        authenticated.put(deviceId, Instant.now());
+    }
+
+    public void recordSync(UUID deviceId) {
+        synced.put(deviceId, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${security.device.activity-flush-ms:5000}")
+    @PreDestroy
+    public synchronized void flush() {
+        Map<UUID, Instant> auth = drain(authenticated);
+        Map<UUID, Instant> sync = drain(synced);
+        if (auth.isEmpty() && sync.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, DeviceActivity> merged = new HashMap<>();
+        auth.forEach((id, at) -> merged.put(id, new DeviceActivity(id, at, null)));
+        sync.forEach((id, at) -> merged.merge(id, new DeviceActivity(id, null, at),
+                (a, s) -> new DeviceActivity(id, a.lastAuthenticatedAt(), at)));
+
+        try {
+            devicePort.updateActivity(new ArrayList<>(merged.values()));
+            log.trace("Flushed activity for {} devices", merged.size());
+        } catch (Exception e) {
+            log.warn("Failed to flush activity for {} devices, retrying on next flush", merged.size(), e);
+            auth.forEach((id, at) -> authenticated.merge(id, at, DeviceActivityTracker::latest));
+            sync.forEach((id, at) -> synced.merge(id, at, DeviceActivityTracker::latest));
+        }
+    }
+
+    private static Map<UUID, Instant> drain(ConcurrentHashMap<UUID, Instant> pending) {
+        Map<UUID, Instant> drained = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(pending.keySet());
+        for (UUID id : ids) {
+            Instant at = pending.remove(id);
+            if (at != null) {
+                drained.put(id, at);
+            }
+        }
+        return drained;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
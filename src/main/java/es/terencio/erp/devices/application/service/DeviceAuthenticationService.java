@@ -0,0 +1,126 @@
+package es.terencio.erp.devices.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import es.terencio.erp.devices.application.dto.DeviceAuthResult;
+import es.terencio.erp.devices.application.dto.DeviceCredentials;
+import es.terencio.erp.devices.application.port.out.DevicePort;
+import es.terencio.erp.devices.domain.model.DeviceStatus;
+import es.terencio.erp.devices.infrastructure.security.DeviceApiKeyGenerator;
+
+/**
+ * Authenticates POS API keys without touching the database once warm.
+ * <p>
+ * Device credentials are cached per device (unknown ids included, so random
+ * keys cannot hammer the table). The digest of the last key that passed HMAC
+ * validation is kept with them, so repeat requests with the same key skip
+ * the signature computation. Block/unblock, registration and key rotation
+ * drop the entry on every node (see
+ * {@code DeviceCredentialNotificationListener}).
+ */
+@Service
+public class DeviceAuthenticationService {
+
+    private static final long MAX_CACHED_DEVICES = 50_000;
+    // Safety net in case an invalidation is ever missed
+    private static final long CREDENTIALS_TTL_MINUTES = 10;
+
+    private final DevicePort devicePort;
+    private final DeviceApiKeyGenerator apiKeyGenerator;
+    private final DeviceActivityTracker activityTracker;
+
+    private final Cache<UUID, CachedDevice> devices = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_DEVICES)
+            .expireAfterWrite(CREDENTIALS_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /** Bumped on every invalidation so a load racing with it is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private static final class CachedDevice {
+        final DeviceCredentials credentials;
+        volatile byte[] validatedDigest;
+
+        CachedDevice(DeviceCredentials credentials) {
+            this.credentials = credentials;
+        }
+    }
+
+    public DeviceAuthenticationService(DevicePort devicePort, DeviceApiKeyGenerator apiKeyGenerator,
+            DeviceActivityTracker activityTracker) {
+        this.devicePort = devicePort;
+        this.apiKeyGenerator = apiKeyGenerator;
+        this.activityTracker = activityTracker;
+    }
+
+    public DeviceAuthResult authenticate(String apiKey) {
+        UUID deviceId = apiKeyGenerator.extractDeviceId(apiKey);
+        if (deviceId == null) {
+            return DeviceAuthResult.rejected();
+        }
+
+        CachedDevice device = lookup(deviceId);
+        DeviceCredentials credentials = device.credentials;
+        if (credentials == null) {
+            return DeviceAuthResult.rejected();
+        }
+        if (credentials.status() == DeviceStatus.BLOCKED) {
+            return DeviceAuthResult.blocked(deviceId);
+        }
+        if (credentials.status() != DeviceStatus.ACTIVE) {
+            return DeviceAuthResult.rejected();
+        }
+
+        byte[] digest = digest(apiKey);
+        if (!MessageDigest.isEqual(digest, device.validatedDigest)) {
+            if (!apiKeyGenerator.validateApiKey(apiKey, deviceId, credentials.deviceSecret(), credentials.apiKeyVersion())) {
+                return DeviceAuthResult.rejected();
+            }
+            device.validatedDigest = digest;
+        }
+
+        activityTracker.recordAuthentication(deviceId);
+        return DeviceAuthResult.authenticated(deviceId, credentials.storeId());
+    }
+
+    public void invalidate(UUID deviceId) {
+        generation.incrementAndGet();
+        devices.invalidate(deviceId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        devices.invalidateAll();
+    }
+
+    private CachedDevice lookup(UUID deviceId) {
+        CachedDevice cached = devices.getIfPresent(deviceId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        CachedDevice fresh = new CachedDevice(devicePort.findCredentials(deviceId).orElse(null));
+        if (generation.get() == loadGeneration) {
+            devices.put(deviceId, fresh);
+        }
+        return fresh;
+    }
+
+    private static byte[] digest(String apiKey) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package es.terencio.erp.devices.application.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import es.terencio.erp.devices.application.dto.DeviceChange;
+import es.terencio.erp.devices.application.dto.DeviceSyncState;
+import es.terencio.erp.devices.application.port.in.AwaitDeviceChangesUseCase;
+import es.terencio.erp.shared.exception.CapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Parks POS long-polls until their store's sync version moves past the one
+ * they have, or the device itself changes.
+ * <p>
+ * Requests run on virtual threads, so a parked poll costs a small heap
+ * object and an idle socket; no database connection is held. Wake-ups come
+ * from Postgres notifications (see {@code PosSyncNotificationListener} and
+ * {@code DeviceCredentialNotificationListener}), so a change committed on any
+ * node reaches devices connected to every node. The latest version seen per
+ * store is remembered so a change that lands between reading the version and
+ * parking is not missed.
+ */
+@Service
+public class DeviceChangeService implements AwaitDeviceChangesUseCase {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private static final class Waiter {
+        final UUID deviceId;
+        final UUID storeId;
+        final long sinceVersion;
+        // Completed with null when a newer poll of the same device replaces this one
+        final CompletableFuture<DeviceChange> result = new CompletableFuture<>();
+
+        Waiter(UUID deviceId, UUID storeId, long sinceVersion) {
+            this.deviceId = deviceId;
+            this.storeId = storeId;
+            this.sinceVersion = sinceVersion;
+        }
+    }
+
+    private final ActiveDeviceResolver activeDevices;
+    private final int maxWaiters;
+
+    private final Map<UUID, Waiter> waitersByDevice = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Waiter>> waitersByStore = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> latestVersions = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public DeviceChangeService(ActiveDeviceResolver activeDevices, MeterRegistry meterRegistry,
+            @Value("${security.device.push.max-waiters:6000}") int maxWaiters) {
+        this.activeDevices = activeDevices;
+        this.maxWaiters = maxWaiters;
+        Gauge.builder("pos.sync.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    public Optional<DeviceChange> awaitChange(UUID deviceId, long sinceVersion, Duration timeout) {
+        DeviceSyncState state = activeDevices.syncState(deviceId);
+        if (state.version() != sinceVersion) {
+            return Optional.of(new DeviceChange(state.version(), DeviceChange.Reason.CONTEXT_CHANGED));
+        }
+
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            throw new CapacityExceededException("Too many devices waiting for changes", RETRY_AFTER);
+        }
+        Waiter waiter = new Waiter(deviceId, state.storeId(), sinceVersion);
+        try {
+            register(waiter);
+            Long latest = latestVersions.get(state.storeId());
+            if (latest != null && latest > sinceVersion) {
+                return Optional.of(new DeviceChange(latest, DeviceChange.Reason.CONTEXT_CHANGED));
+            }
+            return Optional.ofNullable(waiter.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Device change wait failed", e.getCause());
+        } finally {
+            unregister(waiter);
+            waiting.decrementAndGet();
+        }
+    }
+
+    /** The store's sync version moved to {@code version}. */
+    public void storeChanged(UUID storeId, long version) {
+        latestVersions.merge(storeId, version, Math::max);
+        Set<Waiter> waiters = waitersByStore.get(storeId);
+        if (waiters == null) {
+            return;
+        }
+        DeviceChange change = new DeviceChange(version, DeviceChange.Reason.CONTEXT_CHANGED);
+        for (Waiter waiter : waiters) {
+            if (version > waiter.sinceVersion) {
+                waiter.result.complete(change);
+            }
+        }
+    }
+
+    /** The device was blocked, re-keyed or moved to another store. */
+    public void deviceChanged(UUID deviceId) {
+        Waiter waiter = waitersByDevice.get(deviceId);
+        if (waiter != null) {
+            waiter.result.complete(new DeviceChange(waiter.sinceVersion, DeviceChange.Reason.DEVICE_CHANGED));
+        }
+    }
+
+    /** Notifications may have been missed: wake everyone up to re-sync. */
+    public void releaseAll() {
+        latestVersions.clear();
+        for (Waiter waiter : waitersByDevice.values()) {
+            waiter.result.complete(new DeviceChange(waiter.sinceVersion, DeviceChange.Reason.RESYNC));
+        }
+    }
+
+    private void register(Waiter waiter) {
+        Waiter previous = waitersByDevice.put(waiter.deviceId, waiter);
+        if (previous != null) {
+            previous.result.complete(null);
+        }
+        // Added inside compute so it cannot race with unregister dropping an empty set
+        waitersByStore.compute(waiter.storeId, (k, waiters) -> {
+            Set<Waiter> set = waiters != null ? waiters : ConcurrentHashMap.newKeySet();
+            set.add(waiter);
+            return set;
+        });
+    }
+
+    private void unregister(Waiter waiter) {
+        waitersByDevice.remove(waiter.deviceId, waiter);
+        waitersByStore.computeIfPresent(waiter.storeId, (k, waiters) -> {
+            waiters.remove(waiter);
+            return waiters.isEmpty() ? null : waiters;
+        });
+    }
+}
@@ -29,13 +29,15 @@ public class DeviceService implements ManageDevicesUseCase, SetupDeviceUseCase {
     private final DevicePort devicePort;
     private final EmployeePort employeePort;
     private final DeviceApiKeyGenerator apiKeyGenerator;
+    private final DeviceAuthenticationService deviceAuthenticationService;
     private final SecureRandom random = new SecureRandom();
 
     public DeviceService(DevicePort devicePort, EmployeePort employeePort,
-            DeviceApiKeyGenerator apiKeyGenerator) {
+            DeviceApiKeyGenerator apiKeyGenerator, DeviceAuthenticationService deviceAuthenticationService) {
         this.devicePort = devicePort;
         this.employeePort = employeePort;
         this.apiKeyGenerator = apiKeyGenerator;
+        this.deviceAuthenticationService = deviceAuthenticationService;
     }
 
     @Override
@@ -47,12 +49,16 @@ public class DeviceService implements ManageDevicesUseCase, SetupDeviceUseCase {
     @Transactional
     public void blockDevice(UUID id) {
         devicePort.updateStatus(id, "BLOCKED");
+        // Immediate on this node; the devices trigger notifies the others after commit
+        deviceAuthenticationService.invalidate(id);
     }
 
     @Override
     @Transactional
     public void unblockDevice(UUID id) {
         devicePort.updateStatus(id, "ACTIVE");
+        // Immediate on this node; the devices trigger notifies the others after commit
+        deviceAuthenticationService.invalidate(id);
     }
 
     @Override
@@ -1,12 +1,16 @@
 package es.terencio.erp.devices.application.service;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
-import es.terencio.erp.devices.application.dto.DeviceContextDto;
-import es.terencio.erp.devices.application.dto.DeviceDto;
+import es.terencio.erp.devices.application.dto.DeviceSyncState;
+import es.terencio.erp.devices.application.port.in.DeviceContextSink;
+import es.terencio.erp.devices.application.port.in.DeviceContextStream;
 import es.terencio.erp.devices.application.port.in.GetDeviceContextUseCase;
 import es.terencio.erp.devices.application.port.out.DevicePort;
 import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
@@ -21,52 +25,116 @@ import es.terencio.erp.shared.exception.RegistrationException;
 
 /**
  * Service for retrieving device context information.
- * Used by POS terminals during initial sync/handshake.
+ * Used by POS terminals during initial sync/handshake and later polls.
+ * <p>
+ * Each store has a change version maintained by database triggers (see
+ * V013). Polls send the version they have and get back only the changed
+ * parts, or nothing at all, so a steady poll costs a single lookup. The
+ * version is always read before the data, so a change racing with a read is
+ * at worst sent twice, never missed. Everything is read before the stream is
+ * returned, so no database connection is held while a slow till downloads.
  */
 @Service
 public class GetDeviceContextService implements GetDeviceContextUseCase {
 
     private final DevicePort devicePort;
+    private final ActiveDeviceResolver activeDevices;
     private final StoreRepository storeRepository;
     private final StoreSettingsRepository storeSettingsRepository;
     private final EmployeePort employeePort;
+    private final DeviceActivityTracker activityTracker;
 
     public GetDeviceContextService(
             DevicePort devicePort,
+            ActiveDeviceResolver activeDevices,
             StoreRepository storeRepository,
             StoreSettingsRepository storeSettingsRepository,
-            EmployeePort employeePort) {
+            EmployeePort employeePort,
+            DeviceActivityTracker activityTracker) {
         this.devicePort = devicePort;
+        this.activeDevices = activeDevices;
         this.storeRepository = storeRepository;
         this.storeSettingsRepository = storeSettingsRepository;
         this.employeePort = employeePort;
+        this.activityTracker = activityTracker;
     }
 
     @Override
-    public DeviceContextDto getContext(UUID deviceId) {
-        // 1. Verify device exists and is ACTIVE
-        DeviceDto device = devicePort.findById(deviceId)
-                .orElseThrow(() -> new RegistrationException("Device not found"));
+    public Optional<DeviceContextStream> openContext(UUID deviceId, Long sinceVersion) {
+        DeviceSyncState state = activeDevices.syncState(deviceId);
+        activityTracker.recordSync(deviceId);
 
-        if (!"ACTIVE".equals(device.status())) {
-            throw new RegistrationException("Device is not active");
+        if (sinceVersion != null && sinceVersion == state.version()) {
+            return Optional.empty();
         }
+        // No version, or not one of this store (store reassigned, database restored...)
+        boolean full = sinceVersion == null || sinceVersion < 0 || sinceVersion > state.version();
+        long since = full ? -1 : sinceVersion;
 
-        StoreId storeId = new StoreId(device.storeId());
+        // Read up front so lookup failures surface before anything is written
+        StoreId storeId = new StoreId(state.storeId());
+        Store store = state.storeVersion() > since ? findStore(storeId) : null;
+        // Settings may not exist for new stores
+        StoreSettings settings = state.settingsVersion() > since
+                ? storeSettingsRepository.findByStoreId(storeId).orElse(createDefaultSettings(storeId))
+                : null;
+        List<EmployeeSyncDto> users;
+        List<Long> removedUsers;
+        if (full) {
+            // All active users for this store, with pinHash for offline verification
+            users = employeePort.findAllSyncDataByStoreId(state.storeId());
+            removedUsers = List.of();
+        } else {
+            List<Long> changed = devicePort.findEmployeesChangedBetween(state.storeId(), since, state.version());
+            users = employeePort.findSyncDataByStoreId(state.storeId(), changed);
+            // Changed users without an active grant on the store any more are tombstones
+            Set<Long> removed = new LinkedHashSet<>(changed);
+            users.forEach(user -> removed.remove(user.id()));
+            removedUsers = List.copyOf(removed);
+        }
+        return Optional.of(new PreparedContext(state, full, store, settings, users, removedUsers));
+    }
 
-        // 2. Fetch Store information
-        Store store = storeRepository.findById(storeId)
-                .orElseThrow(() -> new RegistrationException("Store not found"));
+    private final class PreparedContext implements DeviceContextStream {
+        private final DeviceSyncState state;
+        private final boolean full;
+        private final Store store;
+        private final StoreSettings settings;
+        private final List<EmployeeSyncDto> users;
+        private final List<Long> removedUsers;
 
-        // 3. Fetch Store Settings (may not exist for new stores)
-        StoreSettings settings = storeSettingsRepository.findByStoreId(storeId)
-                .orElse(createDefaultSettings(storeId));
+        PreparedContext(DeviceSyncState state, boolean full, Store store, StoreSettings settings,
+                List<EmployeeSyncDto> users, List<Long> removedUsers) {
+            this.state = state;
+            this.full = full;
+            this.store = store;
+            this.settings = settings;
+            this.users = users;
+            this.removedUsers = removedUsers;
+        }
 
-        // 4. Fetch all active users for this store (with pinHash for offline
-        // verification)
-        List<EmployeeSyncDto> users = employeePort.findSyncDataByStoreId(device.storeId());
+        @Override
+        public long version() {
+            return state.version();
+        }
 
-        return new DeviceContextDto(store, settings, users);
+        @Override
+        public boolean full() {
+            return full;
+        }
+
+        @Override
+        public void writeTo(DeviceContextSink sink) {
+            sink.store(store);
+            sink.settings(settings);
+            users.forEach(sink::user);
+            sink.removedUsers(removedUsers);
+        }
+    }
+
+    private Store findStore(StoreId storeId) {
+        return storeRepository.findById(storeId)
+                .orElseThrow(() -> new RegistrationException("Store not found"));
     }
 
     private StoreSettings createDefaultSettings(StoreId storeId) {
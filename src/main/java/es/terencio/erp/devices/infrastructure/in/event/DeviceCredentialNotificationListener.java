@@ -0,0 +1,52 @@
+package es.terencio.erp.devices.infrastructure.in.event;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.devices.application.service.DeviceAuthenticationService;
+import es.terencio.erp.devices.application.service.DeviceChangeService;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener.NotificationHandler;
+
+/**
+ * Drops cached device credentials when a device is registered, blocked,
+ * unblocked or gets a new key on any node, and wakes up the device's pending
+ * long-poll so it notices. The notifications come from the trigger on devices
+ * (payload: device id).
+ */
+@Component
+public class DeviceCredentialNotificationListener implements NotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(DeviceCredentialNotificationListener.class);
+
+    static final String CHANNEL = "device_credentials_changed";
+
+    private final DeviceAuthenticationService deviceAuthenticationService;
+    private final DeviceChangeService deviceChangeService;
+
+    public DeviceCredentialNotificationListener(DeviceAuthenticationService deviceAuthenticationService,
+            DeviceChangeService deviceChangeService, PostgresNotificationListener notificationListener) {
+        this.deviceAuthenticationService = deviceAuthenticationService;
+        this.deviceChangeService = deviceChangeService;
+        notificationListener.subscribe(CHANNEL, this);
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        try {
+            UUID deviceId = UUID.fromString(payload);
+            deviceAuthenticationService.invalidate(deviceId);
+            deviceChangeService.deviceChanged(deviceId);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Unexpected {} payload '{}', invalidating all device credentials", CHANNEL, payload);
+            deviceAuthenticationService.invalidateAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        deviceAuthenticationService.invalidateAll();
+    }
+}
@@ -0,0 +1,49 @@
+package es.terencio.erp.devices.infrastructure.in.event;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.devices.application.service.DeviceChangeService;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener.NotificationHandler;
+
+/**
+ * Wakes up POS long-polls on this node when their store's sync version moves
+ * on any node. The notifications come from the trigger on pos_sync_stores
+ * (payload: {@code <store id>:<version>}).
+ */
+@Component
+public class PosSyncNotificationListener implements NotificationHandler {
+    private static final Logger log = LoggerFactory.getLogger(PosSyncNotificationListener.class);
+
+    static final String CHANNEL = "pos_sync_changed";
+
+    private final DeviceChangeService deviceChangeService;
+
+    public PosSyncNotificationListener(DeviceChangeService deviceChangeService,
+            PostgresNotificationListener notificationListener) {
+        this.deviceChangeService = deviceChangeService;
+        notificationListener.subscribe(CHANNEL, this);
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        int separator = payload != null ? payload.indexOf(':') : -1;
+        try {
+            UUID storeId = UUID.fromString(payload.substring(0, separator));
+            long version = Long.parseLong(payload.substring(separator + 1));
+            deviceChangeService.storeChanged(storeId, version);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | NullPointerException e) {
+            log.warn("Unexpected {} payload '{}', waking up all devices", CHANNEL, payload);
+            deviceChangeService.releaseAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        deviceChangeService.releaseAll();
+    }
+}
@@ -0,0 +1,168 @@
+package es.terencio.erp.devices.infrastructure.in.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.io.CountingOutputStream;
+
+import es.terencio.erp.devices.application.port.in.DeviceContextSink;
+import es.terencio.erp.devices.application.port.in.DeviceContextStream;
+import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
+import es.terencio.erp.organization.domain.model.Store;
+import es.terencio.erp.organization.domain.model.StoreSettings;
+import es.terencio.erp.shared.presentation.ApiResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Encodes a device context into the response, optionally gzipped.
+ * <p>
+ * The context arrives fully read (see {@code GetDeviceContextService}), so
+ * encoding only walks memory and no database connection is open meanwhile.
+ * It is still encoded section by section into the response stream rather
+ * than built as one response object first.
+ * <p>
+ * JSON keeps the usual {@link ApiResponse} envelope. CBOR, for tills on slow
+ * links, is the bare context (same field names) in Jackson's binary encoding,
+ * which is length-prefixed and roughly halves the payload before compression.
+ * Per-sync wire bytes and write time are recorded per encoding
+ * ({@code pos.sync.payload}, {@code pos.sync.write}) so the encodings can be
+ * compared in production.
+ */
+@Component
+public class DeviceContextResponseWriter {
+
+    private static final int GZIP_BUFFER_BYTES = 8_192;
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final MeterRegistry meterRegistry;
+
+    public DeviceContextResponseWriter(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder mapperBuilder,
+            MeterRegistry meterRegistry) {
+        this.jsonMapper = objectMapper;
+        // Same modules and settings as the JSON mapper
+        this.cborMapper = mapperBuilder.factory(new CBORFactory()).build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void write(DeviceContextStream context, boolean cbor, boolean gzip, HttpServletResponse response)
+            throws IOException {
+        String encoding = cbor ? "cbor" : "json";
+        String compression = gzip ? "gzip" : "identity";
+        long start = System.nanoTime();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cbor ? MediaType.APPLICATION_CBOR_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        CountingOutputStream wire = new CountingOutputStream(response.getOutputStream());
+        OutputStream out = gzip ? new GZIPOutputStream(wire, GZIP_BUFFER_BYTES) : wire;
+        try (JsonGenerator generator = (cbor ? cborMapper : jsonMapper).createGenerator(out)) {
+            generator.writeStartObject();
+            if (!cbor) {
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message",
+                        context.full() ? "Device context fetched" : "Device context changes fetched");
+                generator.writeFieldName("data");
+                generator.writeStartObject();
+            }
+            generator.writeNumberField("version", context.version());
+            generator.writeBooleanField("full", context.full());
+            context.writeTo(new GeneratorSink(generator));
+            generator.writeEndObject();
+            if (!cbor) {
+                generator.writeObjectField("meta", new ApiResponse.Meta(Instant.now()));
+                generator.writeEndObject();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Timer.builder("pos.sync.write")
+                .tag("encoding", encoding).tag("compression", compression)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("pos.sync.payload")
+                .baseUnit("bytes").tag("encoding", encoding).tag("compression", compression)
+                .register(meterRegistry)
+                .record(wire.getCount());
+    }
+
+    /** Opens the users array on the first user and closes it with the removed ids. */
+    private static final class GeneratorSink implements DeviceContextSink {
+        private final JsonGenerator generator;
+        private boolean usersOpen;
+
+        GeneratorSink(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void store(Store store) {
+            writeIfPresent("store", store);
+        }
+
+        @Override
+        public void settings(StoreSettings settings) {
+            writeIfPresent("settings", settings);
+        }
+
+        @Override
+        public void user(EmployeeSyncDto user) {
+            try {
+                if (!usersOpen) {
+                    generator.writeArrayFieldStart("users");
+                    usersOpen = true;
+                }
+                generator.writeObject(user);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void removedUsers(List<Long> employeeIds) {
+            try {
+                if (usersOpen) {
+                    generator.writeEndArray();
+                } else {
+                    generator.writeArrayFieldStart("users");
+                    generator.writeEndArray();
+                }
+                generator.writeObjectField("removedUserIds", employeeIds);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeIfPresent(String field, Object value) {
+            if (value == null) {
+                return;
+            }
+            try {
+                generator.writeObjectField(field, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
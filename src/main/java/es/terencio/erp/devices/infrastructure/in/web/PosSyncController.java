@@ -1,32 +1,106 @@
 package es.terencio.erp.devices.infrastructure.in.web;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
-import es.terencio.erp.devices.application.dto.DeviceContextDto;
+import es.terencio.erp.devices.application.dto.DeviceChange;
+import es.terencio.erp.devices.application.port.in.AwaitDeviceChangesUseCase;
+import es.terencio.erp.devices.application.port.in.DeviceContextStream;
 import es.terencio.erp.devices.application.port.in.GetDeviceContextUseCase;
 import es.terencio.erp.shared.presentation.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/v1/pos/sync")
 @Tag(name = "POS Sync", description = "POS device synchronization endpoints")
 public class PosSyncController {
 
+    private static final int MAX_WAIT_SECONDS = 55;
+
     private final GetDeviceContextUseCase getDeviceContextUseCase;
+    private final AwaitDeviceChangesUseCase awaitDeviceChangesUseCase;
+    private final DeviceContextResponseWriter contextWriter;
 
-    public PosSyncController(GetDeviceContextUseCase getDeviceContextUseCase) {
+    public PosSyncController(GetDeviceContextUseCase getDeviceContextUseCase,
+            AwaitDeviceChangesUseCase awaitDeviceChangesUseCase, DeviceContextResponseWriter contextWriter) {
         this.getDeviceContextUseCase = getDeviceContextUseCase;
+        this.awaitDeviceChangesUseCase = awaitDeviceChangesUseCase;
+        this.contextWriter = contextWriter;
     }
 
     // Retained @PreAuthorize("hasRole('DEVICE')") as devices are explicitly assigned this hardcoded machine role by the ApiKeyFilter.
-    @GetMapping("/context")
+    @GetMapping(value = "/context", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+
+    @Operation(summary = "Get device context", description = "Without 'since' returns a full snapshot. With the version of the device's current context returns only the changes (or a full snapshot if that version is unknown), or 304 when nothing changed. 'Accept: application/cbor' selects the compact binary encoding (bare context, no envelope); 'Accept-Encoding: gzip' compresses either.")
+    public void getContext(
+            @AuthenticationPrincipal UUID deviceId,
+            @Parameter(description = "Version of the context the device already has") @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        Optional<DeviceContextStream> context = getDeviceContextUseCase.openContext(deviceId, since);
+        if (context.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        contextWriter.write(context.get(), prefersCbor(accept), acceptsGzip(acceptEncoding), response);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Wait for device context changes", description = "Long-poll: returns as soon as the context moves past 'since' or the device itself changes (then re-sync with /context?since=), or 304 after 'wait' seconds without changes (then poll again).")
+    public ResponseEntity<ApiResponse<DeviceChange>> awaitChanges(
+            @AuthenticationPrincipal UUID deviceId,
+            @Parameter(description = "Version of the context the device already has") @RequestParam long since,
+            @Parameter(description = "Seconds to wait for a change (1-55)") @RequestParam(defaultValue = "25") int wait) {
+        Duration timeout = Duration.ofSeconds(Math.clamp(wait, 1, MAX_WAIT_SECONDS));
+        Optional<DeviceChange> change = awaitDeviceChangesUseCase.awaitChange(deviceId, since, timeout);
+        if (change.isEmpty()) {
+            return ResponseEntity.status(HttpServletResponse.SC_NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(ApiResponse.success("Device context changed", change.get()));
+    }
+
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> types = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(types);
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-    @Operation(summary = "Get device context")
-    public ResponseEntity<ApiResponse<DeviceContextDto>> getContext(@AuthenticationPrincipal UUID deviceId) {
-        DeviceContextDto context = getDeviceContextUseCase.getContext(deviceId);
-        return ResponseEntity.ok(ApiResponse.success("Device context fetched", context));
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
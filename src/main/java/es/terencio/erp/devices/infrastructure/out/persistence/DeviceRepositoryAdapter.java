@@ -1,19 +1,28 @@
 package es.terencio.erp.devices.infrastructure.out.persistence;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 
+import es.terencio.erp.devices.application.dto.DeviceActivity;
+import es.terencio.erp.devices.application.dto.DeviceCredentials;
 import es.terencio.erp.devices.application.dto.DeviceDto;
+import es.terencio.erp.devices.application.dto.DeviceSyncState;
 import es.terencio.erp.devices.application.port.out.DevicePort;
+import es.terencio.erp.devices.domain.model.DeviceStatus;
 
 @Repository
 public class DeviceRepositoryAdapter implements DevicePort {
-    
+
+    private static final int ACTIVITY_CHUNK_SIZE = 500;
+
     private final JdbcClient jdbcClient;
 
     public DeviceRepositoryAdapter(JdbcClient jdbcClient) {
@@ -79,4 +88,72 @@ public class DeviceRepositoryAdapter implements DevicePort {
                 rs.getTimestamp("created_at").toInstant()
             )).optional();
     }
+
+    @Override
+    public Optional<DeviceCredentials> findCredentials(UUID deviceId) {
+        return jdbcClient.sql("SELECT id, store_id, device_secret, api_key_version, status FROM devices WHERE id = :id")
+            .param("id", deviceId)
+            .query((rs, rowNum) -> new DeviceCredentials(
+                rs.getObject("id", UUID.class), rs.getObject("store_id", UUID.class),
+                rs.getString("device_secret"), rs.getInt("api_key_version"),
+                toStatus(rs.getString("status"))
+            )).optional();
+    }
+
+    @Override
+    public Optional<DeviceSyncState> findSyncState(UUID deviceId) {
+        return jdbcClient.sql("SELECT d.id, d.store_id, d.status, COALESCE(v.version, 0) AS version, COALESCE(v.store_version, 0) AS store_version, COALESCE(v.settings_version, 0) AS settings_version FROM devices d LEFT JOIN pos_sync_stores v ON v.store_id = d.store_id WHERE d.id = :id")
+            .param("id", deviceId)
+            .query((rs, rowNum) -> new DeviceSyncState(
+                rs.getObject("id", UUID.class), rs.getObject("store_id", UUID.class),
+                toStatus(rs.getString("status")), rs.getLong("version"),
+                rs.getLong("store_version"), rs.getLong("settings_version")
+            )).optional();
+    }
+
+    @Override
+    public List<Long> findEmployeesChangedBetween(UUID storeId, long sinceVersion, long upToVersion) {
+        return jdbcClient.sql("SELECT employee_id FROM pos_sync_employees WHERE store_id = :storeId AND version > :since AND version <= :upTo")
+            .param("storeId", storeId).param("since", sinceVersion).param("upTo", upToVersion)
+            .query(Long.class).list();
+    }
+
+    @Override
+    public void updateActivity(List<DeviceActivity> activity) {
+        for (int from = 0; from < activity.size(); from += ACTIVITY_CHUNK_SIZE) {
+            updateActivityChunk(activity.subList(from, Math.min(from + ACTIVITY_CHUNK_SIZE, activity.size())));
+        }
+    }
+
+    // One UPDATE ... FROM (VALUES ...) per chunk; GREATEST keeps the newest value if another node wrote later
+    private void updateActivityChunk(List<DeviceActivity> chunk) {
+        StringBuilder values = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            DeviceActivity a = chunk.get(i);
+            if (i > 0) values.append(", ");
+            values.append("(CAST(:id").append(i).append(" AS UUID), CAST(:auth").append(i)
+                .append(" AS TIMESTAMPTZ), CAST(:sync").append(i).append(" AS TIMESTAMPTZ))");
+            params.put("id" + i, a.deviceId());
+            params.put("auth" + i, toTimestamp(a.lastAuthenticatedAt()));
+            params.put("sync" + i, toTimestamp(a.lastSyncAt()));
+        }
+        jdbcClient.sql("UPDATE devices d SET last_authenticated_at = GREATEST(d.last_authenticated_at, v.auth_at), "
+                + "last_sync_at = GREATEST(d.last_sync_at, v.sync_at) "
+                + "FROM (VALUES " + values + ") AS v(id, auth_at, sync_at) WHERE d.id = v.id")
+            .params(params)
+            .update();
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private static DeviceStatus toStatus(String status) {
+        try {
+            return status != null ? DeviceStatus.valueOf(status) : DeviceStatus.PENDING;
+        } catch (IllegalArgumentException e) {
+            return DeviceStatus.PENDING;
+        }
+    }
 }
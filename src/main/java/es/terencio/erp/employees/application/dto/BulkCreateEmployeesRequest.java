@@ -0,0 +1,11 @@
+package es.terencio.erp.employees.application.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record BulkCreateEmployeesRequest(
+        @NotEmpty @Size(max = 2000) List<@Valid CreateEmployeeRequest> employees) {
+}
@@ -0,0 +1,30 @@
+package es.terencio.erp.employees.application.dto;
+
+/**
+ * Outcome of one row of a bulk provisioning request, in request order.
+ */
+public record BulkEmployeeResult(
+        int index,
+        String username,
+        Status status,
+        Long id,
+        String error) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        FAILED
+    }
+
+    public static BulkEmployeeResult created(int index, String username, Long id) {
+        return new BulkEmployeeResult(index, username, Status.CREATED, id, null);
+    }
+
+    public static BulkEmployeeResult duplicate(int index, String username) {
+        return new BulkEmployeeResult(index, username, Status.DUPLICATE, null, "Username already exists");
+    }
+
+    public static BulkEmployeeResult failed(int index, String username, String error) {
+        return new BulkEmployeeResult(index, username, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package es.terencio.erp.employees.application.dto;
+
+import java.util.UUID;
+
+/**
+ * A new employee with credentials already hashed, plus its initial grant.
+ */
+public record EmployeeInsert(
+        UUID organizationId,
+        String username,
+        String email,
+        String fullName,
+        String pinHash,
+        String passwordHash,
+        String role,
+        UUID companyId,
+        UUID storeId) {
+}
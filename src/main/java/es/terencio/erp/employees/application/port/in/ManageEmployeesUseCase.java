@@ -1,7 +1,9 @@
 package es.terencio.erp.employees.application.port.in;
 
 import java.util.List;
+import java.util.UUID;
 
+import es.terencio.erp.employees.application.dto.BulkEmployeeResult;
 import es.terencio.erp.employees.application.dto.CreateEmployeeRequest;
 import es.terencio.erp.employees.application.dto.UpdateEmployeeRequest;
 import es.terencio.erp.employees.application.dto.EmployeeDto;
@@ -10,6 +12,7 @@ public interface ManageEmployeesUseCase {
     List<EmployeeDto> listAll();
     EmployeeDto getById(Long id);
     EmployeeDto create(CreateEmployeeRequest request);
+    List<BulkEmployeeResult> createAll(UUID organizationId, List<CreateEmployeeRequest> requests);
     EmployeeDto update(Long id, UpdateEmployeeRequest request);
     void changePosPin(Long id, String newPin);
     void changeBackofficePassword(Long id, String newPassword);
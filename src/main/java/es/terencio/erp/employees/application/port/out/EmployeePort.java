@@ -1,11 +1,15 @@
 package es.terencio.erp.employees.application.port.out;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import es.terencio.erp.auth.domain.model.AccessGrant;
 import es.terencio.erp.employees.application.dto.EmployeeDto;
+import es.terencio.erp.employees.application.dto.EmployeeInsert;
 import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
 
 public interface EmployeePort {
@@ -13,11 +17,15 @@ public interface EmployeePort {
     Optional<EmployeeDto> findById(Long id);
     Optional<EmployeeDto> findByUsername(String username);
     Long save(UUID organizationId, String username, String email, String fullName, String pinHash, String passwordHash);
+    Set<String> findExistingUsernames(Collection<String> usernames);
+    /** Inserts employees and their grants; returns the ids of the rows inserted, by username. */
+    Map<String, Long> insertAll(List<EmployeeInsert> employees);
     void update(Long id, String fullName, String email, boolean isActive);
     void updatePin(Long id, String pinHash);
     void updatePassword(Long id, String passwordHash);
     void syncAccessGrants(Long id, String role, UUID companyId, UUID storeId);
-    List<EmployeeSyncDto> findSyncDataByStoreId(UUID storeId);
+    List<EmployeeSyncDto> findAllSyncDataByStoreId(UUID storeId);
+    List<EmployeeSyncDto> findSyncDataByStoreId(UUID storeId, Collection<Long> employeeIds);
     List<AccessGrant> findAccessGrants(Long employeeId);
     void updateLastActiveContext(Long employeeId, UUID companyId, UUID storeId);
 }
@@ -1,27 +1,55 @@
 package es.terencio.erp.employees.application.service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import es.terencio.erp.employees.application.dto.BulkEmployeeResult;
 import es.terencio.erp.employees.application.dto.CreateEmployeeRequest;
 import es.terencio.erp.employees.application.dto.EmployeeDto;
+import es.terencio.erp.employees.application.dto.EmployeeInsert;
 import es.terencio.erp.employees.application.dto.UpdateEmployeeRequest;
 import es.terencio.erp.employees.application.port.in.ManageEmployeesUseCase;
 import es.terencio.erp.employees.application.port.out.EmployeePort;
+import es.terencio.erp.shared.exception.CapacityExceededException;
 import es.terencio.erp.shared.exception.DomainException;
 
 @Service
 public class EmployeeService implements ManageEmployeesUseCase {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeService.class);
+
+    // Rows per INSERT and per transaction in bulk provisioning
+    private static final int BULK_CHUNK_SIZE = 200;
 
     private final EmployeePort employeePort;
     private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final int hashingThreads;
 
-    public EmployeeService(EmployeePort employeePort, PasswordEncoder passwordEncoder) {
+    public EmployeeService(EmployeePort employeePort, PasswordEncoder passwordEncoder,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.security.password-hashing.threads:0}") int hashingThreads) {
         this.employeePort = employeePort;
         this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        // Same sizing as the hashing pool in SecurityConfig: 0 = one per core
+        this.hashingThreads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
     }
 
     @Override
@@ -50,6 +78,102 @@ public class EmployeeService implements ManageEmployeesUseCase {
         return getById(id);
     }
 
+    /**
+     * Provisions many employees at once. Credentials are hashed in parallel
+     * (bounded to the hashing pool size so a bulk run cannot overflow the
+     * password bulkhead) outside any transaction; each chunk is then written
+     * with one employees INSERT and one grants INSERT in its own transaction.
+     * A failing chunk does not undo earlier ones; every row gets a result.
+     */
+    @Override
+    public List<BulkEmployeeResult> createAll(UUID organizationId, List<CreateEmployeeRequest> requests) {
+        BulkEmployeeResult[] results = new BulkEmployeeResult[requests.size()];
+        Set<String> seenUsernames = new HashSet<>();
+        for (int from = 0; from < requests.size(); from += BULK_CHUNK_SIZE) {
+            int to = Math.min(from + BULK_CHUNK_SIZE, requests.size());
+            provisionChunk(organizationId, requests, from, to, seenUsernames, results);
+        }
+        return List.of(results);
+    }
+
+    private void provisionChunk(UUID organizationId, List<CreateEmployeeRequest> requests, int from, int to,
+            Set<String> seenUsernames, BulkEmployeeResult[] results) {
+        Map<Integer, CreateEmployeeRequest> candidates = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            CreateEmployeeRequest request = requests.get(i);
+            if (!organizationId.equals(request.organizationId())) {
+                results[i] = BulkEmployeeResult.failed(i, request.username(), "Employee belongs to another organization");
+            } else if (!seenUsernames.add(request.username())) {
+                results[i] = BulkEmployeeResult.duplicate(i, request.username());
+            } else {
+                candidates.put(i, request);
+            }
+        }
+
+        Set<String> existing = employeePort.findExistingUsernames(
+                candidates.values().stream().map(CreateEmployeeRequest::username).toList());
+        candidates.entrySet().removeIf(entry -> {
+            if (!existing.contains(entry.getValue().username())) return false;
+            results[entry.getKey()] = BulkEmployeeResult.duplicate(entry.getKey(), entry.getValue().username());
+            return true;
+        });
+
+        Map<Integer, EmployeeInsert> hashed = hashAll(candidates, results);
+        if (hashed.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(
+                    status -> employeePort.insertAll(new ArrayList<>(hashed.values())));
+            hashed.forEach((index, insert) -> {
+                Long id = ids != null ? ids.get(insert.username()) : null;
+                results[index] = id != null
+                        ? BulkEmployeeResult.created(index, insert.username(), id)
+                        : BulkEmployeeResult.duplicate(index, insert.username());
+            });
+        } catch (RuntimeException e) {
+            log.error("Bulk employee provisioning failed for rows {}-{}", from, to - 1, e);
+            hashed.forEach((index, insert) -> results[index] = BulkEmployeeResult.failed(index, insert.username(),
+                    "Could not save this batch of employees"));
+        }
+    }
+
+    private Map<Integer, EmployeeInsert> hashAll(Map<Integer, CreateEmployeeRequest> candidates,
+            BulkEmployeeResult[] results) {
+        Semaphore permits = new Semaphore(hashingThreads);
+        Map<Integer, Future<EmployeeInsert>> futures = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            candidates.forEach((index, request) -> futures.put(index, executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return toInsert(request);
+                } finally {
+                    permits.release();
+                }
+            })));
+        }
+
+        Map<Integer, EmployeeInsert> hashed = new LinkedHashMap<>();
+        futures.forEach((index, future) -> {
+            String username = candidates.get(index).username();
+            if (future.state() == Future.State.SUCCESS) {
+                hashed.put(index, future.resultNow());
+            } else if (future.state() == Future.State.FAILED && future.exceptionNow() instanceof CapacityExceededException) {
+                results[index] = BulkEmployeeResult.failed(index, username, "Server busy, retry this employee later");
+            } else {
+                results[index] = BulkEmployeeResult.failed(index, username, "Could not hash credentials");
+            }
+        });
+        return hashed;
+    }
+
+    private EmployeeInsert toInsert(CreateEmployeeRequest request) {
+        return new EmployeeInsert(request.organizationId(), request.username(), request.email(), request.fullName(),
+                passwordEncoder.encode(request.posPin()), passwordEncoder.encode(request.backofficePassword()),
+                request.role(), request.companyId(), request.storeId());
+    }
+
     @Override
     @Transactional
     public EmployeeDto update(Long id, UpdateEmployeeRequest request) {
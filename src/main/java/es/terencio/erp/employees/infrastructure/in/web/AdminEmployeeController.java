@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.*;
 import es.terencio.erp.auth.domain.model.AccessScope;
 import es.terencio.erp.auth.domain.model.Permission;
 import es.terencio.erp.auth.infrastructure.config.security.aop.RequiresPermission;
+import es.terencio.erp.employees.application.dto.BulkCreateEmployeesRequest;
+import es.terencio.erp.employees.application.dto.BulkEmployeeResult;
 import es.terencio.erp.employees.application.dto.CreateEmployeeRequest;
 import es.terencio.erp.employees.application.dto.EmployeeDto;
 import es.terencio.erp.employees.application.dto.UpdateEmployeeRequest;
@@ -41,6 +43,13 @@ public class AdminEmployeeController {
         return ResponseEntity.ok(ApiResponse.success("Employee created", manageEmployeesUseCase.create(request)));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk create employees", description = "Creates many employees at once and returns a result per row, in request order")
+    @RequiresPermission(permission = Permission.EMPLOYEE_CREATE, scope = AccessScope.ORGANIZATION, targetIdParam = "organizationId")
+    public ResponseEntity<ApiResponse<List<BulkEmployeeResult>>> createAll(@RequestParam UUID organizationId, @Valid @RequestBody BulkCreateEmployeesRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Bulk provisioning processed", manageEmployeesUseCase.createAll(organizationId, request.employees())));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update employee")
     @RequiresPermission(permission = Permission.EMPLOYEE_UPDATE, scope = AccessScope.ORGANIZATION, targetIdParam = "organizationId")
@@ -1,7 +1,13 @@
 package es.terencio.erp.employees.infrastructure.out.persistence;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.jdbc.core.simple.JdbcClient;
@@ -10,6 +16,7 @@ import org.springframework.stereotype.Repository;
 import es.terencio.erp.auth.domain.model.AccessGrant;
 import es.terencio.erp.auth.domain.model.AccessScope;
 import es.terencio.erp.employees.application.dto.EmployeeDto;
+import es.terencio.erp.employees.application.dto.EmployeeInsert;
 import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
 import es.terencio.erp.employees.application.port.out.EmployeePort;
 
@@ -65,9 +72,70 @@ public class EmployeeRepositoryAdapter implements EmployeePort {
             .query(Long.class).single();
     }
 
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) return Set.of();
+        return new HashSet<>(jdbcClient.sql("SELECT username FROM employees WHERE username IN (:usernames)")
+            .param("usernames", usernames)
+            .query(String.class).list());
+    }
+
+    @Override
+    public Map<String, Long> insertAll(List<EmployeeInsert> employees) {
+        if (employees.isEmpty()) return Map.of();
+
+        // One multi-row INSERT; rows that lose a race on (organization_id, username) are skipped, not fatal
+        StringBuilder values = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < employees.size(); i++) {
+            EmployeeInsert e = employees.get(i);
+            if (i > 0) values.append(", ");
+            values.append("(:orgId").append(i).append(", :username").append(i).append(", :email").append(i)
+                .append(", :fullName").append(i).append(", :pinHash").append(i).append(", :pwdHash").append(i).append(")");
+            params.put("orgId" + i, e.organizationId());
+            params.put("username" + i, e.username());
+            params.put("email" + i, e.email());
+            params.put("fullName" + i, e.fullName());
+            params.put("pinHash" + i, e.pinHash());
+            params.put("pwdHash" + i, e.passwordHash());
+        }
+        Map<String, Long> ids = new HashMap<>();
+        jdbcClient.sql("INSERT INTO employees (organization_id, username, email, full_name, pin_hash, password_hash) VALUES "
+                + values + " ON CONFLICT (organization_id, username) DO NOTHING RETURNING id, username")
+            .params(params)
+            .query((rs, rowNum) -> Map.entry(rs.getString("username"), rs.getLong("id")))
+            .list()
+            .forEach(row -> ids.put(row.getKey(), row.getValue()));
+
+        insertInitialGrants(employees, ids);
+        return ids;
+    }
+
+    private void insertInitialGrants(List<EmployeeInsert> employees, Map<String, Long> ids) {
+        List<String> rows = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (EmployeeInsert e : employees) {
+            Long id = ids.get(e.username());
+            UUID targetId = e.storeId() != null ? e.storeId() : e.companyId();
+            if (id == null || targetId == null) continue;
+            int i = rows.size();
+            rows.add("(:id" + i + ", :scope" + i + ", :targetId" + i + ", :role" + i + ")");
+            params.put("id" + i, id);
+            params.put("scope" + i, e.storeId() != null ? "STORE" : "COMPANY");
+            params.put("targetId" + i, targetId);
+            params.put("role" + i, e.role());
+        }
+        if (rows.isEmpty()) return;
+        jdbcClient.sql("INSERT INTO employee_access_grants (employee_id, scope, target_id, role) VALUES " + String.join(", ", rows))
+            .params(params).update();
+    }
+
     @Override
     public void update(Long id, String fullName, String email, boolean isActive) {
-        jdbcClient.sql("UPDATE employees SET full_name = :fullName, email = :email, is_active = :isActive, updated_at = NOW() WHERE id = :id")
+        // Toggling is_active bumps token_version so tokens from before a deactivation never come back to life
+        jdbcClient.sql("UPDATE employees SET full_name = :fullName, email = :email, is_active = :isActive, "
+                + "token_version = token_version + CASE WHEN is_active IS DISTINCT FROM :isActive THEN 1 ELSE 0 END, "
+                + "updated_at = NOW() WHERE id = :id")
             .param("fullName", fullName).param("email", email).param("isActive", isActive).param("id", id).update();
     }
 
@@ -79,7 +147,7 @@ public class EmployeeRepositoryAdapter implements EmployeePort {
 
     @Override
     public void updatePassword(Long id, String passwordHash) {
-        jdbcClient.sql("UPDATE employees SET password_hash = :passwordHash, updated_at = NOW() WHERE id = :id")
+        jdbcClient.sql("UPDATE employees SET password_hash = :passwordHash, token_version = token_version + 1, updated_at = NOW() WHERE id = :id")
             .param("passwordHash", passwordHash).param("id", id).update();
     }
 
@@ -96,7 +164,7 @@ public class EmployeeRepositoryAdapter implements EmployeePort {
     }
 
     @Override
-    public List<EmployeeSyncDto> findSyncDataByStoreId(UUID storeId) {
+    public List<EmployeeSyncDto> findAllSyncDataByStoreId(UUID storeId) {
         return jdbcClient.sql("SELECT e.id, e.username, e.full_name, g.role, e.pin_hash, e.last_active_company_id, e.last_active_store_id FROM employees e JOIN employee_access_grants g ON e.id = g.employee_id WHERE g.target_id = :storeId AND e.is_active = TRUE")
             .param("storeId", storeId)
             .query((rs, rowNum) -> new EmployeeSyncDto(
@@ -105,6 +173,17 @@ public class EmployeeRepositoryAdapter implements EmployeePort {
             )).list();
     }
 
+    @Override
+    public List<EmployeeSyncDto> findSyncDataByStoreId(UUID storeId, Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) return List.of();
+        return jdbcClient.sql("SELECT e.id, e.username, e.full_name, g.role, e.pin_hash, e.last_active_company_id, e.last_active_store_id FROM employees e JOIN employee_access_grants g ON e.id = g.employee_id WHERE g.target_id = :storeId AND e.is_active = TRUE AND e.id IN (:ids)")
+            .param("storeId", storeId).param("ids", employeeIds)
+            .query((rs, rowNum) -> new EmployeeSyncDto(
+                rs.getLong("id"), rs.getString("username"), rs.getString("full_name"), rs.getString("role"),
+                rs.getString("pin_hash"), rs.getObject("last_active_company_id", UUID.class), rs.getObject("last_active_store_id", UUID.class)
+            )).list();
+    }
+
     @Override
     public List<AccessGrant> findAccessGrants(Long employeeId) {
         return jdbcClient.sql("SELECT scope, target_id, role FROM employee_access_grants WHERE employee_id = :empId")
@@ -0,0 +1,15 @@
+package es.terencio.erp.fiscal.application.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of re-hashing one device's fiscal chain. {@code firstBrokenSequence}
+ * is the first record whose hash or link does not check out, or null when
+ * the whole chain is intact.
+ */
+public record ChainVerificationResult(UUID deviceId, long recordsChecked, Long firstBrokenSequence, String problem) {
+
+    public boolean intact() {
+        return firstBrokenSequence == null;
+    }
+}
@@ -0,0 +1,13 @@
+package es.terencio.erp.fiscal.application.dto;
+
+import java.time.Instant;
+
+import es.terencio.erp.shared.domain.identifier.SaleId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+/**
+ * A recorded sale to append to its device's fiscal chain.
+ */
+public record FiscalizeSaleCommand(SaleId saleId, StoreId storeId, Money amount, Instant issuedAt) {
+}
@@ -0,0 +1,15 @@
+package es.terencio.erp.fiscal.application.port.in;
+
+import java.util.List;
+
+import es.terencio.erp.fiscal.application.dto.FiscalizeSaleCommand;
+import es.terencio.erp.fiscal.domain.model.FiscalAuditLog;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+
+public interface FiscalizeSalesUseCase {
+    /**
+     * Appends the sales, in order, to the device's fiscal chain. Must run in
+     * the transaction that records the sales, so both commit or neither does.
+     */
+    List<FiscalAuditLog> fiscalize(DeviceId deviceId, List<FiscalizeSaleCommand> sales);
+}
@@ -0,0 +1,18 @@
+package es.terencio.erp.fiscal.application.port.out;
+
+import java.util.List;
+import java.util.UUID;
+
+import es.terencio.erp.fiscal.domain.model.ChainHead;
+import es.terencio.erp.fiscal.domain.model.FiscalAuditLog;
+
+public interface FiscalAuditLogPort {
+    /** Reads and row-locks the device's chain head, creating the genesis head for a new chain. */
+    ChainHead lockHead(UUID deviceId);
+    /** Moves the head from {@code expected} to {@code next}; false when the head is no longer {@code expected}. */
+    boolean advanceHead(UUID deviceId, ChainHead expected, ChainHead next);
+    void insertAll(List<FiscalAuditLog> records);
+    List<UUID> findChainedDeviceIds();
+    /** Records of the device's chain after {@code afterSequence}, in sequence order. */
+    List<FiscalAuditLog> findChain(UUID deviceId, long afterSequence, int limit);
+}
@@ -0,0 +1,119 @@
+package es.terencio.erp.fiscal.application.service;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.util.concurrent.Striped;
+
+import es.terencio.erp.fiscal.application.dto.FiscalizeSaleCommand;
+import es.terencio.erp.fiscal.application.port.in.FiscalizeSalesUseCase;
+import es.terencio.erp.fiscal.application.port.out.FiscalAuditLogPort;
+import es.terencio.erp.fiscal.domain.model.ChainHead;
+import es.terencio.erp.fiscal.domain.model.FiscalAuditLog;
+import es.terencio.erp.fiscal.domain.model.FiscalSoftware;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+
+/**
+ * Appends sales to per-device fiscal chains.
+ * <p>
+ * Chains are independent, so appends are serialized per device only: a lock
+ * stripe keyed by device id, held until the surrounding transaction ends.
+ * The head of each chain is cached after commit. Before writing, the stored
+ * head is moved from the cached one to the new one in a single conditional
+ * UPDATE; if another node appended in between (or this node has no head
+ * yet) the head is re-read under a row lock and the batch re-chained from
+ * it. A whole batch costs one head UPDATE and one multi-row INSERT.
+ */
+@Service
+public class FiscalChainService implements FiscalizeSalesUseCase {
+    private static final Logger log = LoggerFactory.getLogger(FiscalChainService.class);
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final FiscalAuditLogPort fiscalAuditLogPort;
+    private final FiscalSoftware software;
+    private final Striped<Lock> deviceLocks = Striped.lock(LOCK_STRIPES);
+    private final Map<UUID, ChainHead> heads = new ConcurrentHashMap<>();
+
+    public FiscalChainService(FiscalAuditLogPort fiscalAuditLogPort,
+            @Value("${terencio.fiscal.software-id:TERENCIO-ERP}") String softwareId,
+            @Value("${terencio.fiscal.software-version:0.0.1}") String softwareVersion,
+            @Value("${terencio.fiscal.developer-id:TERENCIO}") String developerId) {
+        this.fiscalAuditLogPort = fiscalAuditLogPort;
+        this.software = new FiscalSoftware(softwareId, softwareVersion, developerId);
+    }
+
+    @Override
+    public List<FiscalAuditLog> fiscalize(DeviceId deviceId, List<FiscalizeSaleCommand> sales) {
+        if (sales.isEmpty()) {
+            return List.of();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Sales must be fiscalized inside the transaction that records them");
+        }
+        UUID device = deviceId.value();
+        Lock lock = deviceLocks.get(device);
+        lock.lock();
+        // Released once the records are committed or rolled back, never before
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    heads.remove(device);
+                }
+                lock.unlock();
+            }
+        });
+
+        MessageDigest sha256 = FiscalAuditLog.newDigest();
+        ChainHead cached = heads.get(device);
+        ChainHead head = cached != null ? cached : fiscalAuditLogPort.lockHead(device);
+        List<FiscalAuditLog> records = chain(head, deviceId, sales, sha256);
+        ChainHead last = records.get(records.size() - 1).asHead();
+
+        if (!fiscalAuditLogPort.advanceHead(device, head, last)) {
+            log.info("Fiscal chain head of device {} moved elsewhere, re-chaining from the stored head", device);
+            head = fiscalAuditLogPort.lockHead(device);
+            records = chain(head, deviceId, sales, sha256);
+            last = records.get(records.size() - 1).asHead();
+            if (!fiscalAuditLogPort.advanceHead(device, head, last)) {
+                throw new IllegalStateException("Fiscal chain head of device " + device + " changed under its row lock");
+            }
+        }
+        fiscalAuditLogPort.insertAll(records);
+
+        ChainHead committedHead = last;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                heads.put(device, committedHead);
+            }
+        });
+        return records;
+    }
+
+    private List<FiscalAuditLog> chain(ChainHead head, DeviceId deviceId, List<FiscalizeSaleCommand> sales,
+            MessageDigest sha256) {
+        List<FiscalAuditLog> records = new ArrayList<>(sales.size());
+        ChainHead previous = head;
+        for (FiscalizeSaleCommand sale : sales) {
+            FiscalAuditLog record = FiscalAuditLog.chain(previous, sale.saleId(), sale.storeId(), deviceId, software,
+                    sale.amount(), sale.issuedAt(), sha256);
+            records.add(record);
+            previous = record.asHead();
+        }
+        return records;
+    }
+}
@@ -0,0 +1,109 @@
+package es.terencio.erp.fiscal.application.service;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.fiscal.application.dto.ChainVerificationResult;
+import es.terencio.erp.fiscal.application.port.out.FiscalAuditLogPort;
+import es.terencio.erp.fiscal.domain.model.ChainHead;
+import es.terencio.erp.fiscal.domain.model.FiscalAuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Periodically re-hashes every device's fiscal chain from the first record,
+ * checking each hash and each link to the previous record. Chains are
+ * independent, so several are verified at once; each is read in pages in
+ * sequence order.
+ */
+@Component
+public class FiscalChainVerificationJob {
+    private static final Logger log = LoggerFactory.getLogger(FiscalChainVerificationJob.class);
+
+    private static final int PAGE_SIZE = 5_000;
+
+    private final FiscalAuditLogPort fiscalAuditLogPort;
+    private final int parallelism;
+    private final Counter brokenChains;
+
+    public FiscalChainVerificationJob(FiscalAuditLogPort fiscalAuditLogPort, MeterRegistry meterRegistry,
+            @Value("${terencio.fiscal.verification-parallelism:4}") int parallelism) {
+        this.fiscalAuditLogPort = fiscalAuditLogPort;
+        this.parallelism = Math.max(1, parallelism);
+        this.brokenChains = Counter.builder("fiscal.chain.broken").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${terencio.fiscal.verification-cron:0 0 4 * * *}")
+    public void verifyAllChains() {
+        List<UUID> devices = fiscalAuditLogPort.findChainedDeviceIds();
+        long start = System.currentTimeMillis();
+        List<ChainVerificationResult> results = verify(devices);
+
+        long broken = results.stream().filter(result -> !result.intact()).count();
+        long records = results.stream().mapToLong(ChainVerificationResult::recordsChecked).sum();
+        if (broken > 0) {
+            log.error("Fiscal chain verification: {} of {} chains broken", broken, results.size());
+        }
+        log.info("Verified {} fiscal records in {} chains in {} ms", records, results.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public List<ChainVerificationResult> verify(List<UUID> deviceIds) {
+        List<Future<ChainVerificationResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            for (UUID deviceId : deviceIds) {
+                futures.add(executor.submit(() -> verifyChain(deviceId)));
+            }
+            List<ChainVerificationResult> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    log.error("Could not verify the fiscal chain of device {}", deviceIds.get(i), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    break;
+                }
+            }
+            return results;
+        }
+    }
+
+    public ChainVerificationResult verifyChain(UUID deviceId) {
+        MessageDigest sha256 = FiscalAuditLog.newDigest();
+        ChainHead previous = ChainHead.genesis();
+        long checked = 0;
+        while (true) {
+            List<FiscalAuditLog> page = fiscalAuditLogPort.findChain(deviceId, previous.sequence(), PAGE_SIZE);
+            for (FiscalAuditLog record : page) {
+                checked++;
+                String problem = !record.follows(previous) ? "does not continue the previous record"
+                        : !record.hashMatches(sha256) ? "hash does not match its data"
+                        : null;
+                if (problem != null) {
+                    brokenChains.increment();
+                    log.error("Fiscal chain of device {} broken at record {}: {}", deviceId,
+                            record.chainSequenceId(), problem);
+                    return new ChainVerificationResult(deviceId, checked, record.chainSequenceId(), problem);
+                }
+                previous = record.asHead();
+            }
+            if (page.size() < PAGE_SIZE) {
+                return new ChainVerificationResult(deviceId, checked, null, null);
+            }
+        }
+    }
+}
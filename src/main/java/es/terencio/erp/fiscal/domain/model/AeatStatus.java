@@ -0,0 +1,7 @@
+package es.terencio.erp.fiscal.domain.model;
+
+public enum AeatStatus {
+    PENDING,
+    SENT,
+    ACCEPTED
+}
@@ -0,0 +1,14 @@
+package es.terencio.erp.fiscal.domain.model;
+
+/**
+ * Last record of a device's fiscal chain: the sequence and hash the next
+ * record continues from. An empty chain starts at the genesis head.
+ */
+public record ChainHead(long sequence, String recordHash) {
+
+    public static final String GENESIS_HASH = "0".repeat(64);
+
+    public static ChainHead genesis() {
+        return new ChainHead(0, GENESIS_HASH);
+    }
+}
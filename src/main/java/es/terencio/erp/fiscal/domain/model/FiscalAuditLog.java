@@ -0,0 +1,129 @@
+package es.terencio.erp.fiscal.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+import es.terencio.erp.shared.domain.identifier.SaleId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+/**
+ * Immutable fiscal record of a sale (VeriFactu). Each device keeps its own
+ * chain: record n carries sequence n and the hash of record n-1, and its own
+ * hash is SHA-256 over those and the invoice data, so altering or removing
+ * any record breaks every hash after it.
+ */
+public final class FiscalAuditLog {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final SaleId saleId;
+    private final StoreId storeId;
+    private final DeviceId deviceId;
+    private final long chainSequenceId;
+    private final String previousRecordHash;
+    private final String recordHash;
+    private final FiscalSoftware software;
+    private final Money invoiceAmount;
+    private final Instant invoiceDate;
+    private final AeatStatus aeatStatus;
+
+    private FiscalAuditLog(SaleId saleId, StoreId storeId, DeviceId deviceId, long chainSequenceId,
+            String previousRecordHash, String recordHash, FiscalSoftware software, Money invoiceAmount,
+            Instant invoiceDate, AeatStatus aeatStatus) {
+        this.saleId = saleId;
+        this.storeId = storeId;
+        this.deviceId = deviceId;
+        this.chainSequenceId = chainSequenceId;
+        this.previousRecordHash = previousRecordHash;
+        this.recordHash = recordHash;
+        this.software = software;
+        this.invoiceAmount = invoiceAmount;
+        this.invoiceDate = invoiceDate;
+        this.aeatStatus = aeatStatus;
+    }
+
+    /**
+     * Creates the record that follows {@code previous} in the device's chain.
+     * The digest is reused across a batch; it is reset before use.
+     */
+    public static FiscalAuditLog chain(ChainHead previous, SaleId saleId, StoreId storeId, DeviceId deviceId,
+            FiscalSoftware software, Money invoiceAmount, Instant invoiceDate, MessageDigest sha256) {
+        if (saleId == null || storeId == null || deviceId == null || invoiceAmount == null || invoiceDate == null) {
+            throw new InvariantViolationException("Fiscal record needs a sale, a store, a device, an amount and a date");
+        }
+        // Stored with microsecond precision; hash what can be read back
+        Instant date = invoiceDate.truncatedTo(ChronoUnit.MICROS);
+        long sequence = previous.sequence() + 1;
+        String hash = hash(sha256, previous.recordHash(), sequence, saleId, storeId, deviceId, software,
+                invoiceAmount, date);
+        return new FiscalAuditLog(saleId, storeId, deviceId, sequence, previous.recordHash(), hash, software,
+                invoiceAmount, date, AeatStatus.PENDING);
+    }
+
+    /** Rebuilds a stored record, without checking it (see {@link #hashMatches}). */
+    public static FiscalAuditLog restore(SaleId saleId, StoreId storeId, DeviceId deviceId, long chainSequenceId,
+            String previousRecordHash, String recordHash, FiscalSoftware software, Money invoiceAmount,
+            Instant invoiceDate, AeatStatus aeatStatus) {
+        return new FiscalAuditLog(saleId, storeId, deviceId, chainSequenceId, previousRecordHash, recordHash,
+                software, invoiceAmount, invoiceDate, aeatStatus);
+    }
+
+    /** Whether the stored hash is the hash of the stored data. */
+    public boolean hashMatches(MessageDigest sha256) {
+        return recordHash.equals(hash(sha256, previousRecordHash, chainSequenceId, saleId, storeId, deviceId,
+                software, invoiceAmount, invoiceDate));
+    }
+
+    /** Whether this record directly continues {@code previous}. */
+    public boolean follows(ChainHead previous) {
+        return chainSequenceId == previous.sequence() + 1 && previousRecordHash.equals(previous.recordHash());
+    }
+
+    public ChainHead asHead() {
+        return new ChainHead(chainSequenceId, recordHash);
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hash(MessageDigest sha256, String previousHash, long sequence, SaleId saleId,
+            StoreId storeId, DeviceId deviceId, FiscalSoftware software, Money amount, Instant date) {
+        String canonical = String.join("|",
+                previousHash,
+                deviceId.value().toString(),
+                Long.toString(sequence),
+                saleId.value().toString(),
+                storeId.value().toString(),
+                Long.toString(amount.cents()),
+                amount.currencyCode(),
+                date.toString(),
+                software.softwareId(),
+                software.softwareVersion(),
+                software.developerId());
+        sha256.reset();
+        return HEX.formatHex(sha256.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public SaleId saleId() { return saleId; }
+    public StoreId storeId() { return storeId; }
+    public DeviceId deviceId() { return deviceId; }
+    public long chainSequenceId() { return chainSequenceId; }
+    public String previousRecordHash() { return previousRecordHash; }
+    public String recordHash() { return recordHash; }
+    public FiscalSoftware software() { return software; }
+    public Money invoiceAmount() { return invoiceAmount; }
+    public Instant invoiceDate() { return invoiceDate; }
+    public AeatStatus aeatStatus() { return aeatStatus; }
+}
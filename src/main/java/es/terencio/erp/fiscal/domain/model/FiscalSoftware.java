@@ -0,0 +1,7 @@
+package es.terencio.erp.fiscal.domain.model;
+
+/**
+ * Identification of the invoicing software, part of every fiscal record.
+ */
+public record FiscalSoftware(String softwareId, String softwareVersion, String developerId) {
+}
@@ -0,0 +1,119 @@
+package es.terencio.erp.fiscal.infrastructure.out.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.fiscal.application.port.out.FiscalAuditLogPort;
+import es.terencio.erp.fiscal.domain.model.AeatStatus;
+import es.terencio.erp.fiscal.domain.model.ChainHead;
+import es.terencio.erp.fiscal.domain.model.FiscalAuditLog;
+import es.terencio.erp.fiscal.domain.model.FiscalSoftware;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+import es.terencio.erp.shared.domain.identifier.SaleId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+@Repository
+public class FiscalAuditLogRepositoryAdapter implements FiscalAuditLogPort {
+
+    // Keeps each statement well below the 65535 bind parameters Postgres accepts
+    private static final int MAX_ROWS_PER_INSERT = 2_000;
+
+    private final JdbcClient jdbcClient;
+
+    public FiscalAuditLogRepositoryAdapter(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public ChainHead lockHead(UUID deviceId) {
+        jdbcClient.sql("INSERT INTO fiscal_chain_heads (device_id, chain_sequence_id, record_hash) VALUES (:deviceId, 0, :genesis) ON CONFLICT (device_id) DO NOTHING")
+            .param("deviceId", deviceId).param("genesis", ChainHead.GENESIS_HASH)
+            .update();
+        return jdbcClient.sql("SELECT chain_sequence_id, record_hash FROM fiscal_chain_heads WHERE device_id = :deviceId FOR UPDATE")
+            .param("deviceId", deviceId)
+            .query((rs, rowNum) -> new ChainHead(rs.getLong("chain_sequence_id"), rs.getString("record_hash")))
+            .single();
+    }
+
+    @Override
+    public boolean advanceHead(UUID deviceId, ChainHead expected, ChainHead next) {
+        return jdbcClient.sql("UPDATE fiscal_chain_heads SET chain_sequence_id = :nextSeq, record_hash = :nextHash WHERE device_id = :deviceId AND chain_sequence_id = :expectedSeq AND record_hash = :expectedHash")
+            .param("nextSeq", next.sequence()).param("nextHash", next.recordHash())
+            .param("deviceId", deviceId)
+            .param("expectedSeq", expected.sequence()).param("expectedHash", expected.recordHash())
+            .update() == 1;
+    }
+
+    @Override
+    public void insertAll(List<FiscalAuditLog> records) {
+        for (int from = 0; from < records.size(); from += MAX_ROWS_PER_INSERT) {
+            insertChunk(records.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, records.size())));
+        }
+    }
+
+    private void insertChunk(List<FiscalAuditLog> records) {
+        List<String> rows = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (FiscalAuditLog r : records) {
+            int i = rows.size();
+            rows.add("(:saleUuid" + i + ", :storeId" + i + ", :deviceId" + i + ", :seq" + i + ", :prevHash" + i
+                    + ", :hash" + i + ", :softwareId" + i + ", :softwareVersion" + i + ", :developerId" + i
+                    + ", :amount" + i + ", :currency" + i + ", :invoiceDate" + i + ", :aeatStatus" + i + ")");
+            params.put("saleUuid" + i, r.saleId().value());
+            params.put("storeId" + i, r.storeId().value());
+            params.put("deviceId" + i, r.deviceId().value());
+            params.put("seq" + i, r.chainSequenceId());
+            params.put("prevHash" + i, r.previousRecordHash());
+            params.put("hash" + i, r.recordHash());
+            params.put("softwareId" + i, r.software().softwareId());
+            params.put("softwareVersion" + i, r.software().softwareVersion());
+            params.put("developerId" + i, r.software().developerId());
+            params.put("amount" + i, r.invoiceAmount().cents());
+            params.put("currency" + i, r.invoiceAmount().currencyCode());
+            params.put("invoiceDate" + i, Timestamp.from(r.invoiceDate()));
+            params.put("aeatStatus" + i, r.aeatStatus().name());
+        }
+        // Rows must stay in chain order: the insert trigger checks each one against the previous
+        jdbcClient.sql("INSERT INTO fiscal_audit_log (sale_uuid, store_id, device_id, chain_sequence_id, previous_record_hash, record_hash, software_id, software_version, developer_id, invoice_amount, currency, invoice_date, aeat_status) VALUES "
+                + String.join(", ", rows))
+            .params(params).update();
+    }
+
+    @Override
+    public List<UUID> findChainedDeviceIds() {
+        return jdbcClient.sql("SELECT device_id FROM fiscal_chain_heads WHERE chain_sequence_id > 0")
+            .query(UUID.class).list();
+    }
+
+    @Override
+    public List<FiscalAuditLog> findChain(UUID deviceId, long afterSequence, int limit) {
+        return jdbcClient.sql("SELECT sale_uuid, store_id, device_id, chain_sequence_id, previous_record_hash, record_hash, software_id, software_version, developer_id, invoice_amount, currency, invoice_date, aeat_status FROM fiscal_audit_log WHERE device_id = :deviceId AND chain_sequence_id > :after ORDER BY chain_sequence_id LIMIT :limit")
+            .param("deviceId", deviceId).param("after", afterSequence).param("limit", limit)
+            .query((rs, rowNum) -> toRecord(rs))
+            .list();
+    }
+
+    private static FiscalAuditLog toRecord(ResultSet rs) throws SQLException {
+        return FiscalAuditLog.restore(
+            new SaleId(rs.getObject("sale_uuid", UUID.class)),
+            new StoreId(rs.getObject("store_id", UUID.class)),
+            new DeviceId(rs.getObject("device_id", UUID.class)),
+            rs.getLong("chain_sequence_id"),
+            rs.getString("previous_record_hash"),
+            rs.getString("record_hash"),
+            new FiscalSoftware(rs.getString("software_id"), rs.getString("software_version"), rs.getString("developer_id")),
+            Money.ofCents(rs.getLong("invoice_amount"), rs.getString("currency").trim()),
+            rs.getTimestamp("invoice_date").toInstant(),
+            AeatStatus.valueOf(rs.getString("aeat_status")));
+    }
+}
@@ -0,0 +1,21 @@
+package es.terencio.erp.inventory.application.dto;
+
+import java.util.UUID;
+
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovementType;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+/**
+ * A stock change to apply: positive quantities add stock, negative ones
+ * remove it. {@code referenceId} links the document behind it, such as a
+ * sale.
+ */
+public record StockMovementCommand(
+        StockKey key,
+        StockMovementType type,
+        Quantity quantity,
+        String reason,
+        UUID referenceId,
+        Long employeeId) {
+}
@@ -0,0 +1,15 @@
+package es.terencio.erp.inventory.application.port.in;
+
+import java.util.List;
+
+import es.terencio.erp.inventory.application.dto.StockMovementCommand;
+import es.terencio.erp.inventory.domain.model.StockMovement;
+
+public interface ApplyStockMovementsUseCase {
+    /**
+     * Applies the movements and returns them, in the same order, with the
+     * balances they were recorded with. Runs in its own transactions, never
+     * in the caller's.
+     */
+    List<StockMovement> apply(List<StockMovementCommand> commands);
+}
@@ -0,0 +1,20 @@
+package es.terencio.erp.inventory.application.port.out;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import es.terencio.erp.inventory.domain.model.InventoryStock;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovement;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+public interface InventoryPort {
+    /**
+     * Adds each delta to its stock, creating missing stocks at zero, and
+     * returns the stocks as left by the update. Rows stay locked until the
+     * transaction ends.
+     */
+    Map<StockKey, InventoryStock> addToStock(SortedMap<StockKey, Quantity> deltas);
+    void insertMovements(List<StockMovement> movements);
+}
@@ -0,0 +1,214 @@
+package es.terencio.erp.inventory.application.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.terencio.erp.inventory.application.dto.StockMovementCommand;
+import es.terencio.erp.inventory.application.port.in.ApplyStockMovementsUseCase;
+import es.terencio.erp.inventory.application.port.out.InventoryPort;
+import es.terencio.erp.inventory.domain.model.InventoryStock;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovement;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Applies stock movements without retry storms on hot products.
+ * <p>
+ * Stocks are spread over a fixed set of stripes by (product, warehouse).
+ * Callers queue their movements on the stripe and then take its lock; the
+ * holder drains everything queued so far, so while one write is in flight
+ * the next callers pile up and go out together in the following one. A
+ * drain sums the deltas per stock into one upsert (rows sorted, so nodes
+ * always lock them in the same order), takes the balances it returns and
+ * replays the movements on top of them in queue order, then writes them
+ * all in one multi-row INSERT, in a single transaction. The stock row lock
+ * held until commit keeps balances consistent across nodes as well.
+ * <p>
+ * If a combined drain fails, its submissions are retried one by one so a
+ * bad one only fails its own caller. Movements of different stripes are
+ * written in separate transactions.
+ */
+@Service
+public class StockLedgerService implements ApplyStockMovementsUseCase {
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    private static final int STRIPES = 256;
+    // Bounds each drain's statements and how long a stripe stays locked
+    private static final int MAX_MOVEMENTS_PER_DRAIN = 2_000;
+
+    /** One caller's movements for one stripe, with their positions in the caller's list. */
+    private static final class Submission {
+        final List<StockMovementCommand> commands = new ArrayList<>();
+        final List<Integer> positions = new ArrayList<>();
+        final CompletableFuture<List<StockMovement>> result = new CompletableFuture<>();
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Queue<Submission> queue = new ConcurrentLinkedQueue<>();
+    }
+
+    private final InventoryPort inventoryPort;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary movementsPerDrain;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public StockLedgerService(InventoryPort inventoryPort, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.inventoryPort = inventoryPort;
+        // A drain carries other callers' movements, so it must never join the transaction of the one running it
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.movementsPerDrain = DistributionSummary.builder("inventory.ledger.drain.movements")
+                .description("Stock movements written per stock update")
+                .register(meterRegistry);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public List<StockMovement> apply(List<StockMovementCommand> commands) {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        Map<Stripe, Submission> submissions = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            StockMovementCommand command = commands.get(i);
+            if (command.key() == null || command.type() == null || command.quantity() == null
+                    || command.quantity().isZero()) {
+                throw new IllegalArgumentException("Stock movement needs a stock, a type and a non-zero quantity");
+            }
+            Submission submission = submissions.computeIfAbsent(stripeOf(command.key()), k -> new Submission());
+            submission.commands.add(command);
+            submission.positions.add(i);
+        }
+        submissions.forEach((stripe, submission) -> stripe.queue.add(submission));
+
+        StockMovement[] applied = new StockMovement[commands.size()];
+        submissions.forEach((stripe, submission) -> {
+            List<StockMovement> movements = await(stripe, submission);
+            for (int i = 0; i < movements.size(); i++) {
+                applied[submission.positions.get(i)] = movements.get(i);
+            }
+        });
+        return List.of(applied);
+    }
+
+    private Stripe stripeOf(StockKey key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), STRIPES)];
+    }
+
+    private List<StockMovement> await(Stripe stripe, Submission submission) {
+        // Usually one pass: whoever holds the lock drains our submission along with its own
+        while (!submission.result.isDone()) {
+            stripe.lock.lock();
+            try {
+                if (!submission.result.isDone()) {
+                    drain(stripe);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        try {
+            return submission.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void drain(Stripe stripe) {
+        List<Submission> batch = new ArrayList<>();
+        int movements = 0;
+        Submission next;
+        while (movements < MAX_MOVEMENTS_PER_DRAIN && (next = stripe.queue.poll()) != null) {
+            batch.add(next);
+            movements += next.commands.size();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writeAll(batch, movements);
+        } finally {
+            // A drained submission left pending would have its caller spin on an empty queue
+            batch.forEach(submission -> submission.result.completeExceptionally(
+                    new IllegalStateException("Stock update did not complete")));
+        }
+    }
+
+    private void writeAll(List<Submission> batch, int movements) {
+        try {
+            List<List<StockMovement>> results = transactionTemplate.execute(status -> write(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+            movementsPerDrain.record(movements);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Combined stock update of {} submissions failed, applying them one by one", batch.size(), e);
+            for (Submission submission : batch) {
+                try {
+                    submission.result.complete(transactionTemplate.execute(status -> write(List.of(submission))).get(0));
+                    movementsPerDrain.record(submission.commands.size());
+                } catch (RuntimeException single) {
+                    submission.result.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private List<List<StockMovement>> write(List<Submission> batch) {
+        SortedMap<StockKey, Quantity> deltas = new TreeMap<>();
+        for (Submission submission : batch) {
+            submission.commands.forEach(command -> deltas.merge(command.key(), command.quantity(), Quantity::add));
+        }
+        Map<StockKey, InventoryStock> stocks = inventoryPort.addToStock(deltas);
+
+        // Replay the movements in queue order from the balance before the update
+        Map<StockKey, Quantity> balances = new HashMap<>();
+        deltas.forEach((key, delta) -> balances.put(key, stocks.get(key).quantityOnHand().subtract(delta)));
+        Instant now = Instant.now();
+        List<List<StockMovement>> results = new ArrayList<>(batch.size());
+        List<StockMovement> all = new ArrayList<>();
+        for (Submission submission : batch) {
+            List<StockMovement> movements = new ArrayList<>(submission.commands.size());
+            for (StockMovementCommand command : submission.commands) {
+                StockMovement movement = StockMovement.apply(command.key(), command.type(), command.quantity(),
+                        balances.get(command.key()), command.reason(), command.referenceId(),
+                        command.employeeId(), now);
+                balances.put(command.key(), movement.newBalance());
+                movements.add(movement);
+            }
+            results.add(movements);
+            all.addAll(movements);
+        }
+        inventoryPort.insertMovements(all);
+        return results;
+    }
+}
@@ -0,0 +1,16 @@
+package es.terencio.erp.inventory.domain.model;
+
+import java.time.Instant;
+
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+/**
+ * Current stock of a product in a warehouse. {@code version} grows with
+ * every change. Stock may go negative: tills keep selling while offline.
+ */
+public record InventoryStock(StockKey key, Quantity quantityOnHand, long version, Instant lastUpdatedAt) {
+
+    public boolean hasAvailableStock(Quantity required) {
+        return quantityOnHand.isGreaterThanOrEqual(required);
+    }
+}
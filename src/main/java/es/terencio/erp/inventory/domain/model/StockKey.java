@@ -0,0 +1,28 @@
+package es.terencio.erp.inventory.domain.model;
+
+import java.util.Comparator;
+
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.WarehouseId;
+
+/**
+ * Identifies the stock of one product in one warehouse. Ordered so that
+ * stock rows are always locked in the same order.
+ */
+public record StockKey(ProductId productId, WarehouseId warehouseId) implements Comparable<StockKey> {
+
+    private static final Comparator<StockKey> ORDER = Comparator
+            .comparing((StockKey key) -> key.productId().value())
+            .thenComparing(key -> key.warehouseId().value());
+
+    public StockKey {
+        if (productId == null || warehouseId == null) {
+            throw new IllegalArgumentException("Stock key needs a product and a warehouse");
+        }
+    }
+
+    @Override
+    public int compareTo(StockKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,44 @@
+package es.terencio.erp.inventory.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+/**
+ * One change to a stock, append-only. Movements of a stock form its audit
+ * trail: each starts from the balance the previous one left, and
+ * {@code previousBalance + quantity = newBalance}.
+ */
+public record StockMovement(
+        UUID id,
+        StockKey key,
+        StockMovementType type,
+        Quantity quantity,
+        Quantity previousBalance,
+        Quantity newBalance,
+        String reason,
+        UUID referenceId,
+        Long employeeId,
+        Instant createdAt) {
+
+    public StockMovement {
+        if (id == null || key == null || type == null || createdAt == null) {
+            throw new InvariantViolationException("Stock movement must have an id, a stock, a type and a date");
+        }
+        if (quantity == null || quantity.isZero()) {
+            throw new InvariantViolationException("Stock movement must change the stock");
+        }
+        if (previousBalance == null || newBalance == null || !previousBalance.add(quantity).equals(newBalance)) {
+            throw new InvariantViolationException("Stock movement balances do not add up");
+        }
+    }
+
+    /** Movement applying {@code quantity} on top of {@code previousBalance}. */
+    public static StockMovement apply(StockKey key, StockMovementType type, Quantity quantity,
+            Quantity previousBalance, String reason, UUID referenceId, Long employeeId, Instant createdAt) {
+        return new StockMovement(UUID.randomUUID(), key, type, quantity, previousBalance,
+                previousBalance.add(quantity), reason, referenceId, employeeId, createdAt);
+    }
+}
@@ -0,0 +1,7 @@
+package es.terencio.erp.inventory.domain.model;
+
+public enum StockMovementType {
+    SALE,
+    RETURN,
+    ADJUSTMENT
+}
@@ -0,0 +1,100 @@
+package es.terencio.erp.inventory.infrastructure.out.persistence;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.inventory.application.port.out.InventoryPort;
+import es.terencio.erp.inventory.domain.model.InventoryStock;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovement;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.WarehouseId;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+@Repository
+public class InventoryRepositoryAdapter implements InventoryPort {
+
+    // Keeps each statement well below the 65535 bind parameters Postgres accepts
+    private static final int MAX_ROWS_PER_INSERT = 2_000;
+
+    private final JdbcClient jdbcClient;
+
+    public InventoryRepositoryAdapter(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Map<StockKey, InventoryStock> addToStock(SortedMap<StockKey, Quantity> deltas) {
+        List<Map.Entry<StockKey, Quantity>> entries = new ArrayList<>(deltas.entrySet());
+        Map<StockKey, InventoryStock> stocks = new HashMap<>();
+        for (int from = 0; from < entries.size(); from += MAX_ROWS_PER_INSERT) {
+            addChunk(entries.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, entries.size())), stocks);
+        }
+        return stocks;
+    }
+
+    private void addChunk(List<Map.Entry<StockKey, Quantity>> entries, Map<StockKey, InventoryStock> stocks) {
+        List<String> rows = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (Map.Entry<StockKey, Quantity> entry : entries) {
+            int i = rows.size();
+            rows.add("(:productId" + i + ", :warehouseId" + i + ", :delta" + i + ")");
+            params.put("productId" + i, entry.getKey().productId().value());
+            params.put("warehouseId" + i, entry.getKey().warehouseId().value());
+            params.put("delta" + i, entry.getValue().value());
+        }
+        // Rows arrive sorted by key, which is the order they get locked in
+        jdbcClient.sql("INSERT INTO inventory_stock (product_id, warehouse_id, quantity) VALUES "
+                + String.join(", ", rows)
+                + " ON CONFLICT (product_id, warehouse_id) DO UPDATE SET quantity = inventory_stock.quantity + EXCLUDED.quantity, version = inventory_stock.version + 1, updated_at = NOW()"
+                + " RETURNING product_id, warehouse_id, quantity, version, updated_at")
+            .params(params)
+            .query((rs, rowNum) -> new InventoryStock(
+                new StockKey(new ProductId(rs.getLong("product_id")), new WarehouseId(rs.getObject("warehouse_id", UUID.class))),
+                Quantity.of(rs.getBigDecimal("quantity")),
+                rs.getLong("version"),
+                rs.getTimestamp("updated_at").toInstant()))
+            .list()
+            .forEach(stock -> stocks.put(stock.key(), stock));
+    }
+
+    @Override
+    public void insertMovements(List<StockMovement> movements) {
+        for (int from = 0; from < movements.size(); from += MAX_ROWS_PER_INSERT) {
+            insertChunk(movements.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, movements.size())));
+        }
+    }
+
+    private void insertChunk(List<StockMovement> movements) {
+        List<String> rows = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (StockMovement m : movements) {
+            int i = rows.size();
+            rows.add("(:uuid" + i + ", :productId" + i + ", :warehouseId" + i + ", :type" + i + ", :quantity" + i
+                    + ", :previous" + i + ", :new" + i + ", :reason" + i + ", :reference" + i + ", :employeeId" + i
+                    + ", :createdAt" + i + ")");
+            params.put("uuid" + i, m.id());
+            params.put("productId" + i, m.key().productId().value());
+            params.put("warehouseId" + i, m.key().warehouseId().value());
+            params.put("type" + i, m.type().name());
+            params.put("quantity" + i, m.quantity().value());
+            params.put("previous" + i, m.previousBalance().value());
+            params.put("new" + i, m.newBalance().value());
+            params.put("reason" + i, m.reason());
+            params.put("reference" + i, m.referenceId());
+            params.put("employeeId" + i, m.employeeId());
+            params.put("createdAt" + i, Timestamp.from(m.createdAt()));
+        }
+        jdbcClient.sql("INSERT INTO stock_movements (uuid, product_id, warehouse_id, type, quantity, previous_balance, new_balance, reason, reference_uuid, employee_id, created_at) VALUES "
+                + String.join(", ", rows))
+            .params(params).update();
+    }
+}
@@ -0,0 +1,6 @@
+package es.terencio.erp.marketing.application.dto.suppression;
+
+import es.terencio.erp.marketing.domain.model.EmailHash;
+
+public record SuppressionEntry(long id, EmailHash hash) {
+}
@@ -0,0 +1,19 @@
+package es.terencio.erp.marketing.application.dto.welcome;
+
+import es.terencio.erp.marketing.domain.model.MarketingStatus;
+
+public record WelcomeRecipient(
+        Long jobId,
+        Long customerId,
+        Long templateId,
+        int attempts,
+        String email,
+        String name,
+        String unsubscribeToken,
+        MarketingStatus marketingStatus,
+        boolean active) {
+
+    public boolean canReceive() {
+        return active && email != null && marketingStatus == MarketingStatus.SUBSCRIBED;
+    }
+}
@@ -0,0 +1,10 @@
+package es.terencio.erp.marketing.application.port.in;
+
+import java.util.Set;
+
+public interface SegmentMembershipUseCase {
+
+    void onCustomerChanged(Long customerId, boolean created, Set<String> changedColumns);
+
+    void rebuildStaleSegments();
+}
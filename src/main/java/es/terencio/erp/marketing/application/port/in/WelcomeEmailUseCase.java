@@ -0,0 +1,8 @@
+package es.terencio.erp.marketing.application.port.in;
+
+import java.util.UUID;
+
+public interface WelcomeEmailUseCase {
+
+    void scheduleWelcome(UUID companyId, Long customerId);
+}
@@ -30,6 +30,8 @@ public interface CampaignRepositoryPort {
     List<CampaignAudienceMember> findCampaignAudienceBatch(UUID companyId, Long campaignId,
             Long lastCustomerIdExclusive, int size);
 
+    long countCampaignRecipients(UUID companyId, Long campaignId);
+
     boolean tryStartCampaign(Long campaignId, boolean isRelaunch);
 
     void updateCampaignTotalRecipients(Long campaignId, int totalRecipients);
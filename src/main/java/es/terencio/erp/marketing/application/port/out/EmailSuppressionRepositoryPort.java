@@ -0,0 +1,28 @@
+package es.terencio.erp.marketing.application.port.out;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import es.terencio.erp.marketing.application.dto.suppression.SuppressionEntry;
+import es.terencio.erp.marketing.domain.model.EmailHash;
+import es.terencio.erp.marketing.domain.model.SuppressionReason;
+
+public interface EmailSuppressionRepositoryPort {
+
+    /**
+     * Records a suppression; repeated events for the same address only bump its
+     * counters.
+     */
+    void suppress(EmailHash hash, SuppressionReason reason, UUID sourceCompanyId);
+
+    Set<EmailHash> findSuppressed(Collection<EmailHash> hashes);
+
+    long count();
+
+    /**
+     * Suppressions with id greater than {@code afterId}, in id order.
+     */
+    List<SuppressionEntry> findAfter(long afterId, int limit);
+}
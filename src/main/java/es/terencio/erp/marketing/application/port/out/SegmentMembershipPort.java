@@ -0,0 +1,23 @@
+package es.terencio.erp.marketing.application.port.out;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SegmentMembershipPort {
+
+    /**
+     * Re-evaluates one customer against the segments of its company whose
+     * filters read any of the given customers columns. A null set means every
+     * segment (new customer).
+     */
+    void refreshCustomer(Long customerId, Set<String> changedColumns);
+
+    List<Long> findStaleSegmentIds();
+
+    /**
+     * Recomputes the whole membership of a segment and stamps it as fresh.
+     *
+     * @return number of members after the rebuild
+     */
+    int rebuildSegment(Long segmentId);
+}
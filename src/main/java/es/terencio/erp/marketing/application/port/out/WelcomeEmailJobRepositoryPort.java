@@ -0,0 +1,31 @@
+package es.terencio.erp.marketing.application.port.out;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import es.terencio.erp.marketing.application.dto.welcome.WelcomeRecipient;
+import es.terencio.erp.marketing.domain.model.WelcomeEmailJob;
+
+public interface WelcomeEmailJobRepositoryPort {
+
+    /**
+     * @return the new job, or empty when the customer already has one
+     */
+    Optional<WelcomeEmailJob> enqueue(UUID companyId, Long customerId, Long templateId, Instant dueAt);
+
+    // Leasing (a node holds claimed jobs in memory until they fire)
+    boolean claim(Long jobId, String nodeId, Instant leaseUntil);
+
+    List<WelcomeEmailJob> claimDueBefore(Instant horizon, String nodeId, Instant leaseUntil, int limit);
+
+    // Dispatch
+    List<WelcomeRecipient> startSending(UUID companyId, List<Long> jobIds, String nodeId);
+
+    void markSent(Long jobId, String messageId);
+
+    void markSkipped(Long jobId, String reason);
+
+    void markFailed(Long jobId, String error, Instant retryAt);
+}
@@ -1,5 +1,6 @@
 package es.terencio.erp.marketing.application.service.campaign;
 
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -10,6 +11,7 @@ import org.springframework.scheduling.annotation.Async;
 import es.terencio.erp.marketing.application.dto.campaign.CampaignAudienceMember;
 import es.terencio.erp.marketing.application.port.out.CampaignRepositoryPort;
 import es.terencio.erp.marketing.application.port.out.MailingSystemPort;
+import es.terencio.erp.marketing.application.service.suppression.EmailSuppressionService;
 import es.terencio.erp.marketing.domain.model.CampaignLog;
 import es.terencio.erp.marketing.domain.model.DeliveryStatus;
 import es.terencio.erp.marketing.domain.model.EmailMessage;
@@ -17,7 +19,6 @@ import es.terencio.erp.marketing.domain.model.MarketingCampaign;
 import es.terencio.erp.marketing.domain.model.MarketingStatus;
 import es.terencio.erp.marketing.domain.model.MarketingTemplate;
 import es.terencio.erp.marketing.infrastructure.config.MarketingProperties;
-import es.terencio.erp.shared.domain.query.PageResult;
 
 public class CampaignSender {
     private static final Logger log = LoggerFactory.getLogger(CampaignSender.class);
@@ -25,13 +26,16 @@ public class CampaignSender {
     private final CampaignRepositoryPort campaignRepository;
     private final MailingSystemPort mailingSystem;
     private final EmailContentBuilder contentBuilder;
+    private final EmailSuppressionService suppressionService;
     private final MarketingProperties properties;
 
     public CampaignSender(CampaignRepositoryPort campaignRepository, MailingSystemPort mailingSystem,
-            EmailContentBuilder contentBuilder, MarketingProperties properties) {
+            EmailContentBuilder contentBuilder, EmailSuppressionService suppressionService,
+            MarketingProperties properties) {
         this.campaignRepository = campaignRepository;
         this.mailingSystem = mailingSystem;
         this.contentBuilder = contentBuilder;
+        this.suppressionService = suppressionService;
         this.properties = properties;
     }
 
@@ -55,9 +59,7 @@ public class CampaignSender {
             return;
         }
 
-        PageResult<CampaignAudienceMember> firstPage = campaignRepository.findCampaignAudience(companyId, campaignId, 0,
-                1);
-        int totalRecipients = (int) firstPage.totalElements();
+        int totalRecipients = (int) campaignRepository.countCampaignRecipients(companyId, campaignId);
         campaignRepository.updateCampaignTotalRecipients(campaignId, totalRecipients);
 
         CampaignRateLimiter rateLimiter = new CampaignRateLimiter(properties.getRateLimitPerSecond());
@@ -65,6 +67,7 @@ public class CampaignSender {
 
         long lastSeenCustomerId = 0L;
         int sentInThisSession = 0;
+        int suppressedInThisSession = 0;
 
         while (true) {
             var batch = campaignRepository.findCampaignAudienceBatch(
@@ -73,8 +76,17 @@ public class CampaignSender {
             if (batch == null || batch.isEmpty())
                 break;
 
+            // One filter pass per batch; suppressed addresses are never rendered, logged or sent
+            Set<String> suppressed = suppressionService.findSuppressed(
+                    batch.stream().map(CampaignAudienceMember::email).toList());
+
             for (CampaignAudienceMember member : batch) {
                 lastSeenCustomerId = member.customerId();
+                if (suppressed.contains(member.email())) {
+                    suppressedInThisSession++;
+                    continue;
+                }
+
                 boolean isSubscribed = member.marketingStatus() == MarketingStatus.SUBSCRIBED;
                 boolean shouldSend;
 
@@ -106,7 +118,8 @@ public class CampaignSender {
         }
 
         campaignRepository.completeCampaign(campaignId, sentInThisSession);
-        log.info("Campaign {} execution finished. Emails sent this session: {}", campaignId, sentInThisSession);
+        log.info("Campaign {} execution finished. Emails sent this session: {}, suppressed: {}", campaignId,
+                sentInThisSession, suppressedInThisSession);
     }
 
     private boolean processSingleCustomer(MarketingCampaign campaign, MarketingTemplate tpl,
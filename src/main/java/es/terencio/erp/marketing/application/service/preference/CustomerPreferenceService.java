@@ -2,6 +2,7 @@ package es.terencio.erp.marketing.application.service.preference;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
 
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,14 +11,18 @@ import es.terencio.erp.marketing.application.dto.preference.PreferencesResponse;
 import es.terencio.erp.marketing.application.dto.preference.UnsubscribeRequest;
 import es.terencio.erp.marketing.application.port.in.CustomerPreferenceUseCase;
 import es.terencio.erp.marketing.application.port.out.CustomerIntegrationPort;
+import es.terencio.erp.marketing.application.port.out.SegmentMembershipPort;
 import es.terencio.erp.marketing.domain.model.MarketingStatus;
+import es.terencio.erp.shared.domain.event.CustomerChangedEvent;
 import es.terencio.erp.shared.exception.ResourceNotFoundException;
 
 public class CustomerPreferenceService implements CustomerPreferenceUseCase {
     private final CustomerIntegrationPort customerPort;
+    private final SegmentMembershipPort segmentMembership;
 
-    public CustomerPreferenceService(CustomerIntegrationPort customerPort) {
+    public CustomerPreferenceService(CustomerIntegrationPort customerPort, SegmentMembershipPort segmentMembership) {
         this.customerPort = customerPort;
+        this.segmentMembership = segmentMembership;
     }
 
     @Override
@@ -33,16 +38,22 @@ public class CustomerPreferenceService implements CustomerPreferenceUseCase {
     public void updatePreferences(UnsubscribeRequest request) {
         String token = request.token();
         if (MarketingStatus.UNSUBSCRIBED == request.action()) {
-            customerPort.updateMarketingStatus(token, MarketingStatus.UNSUBSCRIBED, null);
+            changeStatus(token, MarketingStatus.UNSUBSCRIBED, null);
         } else if (MarketingStatus.SNOOZED == request.action() && request.snoozeDays() != null) {
             Instant snoozeUntil = Instant.now().plus(request.snoozeDays(), ChronoUnit.DAYS);
-            customerPort.updateMarketingStatus(token, MarketingStatus.SNOOZED, snoozeUntil);
+            changeStatus(token, MarketingStatus.SNOOZED, snoozeUntil);
         }
     }
 
     @Override
     @Transactional
     public void unsubscribeOneClick(String token) {
-        customerPort.updateMarketingStatus(token, MarketingStatus.UNSUBSCRIBED, null);
+        changeStatus(token, MarketingStatus.UNSUBSCRIBED, null);
+    }
+
+    private void changeStatus(String token, MarketingStatus status, Instant snoozeUntil) {
+        customerPort.updateMarketingStatus(token, status, snoozeUntil);
+        customerPort.findByToken(token).ifPresent(customer ->
+                segmentMembership.refreshCustomer(customer.id(), Set.of(CustomerChangedEvent.MARKETING_STATUS)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package es.terencio.erp.marketing.application.service.segment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.marketing.application.port.in.SegmentMembershipUseCase;
+import es.terencio.erp.marketing.application.port.out.CampaignRepositoryPort;
+
+/**
+ * Rebuilds the membership of segments whose definition changed since their
+ * last rebuild. Customer-side changes are handled incrementally elsewhere.
+ */
+@Component
+public class SegmentMembershipScheduler {
+    private static final Logger log = LoggerFactory.getLogger(SegmentMembershipScheduler.class);
+    private static final String LOCK_NAME = "marketing_segment_membership";
+
+    private final CampaignRepositoryPort repository;
+    private final SegmentMembershipUseCase segmentMembershipUseCase;
+
+    public SegmentMembershipScheduler(CampaignRepositoryPort repository, SegmentMembershipUseCase segmentMembershipUseCase) {
+        this.repository = repository;
+        this.segmentMembershipUseCase = segmentMembershipUseCase;
+    }
+
+    @Scheduled(cron = "30 * * * * *")
+    public void rebuildStaleSegments() {
+        if (!repository.acquireSchedulerLock(LOCK_NAME)) {
+            log.debug("Segment membership lock acquired by another instance. Skipping.");
+            return;
+        }
+
+        try {
+            segmentMembershipUseCase.rebuildStaleSegments();
+        } finally {
+            repository.releaseSchedulerLock(LOCK_NAME);
+        }
+    }
+}
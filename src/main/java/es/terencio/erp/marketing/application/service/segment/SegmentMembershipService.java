@@ -0,0 +1,45 @@
+package es.terencio.erp.marketing.application.service.segment;
+
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.terencio.erp.marketing.application.port.in.SegmentMembershipUseCase;
+import es.terencio.erp.marketing.application.port.out.SegmentMembershipPort;
+
+public class SegmentMembershipService implements SegmentMembershipUseCase {
+    private static final Logger log = LoggerFactory.getLogger(SegmentMembershipService.class);
+
+    private final SegmentMembershipPort membershipPort;
+
+    public SegmentMembershipService(SegmentMembershipPort membershipPort) {
+        this.membershipPort = membershipPort;
+    }
+
+    @Override
+    public void onCustomerChanged(Long customerId, boolean created, Set<String> changedColumns) {
+        if (customerId == null) {
+            return;
+        }
+        if (created) {
+            membershipPort.refreshCustomer(customerId, null);
+        } else if (changedColumns != null && !changedColumns.isEmpty()) {
+            membershipPort.refreshCustomer(customerId, changedColumns);
+        }
+    }
+
+    @Override
+    public void rebuildStaleSegments() {
+        List<Long> stale = membershipPort.findStaleSegmentIds();
+        for (Long segmentId : stale) {
+            try {
+                int members = membershipPort.rebuildSegment(segmentId);
+                log.info("Rebuilt marketing segment {} membership: {} members", segmentId, members);
+            } catch (Exception e) {
+                log.error("Failed to rebuild marketing segment {} membership", segmentId, e);
+            }
+        }
+    }
+}
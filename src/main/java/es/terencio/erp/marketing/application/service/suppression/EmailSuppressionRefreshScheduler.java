@@ -0,0 +1,30 @@
+package es.terencio.erp.marketing.application.service.suppression;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this node's in-memory suppression filter in step with the table.
+ * Runs on every instance (no scheduler lock); the first run builds the filter.
+ */
+@Component
+public class EmailSuppressionRefreshScheduler {
+    private static final Logger log = LoggerFactory.getLogger(EmailSuppressionRefreshScheduler.class);
+
+    private final EmailSuppressionService suppressionService;
+
+    public EmailSuppressionRefreshScheduler(EmailSuppressionService suppressionService) {
+        this.suppressionService = suppressionService;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${terencio.marketing.suppression-refresh-ms:30000}")
+    public void refresh() {
+        try {
+            suppressionService.refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh email suppression filter", e);
+        }
+    }
+}
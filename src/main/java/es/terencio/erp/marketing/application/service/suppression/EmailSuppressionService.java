@@ -0,0 +1,144 @@
+package es.terencio.erp.marketing.application.service.suppression;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import es.terencio.erp.marketing.application.dto.suppression.SuppressionEntry;
+import es.terencio.erp.marketing.application.port.out.EmailSuppressionRepositoryPort;
+import es.terencio.erp.marketing.domain.model.EmailHash;
+import es.terencio.erp.marketing.domain.model.SuppressionReason;
+
+/**
+ * Global suppression list (hard bounces and complaints across all tenants).
+ * <p>
+ * Each node keeps a Bloom filter of the suppressed hashes in memory, so the
+ * common case (address not suppressed) is answered without touching the
+ * database. Filter hits are confirmed against the table in one query per
+ * batch, which makes false positives harmless. New suppressions from other
+ * nodes are picked up incrementally by id on {@link #refresh()}; suppressions
+ * recorded on this node go into the filter immediately.
+ */
+public class EmailSuppressionService {
+    private static final Logger log = LoggerFactory.getLogger(EmailSuppressionService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_EXPECTED_ENTRIES = 100_000;
+    private static final int REFRESH_PAGE_SIZE = 5_000;
+    // Ids are allocated before commit, so re-read a tail to catch late commits
+    private static final long REFRESH_LOOKBACK_IDS = 1_000;
+
+    private final EmailSuppressionRepositoryPort repository;
+
+    private final Object refreshLock = new Object();
+    private volatile BloomFilter<CharSequence> filter;
+    private long expectedEntries;
+    private long lastLoadedId;
+
+    public EmailSuppressionService(EmailSuppressionRepositoryPort repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Returns the addresses among {@code emails} that must not be mailed.
+     */
+    public Set<String> findSuppressed(Collection<String> emails) {
+        BloomFilter<CharSequence> current = filter;
+        Map<EmailHash, String> candidates = new HashMap<>();
+
+        for (String email : emails) {
+            if (email == null || email.isBlank()) {
+                continue;
+            }
+            EmailHash hash = EmailHash.of(email);
+            // Until the first load every address is a candidate
+            if (current == null || current.mightContain(hash.value())) {
+                candidates.put(hash, email);
+            }
+        }
+
+        Set<String> suppressed = new HashSet<>();
+        if (candidates.isEmpty()) {
+            return suppressed;
+        }
+        for (EmailHash hash : repository.findSuppressed(candidates.keySet())) {
+            suppressed.add(candidates.get(hash));
+        }
+        return suppressed;
+    }
+
+    public boolean isSuppressed(String email) {
+        return !findSuppressed(List.of(email)).isEmpty();
+    }
+
+    public void suppress(String email, SuppressionReason reason, UUID sourceCompanyId) {
+        if (email == null || email.isBlank()) {
+            return;
+        }
+        EmailHash hash = EmailHash.of(email);
+        repository.suppress(hash, reason, sourceCompanyId);
+
+        BloomFilter<CharSequence> current = filter;
+        if (current != null) {
+            current.put(hash.value());
+        }
+        log.info("Email suppressed globally ({}), source company {}", reason, sourceCompanyId);
+    }
+
+    /**
+     * Loads suppressions added since the last call, rebuilding the filter when
+     * it has outgrown the size it was created for.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            if (filter == null || repository.count() > expectedEntries) {
+                rebuild();
+                return;
+            }
+            int loaded = loadAfter(filter, Math.max(lastLoadedId - REFRESH_LOOKBACK_IDS, 0L));
+            log.trace("Re-read {} email suppressions up to id {}", loaded, lastLoadedId);
+        }
+    }
+
+    private void rebuild() {
+        long total = repository.count();
+        long expected = Math.max(total * 2, MIN_EXPECTED_ENTRIES);
+        BloomFilter<CharSequence> fresh = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.US_ASCII), expected, FALSE_POSITIVE_RATE);
+
+        lastLoadedId = 0L;
+        int loaded = loadAfter(fresh, 0L);
+        expectedEntries = expected;
+        filter = fresh;
+        log.info("Email suppression filter built with {} entries (capacity {})", loaded, expected);
+    }
+
+    private int loadAfter(BloomFilter<CharSequence> target, long afterId) {
+        int loaded = 0;
+        long cursor = afterId;
+        while (true) {
+            List<SuppressionEntry> page = repository.findAfter(cursor, REFRESH_PAGE_SIZE);
+            for (SuppressionEntry entry : page) {
+                target.put(entry.hash().value());
+                cursor = entry.id();
+            }
+            loaded += page.size();
+            if (page.size() < REFRESH_PAGE_SIZE) {
+                break;
+            }
+        }
+        lastLoadedId = Math.max(lastLoadedId, cursor);
+        return loaded;
+    }
+}
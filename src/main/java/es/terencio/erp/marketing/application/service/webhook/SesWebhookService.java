@@ -1,6 +1,11 @@
 package es.terencio.erp.marketing.application.service.webhook;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +17,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import es.terencio.erp.marketing.application.port.in.WebhookProcessingUseCase;
 import es.terencio.erp.marketing.application.port.out.CampaignRepositoryPort;
+import es.terencio.erp.marketing.application.port.out.SegmentMembershipPort;
+import es.terencio.erp.marketing.application.service.suppression.EmailSuppressionService;
 import es.terencio.erp.marketing.domain.model.CampaignLog;
 import es.terencio.erp.marketing.domain.model.EmailDeliveryEvent;
+import es.terencio.erp.marketing.domain.model.SuppressionReason;
+import es.terencio.erp.shared.domain.event.CustomerChangedEvent;
 
 public class SesWebhookService implements WebhookProcessingUseCase {
     private static final Logger log = LoggerFactory.getLogger(SesWebhookService.class);
@@ -22,11 +31,16 @@ public class SesWebhookService implements WebhookProcessingUseCase {
     private static final String METRIC_BOUNCED = "bounced";
     
     private final CampaignRepositoryPort repository;
+    private final SegmentMembershipPort segmentMembership;
+    private final EmailSuppressionService suppressionService;
     private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate;
 
-    public SesWebhookService(CampaignRepositoryPort repository, ObjectMapper objectMapper, RestTemplate restTemplate) {
+    public SesWebhookService(CampaignRepositoryPort repository, SegmentMembershipPort segmentMembership,
+            EmailSuppressionService suppressionService, ObjectMapper objectMapper, RestTemplate restTemplate) {
         this.repository = repository;
+        this.segmentMembership = segmentMembership;
+        this.suppressionService = suppressionService;
         this.objectMapper = objectMapper;
         this.restTemplate = restTemplate;
     }
@@ -71,10 +85,14 @@ public class SesWebhookService implements WebhookProcessingUseCase {
                     Instant.now());
             repository.saveDeliveryEvent(event);
 
-            repository.findLogByMessageId(messageId).ifPresent(logEntry -> {
-                updateLogEntry(logEntry, eventType);
-                repository.saveLog(logEntry);
+            Optional<CampaignLog> logEntry = repository.findLogByMessageId(messageId);
+            logEntry.ifPresent(entry -> {
+                updateLogEntry(entry, eventType);
+                repository.saveLog(entry);
             });
+
+            // Not tied to a campaign log: welcome and test sends bounce too
+            suppress(eventNode, eventType, bounceType, email, logEntry.map(CampaignLog::getCompanyId).orElse(null));
         } catch (Exception e) {
             log.error("Failed to parse SES webhook payload", e);
         }
@@ -89,15 +107,57 @@ public class SesWebhookService implements WebhookProcessingUseCase {
             }
             case "BOUNCE" -> {
                 if (logEntry.markBounced()) {
-                    repository.markCustomerAsBouncedOrComplained(logEntry.getCustomerId(), "BOUNCED");
+                    markCustomer(logEntry.getCustomerId(), "BOUNCED");
                     repository.incrementCampaignMetric(logEntry.getCampaignId(), METRIC_BOUNCED);
                 }
             }
             case "COMPLAINT" -> {
                 if (logEntry.markComplained()) {
-                    repository.markCustomerAsBouncedOrComplained(logEntry.getCustomerId(), "COMPLAINED");
+                    markCustomer(logEntry.getCustomerId(), "COMPLAINED");
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    private void suppress(JsonNode eventNode, String eventType, String bounceType, String fallbackEmail,
+            UUID companyId) {
+        SuppressionReason reason;
+        String recipientsField;
+        switch (eventType.toUpperCase()) {
+            case "BOUNCE" -> {
+                // Transient bounces (mailbox full, throttling) must not block the address
+                if (!"Permanent".equalsIgnoreCase(bounceType)) {
+                    return;
+                }
+                reason = SuppressionReason.HARD_BOUNCE;
+                recipientsField = "bouncedRecipients";
+            }
+            case "COMPLAINT" -> {
+                reason = SuppressionReason.COMPLAINT;
+                recipientsField = "complainedRecipients";
+            }
+            default -> {
+                return;
+            }
+        }
+
+        String detailField = reason == SuppressionReason.HARD_BOUNCE ? "bounce" : "complaint";
+        List<String> recipients = new ArrayList<>();
+        for (JsonNode recipient : eventNode.path(detailField).path(recipientsField)) {
+            String address = recipient.path("emailAddress").asText(null);
+            if (address != null) {
+                recipients.add(address);
+            }
+        }
+        if (recipients.isEmpty() && fallbackEmail != null) {
+            recipients.add(fallbackEmail);
+        }
+
+        recipients.forEach(address -> suppressionService.suppress(address, reason, companyId));
+    }
+
+    private void markCustomer(Long customerId, String status) {
+        repository.markCustomerAsBouncedOrComplained(customerId, status);
+        segmentMembership.refreshCustomer(customerId, Set.of(CustomerChangedEvent.MARKETING_STATUS));
+    }
+}
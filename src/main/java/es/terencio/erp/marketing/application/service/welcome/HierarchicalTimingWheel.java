@@ -0,0 +1,130 @@
+package es.terencio.erp.marketing.application.service.welcome;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck, as used by Kafka purgatory).
+ * <p>
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs}; each overflow level
+ * has buckets as wide as the whole level below. Adding and expiring an entry
+ * is O(1) amortized regardless of how many entries are held, and entries are
+ * cascaded down into finer buckets as their time approaches.
+ * <p>
+ * Not thread-safe on its own; the owner serializes access.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private record Entry<T>(long dueMs, T item) {
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final boolean root;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime;
+    private int size;
+    private HierarchicalTimingWheel<T> overflow;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this(tickMs, wheelSize, startMs, true);
+    }
+
+    private HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs, boolean root) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize greater than 1");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.root = root;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an item.
+     *
+     * @return false when the item is already due (the caller should fire it now)
+     */
+    public boolean add(long dueMs, T item) {
+        return add(new Entry<>(dueMs, item));
+    }
+
+    /**
+     * Moves the clock to {@code nowMs} and returns every item that became due.
+     */
+    public List<T> advance(long nowMs) {
+        List<Entry<T>> expired = new ArrayList<>();
+        collectExpired(nowMs, expired);
+
+        List<T> due = new ArrayList<>();
+        for (Entry<T> entry : expired) {
+            // Re-insert into the finest level; entries that no longer fit are due
+            if (!add(entry)) {
+                due.add(entry.item());
+            }
+        }
+        return due;
+    }
+
+    public int size() {
+        return size + (overflow != null ? overflow.size() : 0);
+    }
+
+    private boolean add(Entry<T> entry) {
+        long slot;
+        long limit;
+        if (root) {
+            // Finest level rounds up so an entry never fires before its due time
+            if (entry.dueMs() <= currentTime) {
+                return false;
+            }
+            slot = Math.ceilDiv(entry.dueMs(), tickMs) * tickMs;
+            limit = currentTime + interval;
+        } else {
+            // Coarser levels round down so entries cascade before their range starts
+            slot = (entry.dueMs() / tickMs) * tickMs;
+            limit = currentTime + interval - tickMs;
+        }
+
+        if (slot <= limit) {
+            buckets.get((int) ((slot / tickMs) % wheelSize)).add(entry);
+            size++;
+            return true;
+        }
+        return overflowWheel().add(entry);
+    }
+
+    private void collectExpired(long nowMs, List<Entry<T>> out) {
+        long target = nowMs - (nowMs % tickMs);
+        if (target > currentTime) {
+            long steps = Math.min((target - currentTime) / tickMs, wheelSize);
+            for (long step = 1; step <= steps; step++) {
+                long bucketTime = currentTime + step * tickMs;
+                int index = (int) ((bucketTime / tickMs) % wheelSize);
+                List<Entry<T>> bucket = buckets.get(index);
+                if (!bucket.isEmpty()) {
+                    out.addAll(bucket);
+                    size -= bucket.size();
+                    bucket.clear();
+                }
+            }
+            currentTime = target;
+        }
+        if (overflow != null) {
+            overflow.collectExpired(nowMs, out);
+        }
+    }
+
+    private HierarchicalTimingWheel<T> overflowWheel() {
+        if (overflow == null) {
+            overflow = new HierarchicalTimingWheel<>(interval, wheelSize, currentTime, false);
+        }
+        return overflow;
+    }
+}
@@ -0,0 +1,194 @@
+package es.terencio.erp.marketing.application.service.welcome;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.terencio.erp.marketing.application.port.in.WelcomeEmailUseCase;
+import es.terencio.erp.marketing.application.port.out.MarketingSettingsRepositoryPort;
+import es.terencio.erp.marketing.application.port.out.WelcomeEmailJobRepositoryPort;
+import es.terencio.erp.marketing.domain.model.CompanyMarketingSettings;
+import es.terencio.erp.marketing.domain.model.WelcomeEmailJob;
+import es.terencio.erp.marketing.infrastructure.config.MarketingProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delayed welcome emails.
+ * <p>
+ * Jobs are stored durably in {@code marketing_welcome_jobs}. Once per window
+ * each node leases the jobs due before its horizon (an indexed range read, not
+ * a table poll) and holds them in a {@link HierarchicalTimingWheel}; jobs
+ * enqueued inside the current horizon are leased and wheeled directly. Every
+ * tick the expired jobs are grouped per company and sent in batches on
+ * virtual threads. Windows are leased on their own thread so the query never
+ * delays a tick. A node that dies simply lets its leases expire and the
+ * next loader on any node picks the jobs up again.
+ */
+public class WelcomeEmailDispatcher implements WelcomeEmailUseCase {
+    private static final Logger log = LoggerFactory.getLogger(WelcomeEmailDispatcher.class);
+    private static final int WHEEL_SIZE = 64;
+
+    private final WelcomeEmailJobRepositoryPort jobRepository;
+    private final MarketingSettingsRepositoryPort settingsRepository;
+    private final WelcomeEmailSender sender;
+    private final MarketingProperties properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Object wheelLock = new Object();
+    private HierarchicalTimingWheel<WelcomeEmailJob> wheel;
+    private volatile Instant horizon = Instant.EPOCH;
+
+    private ScheduledExecutorService clock;
+    private ScheduledExecutorService loader;
+    private ExecutorService dispatchPool;
+
+    public WelcomeEmailDispatcher(WelcomeEmailJobRepositoryPort jobRepository,
+            MarketingSettingsRepositoryPort settingsRepository, WelcomeEmailSender sender,
+            MarketingProperties properties) {
+        this.jobRepository = jobRepository;
+        this.settingsRepository = settingsRepository;
+        this.sender = sender;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        wheel = new HierarchicalTimingWheel<>(properties.getWelcomeTickMillis(), WHEEL_SIZE, System.currentTimeMillis());
+        dispatchPool = Executors.newVirtualThreadPerTaskExecutor();
+        clock = Executors.newSingleThreadScheduledExecutor(daemon("welcome-email-wheel"));
+        loader = Executors.newSingleThreadScheduledExecutor(daemon("welcome-email-loader"));
+        loader.scheduleWithFixedDelay(this::loadNextWindow, 0, properties.getWelcomeWindowSeconds(), TimeUnit.SECONDS);
+        clock.scheduleAtFixedRate(this::tick, properties.getWelcomeTickMillis(), properties.getWelcomeTickMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        loader.shutdownNow();
+        clock.shutdownNow();
+        dispatchPool.shutdown();
+    }
+
+    @Override
+    public void scheduleWelcome(UUID companyId, Long customerId) {
+        CompanyMarketingSettings settings = settingsRepository.findByCompanyId(companyId).orElse(null);
+        if (settings == null || !settings.isWelcomeEmailActive() || settings.getWelcomeTemplateId() == null) {
+            return;
+        }
+
+        Instant dueAt = Instant.now().plus(Duration.ofMinutes(Math.max(settings.getWelcomeDelayMinutes(), 0)));
+        jobRepository.enqueue(companyId, customerId, settings.getWelcomeTemplateId(), dueAt).ifPresent(job -> {
+            // Jobs beyond the horizon are left for the window loader of whichever node gets there first
+            if (job.dueAt().isBefore(horizon) && jobRepository.claim(job.id(), nodeId, leaseUntil(horizon))) {
+                afterCommit(() -> offer(job));
+            }
+        });
+    }
+
+    private void loadNextWindow() {
+        try {
+            Duration window = Duration.ofSeconds(properties.getWelcomeWindowSeconds());
+            // Two windows ahead so a late loader run never leaves a gap
+            Instant nextHorizon = Instant.now().plus(window.multipliedBy(2));
+            List<WelcomeEmailJob> jobs = jobRepository.claimDueBefore(
+                    nextHorizon, nodeId, leaseUntil(nextHorizon), properties.getWelcomeClaimLimit());
+            jobs.forEach(this::offer);
+            horizon = jobs.size() < properties.getWelcomeClaimLimit() ? nextHorizon : lastDue(jobs);
+
+            if (!jobs.isEmpty()) {
+                log.debug("Leased {} welcome email jobs up to {}", jobs.size(), horizon);
+            }
+        } catch (Exception e) {
+            log.error("Failed to lease next welcome email window", e);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<WelcomeEmailJob> due;
+            synchronized (wheelLock) {
+                due = wheel.advance(System.currentTimeMillis());
+            }
+            if (!due.isEmpty()) {
+                dispatch(due);
+            }
+        } catch (Exception e) {
+            log.error("Welcome email wheel tick failed", e);
+        }
+    }
+
+    private void offer(WelcomeEmailJob job) {
+        boolean wheeled;
+        synchronized (wheelLock) {
+            wheeled = wheel.add(job.dueAt().toEpochMilli(), job);
+        }
+        if (!wheeled) {
+            dispatch(List.of(job));
+        }
+    }
+
+    private void dispatch(List<WelcomeEmailJob> jobs) {
+        Map<UUID, List<Long>> byCompany = new LinkedHashMap<>();
+        for (WelcomeEmailJob job : jobs) {
+            byCompany.computeIfAbsent(job.companyId(), k -> new ArrayList<>()).add(job.id());
+        }
+
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        byCompany.forEach((companyId, ids) -> {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> batch = List.copyOf(ids.subList(from, Math.min(from + batchSize, ids.size())));
+                dispatchPool.submit(() -> {
+                    try {
+                        sender.sendBatch(companyId, batch, nodeId);
+                    } catch (Exception e) {
+                        log.error("Welcome email batch failed for company {}; leases will expire and retry", companyId, e);
+                    }
+                });
+            }
+        });
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private Instant leaseUntil(Instant until) {
+        return until.plusSeconds(properties.getWelcomeWindowSeconds());
+    }
+
+    private Instant lastDue(List<WelcomeEmailJob> jobs) {
+        return jobs.get(jobs.size() - 1).dueAt();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
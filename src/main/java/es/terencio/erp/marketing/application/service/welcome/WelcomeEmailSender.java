@@ -0,0 +1,120 @@
+package es.terencio.erp.marketing.application.service.welcome;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.terencio.erp.marketing.application.dto.welcome.WelcomeRecipient;
+import es.terencio.erp.marketing.application.port.out.CampaignRepositoryPort;
+import es.terencio.erp.marketing.application.port.out.MailingSystemPort;
+import es.terencio.erp.marketing.application.port.out.TemplateEnginePort;
+import es.terencio.erp.marketing.application.port.out.WelcomeEmailJobRepositoryPort;
+import es.terencio.erp.marketing.application.service.campaign.CampaignRateLimiter;
+import es.terencio.erp.marketing.application.service.suppression.EmailSuppressionService;
+import es.terencio.erp.marketing.domain.model.EmailMessage;
+import es.terencio.erp.marketing.domain.model.MarketingTemplate;
+import es.terencio.erp.marketing.infrastructure.config.MarketingProperties;
+
+/**
+ * Sends one tenant's batch of due welcome emails. Failures are retried
+ * durably (the job goes back to PENDING with a later due time) instead of
+ * blocking the batch.
+ */
+public class WelcomeEmailSender {
+    private static final Logger log = LoggerFactory.getLogger(WelcomeEmailSender.class);
+    private static final long BASE_RETRY_SECONDS = 60;
+
+    private final WelcomeEmailJobRepositoryPort jobRepository;
+    private final CampaignRepositoryPort campaignRepository;
+    private final MailingSystemPort mailingSystem;
+    private final TemplateEnginePort templateEngine;
+    private final EmailSuppressionService suppressionService;
+    private final MarketingProperties properties;
+    private final CampaignRateLimiter rateLimiter;
+
+    public WelcomeEmailSender(WelcomeEmailJobRepositoryPort jobRepository, CampaignRepositoryPort campaignRepository,
+            MailingSystemPort mailingSystem, TemplateEnginePort templateEngine,
+            EmailSuppressionService suppressionService, MarketingProperties properties) {
+        this.jobRepository = jobRepository;
+        this.campaignRepository = campaignRepository;
+        this.mailingSystem = mailingSystem;
+        this.templateEngine = templateEngine;
+        this.suppressionService = suppressionService;
+        this.properties = properties;
+        this.rateLimiter = new CampaignRateLimiter(properties.getRateLimitPerSecond());
+    }
+
+    public void sendBatch(UUID companyId, List<Long> jobIds, String nodeId) {
+        // Only jobs still leased by this node are returned, so a job fires once per lease
+        List<WelcomeRecipient> recipients = jobRepository.startSending(companyId, jobIds, nodeId);
+        Map<Long, Optional<MarketingTemplate>> templates = new HashMap<>();
+        Set<String> suppressed = suppressionService.findSuppressed(
+                recipients.stream().map(WelcomeRecipient::email).toList());
+        int sent = 0;
+
+        for (WelcomeRecipient recipient : recipients) {
+            if (!recipient.canReceive()) {
+                jobRepository.markSkipped(recipient.jobId(), "Customer cannot receive marketing");
+                continue;
+            }
+            if (suppressed.contains(recipient.email())) {
+                jobRepository.markSkipped(recipient.jobId(), "Address is on the suppression list");
+                continue;
+            }
+
+            MarketingTemplate tpl = templates
+                    .computeIfAbsent(recipient.templateId(), campaignRepository::findTemplateById)
+                    .filter(MarketingTemplate::isActive)
+                    .orElse(null);
+            if (tpl == null) {
+                jobRepository.markSkipped(recipient.jobId(), "Welcome template missing or inactive");
+                continue;
+            }
+
+            rateLimiter.acquire();
+            try {
+                String messageId = mailingSystem.send(buildMessage(tpl, recipient));
+                jobRepository.markSent(recipient.jobId(), messageId);
+                sent++;
+            } catch (Exception e) {
+                handleFailure(recipient, e);
+            }
+        }
+
+        log.debug("Welcome batch for company {}: {} of {} jobs sent", companyId, sent, jobIds.size());
+    }
+
+    private void handleFailure(WelcomeRecipient recipient, Exception e) {
+        if (recipient.attempts() > properties.getMaxRetries()) {
+            log.error("Welcome email for customer {} failed permanently after {} attempts",
+                    recipient.customerId(), recipient.attempts(), e);
+            jobRepository.markFailed(recipient.jobId(), e.getMessage(), null);
+            return;
+        }
+        Instant retryAt = Instant.now().plusSeconds(BASE_RETRY_SECONDS << Math.min(recipient.attempts(), 6));
+        log.warn("Welcome email for customer {} failed (attempt {}), retrying at {}",
+                recipient.customerId(), recipient.attempts(), retryAt);
+        jobRepository.markFailed(recipient.jobId(), e.getMessage(), retryAt);
+    }
+
+    private EmailMessage buildMessage(MarketingTemplate tpl, WelcomeRecipient recipient) {
+        String unsubscribeLink = properties.getPublicBaseUrl() + "/api/v1/public/marketing/preferences?token="
+                + recipient.unsubscribeToken();
+        Map<String, String> vars = Map.of(
+                "name", recipient.name() != null ? recipient.name() : "Customer",
+                "unsubscribe_link", unsubscribeLink);
+
+        return EmailMessage.of(
+                recipient.email(),
+                tpl.compileSubject(vars, templateEngine),
+                tpl.compile(vars, templateEngine),
+                recipient.unsubscribeToken());
+    }
+}
@@ -0,0 +1,36 @@
+package es.terencio.erp.marketing.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+
+/**
+ * SHA-256 of a normalized (trimmed, lower-cased) email address, hex encoded.
+ * Suppressions are keyed by this hash so the same address matches across
+ * tenants and re-imports without storing it in clear.
+ */
+public record EmailHash(String value) {
+
+    public EmailHash {
+        if (value == null || value.length() != 64) {
+            throw new InvariantViolationException("EmailHash must be a 64 character SHA-256 hex digest");
+        }
+    }
+
+    public static EmailHash of(String email) {
+        if (email == null || email.isBlank()) {
+            throw new InvariantViolationException("Cannot hash an empty email address");
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return new EmailHash(HexFormat.of().formatHex(digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package es.terencio.erp.marketing.domain.model;
+
+public enum SuppressionReason {
+    HARD_BOUNCE,
+    COMPLAINT
+}
@@ -0,0 +1,12 @@
+package es.terencio.erp.marketing.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record WelcomeEmailJob(
+        Long id,
+        UUID companyId,
+        Long customerId,
+        Long templateId,
+        Instant dueAt) {
+}
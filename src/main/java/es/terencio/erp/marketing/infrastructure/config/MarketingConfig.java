@@ -8,9 +8,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import es.terencio.erp.marketing.application.port.out.CampaignRepositoryPort;
 import es.terencio.erp.marketing.application.port.out.CustomerIntegrationPort;
+import es.terencio.erp.marketing.application.port.out.EmailSuppressionRepositoryPort;
 import es.terencio.erp.marketing.application.port.out.MailingSystemPort;
 import es.terencio.erp.marketing.application.port.out.MarketingSettingsRepositoryPort;
+import es.terencio.erp.marketing.application.port.out.SegmentMembershipPort;
 import es.terencio.erp.marketing.application.port.out.TemplateEnginePort;
+import es.terencio.erp.marketing.application.port.out.WelcomeEmailJobRepositoryPort;
 import es.terencio.erp.marketing.application.service.campaign.CampaignCommandService;
 import es.terencio.erp.marketing.application.service.campaign.CampaignLaunchService;
 import es.terencio.erp.marketing.application.service.campaign.CampaignQueryService;
@@ -18,10 +21,14 @@ import es.terencio.erp.marketing.application.service.campaign.CampaignSender;
 import es.terencio.erp.marketing.application.service.campaign.EmailContentBuilder;
 import es.terencio.erp.marketing.application.service.campaign.TrackingLinkService;
 import es.terencio.erp.marketing.application.service.preference.CustomerPreferenceService;
+import es.terencio.erp.marketing.application.service.segment.SegmentMembershipService;
 import es.terencio.erp.marketing.application.service.settings.MarketingSettingsService;
+import es.terencio.erp.marketing.application.service.suppression.EmailSuppressionService;
 import es.terencio.erp.marketing.application.service.template.TemplateService;
 import es.terencio.erp.marketing.application.service.tracking.CampaignTrackingService;
 import es.terencio.erp.marketing.application.service.webhook.SesWebhookService;
+import es.terencio.erp.marketing.application.service.welcome.WelcomeEmailDispatcher;
+import es.terencio.erp.marketing.application.service.welcome.WelcomeEmailSender;
 import es.terencio.erp.marketing.infrastructure.out.template.SimpleTemplateEngineAdapter;
 
 @Configuration
@@ -47,9 +54,15 @@ public class MarketingConfig {
             CampaignRepositoryPort campaignRepository,
             MailingSystemPort mailingSystem,
             EmailContentBuilder contentBuilder,
+            EmailSuppressionService suppressionService,
             MarketingProperties properties
     ) {
-        return new CampaignSender(campaignRepository, mailingSystem, contentBuilder, properties);
+        return new CampaignSender(campaignRepository, mailingSystem, contentBuilder, suppressionService, properties);
+    }
+
+    @Bean
+    public EmailSuppressionService emailSuppressionService(EmailSuppressionRepositoryPort repository) {
+        return new EmailSuppressionService(repository);
     }
 
     @Bean
@@ -83,8 +96,8 @@ public class MarketingConfig {
     }
 
     @Bean
-    public CustomerPreferenceService customerPreferenceService(CustomerIntegrationPort customerPort) {
-        return new CustomerPreferenceService(customerPort);
+    public CustomerPreferenceService customerPreferenceService(CustomerIntegrationPort customerPort, SegmentMembershipPort segmentMembership) {
+        return new CustomerPreferenceService(customerPort, segmentMembership);
     }
 
     @Bean
@@ -98,8 +111,37 @@ public class MarketingConfig {
     }
 
     @Bean
-    public SesWebhookService sesWebhookService(CampaignRepositoryPort repository, ObjectMapper objectMapper, RestTemplate restTemplate) {
-        return new SesWebhookService(repository, objectMapper, restTemplate);
+    public SesWebhookService sesWebhookService(CampaignRepositoryPort repository, SegmentMembershipPort segmentMembership,
+            EmailSuppressionService suppressionService, ObjectMapper objectMapper, RestTemplate restTemplate) {
+        return new SesWebhookService(repository, segmentMembership, suppressionService, objectMapper, restTemplate);
+    }
+
+    @Bean
+    public SegmentMembershipService segmentMembershipService(SegmentMembershipPort membershipPort) {
+        return new SegmentMembershipService(membershipPort);
+    }
+
+    @Bean
+    public WelcomeEmailSender welcomeEmailSender(
+            WelcomeEmailJobRepositoryPort jobRepository,
+            CampaignRepositoryPort campaignRepository,
+            MailingSystemPort mailingSystem,
+            TemplateEnginePort templateEngine,
+            EmailSuppressionService suppressionService,
+            MarketingProperties properties
+    ) {
+        return new WelcomeEmailSender(jobRepository, campaignRepository, mailingSystem, templateEngine,
+                suppressionService, properties);
+    }
+
+    @Bean
+    public WelcomeEmailDispatcher welcomeEmailDispatcher(
+            WelcomeEmailJobRepositoryPort jobRepository,
+            MarketingSettingsRepositoryPort settingsRepository,
+            WelcomeEmailSender sender,
+            MarketingProperties properties
+    ) {
+        return new WelcomeEmailDispatcher(jobRepository, settingsRepository, sender, properties);
     }
 
     @Bean
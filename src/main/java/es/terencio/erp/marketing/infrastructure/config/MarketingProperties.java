@@ -24,4 +24,9 @@ public class MarketingProperties {
     private double rateLimitPerSecond = 14.0; 
     private long linkExpirationHours = 168; 
     private List<String> allowedRedirectDomains = List.of(); 
+
+    // Welcome emails: each node leases the next window of due jobs into its timing wheel
+    private long welcomeWindowSeconds = 60;
+    private long welcomeTickMillis = 1000;
+    private int welcomeClaimLimit = 10_000;
 }
\ No newline at end of file
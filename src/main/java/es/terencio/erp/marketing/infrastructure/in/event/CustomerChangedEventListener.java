@@ -0,0 +1,34 @@
+package es.terencio.erp.marketing.infrastructure.in.event;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.marketing.application.port.in.SegmentMembershipUseCase;
+import es.terencio.erp.marketing.application.port.in.WelcomeEmailUseCase;
+import es.terencio.erp.shared.domain.event.CustomerChangedEvent;
+
+/**
+ * Keeps segment membership in step with CRM writes. Runs synchronously so the
+ * membership change commits (or rolls back) together with the customer; the
+ * same goes for the welcome email job of a new customer.
+ */
+@Component
+public class CustomerChangedEventListener {
+
+    private final SegmentMembershipUseCase segmentMembershipUseCase;
+    private final WelcomeEmailUseCase welcomeEmailUseCase;
+
+    public CustomerChangedEventListener(SegmentMembershipUseCase segmentMembershipUseCase,
+            WelcomeEmailUseCase welcomeEmailUseCase) {
+        this.segmentMembershipUseCase = segmentMembershipUseCase;
+        this.welcomeEmailUseCase = welcomeEmailUseCase;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        segmentMembershipUseCase.onCustomerChanged(event.customerId(), event.created(), event.changedColumns());
+        if (event.created()) {
+            welcomeEmailUseCase.scheduleWelcome(event.companyId(), event.customerId());
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class JdbcCampaignRepository implements CampaignRepositoryPort {
 
     private final NamedParameterJdbcTemplate jdbc;
     private final ObjectMapper mapper;
+    private final AudienceSqlCompiler audienceCompiler = new AudienceSqlCompiler();
 
     public JdbcCampaignRepository(NamedParameterJdbcTemplate jdbc, ObjectMapper mapper) {
         this.jdbc = jdbc;
@@ -410,6 +411,13 @@ public class JdbcCampaignRepository implements CampaignRepositoryPort {
         int safePage = Math.max(page, 0);
         int offset = safePage * safeSize;
 
+        Optional<CampaignTarget> target = findCampaignTarget(companyId, campaignId);
+        if (target.isEmpty()) {
+            return new PageResult<>(List.of(), 0, 0, safePage, safeSize);
+        }
+        AudienceSqlCompiler.CompiledAudience audience = audienceCompiler.compile(
+                target.get().segmentId(), target.get().filter(), false);
+
         String sql = """
                 SELECT
                     c.id                  AS customer_id,
@@ -419,49 +427,24 @@ public class JdbcCampaignRepository implements CampaignRepositoryPort {
                     c.unsubscribe_token   AS unsubscribe_token,
                     COALESCE(cl.status, 'NOT_SENT') AS send_status,
                     COUNT(*) OVER()       AS total_elements
-                FROM marketing_campaigns mc
-                JOIN customers c
-                ON c.company_id = mc.company_id
-                LEFT JOIN marketing_segments ms
-                ON mc.segment_id = ms.id
+                FROM %s
                 LEFT JOIN LATERAL (
                     SELECT cl.status
                     FROM marketing_email_logs cl
-                    WHERE cl.campaign_id = mc.id
+                    WHERE cl.campaign_id = :campaignId
                     AND cl.customer_id = c.id
                     ORDER BY cl.id DESC
                     LIMIT 1
                 ) cl ON true
-                WHERE mc.id = :campaignId
-                AND mc.company_id = :companyId
-                AND c.email IS NOT NULL
-                AND c.active = true
-                AND c.deleted_at IS NULL
-                AND (
-                    c.marketing_status <> 'SNOOZED'
-                    OR c.marketing_snooze_until IS NULL
-                    OR c.marketing_snooze_until <= NOW()
-                )
-                AND (
-                        mc.segment_id IS NULL
-                        OR (
-                            (ms.filter_types IS NULL OR c.type = ANY(ms.filter_types))
-                            AND (ms.filter_tags IS NULL OR c.tags && ms.filter_tags)
-                            AND (ms.filter_city IS NULL OR c.city = ms.filter_city)
-                            AND (ms.filter_origin IS NULL OR c.origin = ms.filter_origin)
-                            AND (ms.filter_marketing_status IS NULL OR c.marketing_status = ms.filter_marketing_status)
-                            AND (ms.filter_registered_after IS NULL OR c.created_at >= ms.filter_registered_after)
-                            AND (ms.filter_registered_before IS NULL OR c.created_at <= ms.filter_registered_before)
-                        )
-                )
+                WHERE %s
                 ORDER BY c.created_at DESC, c.id DESC
                 LIMIT :limit OFFSET :offset
-                """;
+                """.formatted(audience.from(), audience.where());
 
         record Row(CampaignAudienceMember member, long total) {
         }
 
-        List<Row> rows = jdbc.query(sql, new MapSqlParameterSource()
+        List<Row> rows = jdbc.query(sql, audience.bind()
                 .addValue("campaignId", campaignId)
                 .addValue("companyId", companyId)
                 .addValue("limit", safeSize)
@@ -493,6 +476,13 @@ public class JdbcCampaignRepository implements CampaignRepositoryPort {
         int safeSize = Math.min(Math.max(size, 1), 500);
         long lastSeen = lastCustomerIdExclusive != null ? lastCustomerIdExclusive : 0L;
 
+        Optional<CampaignTarget> target = findCampaignTarget(companyId, campaignId);
+        if (target.isEmpty()) {
+            return List.of();
+        }
+        AudienceSqlCompiler.CompiledAudience audience = audienceCompiler.compile(
+                target.get().segmentId(), target.get().filter(), true);
+
         String sql = """
                 SELECT
                         c.id                AS customer_id,
@@ -501,48 +491,23 @@ public class JdbcCampaignRepository implements CampaignRepositoryPort {
                         c.marketing_status  AS marketing_status,
                         c.unsubscribe_token AS unsubscribe_token,
                         COALESCE(cl.status, 'NOT_SENT') AS send_status
-                FROM marketing_campaigns mc
-                JOIN customers c
-                    ON c.company_id = mc.company_id
-                LEFT JOIN marketing_segments ms
-                    ON mc.segment_id = ms.id
+                FROM %s
                 LEFT JOIN LATERAL (
                         SELECT cl.status
                         FROM marketing_email_logs cl
-                        WHERE cl.campaign_id = mc.id
+                        WHERE cl.campaign_id = :campaignId
                             AND cl.customer_id = c.id
                         ORDER BY cl.id DESC
                         LIMIT 1
                 ) cl ON true
-                WHERE mc.id = :campaignId
-                    AND mc.company_id = :companyId
+                WHERE %s
                     AND c.id > :lastSeen
-                    AND c.email IS NOT NULL
-                    AND c.active = true
-                    AND c.deleted_at IS NULL
-                    AND (
-                            c.marketing_status <> 'SNOOZED'
-                            OR c.marketing_snooze_until IS NULL
-                            OR c.marketing_snooze_until <= NOW()
-                    )
-                    AND (
-                                mc.segment_id IS NULL
-                                OR (
-                                        (ms.filter_types IS NULL OR c.type = ANY(ms.filter_types))
-                                        AND (ms.filter_tags IS NULL OR c.tags && ms.filter_tags)
-                                        AND (ms.filter_city IS NULL OR c.city = ms.filter_city)
-                                        AND (ms.filter_origin IS NULL OR c.origin = ms.filter_origin)
-                                        AND (ms.filter_marketing_status IS NULL OR c.marketing_status = ms.filter_marketing_status)
-                                        AND (ms.filter_registered_after IS NULL OR c.created_at >= ms.filter_registered_after)
-                                        AND (ms.filter_registered_before IS NULL OR c.created_at <= ms.filter_registered_before)
-                                )
-                    )
                 ORDER BY c.id ASC
                 LIMIT :limit
-                """;
+                """.formatted(audience.from(), audience.where());
 
         return jdbc.query(sql,
-                new MapSqlParameterSource()
+                audience.bind()
                         .addValue("campaignId", campaignId)
                         .addValue("companyId", companyId)
                         .addValue("lastSeen", lastSeen)
@@ -556,6 +521,42 @@ public class JdbcCampaignRepository implements CampaignRepositoryPort {
                         rs.getString("unsubscribe_token")));
     }
 
+    // ==========================================
+    // AUDIENCE HELPERS
+    // ==========================================
+
+    @Override
+    public long countCampaignRecipients(UUID companyId, Long campaignId) {
+        Optional<CampaignTarget> target = findCampaignTarget(companyId, campaignId);
+        if (target.isEmpty()) {
+            return 0;
+        }
+        AudienceSqlCompiler.CompiledAudience audience = audienceCompiler.compile(
+                target.get().segmentId(), target.get().filter(), true);
+
+        String sql = "SELECT COUNT(*) FROM %s WHERE %s".formatted(audience.from(), audience.where());
+        Long count = jdbc.queryForObject(sql, audience.bind().addValue("companyId", companyId), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private record CampaignTarget(Long segmentId, AudienceFilter filter) {
+    }
+
+    private Optional<CampaignTarget> findCampaignTarget(UUID companyId, Long campaignId) {
+        String sql = """
+                SELECT segment_id, audience_filter
+                FROM marketing_campaigns
+                WHERE id = :campaignId AND company_id = :companyId
+                """;
+        return jdbc.query(sql,
+                new MapSqlParameterSource("campaignId", campaignId).addValue("companyId", companyId),
+                (rs, rowNum) -> new CampaignTarget(
+                        rs.getObject("segment_id", Long.class),
+                        deserializeJson(rs.getString("audience_filter"), AudienceFilter.class)))
+                .stream()
+                .findFirst();
+    }
+
     // ==========================================
     // DISTRIBUTED SCHEDULER LOCKING
     // ==========================================
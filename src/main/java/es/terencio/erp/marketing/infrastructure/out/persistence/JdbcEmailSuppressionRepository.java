@@ -0,0 +1,76 @@
+package es.terencio.erp.marketing.infrastructure.out.persistence;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.marketing.application.dto.suppression.SuppressionEntry;
+import es.terencio.erp.marketing.application.port.out.EmailSuppressionRepositoryPort;
+import es.terencio.erp.marketing.domain.model.EmailHash;
+import es.terencio.erp.marketing.domain.model.SuppressionReason;
+
+@Repository
+public class JdbcEmailSuppressionRepository implements EmailSuppressionRepositoryPort {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public JdbcEmailSuppressionRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void suppress(EmailHash hash, SuppressionReason reason, UUID sourceCompanyId) {
+        // A complaint outranks a bounce; the row id (load cursor) never changes
+        String sql = """
+                INSERT INTO marketing_email_suppressions (email_hash, reason, source_company_id)
+                VALUES (:hash, :reason, :companyId)
+                ON CONFLICT (email_hash) DO UPDATE SET
+                    events = marketing_email_suppressions.events + 1,
+                    last_seen_at = NOW(),
+                    reason = CASE WHEN EXCLUDED.reason = 'COMPLAINT' THEN 'COMPLAINT'
+                                  ELSE marketing_email_suppressions.reason END
+                """;
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("hash", hash.value())
+                .addValue("reason", reason.name())
+                .addValue("companyId", sourceCompanyId));
+    }
+
+    @Override
+    public Set<EmailHash> findSuppressed(Collection<EmailHash> hashes) {
+        if (hashes.isEmpty()) {
+            return Set.of();
+        }
+        List<String> values = hashes.stream().map(EmailHash::value).toList();
+        String sql = "SELECT email_hash FROM marketing_email_suppressions WHERE email_hash IN (:hashes)";
+        return new HashSet<>(jdbc.query(sql, new MapSqlParameterSource("hashes", values),
+                (rs, rowNum) -> new EmailHash(rs.getString("email_hash"))));
+    }
+
+    @Override
+    public long count() {
+        Long total = jdbc.queryForObject("SELECT COUNT(*) FROM marketing_email_suppressions",
+                new MapSqlParameterSource(), Long.class);
+        return total != null ? total : 0L;
+    }
+
+    @Override
+    public List<SuppressionEntry> findAfter(long afterId, int limit) {
+        String sql = """
+                SELECT id, email_hash FROM marketing_email_suppressions
+                WHERE id > :afterId
+                ORDER BY id
+                LIMIT :limit
+                """;
+        return jdbc.query(sql, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit),
+                (rs, rowNum) -> new SuppressionEntry(rs.getLong("id"), new EmailHash(rs.getString("email_hash"))));
+    }
+}
@@ -0,0 +1,144 @@
+package es.terencio.erp.marketing.infrastructure.out.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.marketing.application.port.out.SegmentMembershipPort;
+import es.terencio.erp.shared.domain.event.CustomerChangedEvent;
+
+@Repository
+public class JdbcSegmentMembershipRepository implements SegmentMembershipPort {
+
+    /**
+     * Static part of a segment definition evaluated against one customer row.
+     * Time-dependent rules (snooze) and sendability (email, active) stay in the
+     * audience queries.
+     */
+    static final String SEGMENT_MATCH = """
+            (c.deleted_at IS NULL
+             AND (ms.filter_types IS NULL OR c.type = ANY(ms.filter_types))
+             AND (ms.filter_tags IS NULL OR c.tags && ms.filter_tags)
+             AND (ms.filter_city IS NULL OR c.city = ms.filter_city)
+             AND (ms.filter_origin IS NULL OR c.origin = ms.filter_origin)
+             AND (ms.filter_marketing_status IS NULL OR c.marketing_status = ms.filter_marketing_status)
+             AND (ms.filter_registered_after IS NULL OR c.created_at >= ms.filter_registered_after)
+             AND (ms.filter_registered_before IS NULL OR c.created_at <= ms.filter_registered_before))
+            """;
+
+    /** Segment filter column that reads each customers column. */
+    private static final Map<String, String> FILTER_BY_COLUMN = Map.of(
+            CustomerChangedEvent.TYPE, "ms.filter_types",
+            CustomerChangedEvent.TAGS, "ms.filter_tags",
+            CustomerChangedEvent.CITY, "ms.filter_city",
+            CustomerChangedEvent.ORIGIN, "ms.filter_origin",
+            CustomerChangedEvent.MARKETING_STATUS, "ms.filter_marketing_status");
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public JdbcSegmentMembershipRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void refreshCustomer(Long customerId, Set<String> changedColumns) {
+        String touched = touchedSegmentsCondition(changedColumns);
+        if (touched == null) {
+            return;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("customerId", customerId);
+
+        String deleteSql = """
+                DELETE FROM marketing_segment_members m
+                USING marketing_segments ms, customers c
+                WHERE m.customer_id = :customerId
+                  AND ms.id = m.segment_id
+                  AND c.id = m.customer_id
+                  AND %s
+                  AND NOT COALESCE(%s, FALSE)
+                """.formatted(touched, SEGMENT_MATCH);
+        jdbc.update(deleteSql, params);
+
+        String insertSql = """
+                INSERT INTO marketing_segment_members (segment_id, customer_id, company_id)
+                SELECT ms.id, c.id, c.company_id
+                FROM customers c
+                JOIN marketing_segments ms ON ms.company_id = c.company_id
+                WHERE c.id = :customerId
+                  AND %s
+                  AND COALESCE(%s, FALSE)
+                ON CONFLICT (segment_id, customer_id) DO NOTHING
+                """.formatted(touched, SEGMENT_MATCH);
+        jdbc.update(insertSql, params);
+    }
+
+    @Override
+    public List<Long> findStaleSegmentIds() {
+        String sql = """
+                SELECT id FROM marketing_segments
+                WHERE members_refreshed_at IS NULL OR updated_at > members_refreshed_at
+                ORDER BY id
+                """;
+        return jdbc.queryForList(sql, new MapSqlParameterSource(), Long.class);
+    }
+
+    @Override
+    public int rebuildSegment(Long segmentId) {
+        // Single statement: the three CTEs touch disjoint rows and commit atomically
+        String sql = """
+                WITH removed AS (
+                    DELETE FROM marketing_segment_members m
+                    WHERE m.segment_id = :segmentId
+                      AND NOT EXISTS (
+                          SELECT 1 FROM customers c
+                          JOIN marketing_segments ms ON ms.id = m.segment_id
+                          WHERE c.id = m.customer_id
+                            AND COALESCE(%s, FALSE))
+                    RETURNING 1
+                ), added AS (
+                    INSERT INTO marketing_segment_members (segment_id, customer_id, company_id)
+                    SELECT ms.id, c.id, c.company_id
+                    FROM marketing_segments ms
+                    JOIN customers c ON c.company_id = ms.company_id
+                    WHERE ms.id = :segmentId
+                      AND COALESCE(%s, FALSE)
+                    ON CONFLICT (segment_id, customer_id) DO NOTHING
+                    RETURNING 1
+                ), stamped AS (
+                    UPDATE marketing_segments SET members_refreshed_at = NOW()
+                    WHERE id = :segmentId
+                )
+                SELECT (SELECT COUNT(*) FROM marketing_segment_members WHERE segment_id = :segmentId)
+                     - (SELECT COUNT(*) FROM removed)
+                     + (SELECT COUNT(*) FROM added)
+                """.formatted(SEGMENT_MATCH, SEGMENT_MATCH);
+
+        Long members = jdbc.queryForObject(sql, new MapSqlParameterSource("segmentId", segmentId), Long.class);
+        return members != null ? members.intValue() : 0;
+    }
+
+    /**
+     * SQL condition selecting the segments affected by the changed columns, or
+     * null when none can be affected.
+     */
+    private String touchedSegmentsCondition(Set<String> changedColumns) {
+        if (changedColumns == null || changedColumns.contains(CustomerChangedEvent.DELETED_AT)) {
+            return "TRUE";
+        }
+
+        List<String> filters = new ArrayList<>();
+        for (String column : changedColumns) {
+            String filter = FILTER_BY_COLUMN.get(column);
+            if (filter != null) {
+                filters.add(filter + " IS NOT NULL");
+            }
+        }
+        return filters.isEmpty() ? null : "(" + String.join(" OR ", filters) + ")";
+    }
+}
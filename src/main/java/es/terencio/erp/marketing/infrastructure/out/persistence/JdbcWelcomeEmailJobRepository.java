@@ -0,0 +1,185 @@
+package es.terencio.erp.marketing.infrastructure.out.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.marketing.application.dto.welcome.WelcomeRecipient;
+import es.terencio.erp.marketing.application.port.out.WelcomeEmailJobRepositoryPort;
+import es.terencio.erp.marketing.domain.model.MarketingStatus;
+import es.terencio.erp.marketing.domain.model.WelcomeEmailJob;
+
+@Repository
+public class JdbcWelcomeEmailJobRepository implements WelcomeEmailJobRepositoryPort {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public JdbcWelcomeEmailJobRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Optional<WelcomeEmailJob> enqueue(UUID companyId, Long customerId, Long templateId, Instant dueAt) {
+        String sql = """
+                INSERT INTO marketing_welcome_jobs (company_id, customer_id, template_id, due_at)
+                VALUES (:companyId, :customerId, :templateId, :dueAt)
+                ON CONFLICT (customer_id) DO NOTHING
+                RETURNING id, company_id, customer_id, template_id, due_at
+                """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("companyId", companyId)
+                .addValue("customerId", customerId)
+                .addValue("templateId", templateId)
+                .addValue("dueAt", Timestamp.from(dueAt));
+        return jdbc.query(sql, params, this::mapJob).stream().findFirst();
+    }
+
+    @Override
+    public boolean claim(Long jobId, String nodeId, Instant leaseUntil) {
+        String sql = """
+                UPDATE marketing_welcome_jobs
+                SET claimed_by = :nodeId, claimed_until = :leaseUntil
+                WHERE id = :jobId AND status = 'PENDING' AND claimed_by IS NULL
+                """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("nodeId", nodeId)
+                .addValue("leaseUntil", Timestamp.from(leaseUntil));
+        return jdbc.update(sql, params) > 0;
+    }
+
+    @Override
+    public List<WelcomeEmailJob> claimDueBefore(Instant horizon, String nodeId, Instant leaseUntil, int limit) {
+        // SENDING jobs with an expired lease belong to a node that died mid-batch
+        String sql = """
+                UPDATE marketing_welcome_jobs j
+                SET claimed_by = :nodeId, claimed_until = :leaseUntil
+                WHERE j.id IN (
+                    SELECT id FROM marketing_welcome_jobs
+                    WHERE status IN ('PENDING', 'SENDING')
+                      AND due_at < :horizon
+                      AND (claimed_until IS NULL OR claimed_until < NOW())
+                    ORDER BY due_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING j.id, j.company_id, j.customer_id, j.template_id, j.due_at
+                """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("horizon", Timestamp.from(horizon))
+                .addValue("nodeId", nodeId)
+                .addValue("leaseUntil", Timestamp.from(leaseUntil))
+                .addValue("limit", limit);
+        List<WelcomeEmailJob> jobs = jdbc.query(sql, params, this::mapJob);
+        // RETURNING does not preserve the sub-select order
+        return jobs.stream()
+                .sorted((a, b) -> a.dueAt().compareTo(b.dueAt()))
+                .toList();
+    }
+
+    @Override
+    public List<WelcomeRecipient> startSending(UUID companyId, List<Long> jobIds, String nodeId) {
+        if (jobIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+                WITH started AS (
+                    UPDATE marketing_welcome_jobs
+                    SET status = 'SENDING', attempts = attempts + 1
+                    WHERE id IN (:jobIds)
+                      AND company_id = :companyId
+                      AND claimed_by = :nodeId
+                      AND status IN ('PENDING', 'SENDING')
+                    RETURNING id, customer_id, template_id, attempts
+                )
+                SELECT s.id AS job_id, s.customer_id, s.template_id, s.attempts,
+                       c.email, c.legal_name AS name, c.unsubscribe_token, c.marketing_status,
+                       (c.active AND c.deleted_at IS NULL) AS active
+                FROM started s
+                JOIN customers c ON c.id = s.customer_id
+                ORDER BY s.id
+                """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("jobIds", jobIds)
+                .addValue("companyId", companyId)
+                .addValue("nodeId", nodeId);
+        return jdbc.query(sql, params, (rs, rowNum) -> new WelcomeRecipient(
+                rs.getLong("job_id"),
+                rs.getLong("customer_id"),
+                rs.getLong("template_id"),
+                rs.getInt("attempts"),
+                rs.getString("email"),
+                rs.getString("name"),
+                rs.getString("unsubscribe_token"),
+                MarketingStatus.parseOrDefault(rs.getString("marketing_status"), MarketingStatus.UNSUBSCRIBED),
+                rs.getBoolean("active")));
+    }
+
+    @Override
+    public void markSent(Long jobId, String messageId) {
+        String sql = """
+                UPDATE marketing_welcome_jobs
+                SET status = 'SENT', message_id = :messageId, sent_at = NOW(),
+                    claimed_by = NULL, claimed_until = NULL, last_error = NULL
+                WHERE id = :jobId
+                """;
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("messageId", messageId));
+    }
+
+    @Override
+    public void markSkipped(Long jobId, String reason) {
+        String sql = """
+                UPDATE marketing_welcome_jobs
+                SET status = 'SKIPPED', last_error = :reason, claimed_by = NULL, claimed_until = NULL
+                WHERE id = :jobId
+                """;
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("reason", truncate(reason)));
+    }
+
+    @Override
+    public void markFailed(Long jobId, String error, Instant retryAt) {
+        // With a retry time the job goes back to the queue for whichever node leases it next
+        String sql = """
+                UPDATE marketing_welcome_jobs
+                SET status = CASE WHEN CAST(:retryAt AS timestamptz) IS NULL THEN 'FAILED' ELSE 'PENDING' END,
+                    due_at = COALESCE(CAST(:retryAt AS timestamptz), due_at),
+                    last_error = :error,
+                    claimed_by = NULL, claimed_until = NULL
+                WHERE id = :jobId
+                """;
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("error", truncate(error))
+                .addValue("retryAt", retryAt != null ? Timestamp.from(retryAt) : null));
+    }
+
+    private WelcomeEmailJob mapJob(ResultSet rs, int rowNum) throws SQLException {
+        return new WelcomeEmailJob(
+                rs.getLong("id"),
+                rs.getObject("company_id", UUID.class),
+                rs.getLong("customer_id"),
+                rs.getLong("template_id"),
+                rs.getTimestamp("due_at").toInstant());
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= MAX_ERROR_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
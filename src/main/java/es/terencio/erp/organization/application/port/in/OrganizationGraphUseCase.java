@@ -0,0 +1,21 @@
+package es.terencio.erp.organization.application.port.in;
+
+import java.util.UUID;
+
+import es.terencio.erp.organization.domain.model.OrganizationGraph;
+
+public interface OrganizationGraphUseCase {
+
+    /** Current hierarchy snapshot, loaded on first use. */
+    OrganizationGraph current();
+
+    /**
+     * Current snapshot, reloaded first if it does not know {@code nodeId} yet
+     * (a node created on this or another node before the change notification
+     * arrived).
+     */
+    OrganizationGraph currentContaining(UUID nodeId);
+
+    /** Drops the snapshot; the next read loads a new version. */
+    void invalidate();
+}
@@ -2,8 +2,8 @@ package es.terencio.erp.organization.application.port.out;
 
 import java.util.List;
 
-import es.terencio.erp.organization.application.dto.OrganizationDtos.CompanyTreeDto;
+import es.terencio.erp.organization.domain.model.OrganizationGraph;
 
 public interface OrganizationRepository {
-    List<CompanyTreeDto> findFullTreeByEmployeeId(Long employeeId);
+    List<OrganizationGraph.Node> findAllHierarchyNodes();
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package es.terencio.erp.organization.application.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
+import es.terencio.erp.organization.application.port.out.OrganizationRepository;
+import es.terencio.erp.organization.domain.model.OrganizationGraph;
+
+/**
+ * Holds the current {@link OrganizationGraph}. Readers never lock: they get
+ * whatever snapshot is installed. Changes to organizations, companies or
+ * stores (on any node) invalidate it, and the next reader loads and swaps in
+ * a new version.
+ */
+public class OrganizationGraphService implements OrganizationGraphUseCase {
+    private static final Logger log = LoggerFactory.getLogger(OrganizationGraphService.class);
+
+    // Bounds reloads caused by lookups of ids that really do not exist
+    private static final Duration MIN_RELOAD_INTERVAL_ON_MISS = Duration.ofSeconds(1);
+
+    private final OrganizationRepository organizationRepository;
+    private final AtomicReference<OrganizationGraph> graph = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public OrganizationGraphService(OrganizationRepository organizationRepository) {
+        this.organizationRepository = organizationRepository;
+    }
+
+    @Override
+    public OrganizationGraph current() {
+        OrganizationGraph snapshot = graph.get();
+        return snapshot != null ? snapshot : load(null);
+    }
+
+    @Override
+    public OrganizationGraph currentContaining(UUID nodeId) {
+        OrganizationGraph snapshot = current();
+        if (nodeId == null || snapshot.contains(nodeId)
+                || snapshot.loadedAt().plus(MIN_RELOAD_INTERVAL_ON_MISS).isAfter(Instant.now())) {
+            return snapshot;
+        }
+        return load(snapshot);
+    }
+
+    @Override
+    public void invalidate() {
+        invalidations.incrementAndGet();
+        graph.set(null);
+    }
+
+    /** Loads a new graph unless another caller already replaced {@code stale} while we waited for the lock. */
+    private synchronized OrganizationGraph load(OrganizationGraph stale) {
+        OrganizationGraph installed = graph.get();
+        if (installed != null && installed != stale) {
+            return installed;
+        }
+        long seenInvalidations = invalidations.get();
+        OrganizationGraph fresh = OrganizationGraph.build(versions.incrementAndGet(),
+                organizationRepository.findAllHierarchyNodes());
+        // An invalidation during the load may mean we read pre-change data; serve it but don't keep it
+        if (invalidations.get() == seenInvalidations) {
+            graph.set(fresh);
+        }
+        log.debug("Organization graph v{} loaded", fresh.version());
+        return fresh;
+    }
+}
@@ -3,46 +3,65 @@ package es.terencio.erp.organization.application.service;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
+import es.terencio.erp.employees.application.dto.EmployeeDto;
 import es.terencio.erp.employees.application.port.out.EmployeePort;
 import es.terencio.erp.organization.application.dto.OrganizationDtos.CompanyTreeDto;
+import es.terencio.erp.organization.application.dto.OrganizationDtos.StoreTreeDto;
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
 import es.terencio.erp.organization.application.port.in.OrganizationUseCase;
-import es.terencio.erp.organization.application.port.out.OrganizationRepository;
+import es.terencio.erp.organization.domain.model.OrganizationGraph;
+import es.terencio.erp.organization.domain.model.OrganizationGraph.NodeType;
+import es.terencio.erp.shared.domain.event.EmployeeSessionChangedEvent;
 
 public class OrganizationService implements OrganizationUseCase {
 
     private final EmployeePort employeePort;
-    private final OrganizationRepository organizationRepository;
+    private final OrganizationGraphUseCase organizationGraph;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OrganizationService(EmployeePort employeePort, OrganizationRepository organizationRepository) {
+    public OrganizationService(EmployeePort employeePort, OrganizationGraphUseCase organizationGraph,
+            ApplicationEventPublisher eventPublisher) {
         this.employeePort = employeePort;
-        this.organizationRepository = organizationRepository;
+        this.organizationGraph = organizationGraph;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CompanyTreeDto> getTreeForEmployee(Long employeeId) {
-        return organizationRepository.findFullTreeByEmployeeId(employeeId);
+        UUID organizationId = employeePort.findById(employeeId).map(EmployeeDto::organizationId).orElse(null);
+        if (organizationId == null) {
+            return List.of();
+        }
+
+        OrganizationGraph graph = organizationGraph.current();
+        return graph.visibleChildren(organizationId).stream()
+                .filter(company -> company.type() == NodeType.COMPANY)
+                .map(company -> new CompanyTreeDto(company.id(), company.name(), company.slug(), organizationId,
+                        graph.visibleChildren(company.id()).stream()
+                                .map(store -> new StoreTreeDto(store.id(), store.name(), store.slug(), store.code(),
+                                        company.id()))
+                                .toList()))
+                .toList();
     }
 
     @Override
     @Transactional
     public void switchContext(Long employeeId, UUID companyId, UUID storeId) {
-        // 1. Fetch available tree
-        List<CompanyTreeDto> tree = getTreeForEmployee(employeeId);
+        UUID organizationId = employeePort.findById(employeeId).map(EmployeeDto::organizationId).orElse(null);
 
-        // 2. Validate Access
+        // Validate access against the hierarchy: visible company of the employee's organization, visible store of that company
         boolean companyValid = companyId == null;
         boolean storeValid = storeId == null;
 
-        if (companyId != null) {
-            companyValid = tree.stream().anyMatch(c -> c.id().equals(companyId));
+        if (companyId != null && organizationId != null) {
+            OrganizationGraph graph = organizationGraph.currentContaining(storeId != null ? storeId : companyId);
+            companyValid = isVisible(graph, companyId, NodeType.COMPANY, organizationId);
             if (companyValid && storeId != null) {
-                 storeValid = tree.stream()
-                        .filter(c -> c.id().equals(companyId))
-                        .flatMap(c -> c.stores().stream())
-                        .anyMatch(s -> s.id().equals(storeId));
+                storeValid = isVisible(graph, storeId, NodeType.STORE, companyId);
             }
         }
 
@@ -50,7 +69,13 @@ public class OrganizationService implements OrganizationUseCase {
             throw new IllegalArgumentException("Invalid context switch: Access denied.");
         }
 
-        // 3. Update Employee Context
         employeePort.updateLastActiveContext(employeeId, companyId, storeId);
+        eventPublisher.publishEvent(new EmployeeSessionChangedEvent(employeeId));
+    }
+
+    private boolean isVisible(OrganizationGraph graph, UUID id, NodeType type, UUID parentId) {
+        return graph.find(id)
+                .filter(node -> node.type() == type && node.visible() && parentId.equals(node.parentId()))
+                .isPresent();
     }
-}
\ No newline at end of file
+}
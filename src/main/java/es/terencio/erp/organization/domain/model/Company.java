@@ -2,6 +2,7 @@ package es.terencio.erp.organization.domain.model;
 
 import es.terencio.erp.shared.domain.exception.InvariantViolationException;
 import es.terencio.erp.shared.domain.identifier.CompanyId;
+import es.terencio.erp.shared.domain.tax.DocumentTaxCalculator;
 import es.terencio.erp.shared.domain.valueobject.TaxId;
 import java.time.Instant;
 import java.util.Currency;
@@ -62,6 +63,11 @@ public class Company {
         this.updatedAt = Instant.now();
     }
 
+    /** Calculator set up with this company's tax-included prices and rounding mode. */
+    public DocumentTaxCalculator newTaxCalculator() {
+        return new DocumentTaxCalculator(priceIncludesTax, roundingMode == RoundingMode.LINE);
+    }
+
     public void activate() { this.active = true; this.updatedAt = Instant.now(); }
     public void deactivate() { this.active = false; this.updatedAt = Instant.now(); }
 
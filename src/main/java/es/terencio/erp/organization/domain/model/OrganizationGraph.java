@@ -0,0 +1,99 @@
+package es.terencio.erp.organization.domain.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the organization → company → store hierarchy.
+ * <p>
+ * Holds parent pointers and name-ordered children for every node, including
+ * inactive and deleted ones (permission scope resolution must still see
+ * them); {@link Node#visible()} tells tree rendering which ones to show.
+ * Ancestry lookups are O(depth). A new snapshot with a higher version
+ * replaces the old one whenever the hierarchy changes.
+ */
+public final class OrganizationGraph {
+
+    public enum NodeType {
+        ORGANIZATION,
+        COMPANY,
+        STORE
+    }
+
+    public record Node(UUID id, NodeType type, UUID parentId, String name, String slug, String code, boolean visible) {
+    }
+
+    private static final Comparator<Node> BY_NAME = Comparator
+            .comparing(Node::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Node::id);
+
+    private final long version;
+    private final Instant loadedAt;
+    private final Map<UUID, Node> nodes;
+    private final Map<UUID, List<Node>> children;
+
+    private OrganizationGraph(long version, Instant loadedAt, Map<UUID, Node> nodes, Map<UUID, List<Node>> children) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.nodes = nodes;
+        this.children = children;
+    }
+
+    public static OrganizationGraph build(long version, Collection<Node> nodeList) {
+        Map<UUID, Node> nodes = new HashMap<>();
+        Map<UUID, List<Node>> children = new HashMap<>();
+        for (Node node : nodeList) {
+            nodes.put(node.id(), node);
+            if (node.parentId() != null) {
+                children.computeIfAbsent(node.parentId(), k -> new ArrayList<>()).add(node);
+            }
+        }
+        Map<UUID, List<Node>> sortedChildren = new HashMap<>();
+        children.forEach((parentId, list) -> sortedChildren.put(parentId, list.stream().sorted(BY_NAME).toList()));
+        return new OrganizationGraph(version, Instant.now(), Map.copyOf(nodes), Map.copyOf(sortedChildren));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public boolean contains(UUID id) {
+        return id != null && nodes.containsKey(id);
+    }
+
+    public Optional<Node> find(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(nodes.get(id));
+    }
+
+    /**
+     * Nearest ancestor-or-self of the given type, or empty when the node is
+     * unknown or sits above that level.
+     */
+    public Optional<UUID> ancestorOfType(UUID id, NodeType type) {
+        Node current = id == null ? null : nodes.get(id);
+        while (current != null) {
+            if (current.type() == type) {
+                return Optional.of(current.id());
+            }
+            current = current.parentId() != null ? nodes.get(current.parentId()) : null;
+        }
+        return Optional.empty();
+    }
+
+    public List<Node> visibleChildren(UUID parentId) {
+        return children.getOrDefault(parentId, List.of()).stream()
+                .filter(Node::visible)
+                .toList();
+    }
+}
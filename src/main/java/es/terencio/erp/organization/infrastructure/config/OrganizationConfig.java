@@ -1,10 +1,12 @@
 package es.terencio.erp.organization.infrastructure.config;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import es.terencio.erp.employees.application.port.out.EmployeePort;
 import es.terencio.erp.organization.application.port.in.CompanyUseCase;
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
 import es.terencio.erp.organization.application.port.in.OrganizationUseCase;
 import es.terencio.erp.organization.application.port.in.StoreUseCase;
 import es.terencio.erp.organization.application.port.out.CompanyRepository;
@@ -13,6 +15,7 @@ import es.terencio.erp.organization.application.port.out.StoreRepository;
 import es.terencio.erp.organization.application.port.out.StoreSettingsRepository;
 import es.terencio.erp.organization.application.port.out.WarehouseRepository;
 import es.terencio.erp.organization.application.service.CompanyService;
+import es.terencio.erp.organization.application.service.OrganizationGraphService;
 import es.terencio.erp.organization.application.service.OrganizationService;
 import es.terencio.erp.organization.application.service.StoreService;
 
@@ -31,7 +34,13 @@ public class OrganizationConfig {
     }
 
     @Bean
-    public OrganizationUseCase organizationUseCase(EmployeePort employeePort, OrganizationRepository organizationRepository) {
-        return new OrganizationService(employeePort, organizationRepository);
+    public OrganizationGraphUseCase organizationGraphUseCase(OrganizationRepository organizationRepository) {
+        return new OrganizationGraphService(organizationRepository);
+    }
+
+    @Bean
+    public OrganizationUseCase organizationUseCase(EmployeePort employeePort, OrganizationGraphUseCase organizationGraph,
+                                                   ApplicationEventPublisher eventPublisher) {
+        return new OrganizationService(employeePort, organizationGraph, eventPublisher);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package es.terencio.erp.organization.infrastructure.in.event;
+
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener;
+import es.terencio.erp.shared.infrastructure.notification.PostgresNotificationListener.NotificationHandler;
+
+/**
+ * Invalidates the organization graph when the statement triggers on
+ * organizations, companies or stores report a change on any node.
+ */
+@Component
+public class OrganizationGraphNotificationListener implements NotificationHandler {
+
+    static final String CHANNEL = "organization_graph_changed";
+
+    private final OrganizationGraphUseCase organizationGraph;
+
+    public OrganizationGraphNotificationListener(OrganizationGraphUseCase organizationGraph,
+            PostgresNotificationListener notificationListener) {
+        this.organizationGraph = organizationGraph;
+        notificationListener.subscribe(CHANNEL, this);
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        organizationGraph.invalidate();
+    }
+
+    @Override
+    public void onResync() {
+        organizationGraph.invalidate();
+    }
+}
@@ -0,0 +1,10 @@
+package es.terencio.erp.sales.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Last number the device issued from the block; one before its first
+ * number when it issued none.
+ */
+public record CloseNumberBlockRequest(@NotNull Long lastUsedNumber) {
+}
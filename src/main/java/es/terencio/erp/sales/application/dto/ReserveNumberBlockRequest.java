@@ -0,0 +1,14 @@
+package es.terencio.erp.sales.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Asks for a block of numbers of a series. Without a size the server
+ * default is used.
+ */
+public record ReserveNumberBlockRequest(
+        @NotBlank @Size(max = 30) String series,
+        @Positive Integer size) {
+}
@@ -0,0 +1,38 @@
+package es.terencio.erp.sales.application.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one uploaded sale, in request order. The till can forget
+ * ACCEPTED and DUPLICATE sales, should retry FAILED ones and keep REJECTED
+ * ones for review.
+ */
+public record SaleAck(
+        int index,
+        UUID saleId,
+        Status status,
+        String error) {
+
+    public enum Status {
+        ACCEPTED,
+        DUPLICATE,
+        REJECTED,
+        FAILED
+    }
+
+    public static SaleAck accepted(int index, UUID saleId) {
+        return new SaleAck(index, saleId, Status.ACCEPTED, null);
+    }
+
+    public static SaleAck duplicate(int index, UUID saleId) {
+        return new SaleAck(index, saleId, Status.DUPLICATE, null);
+    }
+
+    public static SaleAck rejected(int index, UUID saleId, String error) {
+        return new SaleAck(index, saleId, Status.REJECTED, error);
+    }
+
+    public static SaleAck failed(int index, UUID saleId, String error) {
+        return new SaleAck(index, saleId, Status.FAILED, error);
+    }
+}
@@ -0,0 +1,36 @@
+package es.terencio.erp.sales.application.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A sale as sent by the till. Amounts are in cents of {@code currency}.
+ */
+public record SaleUpload(
+        UUID id,
+        Long employeeId,
+        UUID customerId,
+        Instant issuedAt,
+        String currency,
+        long total,
+        List<Line> lines,
+        List<Payment> payments) {
+
+    public record Line(
+            int lineNumber,
+            Long productId,
+            String description,
+            BigDecimal quantity,
+            long unitPrice,
+            BigDecimal discountPercent,
+            BigDecimal taxRate,
+            long netAmount,
+            long taxAmount,
+            long total) {
+    }
+
+    public record Payment(String method, long amount) {
+    }
+}
@@ -0,0 +1,14 @@
+package es.terencio.erp.sales.application.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Sales queued on a till. Individual sales are checked one by one (see
+ * {@link SaleAck}) so one bad sale does not hold back the rest.
+ */
+public record UploadSalesRequest(
+        @NotEmpty @Size(max = 1000) List<SaleUpload> sales) {
+}
@@ -0,0 +1,27 @@
+package es.terencio.erp.sales.application.port.in;
+
+import java.util.List;
+import java.util.UUID;
+
+import es.terencio.erp.sales.domain.model.NumberBlock;
+
+/**
+ * Blocks of document numbers reserved by tills, which number their
+ * documents themselves while offline.
+ */
+public interface ReserveNumberBlocksUseCase {
+    /**
+     * Reserves the next free numbers of a series for the device.
+     *
+     * @param size How many numbers, or {@code null} for the default
+     * @throws es.terencio.erp.shared.exception.ConflictException when the
+     *         device already has as many open blocks of the series as allowed
+     */
+    NumberBlock reserve(UUID deviceId, String series, Integer size);
+
+    /** Blocks of the device not closed yet, e.g. to recover them after a reinstall. */
+    List<NumberBlock> findOpenBlocks(UUID deviceId);
+
+    /** Closes a block of the device, recording the last number it issued. */
+    void close(UUID deviceId, long blockId, long lastUsedNumber);
+}
@@ -0,0 +1,22 @@
+package es.terencio.erp.sales.application.port.in;
+
+import java.util.List;
+import java.util.UUID;
+
+import es.terencio.erp.sales.application.dto.SaleAck;
+import es.terencio.erp.sales.application.dto.SaleUpload;
+
+/**
+ * Ingestion of sales recorded on POS devices, possibly while offline.
+ */
+public interface UploadSalesUseCase {
+    /**
+     * Records the sales of a device. Safe to retry: sales already recorded
+     * are acknowledged as duplicates.
+     *
+     * @param deviceId The UUID of the authenticated device
+     * @param sales The sales, in the order the device recorded them
+     * @return one acknowledgement per sale, in the same order
+     */
+    List<SaleAck> upload(UUID deviceId, List<SaleUpload> sales);
+}
@@ -0,0 +1,19 @@
+package es.terencio.erp.sales.application.port.out;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import es.terencio.erp.sales.domain.model.NumberBlock;
+
+public interface NumberBlockPort {
+    /**
+     * Advances the series counter by {@code size} and records the block for the device, atomically.
+     * Empty, with the counter untouched, when the device already has {@code maxOpen} open blocks of
+     * the series. Must run in a transaction.
+     */
+    Optional<NumberBlock> reserve(UUID companyId, String series, UUID deviceId, int size, int maxOpen);
+    List<NumberBlock> findOpen(UUID deviceId);
+    Optional<NumberBlock> findOpen(long blockId, UUID deviceId);
+    void close(long blockId, long lastUsedNumber);
+}
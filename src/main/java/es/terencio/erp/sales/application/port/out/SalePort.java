@@ -0,0 +1,33 @@
+package es.terencio.erp.sales.application.port.out;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import es.terencio.erp.sales.domain.model.Sale;
+
+public interface SalePort {
+    /** Inserts the sales not recorded yet, with their lines and payments; returns the ids of those inserted. */
+    Set<UUID> insertAll(List<Sale> sales);
+    /** Device that recorded each of the given sales, for those that exist. */
+    Map<UUID, UUID> findDeviceIds(Collection<UUID> saleIds);
+    /** Those of the given employees that are active and have access to the store. */
+    Set<Long> findActiveEmployeeIds(Collection<Long> employeeIds, UUID storeId, UUID companyId);
+    Optional<UUID> findWarehouseId(UUID storeId);
+
+    /** Records that the stock of these sales is still to be taken; retried from {@code retryAfter} on. */
+    void enqueueStockUpdates(Collection<UUID> saleIds, UUID warehouseId, Duration retryAfter);
+    void clearStockUpdates(Collection<UUID> saleIds);
+    /** Leases up to {@code limit} due stock updates for {@code lease}; returns their sale ids. */
+    List<UUID> claimStockUpdates(int limit, Duration lease);
+    /** Per sale and product, the quantity sold that no SALE movement accounts for yet. */
+    List<PendingStock> findPendingStock(Collection<UUID> saleIds);
+    void recordStockUpdateFailure(Collection<UUID> saleIds, String error);
+
+    record PendingStock(UUID saleId, Long employeeId, UUID warehouseId, long productId, BigDecimal quantity) {}
+}
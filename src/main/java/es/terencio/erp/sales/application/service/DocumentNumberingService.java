@@ -0,0 +1,99 @@
+package es.terencio.erp.sales.application.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.devices.application.dto.DeviceCredentials;
+import es.terencio.erp.devices.application.service.ActiveDeviceResolver;
+import es.terencio.erp.organization.application.port.out.StoreRepository;
+import es.terencio.erp.sales.application.port.in.ReserveNumberBlocksUseCase;
+import es.terencio.erp.sales.application.port.out.NumberBlockPort;
+import es.terencio.erp.sales.domain.model.NumberBlock;
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.exception.ConflictException;
+import es.terencio.erp.shared.exception.RegistrationException;
+import es.terencio.erp.shared.exception.ResourceNotFoundException;
+
+/**
+ * Reserves blocks of document numbers for tills, which number their
+ * documents themselves, offline or not, and reserve the next block in the
+ * background before the current one runs out.
+ * <p>
+ * Each series has one counter per company, but it is only touched to
+ * reserve a block, in the same statement that records who owns it, so
+ * issuing a document never waits on a shared counter. Blocks are closed
+ * with the last number issued, so every gap in a series is explained by a
+ * block. The device is checked on every reservation, so a deactivated till
+ * gets no more numbers, and may hold only a few open blocks per series (the
+ * current one and the one prefetched), so a looping till cannot drain a
+ * series.
+ */
+@Service
+public class DocumentNumberingService implements ReserveNumberBlocksUseCase {
+
+    private final NumberBlockPort numberBlockPort;
+    private final ActiveDeviceResolver activeDevices;
+    private final StoreRepository storeRepository;
+    private final int blockSize;
+    private final int maxBlockSize;
+    private final int maxOpenBlocks;
+
+    public DocumentNumberingService(NumberBlockPort numberBlockPort, ActiveDeviceResolver activeDevices,
+            StoreRepository storeRepository,
+            @Value("${terencio.sales.numbering.block-size:100}") int blockSize,
+            @Value("${terencio.sales.numbering.max-block-size:10000}") int maxBlockSize,
+            @Value("${terencio.sales.numbering.max-open-blocks:2}") int maxOpenBlocks) {
+        if (blockSize < 1 || blockSize > maxBlockSize) {
+            throw new IllegalArgumentException("Numbering block size must be between 1 and " + maxBlockSize);
+        }
+        if (maxOpenBlocks < 1) {
+            throw new IllegalArgumentException("Devices must be allowed at least one open numbering block");
+        }
+        this.numberBlockPort = numberBlockPort;
+        this.activeDevices = activeDevices;
+        this.storeRepository = storeRepository;
+        this.blockSize = blockSize;
+        this.maxBlockSize = maxBlockSize;
+        this.maxOpenBlocks = maxOpenBlocks;
+    }
+
+    @Override
+    @Transactional
+    public NumberBlock reserve(UUID deviceId, String series, Integer size) {
+        int numbers = size != null ? size : blockSize;
+        if (numbers < 1 || numbers > maxBlockSize) {
+            throw new InvariantViolationException("Block size must be between 1 and " + maxBlockSize);
+        }
+        String validSeries = NumberBlock.requireValidSeries(series);
+        return numberBlockPort.reserve(companyOf(deviceId), validSeries, deviceId, numbers, maxOpenBlocks)
+                .orElseThrow(() -> new ConflictException("Device already has " + maxOpenBlocks
+                        + " open blocks of series " + validSeries + ", close one first"));
+    }
+
+    @Override
+    public List<NumberBlock> findOpenBlocks(UUID deviceId) {
+        activeDevices.credentials(deviceId);
+        return numberBlockPort.findOpen(deviceId);
+    }
+
+    @Override
+    public void close(UUID deviceId, long blockId, long lastUsedNumber) {
+        activeDevices.credentials(deviceId);
+        NumberBlock block = numberBlockPort.findOpen(blockId, deviceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Open number block not found: " + blockId));
+        block.requireClosableAt(lastUsedNumber);
+        numberBlockPort.close(block.id(), lastUsedNumber);
+    }
+
+    private UUID companyOf(UUID deviceId) {
+        DeviceCredentials device = activeDevices.credentials(deviceId);
+        return storeRepository.findById(new StoreId(device.storeId()))
+                .map(store -> store.companyId().value())
+                .orElseThrow(() -> new RegistrationException("Store not found"));
+    }
+}
@@ -0,0 +1,294 @@
+package es.terencio.erp.sales.application.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.terencio.erp.devices.application.dto.DeviceCredentials;
+import es.terencio.erp.devices.application.service.ActiveDeviceResolver;
+import es.terencio.erp.fiscal.application.dto.FiscalizeSaleCommand;
+import es.terencio.erp.fiscal.application.port.in.FiscalizeSalesUseCase;
+import es.terencio.erp.inventory.application.dto.StockMovementCommand;
+import es.terencio.erp.inventory.application.port.in.ApplyStockMovementsUseCase;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovementType;
+import es.terencio.erp.organization.application.port.out.CompanyRepository;
+import es.terencio.erp.organization.application.port.out.StoreRepository;
+import es.terencio.erp.organization.domain.model.Company;
+import es.terencio.erp.organization.domain.model.RoundingMode;
+import es.terencio.erp.organization.domain.model.Store;
+import es.terencio.erp.sales.application.dto.SaleAck;
+import es.terencio.erp.sales.application.dto.SaleUpload;
+import es.terencio.erp.sales.application.port.in.UploadSalesUseCase;
+import es.terencio.erp.sales.application.port.out.SalePort;
+import es.terencio.erp.sales.domain.model.PaymentMethod;
+import es.terencio.erp.sales.domain.model.Sale;
+import es.terencio.erp.sales.domain.model.SaleLine;
+import es.terencio.erp.sales.domain.model.SalePayment;
+import es.terencio.erp.shared.domain.identifier.CompanyId;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.SaleId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.domain.identifier.WarehouseId;
+import es.terencio.erp.shared.domain.tax.DocumentTaxCalculator;
+import es.terencio.erp.shared.domain.valueobject.Money;
+import es.terencio.erp.shared.domain.valueobject.Percentage;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+import es.terencio.erp.shared.domain.valueobject.TaxRate;
+import es.terencio.erp.shared.exception.DomainException;
+import es.terencio.erp.shared.exception.RegistrationException;
+
+/**
+ * Records sales uploaded by tills, typically the backlog queued while
+ * offline.
+ * <p>
+ * Sales are checked in parallel, lines included: each line's amounts are
+ * recomputed from its price, quantity, discount and rate with the company's
+ * tax settings (see {@link DocumentTaxCalculator}). They are then written in
+ * chunks, each in one transaction with one multi-row INSERT per table.
+ * Sales carry their client-generated id and inserts skip ids already
+ * recorded, so retrying a batch after a lost response is harmless: already
+ * recorded sales are acknowledged as duplicates. Newly recorded sales are appended to the
+ * device's fiscal chain in the same transaction, which also records them in
+ * the stock outbox. Once committed, their product lines are taken out of the
+ * store's warehouse stock and the outbox rows dropped; if that fails,
+ * {@link SaleStockRetryJob} takes the stock later.
+ */
+@Service
+public class SaleIngestionService implements UploadSalesUseCase {
+    private static final Logger log = LoggerFactory.getLogger(SaleIngestionService.class);
+
+    private static final int CHUNK_SIZE = 200;
+
+    /** Either the checked sale or why it was rejected. */
+    private record Checked(Sale sale, SaleAck rejection) {
+    }
+
+    private final SalePort salePort;
+    private final ActiveDeviceResolver activeDevices;
+    private final StoreRepository storeRepository;
+    private final CompanyRepository companyRepository;
+    private final FiscalizeSalesUseCase fiscalizeSalesUseCase;
+    private final ApplyStockMovementsUseCase applyStockMovementsUseCase;
+    private final TransactionTemplate transactionTemplate;
+
+    public SaleIngestionService(SalePort salePort, ActiveDeviceResolver activeDevices, StoreRepository storeRepository,
+            CompanyRepository companyRepository, FiscalizeSalesUseCase fiscalizeSalesUseCase,
+            ApplyStockMovementsUseCase applyStockMovementsUseCase, TransactionTemplate transactionTemplate) {
+        this.salePort = salePort;
+        this.activeDevices = activeDevices;
+        this.storeRepository = storeRepository;
+        this.companyRepository = companyRepository;
+        this.fiscalizeSalesUseCase = fiscalizeSalesUseCase;
+        this.applyStockMovementsUseCase = applyStockMovementsUseCase;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public List<SaleAck> upload(UUID deviceId, List<SaleUpload> uploads) {
+        DeviceCredentials device = activeDevices.credentials(deviceId);
+        Store store = storeRepository.findById(new StoreId(device.storeId()))
+                .orElseThrow(() -> new RegistrationException("Store not found"));
+        Company company = companyRepository.findById(store.companyId())
+                .orElseThrow(() -> new RegistrationException("Company not found"));
+
+        SaleAck[] acks = new SaleAck[uploads.size()];
+        // Checking is pure CPU work on independent sales
+        List<Checked> checked = IntStream.range(0, uploads.size()).parallel()
+                .mapToObj(i -> check(i, uploads.get(i), company, store.id(), new DeviceId(deviceId)))
+                .toList();
+
+        Map<Integer, Sale> candidates = new LinkedHashMap<>();
+        Set<UUID> seen = new HashSet<>();
+        for (int i = 0; i < checked.size(); i++) {
+            Sale sale = checked.get(i).sale();
+            if (sale == null) {
+                acks[i] = checked.get(i).rejection();
+            } else if (!seen.add(sale.id().value())) {
+                acks[i] = SaleAck.duplicate(i, sale.id().value());
+            } else {
+                candidates.put(i, sale);
+            }
+        }
+        rejectUnknownEmployees(candidates, store, acks);
+
+        Optional<WarehouseId> warehouseId = salePort.findWarehouseId(store.id().value()).map(WarehouseId::new);
+        List<Map.Entry<Integer, Sale>> pending = new ArrayList<>(candidates.entrySet());
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            store(pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size())), deviceId, warehouseId, acks);
+        }
+        return List.of(acks);
+    }
+
+    private static Checked check(int index, SaleUpload upload, Company company, StoreId storeId,
+            DeviceId deviceId) {
+        UUID saleId = upload != null ? upload.id() : null;
+        try {
+            Sale sale = toSale(upload, company.id(), storeId, deviceId);
+            checkLineAmounts(sale, company);
+            return new Checked(sale, null);
+        } catch (DomainException | IllegalArgumentException e) {
+            return new Checked(null, SaleAck.rejected(index, saleId, e.getMessage()));
+        } catch (ArithmeticException e) {
+            // Quantities or amounts beyond what the scaled longs hold
+            return new Checked(null, SaleAck.rejected(index, saleId, "Sale amounts are out of range"));
+        }
+    }
+
+    /**
+     * Recomputes every line with the company's settings. Lines rounded one
+     * by one must match exactly; with rounding on the total, line tax is only
+     * indicative, so just the charged amount (total or net, depending on
+     * whether prices include tax) is compared.
+     */
+    private static void checkLineAmounts(Sale sale, Company company) {
+        DocumentTaxCalculator calculator = company.newTaxCalculator();
+        boolean roundPerLine = company.roundingMode() == RoundingMode.LINE;
+        boolean pricesIncludeTax = company.priceIncludesTax();
+        for (SaleLine line : sale.lines()) {
+            int i = calculator.addLine(line.unitPrice(), line.quantity(), line.discount(), line.taxRate(), null);
+            boolean matches = roundPerLine
+                    ? calculator.lineNetCents(i) == line.net().cents() && calculator.lineTaxCents(i) == line.tax().cents()
+                    : pricesIncludeTax
+                            ? calculator.lineTotalCents(i) == line.total().cents()
+                            : calculator.lineNetCents(i) == line.net().cents();
+            if (!matches) {
+                throw new DomainException("Line " + line.lineNumber()
+                        + " amounts do not match its price, quantity, discount and tax rate");
+            }
+        }
+    }
+
+    private void rejectUnknownEmployees(Map<Integer, Sale> candidates, Store store, SaleAck[] acks) {
+        Set<Long> employeeIds = new HashSet<>();
+        candidates.values().forEach(sale -> employeeIds.add(sale.employeeId()));
+        Set<Long> allowed = salePort.findActiveEmployeeIds(employeeIds, store.id().value(), store.companyId().value());
+        candidates.entrySet().removeIf(entry -> {
+            if (allowed.contains(entry.getValue().employeeId())) return false;
+            acks[entry.getKey()] = SaleAck.rejected(entry.getKey(), entry.getValue().id().value(),
+                    "Employee not active in this store");
+            return true;
+        });
+    }
+
+    private void store(List<Map.Entry<Integer, Sale>> chunk, UUID deviceId, Optional<WarehouseId> warehouseId,
+            SaleAck[] acks) {
+        try {
+            Set<UUID> inserted = transactionTemplate.execute(status -> {
+                List<Sale> sales = chunk.stream().map(Map.Entry::getValue).toList();
+                Set<UUID> recorded = salePort.insertAll(sales);
+                if (warehouseId.isPresent()) {
+                    salePort.enqueueStockUpdates(sales.stream()
+                            .filter(sale -> recorded.contains(sale.id().value()) && movesStock(sale))
+                            .map(sale -> sale.id().value())
+                            .toList(), warehouseId.get().value(), SaleStockRetryJob.RETRY_DELAY);
+                }
+                // Chained in upload order, which is the order the till recorded them
+                fiscalizeSalesUseCase.fiscalize(new DeviceId(deviceId), sales.stream()
+                        .filter(sale -> recorded.contains(sale.id().value()))
+                        .map(sale -> new FiscalizeSaleCommand(sale.id(), sale.storeId(), sale.total(), sale.issuedAt()))
+                        .toList());
+                return recorded;
+            });
+            if (inserted != null && warehouseId.isPresent()) {
+                takeFromStock(chunk, inserted, warehouseId.get());
+            }
+            List<UUID> skipped = chunk.stream()
+                    .map(entry -> entry.getValue().id().value())
+                    .filter(id -> inserted == null || !inserted.contains(id))
+                    .toList();
+            Map<UUID, UUID> owners = skipped.isEmpty() ? Map.of() : salePort.findDeviceIds(skipped);
+            for (Map.Entry<Integer, Sale> entry : chunk) {
+                int index = entry.getKey();
+                UUID saleId = entry.getValue().id().value();
+                if (inserted != null && inserted.contains(saleId)) {
+                    acks[index] = SaleAck.accepted(index, saleId);
+                } else if (deviceId.equals(owners.get(saleId))) {
+                    acks[index] = SaleAck.duplicate(index, saleId);
+                } else {
+                    acks[index] = SaleAck.rejected(index, saleId, "Sale id already used by another device");
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Sale upload failed for {} sales of device {}", chunk.size(), deviceId, e);
+            chunk.forEach(entry -> acks[entry.getKey()] = SaleAck.failed(entry.getKey(),
+                    entry.getValue().id().value(), "Could not save this batch of sales, retry later"));
+        }
+    }
+
+    private void takeFromStock(List<Map.Entry<Integer, Sale>> chunk, Set<UUID> inserted, WarehouseId warehouseId) {
+        List<StockMovementCommand> movements = new ArrayList<>();
+        List<UUID> saleIds = new ArrayList<>();
+        for (Map.Entry<Integer, Sale> entry : chunk) {
+            Sale sale = entry.getValue();
+            if (!inserted.contains(sale.id().value()) || !movesStock(sale)) continue;
+            saleIds.add(sale.id().value());
+            for (SaleLine line : sale.lines()) {
+                if (line.productId() == null || line.quantity().isZero()) continue;
+                movements.add(new StockMovementCommand(new StockKey(line.productId(), warehouseId),
+                        StockMovementType.SALE, line.quantity().negate(), null, sale.id().value(), sale.employeeId()));
+            }
+        }
+        if (movements.isEmpty()) {
+            return;
+        }
+        try {
+            applyStockMovementsUseCase.apply(movements);
+            salePort.clearStockUpdates(saleIds);
+        } catch (RuntimeException e) {
+            // Still in the outbox: the retry job takes whatever part of it is missing
+            log.warn("Stock not updated yet for {} sales in warehouse {}, left for retry", saleIds.size(),
+                    warehouseId, e);
+        }
+    }
+
+    private static boolean movesStock(Sale sale) {
+        return sale.lines().stream().anyMatch(line -> line.productId() != null && !line.quantity().isZero());
+    }
+
+    private static Sale toSale(SaleUpload upload, CompanyId companyId, StoreId storeId, DeviceId deviceId) {
+        required(upload, "sale");
+        String currency = upload.currency() != null ? upload.currency() : "EUR";
+        List<SaleLine> lines = upload.lines() == null ? null : upload.lines().stream()
+                .map(line -> required(line, "line"))
+                .map(line -> new SaleLine(
+                        line.lineNumber(),
+                        line.productId() != null ? new ProductId(line.productId()) : null,
+                        line.description(),
+                        Quantity.of(required(line.quantity(), "line quantity")),
+                        Money.ofCents(line.unitPrice(), currency),
+                        line.discountPercent() != null ? Percentage.of(line.discountPercent()) : Percentage.zero(),
+                        TaxRate.of(required(line.taxRate(), "line tax rate")),
+                        Money.ofCents(line.netAmount(), currency),
+                        Money.ofCents(line.taxAmount(), currency),
+                        Money.ofCents(line.total(), currency)))
+                .toList();
+        List<SalePayment> payments = upload.payments() == null ? null : upload.payments().stream()
+                .map(payment -> required(payment, "payment"))
+                .map(payment -> new SalePayment(PaymentMethod.valueOf(required(payment.method(), "payment method")),
+                        Money.ofCents(payment.amount(), currency)))
+                .toList();
+        return Sale.record(upload.id() != null ? new SaleId(upload.id()) : null, companyId, storeId, deviceId,
+                upload.employeeId(), upload.customerId(), upload.issuedAt(), Money.ofCents(upload.total(), currency),
+                lines, payments);
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new DomainException("Incomplete sale: missing " + field);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,88 @@
+package es.terencio.erp.sales.application.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import es.terencio.erp.inventory.application.dto.StockMovementCommand;
+import es.terencio.erp.inventory.application.port.in.ApplyStockMovementsUseCase;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovementType;
+import es.terencio.erp.sales.application.port.out.SalePort;
+import es.terencio.erp.sales.application.port.out.SalePort.PendingStock;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.WarehouseId;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Takes the stock of recorded sales whose movements did not make it into the
+ * ledger right after upload. Outbox rows are leased, so each is retried by
+ * one node at a time. What is applied is the quantity sold per product minus
+ * what SALE movements of that sale already account for, so a sale that was
+ * partly applied, or applied without its outbox row being dropped, is never
+ * taken twice.
+ */
+@Component
+public class SaleStockRetryJob {
+    private static final Logger log = LoggerFactory.getLogger(SaleStockRetryJob.class);
+
+    // Also the grace period the upload itself gets before its sales are retried
+    static final Duration RETRY_DELAY = Duration.ofMinutes(5);
+    private static final int BATCH_SIZE = 200;
+
+    private final SalePort salePort;
+    private final ApplyStockMovementsUseCase applyStockMovementsUseCase;
+    private final Counter failures;
+
+    public SaleStockRetryJob(SalePort salePort, ApplyStockMovementsUseCase applyStockMovementsUseCase,
+            MeterRegistry meterRegistry) {
+        this.salePort = salePort;
+        this.applyStockMovementsUseCase = applyStockMovementsUseCase;
+        this.failures = Counter.builder("sales.stock.retry.failures")
+                .description("Batches of sales whose stock could not be taken")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${terencio.sales.stock-retry-interval-ms:60000}")
+    public void retryPending() {
+        List<UUID> claimed;
+        do {
+            claimed = salePort.claimStockUpdates(BATCH_SIZE, RETRY_DELAY);
+            if (!claimed.isEmpty()) {
+                retry(claimed);
+            }
+        } while (claimed.size() == BATCH_SIZE);
+    }
+
+    private void retry(List<UUID> saleIds) {
+        try {
+            List<StockMovementCommand> movements = salePort.findPendingStock(saleIds).stream()
+                    .filter(pending -> pending.quantity().signum() != 0)
+                    .map(SaleStockRetryJob::toMovement)
+                    .toList();
+            if (!movements.isEmpty()) {
+                applyStockMovementsUseCase.apply(movements);
+            }
+            salePort.clearStockUpdates(saleIds);
+            log.info("Took stock for {} sales left pending ({} movements)", saleIds.size(), movements.size());
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Stock still not taken for {} sales, retrying in {}", saleIds.size(), RETRY_DELAY, e);
+            salePort.recordStockUpdateFailure(saleIds, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static StockMovementCommand toMovement(PendingStock pending) {
+        return new StockMovementCommand(
+                new StockKey(new ProductId(pending.productId()), new WarehouseId(pending.warehouseId())),
+                StockMovementType.SALE, Quantity.of(pending.quantity()).negate(), null, pending.saleId(),
+                pending.employeeId());
+    }
+}
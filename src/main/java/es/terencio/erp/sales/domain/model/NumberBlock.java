@@ -0,0 +1,55 @@
+package es.terencio.erp.sales.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+
+/**
+ * A range of document numbers of a series reserved for one device. Only
+ * that device issues numbers from it, so issuing never touches the shared
+ * counter, and the block records who owned each number. When a block is
+ * closed, the numbers after the last one used were never issued: a gap
+ * that is accounted for. A series such as {@code CAJA1-2024} and number 1
+ * make the reference {@code CAJA1-2024-0001}.
+ */
+public record NumberBlock(long id, UUID companyId, String series, UUID deviceId, long firstNumber,
+        long lastNumber, Instant reservedAt) {
+
+    private static final Pattern SERIES = Pattern.compile("[A-Z0-9][A-Z0-9-]{0,29}");
+
+    public NumberBlock {
+        requireValidSeries(series);
+        if (companyId == null || deviceId == null) {
+            throw new InvariantViolationException("Number block must belong to a company and a device");
+        }
+        if (firstNumber < 1 || lastNumber < firstNumber) {
+            throw new InvariantViolationException("Invalid number block " + firstNumber + "-" + lastNumber);
+        }
+    }
+
+    public static String requireValidSeries(String series) {
+        if (series == null || !SERIES.matcher(series).matches()) {
+            throw new InvariantViolationException(
+                    "Series must be 1 to 30 uppercase letters, digits or dashes: " + series);
+        }
+        return series;
+    }
+
+    public long size() {
+        return lastNumber - firstNumber + 1;
+    }
+
+    public boolean contains(long number) {
+        return number >= firstNumber && number <= lastNumber;
+    }
+
+    /** Checks a last used number for closing the block; one before the first means none was used. */
+    public void requireClosableAt(long lastUsedNumber) {
+        if (lastUsedNumber != firstNumber - 1 && !contains(lastUsedNumber)) {
+            throw new InvariantViolationException("Number " + lastUsedNumber + " is outside block "
+                    + firstNumber + "-" + lastNumber);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package es.terencio.erp.sales.domain.model;
+
+public enum PaymentMethod {
+    CASH,
+    CARD,
+    VOUCHER,
+    TRANSFER,
+    OTHER
+}
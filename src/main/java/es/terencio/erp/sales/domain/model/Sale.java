@@ -0,0 +1,130 @@
+package es.terencio.erp.sales.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+import es.terencio.erp.shared.domain.identifier.CompanyId;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+import es.terencio.erp.shared.domain.identifier.SaleId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+import es.terencio.erp.shared.domain.valueobject.MoneyAccumulator;
+
+/**
+ * A completed sale. Sales are created on the till, possibly offline, under a
+ * client-generated {@link SaleId}, and are immutable once recorded.
+ */
+public final class Sale {
+
+    public static final int MAX_LINES = 1_000;
+    // Tolerated till clock drift
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofHours(24);
+
+    private final SaleId id;
+    private final CompanyId companyId;
+    private final StoreId storeId;
+    private final DeviceId deviceId;
+    private final Long employeeId;
+    private final UUID customerId;
+    private final Instant issuedAt;
+    private final Money totalNet;
+    private final Money totalTax;
+    private final Money total;
+    private final List<SaleLine> lines;
+    private final List<SalePayment> payments;
+
+    private Sale(SaleId id, CompanyId companyId, StoreId storeId, DeviceId deviceId, Long employeeId,
+            UUID customerId, Instant issuedAt, Money totalNet, Money totalTax, Money total, List<SaleLine> lines,
+            List<SalePayment> payments) {
+        this.id = id;
+        this.companyId = companyId;
+        this.storeId = storeId;
+        this.deviceId = deviceId;
+        this.employeeId = employeeId;
+        this.customerId = customerId;
+        this.issuedAt = issuedAt;
+        this.totalNet = totalNet;
+        this.totalTax = totalTax;
+        this.total = total;
+        this.lines = lines;
+        this.payments = payments;
+    }
+
+    /**
+     * Records a sale rung up on a till, checking that its lines, totals and
+     * payments add up.
+     *
+     * @throws InvariantViolationException when they do not
+     */
+    public static Sale record(SaleId id, CompanyId companyId, StoreId storeId, DeviceId deviceId, Long employeeId,
+            UUID customerId, Instant issuedAt, Money total, List<SaleLine> lines, List<SalePayment> payments) {
+        if (id == null) {
+            throw new InvariantViolationException("Sale must have an id");
+        }
+        if (employeeId == null) {
+            throw new InvariantViolationException("Sale must have an employee");
+        }
+        if (issuedAt == null || issuedAt.isAfter(Instant.now().plus(MAX_CLOCK_SKEW))) {
+            throw new InvariantViolationException("Sale must have a plausible issue date");
+        }
+        if (lines == null || lines.isEmpty() || lines.size() > MAX_LINES) {
+            throw new InvariantViolationException("Sale must have between 1 and " + MAX_LINES + " lines");
+        }
+        if (payments == null || payments.isEmpty()) {
+            throw new InvariantViolationException("Sale must have at least one payment");
+        }
+
+        String currency = total.currencyCode();
+        MoneyAccumulator net = MoneyAccumulator.of(total.currency());
+        MoneyAccumulator tax = MoneyAccumulator.of(total.currency());
+        Set<Integer> lineNumbers = new HashSet<>();
+        for (SaleLine line : lines) {
+            if (!lineNumbers.add(line.lineNumber())) {
+                throw new InvariantViolationException("Line number " + line.lineNumber() + " is repeated");
+            }
+            if (!currency.equals(line.total().currencyCode())) {
+                throw new InvariantViolationException("Line " + line.lineNumber() + " is in another currency");
+            }
+            if (line.quantity().isZero()) {
+                throw new InvariantViolationException("Line " + line.lineNumber() + " has no quantity");
+            }
+            if (!line.net().add(line.tax()).equals(line.total())) {
+                throw new InvariantViolationException("Line " + line.lineNumber() + " net and tax do not add up to its total");
+            }
+            net.add(line.net());
+            tax.add(line.tax());
+        }
+        if (Math.addExact(net.cents(), tax.cents()) != total.cents()) {
+            throw new InvariantViolationException("Lines do not add up to the sale total");
+        }
+
+        MoneyAccumulator paid = MoneyAccumulator.of(total.currency());
+        for (SalePayment payment : payments) {
+            paid.add(payment.amount());
+        }
+        if (paid.cents() != total.cents()) {
+            throw new InvariantViolationException("Payments do not add up to the sale total");
+        }
+
+        return new Sale(id, companyId, storeId, deviceId, employeeId, customerId, issuedAt, net.toMoney(),
+                tax.toMoney(), total, List.copyOf(lines), List.copyOf(payments));
+    }
+
+    public SaleId id() { return id; }
+    public CompanyId companyId() { return companyId; }
+    public StoreId storeId() { return storeId; }
+    public DeviceId deviceId() { return deviceId; }
+    public Long employeeId() { return employeeId; }
+    public UUID customerId() { return customerId; }
+    public Instant issuedAt() { return issuedAt; }
+    public Money totalNet() { return totalNet; }
+    public Money totalTax() { return totalTax; }
+    public Money total() { return total; }
+    public List<SaleLine> lines() { return lines; }
+    public List<SalePayment> payments() { return payments; }
+}
@@ -0,0 +1,24 @@
+package es.terencio.erp.sales.domain.model;
+
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+import es.terencio.erp.shared.domain.valueobject.Percentage;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+import es.terencio.erp.shared.domain.valueobject.TaxRate;
+
+/**
+ * One line of a sale as rung up on the till. Amounts are those the till
+ * charged; {@code net + tax = total}.
+ */
+public record SaleLine(
+        int lineNumber,
+        ProductId productId,
+        String description,
+        Quantity quantity,
+        Money unitPrice,
+        Percentage discount,
+        TaxRate taxRate,
+        Money net,
+        Money tax,
+        Money total) {
+}
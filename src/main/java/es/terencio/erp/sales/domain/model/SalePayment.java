@@ -0,0 +1,6 @@
+package es.terencio.erp.sales.domain.model;
+
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+public record SalePayment(PaymentMethod method, Money amount) {
+}
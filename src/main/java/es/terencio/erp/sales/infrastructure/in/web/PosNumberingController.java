@@ -0,0 +1,49 @@
+package es.terencio.erp.sales.infrastructure.in.web;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import es.terencio.erp.sales.application.dto.CloseNumberBlockRequest;
+import es.terencio.erp.sales.application.dto.ReserveNumberBlockRequest;
+import es.terencio.erp.sales.application.port.in.ReserveNumberBlocksUseCase;
+import es.terencio.erp.sales.domain.model.NumberBlock;
+import es.terencio.erp.shared.presentation.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/pos/numbering/blocks")
+@Tag(name = "POS Numbering", description = "Document number blocks for POS devices")
+public class PosNumberingController {
+
+    private final ReserveNumberBlocksUseCase reserveNumberBlocksUseCase;
+
+    public PosNumberingController(ReserveNumberBlocksUseCase reserveNumberBlocksUseCase) {
+        this.reserveNumberBlocksUseCase = reserveNumberBlocksUseCase;
+    }
+
+    @PostMapping
+    @Operation(summary = "Reserve number block", description = "Reserves the next free numbers of a series for the device, to number documents while offline. Reserve the next block before the current one runs out.")
+    public ResponseEntity<ApiResponse<NumberBlock>> reserve(@AuthenticationPrincipal UUID deviceId,
+            @Valid @RequestBody ReserveNumberBlockRequest request) {
+        NumberBlock block = reserveNumberBlocksUseCase.reserve(deviceId, request.series(), request.size());
+        return ResponseEntity.ok(ApiResponse.success("Number block reserved", block));
+    }
+
+    @GetMapping
+    @Operation(summary = "List open number blocks", description = "Blocks reserved by the device and not closed yet.")
+    public ResponseEntity<ApiResponse<List<NumberBlock>>> listOpen(@AuthenticationPrincipal UUID deviceId) {
+        return ResponseEntity.ok(ApiResponse.success("Open number blocks", reserveNumberBlocksUseCase.findOpenBlocks(deviceId)));
+    }
+
+    @PostMapping("/{blockId}/close")
+    @Operation(summary = "Close number block", description = "Records the last number the device issued from the block. Numbers after it are never issued.")
+    public ResponseEntity<ApiResponse<Void>> close(@AuthenticationPrincipal UUID deviceId, @PathVariable long blockId,
+            @Valid @RequestBody CloseNumberBlockRequest request) {
+        reserveNumberBlocksUseCase.close(deviceId, blockId, request.lastUsedNumber());
+        return ResponseEntity.ok(ApiResponse.success("Number block closed"));
+    }
+}
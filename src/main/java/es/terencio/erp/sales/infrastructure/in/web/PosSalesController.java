@@ -0,0 +1,34 @@
+package es.terencio.erp.sales.infrastructure.in.web;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import es.terencio.erp.sales.application.dto.SaleAck;
+import es.terencio.erp.sales.application.dto.UploadSalesRequest;
+import es.terencio.erp.sales.application.port.in.UploadSalesUseCase;
+import es.terencio.erp.shared.presentation.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/pos/sales")
+@Tag(name = "POS Sales", description = "Sales upload from POS devices")
+public class PosSalesController {
+
+    private final UploadSalesUseCase uploadSalesUseCase;
+
+    public PosSalesController(UploadSalesUseCase uploadSalesUseCase) {
+        this.uploadSalesUseCase = uploadSalesUseCase;
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Upload sales", description = "Records a batch of sales from the device. Idempotent: sales already recorded come back as DUPLICATE. Returns one acknowledgement per sale, in request order.")
+    public ResponseEntity<ApiResponse<List<SaleAck>>> upload(@AuthenticationPrincipal UUID deviceId,
+            @Valid @RequestBody UploadSalesRequest request) {
+        List<SaleAck> acks = uploadSalesUseCase.upload(deviceId, request.sales());
+        return ResponseEntity.ok(ApiResponse.success("Sales processed", acks));
+    }
+}
@@ -0,0 +1,107 @@
+package es.terencio.erp.sales.infrastructure.out.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.sales.application.port.out.NumberBlockPort;
+import es.terencio.erp.sales.domain.model.NumberBlock;
+
+@Repository
+public class NumberBlockRepositoryAdapter implements NumberBlockPort {
+
+    private static final String LOCK_PREFIX = "number-blocks:";
+
+    private final JdbcClient jdbcClient;
+
+    public NumberBlockRepositoryAdapter(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Optional<NumberBlock> reserve(UUID companyId, String series, UUID deviceId, int size, int maxOpen) {
+        // Serializes reservations of one device and series, so two of them cannot both pass the open count
+        jdbcClient.sql("SELECT pg_advisory_xact_lock(hashtext(:lockKey))")
+            .param("lockKey", LOCK_PREFIX + deviceId + ":" + series)
+            .query().singleRow();
+
+        // One statement: the counter row stays locked only for this block's reservation
+        return jdbcClient.sql("""
+                WITH open_blocks AS (
+                    SELECT COUNT(*) AS open_count FROM document_number_blocks
+                    WHERE device_id = :deviceId AND series = :series AND closed_at IS NULL
+                ),
+                counter AS (
+                    INSERT INTO document_series_counters (company_id, series, next_number)
+                    SELECT :companyId, :series, 1 + :size FROM open_blocks WHERE open_count < :maxOpen
+                    ON CONFLICT (company_id, series) DO UPDATE
+                    SET next_number = document_series_counters.next_number + :size,
+                        updated_at = NOW()
+                    RETURNING next_number
+                )
+                INSERT INTO document_number_blocks (company_id, series, device_id, first_number, last_number)
+                SELECT :companyId, :series, :deviceId, next_number - :size, next_number - 1 FROM counter
+                RETURNING id, company_id, series, device_id, first_number, last_number, reserved_at
+                """)
+            .param("companyId", companyId)
+            .param("series", series)
+            .param("deviceId", deviceId)
+            .param("size", size)
+            .param("maxOpen", maxOpen)
+            .query(this::mapBlock)
+            .optional();
+    }
+
+    @Override
+    public List<NumberBlock> findOpen(UUID deviceId) {
+        return jdbcClient.sql("""
+                SELECT id, company_id, series, device_id, first_number, last_number, reserved_at
+                FROM document_number_blocks
+                WHERE device_id = :deviceId AND closed_at IS NULL
+                ORDER BY series, first_number
+                """)
+            .param("deviceId", deviceId)
+            .query(this::mapBlock)
+            .list();
+    }
+
+    @Override
+    public Optional<NumberBlock> findOpen(long blockId, UUID deviceId) {
+        return jdbcClient.sql("""
+                SELECT id, company_id, series, device_id, first_number, last_number, reserved_at
+                FROM document_number_blocks
+                WHERE id = :id AND device_id = :deviceId AND closed_at IS NULL
+                """)
+            .param("id", blockId)
+            .param("deviceId", deviceId)
+            .query(this::mapBlock)
+            .optional();
+    }
+
+    @Override
+    public void close(long blockId, long lastUsedNumber) {
+        jdbcClient.sql("""
+                UPDATE document_number_blocks SET closed_at = NOW(), last_used_number = :lastUsedNumber
+                WHERE id = :id AND closed_at IS NULL
+                """)
+            .param("id", blockId)
+            .param("lastUsedNumber", lastUsedNumber)
+            .update();
+    }
+
+    private NumberBlock mapBlock(ResultSet rs, int rowNum) throws SQLException {
+        return new NumberBlock(
+                rs.getLong("id"),
+                rs.getObject("company_id", UUID.class),
+                rs.getString("series"),
+                rs.getObject("device_id", UUID.class),
+                rs.getLong("first_number"),
+                rs.getLong("last_number"),
+                rs.getTimestamp("reserved_at").toInstant());
+    }
+}
@@ -0,0 +1,235 @@
+package es.terencio.erp.sales.infrastructure.out.persistence;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import es.terencio.erp.sales.application.port.out.SalePort;
+import es.terencio.erp.sales.domain.model.Sale;
+import es.terencio.erp.sales.domain.model.SaleLine;
+import es.terencio.erp.sales.domain.model.SalePayment;
+
+@Repository
+public class SaleRepositoryAdapter implements SalePort {
+
+    // Keeps each statement well below the 65535 bind parameters Postgres accepts
+    private static final int MAX_ROWS_PER_INSERT = 2_000;
+
+    private final JdbcClient jdbcClient;
+
+    public SaleRepositoryAdapter(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Set<UUID> insertAll(List<Sale> sales) {
+        if (sales.isEmpty()) return Set.of();
+
+        // Sales already recorded (a retried upload) are skipped, and so are their lines and payments
+        StringBuilder values = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < sales.size(); i++) {
+            Sale s = sales.get(i);
+            if (i > 0) values.append(", ");
+            values.append("(:uuid").append(i).append(", :companyId").append(i).append(", :storeId").append(i)
+                .append(", :deviceId").append(i).append(", :employeeId").append(i).append(", :customerUuid").append(i)
+                .append(", :currency").append(i).append(", :totalNet").append(i).append(", :totalTax").append(i)
+                .append(", :total").append(i).append(", :issuedAt").append(i).append(")");
+            params.put("uuid" + i, s.id().value());
+            params.put("companyId" + i, s.companyId().value());
+            params.put("storeId" + i, s.storeId().value());
+            params.put("deviceId" + i, s.deviceId().value());
+            params.put("employeeId" + i, s.employeeId());
+            params.put("customerUuid" + i, s.customerId());
+            params.put("currency" + i, s.total().currencyCode());
+            params.put("totalNet" + i, s.totalNet().cents());
+            params.put("totalTax" + i, s.totalTax().cents());
+            params.put("total" + i, s.total().cents());
+            params.put("issuedAt" + i, Timestamp.from(s.issuedAt()));
+        }
+        Map<UUID, Long> ids = new HashMap<>();
+        jdbcClient.sql("INSERT INTO sales (uuid, company_id, store_id, device_id, employee_id, customer_uuid, currency, total_net, total_tax, total, issued_at) VALUES "
+                + values + " ON CONFLICT (uuid) DO NOTHING RETURNING id, uuid")
+            .params(params)
+            .query((rs, rowNum) -> Map.entry(rs.getObject("uuid", UUID.class), rs.getLong("id")))
+            .list()
+            .forEach(row -> ids.put(row.getKey(), row.getValue()));
+
+        List<Sale> inserted = sales.stream().filter(s -> ids.containsKey(s.id().value())).toList();
+        insertLines(inserted, ids);
+        insertPayments(inserted, ids);
+        return ids.keySet();
+    }
+
+    private void insertLines(List<Sale> sales, Map<UUID, Long> ids) {
+        List<String> rows = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (Sale s : sales) {
+            Long saleId = ids.get(s.id().value());
+            for (SaleLine l : s.lines()) {
+                int i = rows.size();
+                rows.add("(:saleId" + i + ", :lineNumber" + i + ", :productId" + i + ", :description" + i
+                        + ", :quantity" + i + ", :unitPrice" + i + ", :discount" + i + ", :taxRate" + i
+                        + ", :net" + i + ", :tax" + i + ", :total" + i + ")");
+                params.put("saleId" + i, saleId);
+                params.put("lineNumber" + i, l.lineNumber());
+                params.put("productId" + i, l.productId() != null ? l.productId().value() : null);
+                params.put("description" + i, l.description());
+                params.put("quantity" + i, l.quantity().value());
+                params.put("unitPrice" + i, l.unitPrice().cents());
+                params.put("discount" + i, l.discount().value());
+                params.put("taxRate" + i, l.taxRate().rate());
+                params.put("net" + i, l.net().cents());
+                params.put("tax" + i, l.tax().cents());
+                params.put("total" + i, l.total().cents());
+                if (rows.size() == MAX_ROWS_PER_INSERT) {
+                    flush("INSERT INTO sale_lines (sale_id, line_number, product_id, description, quantity, unit_price, discount_percent, tax_rate, net_amount, tax_amount, total) VALUES ", rows, params);
+                }
+            }
+        }
+        flush("INSERT INTO sale_lines (sale_id, line_number, product_id, description, quantity, unit_price, discount_percent, tax_rate, net_amount, tax_amount, total) VALUES ", rows, params);
+    }
+
+    private void insertPayments(List<Sale> sales, Map<UUID, Long> ids) {
+        List<String> rows = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (Sale s : sales) {
+            Long saleId = ids.get(s.id().value());
+            for (SalePayment p : s.payments()) {
+                int i = rows.size();
+                rows.add("(:saleId" + i + ", :method" + i + ", :amount" + i + ")");
+                params.put("saleId" + i, saleId);
+                params.put("method" + i, p.method().name());
+                params.put("amount" + i, p.amount().cents());
+                if (rows.size() == MAX_ROWS_PER_INSERT) {
+                    flush("INSERT INTO sale_payments (sale_id, method, amount) VALUES ", rows, params);
+                }
+            }
+        }
+        flush("INSERT INTO sale_payments (sale_id, method, amount) VALUES ", rows, params);
+    }
+
+    private void flush(String insert, List<String> rows, Map<String, Object> params) {
+        if (rows.isEmpty()) return;
+        jdbcClient.sql(insert + String.join(", ", rows)).params(params).update();
+        rows.clear();
+        params.clear();
+    }
+
+    @Override
+    public Map<UUID, UUID> findDeviceIds(Collection<UUID> saleIds) {
+        if (saleIds.isEmpty()) return Map.of();
+        Map<UUID, UUID> owners = new HashMap<>();
+        jdbcClient.sql("SELECT uuid, device_id FROM sales WHERE uuid IN (:ids)")
+            .param("ids", saleIds)
+            .query((rs, rowNum) -> Map.entry(rs.getObject("uuid", UUID.class), rs.getObject("device_id", UUID.class)))
+            .list()
+            .forEach(row -> owners.put(row.getKey(), row.getValue()));
+        return owners;
+    }
+
+    @Override
+    public Set<Long> findActiveEmployeeIds(Collection<Long> employeeIds, UUID storeId, UUID companyId) {
+        if (employeeIds.isEmpty()) return Set.of();
+        // A grant on the store, its company or the company's organization covers the store
+        return new HashSet<>(jdbcClient.sql("""
+                SELECT DISTINCT e.id FROM employees e
+                JOIN employee_access_grants g ON g.employee_id = e.id
+                WHERE e.id IN (:ids) AND e.is_active = TRUE
+                  AND ((g.scope = 'STORE' AND g.target_id = :storeId)
+                    OR (g.scope = 'COMPANY' AND g.target_id = :companyId)
+                    OR (g.scope = 'ORGANIZATION'
+                        AND g.target_id = (SELECT organization_id FROM companies WHERE id = :companyId)))
+                """)
+            .param("ids", employeeIds)
+            .param("storeId", storeId)
+            .param("companyId", companyId)
+            .query(Long.class).list());
+    }
+
+    @Override
+    public Optional<UUID> findWarehouseId(UUID storeId) {
+        return jdbcClient.sql("SELECT id FROM warehouses WHERE store_id = :storeId AND deleted_at IS NULL")
+            .param("storeId", storeId)
+            .query(UUID.class).optional();
+    }
+
+    @Override
+    public void enqueueStockUpdates(Collection<UUID> saleIds, UUID warehouseId, Duration retryAfter) {
+        if (saleIds.isEmpty()) return;
+        jdbcClient.sql("INSERT INTO sale_stock_outbox (sale_uuid, warehouse_id, next_attempt_at) "
+                + "SELECT uuid, :warehouseId, NOW() + make_interval(secs => :seconds) FROM sales WHERE uuid IN (:ids)")
+            .param("warehouseId", warehouseId)
+            .param("seconds", retryAfter.toSeconds())
+            .param("ids", saleIds)
+            .update();
+    }
+
+    @Override
+    public void clearStockUpdates(Collection<UUID> saleIds) {
+        if (saleIds.isEmpty()) return;
+        jdbcClient.sql("DELETE FROM sale_stock_outbox WHERE sale_uuid IN (:ids)")
+            .param("ids", saleIds)
+            .update();
+    }
+
+    @Override
+    public List<UUID> claimStockUpdates(int limit, Duration lease) {
+        return jdbcClient.sql("""
+                UPDATE sale_stock_outbox SET attempts = attempts + 1,
+                    next_attempt_at = NOW() + make_interval(secs => :seconds)
+                WHERE sale_uuid IN (
+                    SELECT sale_uuid FROM sale_stock_outbox
+                    WHERE next_attempt_at <= NOW()
+                    ORDER BY next_attempt_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING sale_uuid
+                """)
+            .param("seconds", lease.toSeconds())
+            .param("limit", limit)
+            .query(UUID.class).list();
+    }
+
+    @Override
+    public List<PendingStock> findPendingStock(Collection<UUID> saleIds) {
+        if (saleIds.isEmpty()) return List.of();
+        return jdbcClient.sql("""
+                SELECT s.uuid, s.employee_id, o.warehouse_id, l.product_id,
+                    SUM(l.quantity) - COALESCE((
+                        SELECT -SUM(m.quantity) FROM stock_movements m
+                        WHERE m.reference_uuid = s.uuid AND m.type = 'SALE'
+                          AND m.product_id = l.product_id AND m.warehouse_id = o.warehouse_id), 0) AS pending
+                FROM sale_stock_outbox o
+                JOIN sales s ON s.uuid = o.sale_uuid
+                JOIN sale_lines l ON l.sale_id = s.id
+                WHERE o.sale_uuid IN (:ids) AND l.product_id IS NOT NULL
+                GROUP BY s.uuid, s.employee_id, o.warehouse_id, l.product_id
+                """)
+            .param("ids", saleIds)
+            .query((rs, rowNum) -> new PendingStock(
+                rs.getObject("uuid", UUID.class), rs.getLong("employee_id"), rs.getObject("warehouse_id", UUID.class),
+                rs.getLong("product_id"), rs.getBigDecimal("pending")))
+            .list();
+    }
+
+    @Override
+    public void recordStockUpdateFailure(Collection<UUID> saleIds, String error) {
+        if (saleIds.isEmpty()) return;
+        jdbcClient.sql("UPDATE sale_stock_outbox SET last_error = :error WHERE sale_uuid IN (:ids)")
+            .param("error", error)
+            .param("ids", saleIds)
+            .update();
+    }
+}
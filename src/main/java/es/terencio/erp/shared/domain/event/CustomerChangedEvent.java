@@ -0,0 +1,40 @@
+package es.terencio.erp.shared.domain.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published (synchronously, inside the writing transaction) whenever a
+ * customer row is created or modified, so other modules can keep derived data
+ * in step without re-scanning {@code customers}.
+ *
+ * @param changedColumns customers columns whose value changed; ignored when
+ *                       {@code created} is true
+ */
+public record CustomerChangedEvent(
+        UUID companyId,
+        Long customerId,
+        boolean created,
+        Set<String> changedColumns) {
+
+    public static final String TYPE = "type";
+    public static final String TAGS = "tags";
+    public static final String CITY = "city";
+    public static final String ORIGIN = "origin";
+    public static final String MARKETING_STATUS = "marketing_status";
+    public static final String EMAIL = "email";
+    public static final String ACTIVE = "active";
+    public static final String DELETED_AT = "deleted_at";
+
+    public CustomerChangedEvent {
+        changedColumns = changedColumns != null ? Set.copyOf(changedColumns) : Set.of();
+    }
+
+    public static CustomerChangedEvent created(UUID companyId, Long customerId) {
+        return new CustomerChangedEvent(companyId, customerId, true, Set.of());
+    }
+
+    public static CustomerChangedEvent updated(UUID companyId, Long customerId, Set<String> changedColumns) {
+        return new CustomerChangedEvent(companyId, customerId, false, changedColumns);
+    }
+}
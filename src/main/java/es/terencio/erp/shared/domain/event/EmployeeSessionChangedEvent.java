@@ -0,0 +1,10 @@
+package es.terencio.erp.shared.domain.event;
+
+/**
+ * Published inside the writing transaction when an employee's session data
+ * (profile or active company/store) changes, so cached session snapshots on
+ * this node can be dropped as soon as it commits. Other nodes learn about it
+ * through the employees trigger.
+ */
+public record EmployeeSessionChangedEvent(Long employeeId) {
+}
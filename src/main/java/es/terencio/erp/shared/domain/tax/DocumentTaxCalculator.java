@@ -0,0 +1,283 @@
+package es.terencio.erp.shared.domain.tax;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import es.terencio.erp.shared.domain.valueobject.Money;
+import es.terencio.erp.shared.domain.valueobject.Percentage;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+import es.terencio.erp.shared.domain.valueobject.ScaledArithmetic;
+import es.terencio.erp.shared.domain.valueobject.TaxRate;
+
+/**
+ * Computes line amounts, the tax breakdown by rate and the totals of a
+ * document (sale, invoice) in one pass over its lines.
+ * <p>
+ * Lines are given as scaled longs (cents, thousandths of a unit, hundredths
+ * of a percent for discounts, ten-thousandths of a percent for rates) and
+ * accumulated into primitive arrays that are reused from one document to
+ * the next: call {@link #reset()} in between. Integer arithmetic rounded
+ * half up makes results deterministic. Not thread-safe; keep one instance
+ * per thread or job.
+ * <p>
+ * When prices include tax they include VAT/IGIC only: the base is
+ * {@code price / (1 + rate)} and the tax is the rest. Recargo de
+ * equivalencia depends on the customer, not on the price, so it is always
+ * computed on the base and charged on top.
+ * <p>
+ * Rounding per line rounds each line's base, tax and surcharge to the cent
+ * and the breakdown adds them up. Rounding on the total groups line amounts
+ * by rate and rounds tax once per group; line tax is then indicative and
+ * may not add up to its group's.
+ */
+public final class DocumentTaxCalculator {
+
+    private static final long THOUSANDTHS_PER_UNIT = 1_000;
+    private static final long DISCOUNT_DIVISOR = 100 * 100;
+    // Ten-thousandths of a percent per unit factor
+    private static final long RATE_DIVISOR = 1_000_000;
+    private static final int INITIAL_LINES = 64;
+    private static final int INITIAL_GROUPS = 4;
+
+    private final boolean pricesIncludeTax;
+    private final boolean roundPerLine;
+
+    private int lineCount;
+    private long[] lineNet = new long[INITIAL_LINES];
+    private long[] lineTax = new long[INITIAL_LINES];
+    private long[] lineSurcharge = new long[INITIAL_LINES];
+
+    private int groupCount;
+    private long[] groupRate = new long[INITIAL_GROUPS];
+    private long[] groupSurchargeRate = new long[INITIAL_GROUPS];
+    private long[] groupAmount = new long[INITIAL_GROUPS];
+    private long[] groupBase = new long[INITIAL_GROUPS];
+    private long[] groupTax = new long[INITIAL_GROUPS];
+    private long[] groupSurcharge = new long[INITIAL_GROUPS];
+
+    private boolean totalled;
+    private long net;
+    private long tax;
+    private long surcharge;
+
+    public DocumentTaxCalculator(boolean pricesIncludeTax, boolean roundPerLine) {
+        this.pricesIncludeTax = pricesIncludeTax;
+        this.roundPerLine = roundPerLine;
+    }
+
+    /**
+     * Standard recargo de equivalencia for a VAT rate, both in
+     * ten-thousandths of a percent (21% → 5.2%, 10% → 1.4%, 4% → 0.5%).
+     */
+    public static long standardSurcharge(long vatTenThousandths) {
+        // Range first, so the int switch cannot alias an out-of-range long
+        int vat = vatTenThousandths >= 0 && vatTenThousandths <= RATE_DIVISOR ? (int) vatTenThousandths : -1;
+        return switch (vat) {
+            case 210_000 -> 52_000;
+            case 100_000 -> 14_000;
+            case 75_000 -> 10_000;
+            case 50_000 -> 6_200;
+            case 40_000 -> 5_000;
+            case 20_000 -> 2_600;
+            case 0 -> 0;
+            default -> throw new IllegalArgumentException(
+                    "No recargo de equivalencia for VAT rate of " + vatTenThousandths + " ten-thousandths of a percent");
+        };
+    }
+
+    /** Starts a new document, keeping the arrays already allocated. */
+    public DocumentTaxCalculator reset() {
+        lineCount = 0;
+        groupCount = 0;
+        totalled = false;
+        net = 0;
+        tax = 0;
+        surcharge = 0;
+        return this;
+    }
+
+    /**
+     * Adds a line and returns its index. The amount is
+     * {@code unitPrice * quantity} less the discount, each rounded to the
+     * cent; negative quantities (returns) give negative amounts.
+     */
+    public int addLine(long unitPriceCents, long quantityThousandths, long discountHundredths,
+            long rateTenThousandths, long surchargeTenThousandths) {
+        if (totalled) {
+            throw new IllegalStateException("Document already totalled, reset before adding lines");
+        }
+        if (discountHundredths < 0 || discountHundredths > DISCOUNT_DIVISOR) {
+            throw new IllegalArgumentException("Discount must be between 0 and 100");
+        }
+        if (rateTenThousandths < 0 || rateTenThousandths > RATE_DIVISOR
+                || surchargeTenThousandths < 0 || surchargeTenThousandths > RATE_DIVISOR) {
+            throw new IllegalArgumentException("Tax rate must be between 0 and 100");
+        }
+
+        long gross = ScaledArithmetic.multiplyHalfUp(unitPriceCents, quantityThousandths, THOUSANDTHS_PER_UNIT);
+        long amount = gross - ScaledArithmetic.multiplyHalfUp(gross, discountHundredths, DISCOUNT_DIVISOR);
+        long base = pricesIncludeTax ? baseOf(amount, rateTenThousandths) : amount;
+        long taxCents = pricesIncludeTax ? amount - base : ratePart(base, rateTenThousandths);
+        long surchargeCents = ratePart(base, surchargeTenThousandths);
+
+        if (lineCount == lineNet.length) {
+            int capacity = lineCount * 2;
+            lineNet = Arrays.copyOf(lineNet, capacity);
+            lineTax = Arrays.copyOf(lineTax, capacity);
+            lineSurcharge = Arrays.copyOf(lineSurcharge, capacity);
+        }
+        int line = lineCount++;
+        lineNet[line] = base;
+        lineTax[line] = taxCents;
+        lineSurcharge[line] = surchargeCents;
+
+        int group = groupOf(rateTenThousandths, surchargeTenThousandths);
+        groupAmount[group] = Math.addExact(groupAmount[group], amount);
+        groupBase[group] = Math.addExact(groupBase[group], base);
+        groupTax[group] = Math.addExact(groupTax[group], taxCents);
+        groupSurcharge[group] = Math.addExact(groupSurcharge[group], surchargeCents);
+        return line;
+    }
+
+    public int addLine(Money unitPrice, Quantity quantity, Percentage discount, TaxRate rate, TaxRate surchargeRate) {
+        return addLine(unitPrice.cents(), quantity.thousandths(),
+                discount.value().movePointRight(2).longValueExact(), rate.tenThousandths(),
+                surchargeRate != null ? surchargeRate.tenThousandths() : 0);
+    }
+
+    /**
+     * Closes the document: with rounding on the total, computes each group's
+     * tax from its summed amount. Sorts the breakdown by rate.
+     */
+    public DocumentTaxCalculator total() {
+        if (totalled) {
+            return this;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            if (!roundPerLine) {
+                long amount = groupAmount[g];
+                groupBase[g] = pricesIncludeTax ? baseOf(amount, groupRate[g]) : amount;
+                groupTax[g] = pricesIncludeTax ? amount - groupBase[g] : ratePart(groupBase[g], groupRate[g]);
+                groupSurcharge[g] = ratePart(groupBase[g], groupSurchargeRate[g]);
+            }
+            net = Math.addExact(net, groupBase[g]);
+            tax = Math.addExact(tax, groupTax[g]);
+            surcharge = Math.addExact(surcharge, groupSurcharge[g]);
+        }
+        sortGroups();
+        totalled = true;
+        return this;
+    }
+
+    public DocumentTotals totals(Currency currency) {
+        total();
+        List<TaxBreakdown> breakdown = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            breakdown.add(new TaxBreakdown(TaxRate.ofTenThousandths(groupRate[g]),
+                    TaxRate.ofTenThousandths(groupSurchargeRate[g]), Money.ofCents(groupBase[g], currency),
+                    Money.ofCents(groupTax[g], currency), Money.ofCents(groupSurcharge[g], currency)));
+        }
+        return new DocumentTotals(Money.ofCents(net, currency), Money.ofCents(tax, currency),
+                Money.ofCents(surcharge, currency), Money.ofCents(totalCents(), currency), List.copyOf(breakdown));
+    }
+
+    public int lineCount() { return lineCount; }
+    public long lineNetCents(int line) { return lineNet[checkLine(line)]; }
+    public long lineTaxCents(int line) { return lineTax[checkLine(line)]; }
+    public long lineSurchargeCents(int line) { return lineSurcharge[checkLine(line)]; }
+    public long lineTotalCents(int line) { return lineNet[checkLine(line)] + lineTax[line] + lineSurcharge[line]; }
+
+    // Document totals and breakdown, available once totalled
+    public long netCents() { requireTotalled(); return net; }
+    public long taxCents() { requireTotalled(); return tax; }
+    public long surchargeCents() { requireTotalled(); return surcharge; }
+    public long totalCents() { requireTotalled(); return Math.addExact(Math.addExact(net, tax), surcharge); }
+    public int groupCount() { requireTotalled(); return groupCount; }
+    public long groupRate(int group) { return groupRate[checkGroup(group)]; }
+    public long groupSurchargeRate(int group) { return groupSurchargeRate[checkGroup(group)]; }
+    public long groupBaseCents(int group) { return groupBase[checkGroup(group)]; }
+    public long groupTaxCents(int group) { return groupTax[checkGroup(group)]; }
+    public long groupSurchargeCents(int group) { return groupSurcharge[checkGroup(group)]; }
+
+    private static long baseOf(long grossCents, long rateTenThousandths) {
+        return ScaledArithmetic.multiplyHalfUp(grossCents, RATE_DIVISOR, RATE_DIVISOR + rateTenThousandths);
+    }
+
+    private static long ratePart(long baseCents, long rateTenThousandths) {
+        return rateTenThousandths == 0 ? 0 : ScaledArithmetic.multiplyHalfUp(baseCents, rateTenThousandths, RATE_DIVISOR);
+    }
+
+    // Documents carry a handful of rates, a linear scan beats hashing
+    private int groupOf(long rate, long surchargeRate) {
+        for (int g = 0; g < groupCount; g++) {
+            if (groupRate[g] == rate && groupSurchargeRate[g] == surchargeRate) {
+                return g;
+            }
+        }
+        if (groupCount == groupRate.length) {
+            int capacity = groupCount * 2;
+            groupRate = Arrays.copyOf(groupRate, capacity);
+            groupSurchargeRate = Arrays.copyOf(groupSurchargeRate, capacity);
+            groupAmount = Arrays.copyOf(groupAmount, capacity);
+            groupBase = Arrays.copyOf(groupBase, capacity);
+            groupTax = Arrays.copyOf(groupTax, capacity);
+            groupSurcharge = Arrays.copyOf(groupSurcharge, capacity);
+        }
+        int g = groupCount++;
+        groupRate[g] = rate;
+        groupSurchargeRate[g] = surchargeRate;
+        groupAmount[g] = 0;
+        groupBase[g] = 0;
+        groupTax[g] = 0;
+        groupSurcharge[g] = 0;
+        return g;
+    }
+
+    // Insertion sort: few groups, and no boxing
+    private void sortGroups() {
+        for (int i = 1; i < groupCount; i++) {
+            for (int j = i; j > 0 && isBefore(j, j - 1); j--) {
+                swap(groupRate, j);
+                swap(groupSurchargeRate, j);
+                swap(groupAmount, j);
+                swap(groupBase, j);
+                swap(groupTax, j);
+                swap(groupSurcharge, j);
+            }
+        }
+    }
+
+    private boolean isBefore(int a, int b) {
+        return groupRate[a] != groupRate[b] ? groupRate[a] < groupRate[b]
+                : groupSurchargeRate[a] < groupSurchargeRate[b];
+    }
+
+    private static void swap(long[] values, int j) {
+        long value = values[j];
+        values[j] = values[j - 1];
+        values[j - 1] = value;
+    }
+
+    private int checkLine(int line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("No line " + line);
+        }
+        return line;
+    }
+
+    private int checkGroup(int group) {
+        requireTotalled();
+        if (group < 0 || group >= groupCount) {
+            throw new IndexOutOfBoundsException("No tax group " + group);
+        }
+        return group;
+    }
+
+    private void requireTotalled() {
+        if (!totalled) {
+            throw new IllegalStateException("Document not totalled yet");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package es.terencio.erp.shared.domain.tax;
+
+import java.util.List;
+
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+/**
+ * Totals of a document; {@code net + tax + surcharge = total}, and each
+ * amount is the sum of the breakdown, which is ordered by rate.
+ */
+public record DocumentTotals(Money net, Money tax, Money surcharge, Money total, List<TaxBreakdown> breakdown) {
+}
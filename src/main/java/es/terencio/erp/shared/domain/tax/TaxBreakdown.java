@@ -0,0 +1,10 @@
+package es.terencio.erp.shared.domain.tax;
+
+import es.terencio.erp.shared.domain.valueobject.Money;
+import es.terencio.erp.shared.domain.valueobject.TaxRate;
+
+/**
+ * Tax base and amounts of a document for one tax rate and surcharge rate.
+ */
+public record TaxBreakdown(TaxRate rate, TaxRate surchargeRate, Money base, Money tax, Money surcharge) {
+}
@@ -3,16 +3,26 @@ package es.terencio.erp.shared.domain.valueobject;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Currency;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Value Object representing monetary amounts.
  * Uses cents (long) as the unit of accounting to avoid rounding problems.
  * Immutable.
+ * <p>
+ * Per-line arithmetic ({@link #multiply(Quantity)}, {@link #multiplyScaled},
+ * tax and totals) stays on longs; {@link BigDecimal} is only used for
+ * arbitrary factors and conversions.
  */
 public final class Money {
 
     private static final int CENTS_PER_UNIT = 100;
+    private static final long THOUSANDTHS_PER_UNIT = 1_000;
+
+    // Currency.getInstance validates the code on every call; amounts are created per line
+    private static final Map<String, Currency> CURRENCIES = new ConcurrentHashMap<>();
 
     private final long cents; // Amount in cents (e.g., 1250 = 12.50 EUR)
     private final Currency currency;
@@ -32,7 +42,11 @@ public final class Money {
      * @param currencyCode ISO currency code
      */
     public static Money ofCents(long cents, String currencyCode) {
-        return new Money(cents, Currency.getInstance(currencyCode));
+        return new Money(cents, currencyOf(currencyCode));
+    }
+
+    public static Money ofCents(long cents, Currency currency) {
+        return new Money(cents, currency);
     }
 
     /**
@@ -48,7 +62,7 @@ public final class Money {
         long cents = amount.multiply(BigDecimal.valueOf(CENTS_PER_UNIT))
                 .setScale(0, RoundingMode.HALF_UP)
                 .longValue();
-        return new Money(cents, Currency.getInstance(currencyCode));
+        return new Money(cents, currencyOf(currencyCode));
     }
 
     public static Money ofEuros(BigDecimal amount) {
@@ -95,12 +109,12 @@ public final class Money {
 
     public Money add(Money other) {
         assertSameCurrency(other);
-        return new Money(this.cents + other.cents, this.currency);
+        return new Money(Math.addExact(this.cents, other.cents), this.currency);
     }
 
     public Money subtract(Money other) {
         assertSameCurrency(other);
-        return new Money(this.cents - other.cents, this.currency);
+        return new Money(Math.subtractExact(this.cents, other.cents), this.currency);
     }
 
     public Money multiply(BigDecimal factor) {
@@ -114,6 +128,21 @@ public final class Money {
         return new Money(newCents, this.currency);
     }
 
+    /**
+     * Price times quantity, rounded half up to the cent.
+     */
+    public Money multiply(Quantity quantity) {
+        return multiplyScaled(quantity.thousandths(), THOUSANDTHS_PER_UNIT);
+    }
+
+    /**
+     * Multiplies by {@code factor / divisor}, rounded half up to the cent,
+     * e.g. {@code multiplyScaled(210_000, 1_000_000)} for 21%.
+     */
+    public Money multiplyScaled(long factor, long divisor) {
+        return new Money(ScaledArithmetic.multiplyHalfUp(this.cents, factor, divisor), this.currency);
+    }
+
     public Money multiply(double factor) {
         return multiply(BigDecimal.valueOf(factor));
     }
@@ -132,7 +161,7 @@ public final class Money {
     }
 
     public Money negate() {
-        return new Money(-this.cents, this.currency);
+        return new Money(Math.negateExact(this.cents), this.currency);
     }
 
     public boolean isPositive() {
@@ -167,6 +196,16 @@ public final class Money {
         return this.cents <= other.cents;
     }
 
+    static Currency currencyOf(String currencyCode) {
+        Currency currency = CURRENCIES.get(currencyCode);
+        if (currency == null) {
+            // Fails on unknown codes before anything is cached
+            currency = Currency.getInstance(currencyCode);
+            CURRENCIES.putIfAbsent(currencyCode, currency);
+        }
+        return currency;
+    }
+
     private void assertSameCurrency(Money other) {
         if (!this.currency.equals(other.currency)) {
             throw new IllegalArgumentException("Cannot operate on different currencies: " +
@@ -0,0 +1,54 @@
+package es.terencio.erp.shared.domain.valueobject;
+
+import java.util.Currency;
+
+/**
+ * Running total in one currency, for summing many amounts without creating
+ * a {@link Money} per addition. Mutable and not thread-safe: keep it local.
+ */
+public final class MoneyAccumulator {
+
+    private final Currency currency;
+    private long cents;
+
+    private MoneyAccumulator(Currency currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency cannot be null");
+        }
+        this.currency = currency;
+    }
+
+    public static MoneyAccumulator of(Currency currency) {
+        return new MoneyAccumulator(currency);
+    }
+
+    public static MoneyAccumulator of(String currencyCode) {
+        return new MoneyAccumulator(Money.currencyOf(currencyCode));
+    }
+
+    public MoneyAccumulator add(Money amount) {
+        if (!currency.equals(amount.currency())) {
+            throw new IllegalArgumentException("Cannot operate on different currencies: " +
+                    currency + " vs " + amount.currency());
+        }
+        cents = Math.addExact(cents, amount.cents());
+        return this;
+    }
+
+    public MoneyAccumulator addCents(long amountCents) {
+        cents = Math.addExact(cents, amountCents);
+        return this;
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public Money toMoney() {
+        return Money.ofCents(cents, currency);
+    }
+}
@@ -1,29 +1,31 @@
 package es.terencio.erp.shared.domain.valueobject;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Objects;
 
 /**
  * Value Object representing product quantities.
- * Supports fractional quantities (e.g., 1.5 kg).
+ * Supports fractional quantities (e.g., 1.5 kg), kept as a count of
+ * thousandths so arithmetic needs no {@link BigDecimal}.
  */
 public final class Quantity {
 
     private static final int SCALE = 3;
-    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    private static final long THOUSANDTHS_PER_UNIT = 1_000;
 
-    private final BigDecimal value;
+    private static final Quantity ZERO = new Quantity(0);
+    private static final Quantity ONE = new Quantity(THOUSANDTHS_PER_UNIT);
 
-    private Quantity(BigDecimal value) {
-        if (value == null) {
-            throw new IllegalArgumentException("Quantity value cannot be null");
-        }
-        this.value = value.setScale(SCALE, ROUNDING);
+    private final long thousandths;
+
+    private Quantity(long thousandths) {
+        this.thousandths = thousandths;
     }
 
     public static Quantity of(BigDecimal value) {
-        return new Quantity(value);
+        if (value == null) {
+            throw new IllegalArgumentException("Quantity value cannot be null");
+        }
+        return new Quantity(ScaledArithmetic.toScaledLong(value, SCALE));
     }
 
     public static Quantity of(double value) {
@@ -31,59 +33,73 @@ public final class Quantity {
     }
 
     public static Quantity of(int value) {
-        return of(BigDecimal.valueOf(value));
+        return new Quantity(value * THOUSANDTHS_PER_UNIT);
+    }
+
+    /**
+     * Create Quantity from thousandths of a unit (e.g., 1500 for 1.5).
+     */
+    public static Quantity ofThousandths(long thousandths) {
+        return new Quantity(thousandths);
     }
 
     public static Quantity zero() {
-        return of(BigDecimal.ZERO);
+        return ZERO;
     }
 
     public static Quantity one() {
-        return of(BigDecimal.ONE);
+        return ONE;
     }
 
     public BigDecimal value() {
-        return value;
+        return BigDecimal.valueOf(thousandths, SCALE);
+    }
+
+    /**
+     * Get quantity in thousandths of a unit (internal representation).
+     */
+    public long thousandths() {
+        return thousandths;
     }
 
     public Quantity add(Quantity other) {
-        return new Quantity(this.value.add(other.value));
+        return new Quantity(Math.addExact(this.thousandths, other.thousandths));
     }
 
     public Quantity subtract(Quantity other) {
-        return new Quantity(this.value.subtract(other.value));
+        return new Quantity(Math.subtractExact(this.thousandths, other.thousandths));
     }
 
     public Quantity multiply(BigDecimal factor) {
-        return new Quantity(this.value.multiply(factor));
+        return of(value().multiply(factor));
     }
 
     public Quantity negate() {
-        return new Quantity(this.value.negate());
+        return new Quantity(Math.negateExact(this.thousandths));
     }
 
     public boolean isPositive() {
-        return value.compareTo(BigDecimal.ZERO) > 0;
+        return thousandths > 0;
     }
 
     public boolean isNegative() {
-        return value.compareTo(BigDecimal.ZERO) < 0;
+        return thousandths < 0;
     }
 
     public boolean isZero() {
-        return value.compareTo(BigDecimal.ZERO) == 0;
+        return thousandths == 0;
     }
 
     public boolean isGreaterThan(Quantity other) {
-        return this.value.compareTo(other.value) > 0;
+        return this.thousandths > other.thousandths;
     }
 
     public boolean isLessThan(Quantity other) {
-        return this.value.compareTo(other.value) < 0;
+        return this.thousandths < other.thousandths;
     }
 
     public boolean isGreaterThanOrEqual(Quantity other) {
-        return this.value.compareTo(other.value) >= 0;
+        return this.thousandths >= other.thousandths;
     }
 
     @Override
@@ -93,16 +109,16 @@ public final class Quantity {
         if (o == null || getClass() != o.getClass())
             return false;
         Quantity quantity = (Quantity) o;
-        return Objects.equals(value, quantity.value);
+        return thousandths == quantity.thousandths;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return Long.hashCode(thousandths);
     }
 
     @Override
     public String toString() {
-        return value.toString();
+        return value().toString();
     }
 }
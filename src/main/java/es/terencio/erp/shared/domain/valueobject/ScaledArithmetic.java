@@ -0,0 +1,49 @@
+package es.terencio.erp.shared.domain.valueobject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Integer kernels for values kept as scaled longs (cents, thousandths of a
+ * unit, ten-thousandths of a percent). Results are exact and rounded
+ * {@link RoundingMode#HALF_UP}, as {@link BigDecimal} would, without
+ * allocating unless a product overflows 64 bits.
+ */
+public final class ScaledArithmetic {
+
+    private ScaledArithmetic() {
+    }
+
+    /** {@code a * b / divisor}, rounded half up. The divisor must be positive. */
+    public static long multiplyHalfUp(long a, long b, long divisor) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideHalfUp(low, divisor);
+        }
+        // Only reachable with absurd amounts; not worth a 128-bit division
+        return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /** {@code dividend / divisor}, rounded half up. The divisor must be positive. */
+    public static long divideHalfUp(long dividend, long divisor) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("Divisor must be positive");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // 2 * |remainder| >= divisor, written so it cannot overflow; ties go away from zero
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /** Unscaled value of {@code value} at {@code scale}, rounded half up. */
+    static long toScaledLong(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -1,51 +1,70 @@
 package es.terencio.erp.shared.domain.valueobject;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Objects;
 
 /**
  * Value Object representing a tax rate (e.g., 21.0000%).
+ * Kept as ten-thousandths of a percent (21% = 210_000), which is also the
+ * factor in millionths, so tax is computed on longs.
  */
 public final class TaxRate {
 
     private static final int SCALE = 4;
-    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    private static final long MAX_TEN_THOUSANDTHS = 100 * 10_000;
+    // Ten-thousandths of a percent per unit factor
+    private static final long FACTOR_DIVISOR = 1_000_000;
 
-    private final BigDecimal rate;
+    private final long tenThousandths;
 
-    private TaxRate(BigDecimal rate) {
+    private TaxRate(long tenThousandths) {
+        if (tenThousandths < 0 || tenThousandths > MAX_TEN_THOUSANDTHS) {
+            throw new IllegalArgumentException("Tax rate must be between 0 and 100");
+        }
+        this.tenThousandths = tenThousandths;
+    }
+
+    public static TaxRate of(BigDecimal rate) {
         if (rate == null) {
             throw new IllegalArgumentException("Tax rate cannot be null");
         }
         if (rate.compareTo(BigDecimal.ZERO) < 0 || rate.compareTo(BigDecimal.valueOf(100)) > 0) {
             throw new IllegalArgumentException("Tax rate must be between 0 and 100");
         }
-        this.rate = rate.setScale(SCALE, ROUNDING);
-    }
-
-    public static TaxRate of(BigDecimal rate) {
-        return new TaxRate(rate);
+        return new TaxRate(ScaledArithmetic.toScaledLong(rate, SCALE));
     }
 
     public static TaxRate of(double rate) {
         return of(BigDecimal.valueOf(rate));
     }
 
+    /**
+     * Create TaxRate from ten-thousandths of a percent (e.g., 210000 for 21%).
+     */
+    public static TaxRate ofTenThousandths(long tenThousandths) {
+        return new TaxRate(tenThousandths);
+    }
+
     public static TaxRate zero() {
-        return of(BigDecimal.ZERO);
+        return new TaxRate(0);
     }
 
     public BigDecimal rate() {
-        return rate;
+        return BigDecimal.valueOf(tenThousandths, SCALE);
+    }
+
+    /**
+     * Get rate in ten-thousandths of a percent (internal representation).
+     */
+    public long tenThousandths() {
+        return tenThousandths;
     }
 
     public BigDecimal asFactor() {
-        return rate.divide(BigDecimal.valueOf(100), SCALE, ROUNDING);
+        return BigDecimal.valueOf(ScaledArithmetic.divideHalfUp(tenThousandths, 100), SCALE);
     }
 
     public Money calculateTaxAmount(Money baseAmount) {
-        return baseAmount.multiply(asFactor());
+        return baseAmount.multiplyScaled(tenThousandths, FACTOR_DIVISOR);
     }
 
     public Money calculateGrossAmount(Money netAmount) {
@@ -59,16 +78,16 @@ public final class TaxRate {
         if (o == null || getClass() != o.getClass())
             return false;
         TaxRate taxRate = (TaxRate) o;
-        return Objects.equals(rate, taxRate.rate);
+        return tenThousandths == taxRate.tenThousandths;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(rate);
+        return Long.hashCode(tenThousandths);
     }
 
     @Override
     public String toString() {
-        return rate + "%";
+        return rate() + "%";
     }
 }
@@ -0,0 +1,21 @@
+package es.terencio.erp.shared.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a bounded resource is saturated and the request is shed
+ * instead of queued. Mapped to 503 with a Retry-After header.
+ */
+public class CapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
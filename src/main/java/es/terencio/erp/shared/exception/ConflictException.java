@@ -0,0 +1,17 @@
+package es.terencio.erp.shared.exception;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a
+ * resource and can succeed once that state changes.
+ * Results in HTTP 409 response.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,151 @@
+package es.terencio.erp.shared.infrastructure.notification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single LISTEN connection per node for Postgres NOTIFY channels.
+ * <p>
+ * Used to broadcast cache invalidations between nodes: the writer (usually a
+ * trigger) calls {@code pg_notify} inside its transaction and every node gets
+ * the payload after commit. The connection is opened outside the Hikari pool
+ * so it never takes a slot from request handling. After a reconnect every
+ * handler gets {@link NotificationHandler#onResync()}, since notifications
+ * sent while disconnected are lost.
+ */
+@Component
+public class PostgresNotificationListener {
+    private static final Logger log = LoggerFactory.getLogger(PostgresNotificationListener.class);
+
+    private static final int POLL_TIMEOUT_MS = 1_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    public interface NotificationHandler {
+        void onNotification(String payload);
+
+        /** Notifications may have been missed; drop whatever depends on them. */
+        default void onResync() {
+        }
+    }
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<String, List<NotificationHandler>> handlers = new ConcurrentHashMap<>();
+    private final Set<String> pendingChannels = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public PostgresNotificationListener(DataSourceProperties dataSourceProperties) {
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    public void subscribe(String channel, NotificationHandler handler) {
+        handlers.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(handler);
+        pendingChannels.add(channel);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("pg-notification-listener").start(this::run);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                pendingChannels.addAll(handlers.keySet());
+                if (!firstConnect) {
+                    handlers.values().forEach(list -> list.forEach(this::resync));
+                }
+                firstConnect = false;
+                log.info("Listening for Postgres notifications on {}", handlers.keySet());
+
+                while (running) {
+                    listenPending(connection);
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Postgres notification connection lost, reconnecting in {} ms", RECONNECT_DELAY_MS, e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void listenPending(Connection connection) throws SQLException {
+        if (pendingChannels.isEmpty()) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String channel : Set.copyOf(pendingChannels)) {
+                // Channel names are compile-time constants of the subscribers, quoted as identifiers
+                statement.execute("LISTEN \"" + channel.replace("\"", "") + "\"");
+                pendingChannels.remove(channel);
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        for (NotificationHandler handler : handlers.getOrDefault(channel, List.of())) {
+            try {
+                handler.onNotification(payload);
+            } catch (Exception e) {
+                log.error("Notification handler failed for channel {}", channel, e);
+            }
+        }
+    }
+
+    private void resync(NotificationHandler handler) {
+        try {
+            handler.onResync();
+        } catch (Exception e) {
+            log.error("Notification handler resync failed", e);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package es.terencio.erp.shared.infrastructure.web.admission;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the unauthenticated {@code /api/v1/public/**} API, so
+ * a scraper or replay storm cannot take database connections from
+ * back-office users. Checks, cheapest first: load shedding by route priority
+ * (see {@link PublicRoute}), per-IP and per-company token buckets, then the
+ * route's concurrency cap. Nothing is queued: rejected requests get 429
+ * (rate limit) or 503 (overload) with Retry-After.
+ * <p>
+ * Per-IP buckets key on {@link HttpServletRequest#getRemoteAddr()}. Behind
+ * the load balancer that is only the client address because
+ * {@code server.forward-headers-strategy} is {@code native}: Tomcat rewrites
+ * it from {@code X-Forwarded-For} when the hop is a trusted internal proxy,
+ * and ignores the header otherwise, so clients cannot pick their own bucket.
+ * <p>
+ * Metrics: {@code public.admission.rejected{route,reason}} and
+ * {@code public.admission.inflight{route}}; the connection wait queue itself
+ * is {@code hikaricp.connections.pending}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+public class PublicAdmissionFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(PublicAdmissionFilter.class);
+
+    private static final String PUBLIC_PREFIX = "/api/v1/public/";
+    private static final int STRIPES = 64;
+    private static final int MAX_CLIENTS_PER_STRIPE = 1_024;
+
+    private enum Rejection {
+        LOAD(HttpServletResponse.SC_SERVICE_UNAVAILABLE, 5),
+        RATE_LIMIT(429, 1),
+        CONCURRENCY(HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1);
+
+        final int status;
+        final int retryAfterSeconds;
+
+        Rejection(int status, int retryAfterSeconds) {
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+
+    private final boolean enabled;
+    private final DataSource dataSource;
+    private final StripedTokenBuckets buckets = new StripedTokenBuckets(STRIPES, MAX_CLIENTS_PER_STRIPE);
+    private final Map<PublicRoute, Semaphore> concurrency = new EnumMap<>(PublicRoute.class);
+    private final Map<PublicRoute, Map<Rejection, Counter>> rejections = new EnumMap<>(PublicRoute.class);
+
+    private volatile HikariPoolMXBean pool;
+
+    public PublicAdmissionFilter(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${app.public-admission.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        for (PublicRoute route : PublicRoute.values()) {
+            Semaphore permits = new Semaphore(route.maxConcurrent);
+            concurrency.put(route, permits);
+            Gauge.builder("public.admission.inflight", permits, s -> route.maxConcurrent - s.availablePermits())
+                    .tag("route", route.name())
+                    .register(meterRegistry);
+            Map<Rejection, Counter> counters = new EnumMap<>(Rejection.class);
+            for (Rejection reason : Rejection.values()) {
+                counters.put(reason, Counter.builder("public.admission.rejected")
+                        .tag("route", route.name())
+                        .tag("reason", reason.name())
+                        .register(meterRegistry));
+            }
+            rejections.put(route, counters);
+        }
+        Gauge.builder("public.admission.tracked.clients", buckets, StripedTokenBuckets::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(PUBLIC_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        PublicRoute route = PublicRoute.match(path);
+
+        if (shouldShed(route)) {
+            reject(response, route, Rejection.LOAD);
+            return;
+        }
+
+        String ip = request.getRemoteAddr();
+        if (!buckets.tryAcquire(route.name() + "|ip|" + ip, route.ipPerSecond, route.ipBurst)) {
+            reject(response, route, Rejection.RATE_LIMIT);
+            return;
+        }
+        String company = route.companyKey(path);
+        if (company != null && !buckets.tryAcquire(route.name() + "|company|" + company, route.companyPerSecond,
+                route.companyBurst)) {
+            reject(response, route, Rejection.RATE_LIMIT);
+            return;
+        }
+
+        Semaphore permits = concurrency.get(route);
+        if (!permits.tryAcquire()) {
+            reject(response, route, Rejection.CONCURRENCY);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean shouldShed(PublicRoute route) {
+        if (route.priority == PublicRoute.Priority.HIGH) {
+            return false;
+        }
+        HikariPoolMXBean current = pool();
+        if (current == null) {
+            return false;
+        }
+        int waiting = current.getThreadsAwaitingConnection();
+        if (route.priority == PublicRoute.Priority.LOW) {
+            return waiting > 0;
+        }
+        return waiting >= Math.max(1, current.getTotalConnections());
+    }
+
+    private HikariPoolMXBean pool() {
+        HikariPoolMXBean current = pool;
+        if (current == null) {
+            try {
+                // Null until the pool has started
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    current = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                    pool = current;
+                }
+            } catch (SQLException e) {
+                log.debug("Cannot inspect the connection pool", e);
+            }
+        }
+        return current;
+    }
+
+    private void reject(HttpServletResponse response, PublicRoute route, Rejection reason) throws IOException {
+        rejections.get(route).get(reason).increment();
+        response.setStatus(reason.status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(reason.retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write(reason == Rejection.RATE_LIMIT
+                ? "{\"error\":\"Too many requests\"}"
+                : "{\"error\":\"Server is busy, retry later\"}");
+    }
+}
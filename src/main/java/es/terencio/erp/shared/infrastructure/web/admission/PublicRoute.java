@@ -0,0 +1,69 @@
+package es.terencio.erp.shared.infrastructure.web.admission;
+
+/**
+ * Admission classes for {@code /api/v1/public/**}.
+ * <p>
+ * Each class has its own concurrency cap and per-client token bucket
+ * (requests/second and burst per IP; LEAD also per company). Priority decides
+ * who is shed first when the database pool is contended: LOW as soon as
+ * requests wait for a connection, NORMAL once the wait queue is as long as
+ * the pool, HIGH never. Authenticated traffic does not go through admission,
+ * so it is always the last to degrade.
+ */
+enum PublicRoute {
+
+    DEVICE_SETUP("/api/v1/public/devices/", Priority.HIGH, 8, 1.0, 10, 0, 0),
+    LEAD("/api/v1/public/companies/", Priority.NORMAL, 16, 2.0, 10, 20.0, 100),
+    PREFERENCES("/api/v1/public/marketing/preferences", Priority.NORMAL, 16, 2.0, 20, 0, 0),
+    UNSUBSCRIBE("/api/v1/public/marketing/unsubscribe-one-click", Priority.NORMAL, 16, 2.0, 20, 0, 0),
+    TRACKING("/api/v1/public/marketing/track/", Priority.LOW, 32, 10.0, 50, 0, 0),
+    WEBHOOK("/api/v1/public/marketing/webhook/", Priority.LOW, 8, 50.0, 200, 0, 0),
+    OTHER("/api/v1/public/", Priority.LOW, 8, 2.0, 10, 0, 0);
+
+    enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private static final PublicRoute[] MATCH_ORDER = values();
+
+    final String pathPrefix;
+    final Priority priority;
+    final int maxConcurrent;
+    final double ipPerSecond;
+    final double ipBurst;
+    final double companyPerSecond;
+    final double companyBurst;
+
+    PublicRoute(String pathPrefix, Priority priority, int maxConcurrent, double ipPerSecond, double ipBurst,
+            double companyPerSecond, double companyBurst) {
+        this.pathPrefix = pathPrefix;
+        this.priority = priority;
+        this.maxConcurrent = maxConcurrent;
+        this.ipPerSecond = ipPerSecond;
+        this.ipBurst = ipBurst;
+        this.companyPerSecond = companyPerSecond;
+        this.companyBurst = companyBurst;
+    }
+
+    /** Route for a public path, or null when the path is not public. */
+    static PublicRoute match(String path) {
+        for (PublicRoute route : MATCH_ORDER) {
+            if (path.startsWith(route.pathPrefix)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /** Company id segment of a lead path, or null. */
+    String companyKey(String path) {
+        if (this != LEAD) {
+            return null;
+        }
+        int start = pathPrefix.length();
+        int end = path.indexOf('/', start);
+        return end > start ? path.substring(start, end) : null;
+    }
+}
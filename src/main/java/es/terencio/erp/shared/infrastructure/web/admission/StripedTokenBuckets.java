@@ -0,0 +1,87 @@
+package es.terencio.erp.shared.infrastructure.web.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by client, spread over lock stripes so unrelated
+ * clients never contend. Each stripe keeps at most a fixed number of buckets
+ * and evicts the least recently used one, so a scan from many addresses
+ * cannot grow memory without bound; an evicted client simply starts again
+ * with a full bucket.
+ */
+final class StripedTokenBuckets {
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        final ReentrantLock lock = new ReentrantLock();
+        private final int maxBuckets;
+
+        Stripe(int maxBuckets) {
+            super(16, 0.75f, true);
+            this.maxBuckets = maxBuckets;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxBuckets;
+        }
+    }
+
+    private final Stripe[] stripes;
+
+    StripedTokenBuckets(int stripeCount, int maxBucketsPerStripe) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxBucketsPerStripe);
+        }
+    }
+
+    boolean tryAcquire(String key, double permitsPerSecond, double burst) {
+        Stripe stripe = stripes[Math.floorMod(spread(key.hashCode()), stripes.length)];
+        long now = System.nanoTime();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket();
+                bucket.tokens = burst;
+                bucket.refilledAt = now;
+                stripe.put(key, bucket);
+            } else {
+                double refill = (now - bucket.refilledAt) / 1_000_000_000.0 * permitsPerSecond;
+                bucket.tokens = Math.min(burst, bucket.tokens + refill);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1.0) {
+                bucket.tokens -= 1.0;
+                return true;
+            }
+            return false;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -3,6 +3,7 @@ package es.terencio.erp.shared.presentation;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AccountStatusException;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import es.terencio.erp.shared.exception.CapacityExceededException;
+import es.terencio.erp.shared.exception.ConflictException;
 import es.terencio.erp.shared.exception.DomainException;
 import es.terencio.erp.shared.exception.RegistrationException;
 import es.terencio.erp.shared.exception.ResourceNotFoundException;
@@ -34,6 +37,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(ex.getMessage(), error));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleConflictException(ConflictException ex) {
+        log.warn("Conflict: {}", ex.getMessage());
+
+        ApiError error = new ApiError("CONFLICT", ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(ex.getMessage(), error));
+    }
+
     @ExceptionHandler(RegistrationException.class)
     public ResponseEntity<ApiResponse<Void>> handleRegistrationException(RegistrationException ex) {
         log.warn("Registration failed: {}", ex.getMessage());
@@ -50,6 +61,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(ApiResponse.error(ex.getMessage(), error));
     }
 
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCapacityExceededException(CapacityExceededException ex) {
+        log.warn("Request shed: {}", ex.getMessage());
+
+        ApiError error = new ApiError("CAPACITY_EXCEEDED", "Server is busy, retry later", null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(ApiResponse.error("Server is busy", error));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidationException(
             MethodArgumentNotValidException ex) {
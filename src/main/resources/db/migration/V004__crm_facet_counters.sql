@@ -0,0 +1,42 @@
+-- ==================================================================================
+-- TERENCIO ERP - CRM FACET COUNTERS
+-- Contadores por empresa (tipo, estado marketing, origen, ciudad, etiqueta)
+-- mantenidos de forma incremental por la aplicación y reconciliados cada noche.
+-- ==================================================================================
+
+CREATE TABLE customer_facet_counts (
+    company_id UUID NOT NULL REFERENCES companies(id),
+    facet VARCHAR(30) NOT NULL,          -- 'TOTAL', 'TYPE', 'MARKETING_STATUS', 'ORIGIN', 'CITY', 'TAG'
+    facet_value VARCHAR(255) NOT NULL,   -- Valor agrupado ('*' para TOTAL)
+    total BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ DEFAULT NOW(),
+
+    PRIMARY KEY (company_id, facet, facet_value)
+);
+
+-- Carga inicial desde los clientes existentes (solo no borrados)
+INSERT INTO customer_facet_counts (company_id, facet, facet_value, total)
+SELECT company_id, 'TOTAL', '*', COUNT(*)
+FROM customers WHERE deleted_at IS NULL
+GROUP BY company_id
+UNION ALL
+SELECT company_id, 'TYPE', type, COUNT(*)
+FROM customers WHERE deleted_at IS NULL AND type IS NOT NULL
+GROUP BY company_id, type
+UNION ALL
+SELECT company_id, 'MARKETING_STATUS', marketing_status, COUNT(*)
+FROM customers WHERE deleted_at IS NULL AND marketing_status IS NOT NULL
+GROUP BY company_id, marketing_status
+UNION ALL
+SELECT company_id, 'ORIGIN', origin, COUNT(*)
+FROM customers WHERE deleted_at IS NULL AND origin IS NOT NULL
+GROUP BY company_id, origin
+UNION ALL
+SELECT company_id, 'CITY', city, COUNT(*)
+FROM customers WHERE deleted_at IS NULL AND city IS NOT NULL
+GROUP BY company_id, city
+UNION ALL
+SELECT c.company_id, 'TAG', t.tag, COUNT(DISTINCT c.id)
+FROM customers c CROSS JOIN LATERAL unnest(c.tags) AS t(tag)
+WHERE c.deleted_at IS NULL AND t.tag IS NOT NULL
+GROUP BY c.company_id, t.tag;
@@ -0,0 +1,39 @@
+-- ==================================================================================
+-- TERENCIO ERP - MARKETING SEGMENT MEMBERSHIP
+-- Pertenencia materializada cliente <-> segmento. Se mantiene de forma incremental
+-- cuando cambia un cliente (solo se reevalúan los segmentos cuyos filtros usan las
+-- columnas modificadas) y se reconstruye cuando cambia la definición del segmento.
+-- ==================================================================================
+
+CREATE TABLE marketing_segment_members (
+    segment_id BIGINT NOT NULL REFERENCES marketing_segments(id) ON DELETE CASCADE,
+    customer_id BIGINT NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    company_id UUID NOT NULL REFERENCES companies(id),
+    added_at TIMESTAMPTZ DEFAULT NOW(),
+
+    PRIMARY KEY (segment_id, customer_id)
+);
+
+CREATE INDEX idx_segment_members_customer ON marketing_segment_members(customer_id);
+
+-- Marca de la última reconstrucción completa; si updated_at es posterior, el segmento está pendiente
+ALTER TABLE marketing_segments
+    ADD COLUMN IF NOT EXISTS members_refreshed_at TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_marketing_segments_company ON marketing_segments(company_id);
+
+-- Carga inicial
+INSERT INTO marketing_segment_members (segment_id, customer_id, company_id)
+SELECT ms.id, c.id, c.company_id
+FROM marketing_segments ms
+JOIN customers c ON c.company_id = ms.company_id
+WHERE c.deleted_at IS NULL
+  AND (ms.filter_types IS NULL OR c.type = ANY(ms.filter_types))
+  AND (ms.filter_tags IS NULL OR c.tags && ms.filter_tags)
+  AND (ms.filter_city IS NULL OR c.city = ms.filter_city)
+  AND (ms.filter_origin IS NULL OR c.origin = ms.filter_origin)
+  AND (ms.filter_marketing_status IS NULL OR c.marketing_status = ms.filter_marketing_status)
+  AND (ms.filter_registered_after IS NULL OR c.created_at >= ms.filter_registered_after)
+  AND (ms.filter_registered_before IS NULL OR c.created_at <= ms.filter_registered_before);
+
+UPDATE marketing_segments SET members_refreshed_at = NOW();
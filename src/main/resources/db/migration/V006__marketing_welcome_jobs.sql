@@ -0,0 +1,32 @@
+-- ==================================================================================
+-- TERENCIO ERP - WELCOME EMAIL JOBS
+-- Cola duradera de emails de bienvenida diferidos. Cada nodo reclama (lease) la
+-- siguiente ventana de trabajos vencidos y los dispara desde memoria.
+-- ==================================================================================
+
+CREATE TABLE marketing_welcome_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    company_id UUID NOT NULL REFERENCES companies(id),
+    customer_id BIGINT NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    template_id BIGINT NOT NULL REFERENCES marketing_templates(id) ON DELETE CASCADE,
+
+    due_at TIMESTAMPTZ NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- 'PENDING', 'SENDING', 'SENT', 'SKIPPED', 'FAILED'
+    attempts INTEGER NOT NULL DEFAULT 0,
+
+    -- Lease del nodo que tiene el trabajo en su timing wheel
+    claimed_by VARCHAR(64),
+    claimed_until TIMESTAMPTZ,
+
+    message_id VARCHAR(255),
+    last_error TEXT,
+    created_at TIMESTAMPTZ DEFAULT NOW(),
+    sent_at TIMESTAMPTZ,
+
+    CONSTRAINT uq_welcome_jobs_customer UNIQUE (customer_id),
+    CONSTRAINT chk_welcome_jobs_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'SKIPPED', 'FAILED'))
+);
+
+-- Solo los trabajos abiertos entran en el índice de reclamación por ventana
+CREATE INDEX idx_welcome_jobs_open_due ON marketing_welcome_jobs(due_at)
+    WHERE status IN ('PENDING', 'SENDING');
@@ -0,0 +1,33 @@
+-- ==================================================================================
+-- TERENCIO ERP - GLOBAL EMAIL SUPPRESSION LIST
+-- Direcciones con rebote permanente o queja, globales a todas las empresas.
+-- Se guarda solo el SHA-256 del email normalizado (trim + minúsculas).
+-- ==================================================================================
+
+CREATE TABLE marketing_email_suppressions (
+    id BIGSERIAL PRIMARY KEY, -- Monótono: los nodos cargan incrementalmente por id
+    email_hash CHAR(64) NOT NULL,
+    reason VARCHAR(20) NOT NULL, -- 'HARD_BOUNCE', 'COMPLAINT'
+    source_company_id UUID REFERENCES companies(id) ON DELETE SET NULL,
+    events INTEGER NOT NULL DEFAULT 1,
+    first_seen_at TIMESTAMPTZ DEFAULT NOW(),
+    last_seen_at TIMESTAMPTZ DEFAULT NOW(),
+
+    CONSTRAINT uq_email_suppressions_hash UNIQUE (email_hash),
+    CONSTRAINT chk_email_suppressions_reason CHECK (reason IN ('HARD_BOUNCE', 'COMPLAINT'))
+);
+
+-- Carga inicial desde los eventos de SES ya recibidos (misma regla que SesWebhookService:
+-- solo rebotes 'Permanent'; los transitorios y 'Undetermined' no bloquean la dirección)
+INSERT INTO marketing_email_suppressions (email_hash, reason, first_seen_at, last_seen_at, events)
+SELECT encode(sha256(convert_to(LOWER(TRIM(e.email_address)), 'UTF8')), 'hex'),
+       CASE WHEN BOOL_OR(UPPER(e.event_type) = 'COMPLAINT') THEN 'COMPLAINT' ELSE 'HARD_BOUNCE' END,
+       MIN(e.created_at),
+       MAX(e.created_at),
+       COUNT(*)
+FROM email_delivery_events e
+WHERE e.email_address IS NOT NULL
+  AND TRIM(e.email_address) <> ''
+  AND (UPPER(e.event_type) = 'COMPLAINT'
+       OR (UPPER(e.event_type) = 'BOUNCE' AND UPPER(e.bounce_type) = 'PERMANENT'))
+GROUP BY 1;
@@ -0,0 +1,11 @@
+-- ==================================================================================
+-- TERENCIO ERP - EMPLOYEE TOKEN VERSION
+-- Los JWT llevan la versión con la que se emitieron. Subirla (baja, reactivación,
+-- cambio de contraseña) invalida todos los tokens anteriores sin consultar la BD
+-- en cada petición.
+-- ==================================================================================
+
+ALTER TABLE employees ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Refresco incremental de la lista de revocación en cada nodo
+CREATE INDEX idx_employees_updated_at ON employees(updated_at);
@@ -0,0 +1,34 @@
+-- ==================================================================================
+-- TERENCIO ERP - PERMISSION CHANGE NOTIFICATIONS
+-- Cada nodo cachea la matriz de permisos compilada por empleado. Estos triggers
+-- publican los cambios por NOTIFY (se entregan al hacer COMMIT) para que todos
+-- los nodos invaliden su caché, incluidos cambios hechos a mano en la BD.
+-- ==================================================================================
+
+CREATE OR REPLACE FUNCTION notify_employee_grants_changed() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('permissions_changed', OLD.employee_id::text);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pg_notify('permissions_changed', NEW.employee_id::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_employee_access_grants_notify
+    AFTER INSERT OR UPDATE OR DELETE ON employee_access_grants
+    FOR EACH ROW EXECUTE FUNCTION notify_employee_grants_changed();
+
+-- Un cambio de rol afecta a todos sus empleados: se invalida todo
+CREATE OR REPLACE FUNCTION notify_role_permissions_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('permissions_changed', '*');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_role_permissions_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON role_permissions
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_role_permissions_changed();
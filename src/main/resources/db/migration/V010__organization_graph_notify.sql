@@ -0,0 +1,24 @@
+-- ==================================================================================
+-- TERENCIO ERP - ORGANIZATION GRAPH NOTIFICATIONS
+-- Cada nodo mantiene en memoria el grafo organización → empresa → tienda. Cualquier
+-- cambio en estas tablas lo invalida en todos los nodos (NOTIFY al hacer COMMIT).
+-- ==================================================================================
+
+CREATE OR REPLACE FUNCTION notify_organization_graph_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('organization_graph_changed', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_organizations_graph_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON organizations
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_organization_graph_changed();
+
+CREATE TRIGGER trg_companies_graph_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON companies
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_organization_graph_changed();
+
+CREATE TRIGGER trg_stores_graph_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON stores
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_organization_graph_changed();
@@ -0,0 +1,23 @@
+-- ==================================================================================
+-- TERENCIO ERP - DEVICE CREDENTIAL NOTIFICATIONS
+-- Cada nodo cachea las credenciales de los TPV (secreto, versión de clave,
+-- estado, tienda). Este trigger publica por NOTIFY los cambios que las afectan
+-- (alta, bloqueo/desbloqueo, rotación de clave) para que todos los nodos
+-- invaliden su caché. Las columnas de actividad (last_authenticated_at,
+-- last_sync_at) no disparan la notificación.
+-- ==================================================================================
+
+CREATE OR REPLACE FUNCTION notify_device_credentials_changed() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('device_credentials_changed', OLD.id::text);
+    ELSE
+        PERFORM pg_notify('device_credentials_changed', NEW.id::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_devices_credentials_notify
+    AFTER INSERT OR DELETE OR UPDATE OF status, device_secret, api_key_version, store_id ON devices
+    FOR EACH ROW EXECUTE FUNCTION notify_device_credentials_changed();
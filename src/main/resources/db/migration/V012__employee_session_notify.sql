@@ -0,0 +1,19 @@
+-- ==================================================================================
+-- TERENCIO ERP - EMPLOYEE SESSION NOTIFICATIONS
+-- /api/v1/auth/me se sirve desde una instantánea de sesión cacheada por
+-- empleado. Este trigger avisa a todos los nodos cuando cambia algún dato del
+-- perfil que contiene (nombre, estado, organización, contexto activo).
+-- Los cambios de permisos y de estructura ya tienen sus propios canales.
+-- ==================================================================================
+
+CREATE OR REPLACE FUNCTION notify_employee_session_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('employee_session_changed', NEW.id::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_employees_session_notify
+    AFTER UPDATE OF username, full_name, is_active, organization_id, last_active_company_id, last_active_store_id, deleted_at
+    ON employees
+    FOR EACH ROW EXECUTE FUNCTION notify_employee_session_changed();
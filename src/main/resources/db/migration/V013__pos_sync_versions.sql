@@ -0,0 +1,119 @@
+-- ==================================================================================
+-- TERENCIO ERP - POS SYNC VERSIONS
+-- Los TPV sincronizan su contexto (tienda, configuración, empleados con PIN)
+-- con /api/v1/pos/sync/context?since=<versión>. Cada tienda tiene un contador
+-- de versión que los triggers incrementan al cambiar la tienda, su
+-- configuración, o los empleados y permisos que la afectan, de modo que el
+-- servidor sólo envía lo que ha cambiado desde la versión del cliente.
+-- El incremento bloquea la fila de la tienda hasta el commit: una versión
+-- leída ya tiene todos sus cambios confirmados.
+-- ==================================================================================
+
+CREATE TABLE pos_sync_stores (
+    store_id UUID PRIMARY KEY REFERENCES stores(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0,
+    store_version BIGINT NOT NULL DEFAULT 0,
+    settings_version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Una fila por empleado y tienda con la última versión en la que cambió.
+-- Si el empleado ya no tiene acceso activo a la tienda, el cliente lo recibe
+-- como baja (tombstone).
+CREATE TABLE pos_sync_employees (
+    store_id UUID NOT NULL REFERENCES stores(id) ON DELETE CASCADE,
+    employee_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (store_id, employee_id)
+);
+CREATE INDEX idx_pos_sync_employees_version ON pos_sync_employees(store_id, version);
+
+CREATE OR REPLACE FUNCTION pos_sync_bump(p_store_id UUID) RETURNS BIGINT AS $$
+DECLARE
+    v_version BIGINT;
+BEGIN
+    INSERT INTO pos_sync_stores (store_id, version) VALUES (p_store_id, 1)
+    ON CONFLICT (store_id) DO UPDATE SET version = pos_sync_stores.version + 1
+    RETURNING version INTO v_version;
+    RETURN v_version;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION pos_sync_touch_employee(p_store_id UUID, p_employee_id BIGINT) RETURNS void AS $$
+DECLARE
+    v_version BIGINT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM stores WHERE id = p_store_id) THEN
+        RETURN;
+    END IF;
+    v_version := pos_sync_bump(p_store_id);
+    INSERT INTO pos_sync_employees (store_id, employee_id, version) VALUES (p_store_id, p_employee_id, v_version)
+    ON CONFLICT (store_id, employee_id) DO UPDATE SET version = EXCLUDED.version;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Tienda. Se incrementa antes del UPDATE: pos_sync_bump crea la fila si no
+-- existe, y dentro del SET su upsert tocaría la misma tupla que el UPDATE.
+CREATE OR REPLACE FUNCTION pos_sync_store_changed() RETURNS trigger AS $$
+DECLARE
+    v_version BIGINT;
+BEGIN
+    v_version := pos_sync_bump(NEW.id);
+    UPDATE pos_sync_stores SET store_version = v_version WHERE store_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_stores_pos_sync
+    AFTER UPDATE OF code, name, slug, address, zip_code, city, is_active, timezone, deleted_at, company_id ON stores
+    FOR EACH ROW EXECUTE FUNCTION pos_sync_store_changed();
+
+-- Configuración de tienda
+CREATE OR REPLACE FUNCTION pos_sync_settings_changed() RETURNS trigger AS $$
+DECLARE
+    v_version BIGINT;
+BEGIN
+    v_version := pos_sync_bump(NEW.store_id);
+    UPDATE pos_sync_stores SET settings_version = v_version WHERE store_id = NEW.store_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_store_settings_pos_sync
+    AFTER INSERT OR UPDATE ON store_settings
+    FOR EACH ROW EXECUTE FUNCTION pos_sync_settings_changed();
+
+-- Datos de empleado que viajan al TPV
+CREATE OR REPLACE FUNCTION pos_sync_employee_changed() RETURNS trigger AS $$
+DECLARE
+    v_store_id UUID;
+BEGIN
+    FOR v_store_id IN
+        SELECT DISTINCT g.target_id FROM employee_access_grants g WHERE g.employee_id = NEW.id
+    LOOP
+        PERFORM pos_sync_touch_employee(v_store_id, NEW.id);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_employees_pos_sync
+    AFTER UPDATE OF username, full_name, pin_hash, is_active, last_active_company_id, last_active_store_id
+    ON employees
+    FOR EACH ROW EXECUTE FUNCTION pos_sync_employee_changed();
+
+-- Permisos sobre la tienda (alta, baja o cambio de rol)
+CREATE OR REPLACE FUNCTION pos_sync_grant_changed() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pos_sync_touch_employee(OLD.target_id, OLD.employee_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pos_sync_touch_employee(NEW.target_id, NEW.employee_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_employee_access_grants_pos_sync
+    AFTER INSERT OR UPDATE OR DELETE ON employee_access_grants
+    FOR EACH ROW EXECUTE FUNCTION pos_sync_grant_changed();
@@ -0,0 +1,19 @@
+-- ==================================================================================
+-- TERENCIO ERP - POS SYNC NOTIFICATIONS
+-- Los TPV esperan cambios con long-poll (/api/v1/pos/sync/changes) en
+-- cualquier nodo. Cada incremento de versión de una tienda se publica por
+-- NOTIFY (payload: '<store_id>:<versión>') para despertar a los TPV de esa
+-- tienda en todos los nodos. Los bloqueos de dispositivo ya llegan por
+-- device_credentials_changed.
+-- ==================================================================================
+
+CREATE OR REPLACE FUNCTION notify_pos_sync_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('pos_sync_changed', NEW.store_id::text || ':' || NEW.version::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_pos_sync_stores_notify
+    AFTER INSERT OR UPDATE OF version ON pos_sync_stores
+    FOR EACH ROW EXECUTE FUNCTION notify_pos_sync_changed();
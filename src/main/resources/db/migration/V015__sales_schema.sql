@@ -0,0 +1,51 @@
+-- ==================================================================================
+-- TERENCIO ERP - SALES
+-- Ventas registradas en los TPV, que pueden funcionar sin conexión: el TPV
+-- genera el UUID de cada venta y las sube por lotes al reconectar. El UUID
+-- único hace que reenviar un lote sea idempotente (ON CONFLICT (uuid) DO
+-- NOTHING). Importes en céntimos.
+-- ==================================================================================
+
+CREATE TABLE sales (
+    id BIGSERIAL PRIMARY KEY,
+    uuid UUID NOT NULL UNIQUE, -- generado por el TPV
+    company_id UUID NOT NULL REFERENCES companies(id),
+    store_id UUID NOT NULL REFERENCES stores(id),
+    device_id UUID NOT NULL REFERENCES devices(id),
+    employee_id BIGINT NOT NULL REFERENCES employees(id),
+    customer_uuid UUID, -- el cliente puede haberse dado de alta en el TPV sin conexión
+
+    currency CHAR(3) NOT NULL,
+    total_net BIGINT NOT NULL,
+    total_tax BIGINT NOT NULL,
+    total BIGINT NOT NULL,
+
+    issued_at TIMESTAMPTZ NOT NULL, -- reloj del TPV
+    received_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX idx_sales_store_issued ON sales(store_id, issued_at);
+CREATE INDEX idx_sales_device_issued ON sales(device_id, issued_at);
+
+CREATE TABLE sale_lines (
+    id BIGSERIAL PRIMARY KEY,
+    sale_id BIGINT NOT NULL REFERENCES sales(id) ON DELETE CASCADE,
+    line_number INTEGER NOT NULL,
+    product_id BIGINT,
+    description VARCHAR(255),
+    quantity NUMERIC(15, 3) NOT NULL,
+    unit_price BIGINT NOT NULL,
+    discount_percent NUMERIC(7, 4) NOT NULL DEFAULT 0,
+    tax_rate NUMERIC(7, 4) NOT NULL,
+    net_amount BIGINT NOT NULL,
+    tax_amount BIGINT NOT NULL,
+    total BIGINT NOT NULL,
+    UNIQUE (sale_id, line_number)
+);
+
+CREATE TABLE sale_payments (
+    id BIGSERIAL PRIMARY KEY,
+    sale_id BIGINT NOT NULL REFERENCES sales(id) ON DELETE CASCADE,
+    method VARCHAR(30) NOT NULL,
+    amount BIGINT NOT NULL
+);
+CREATE INDEX idx_sale_payments_sale_id ON sale_payments(sale_id);
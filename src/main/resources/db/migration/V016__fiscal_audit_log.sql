@@ -0,0 +1,91 @@
+-- ==================================================================================
+-- TERENCIO ERP - FISCAL AUDIT LOG (VERI*FACTU)
+-- Cada TPV mantiene su propia cadena de registros fiscales: cada registro
+-- lleva el número de secuencia siguiente y el hash SHA-256 del anterior.
+-- La base de datos garantiza que la cadena no se bifurca ni se reescribe:
+-- secuencia única por dispositivo, enlace con el registro anterior
+-- comprobado al insertar, y registros inmutables (sólo cambia el estado de
+-- envío a la AEAT).
+-- fiscal_chain_heads guarda la cabeza de cada cadena; el nodo que encadena
+-- la actualiza comprobando la cabeza que esperaba, lo que detecta si otro
+-- nodo ha encadenado entretanto.
+-- ==================================================================================
+
+CREATE TABLE fiscal_audit_log (
+    id BIGSERIAL PRIMARY KEY,
+    uuid UUID NOT NULL UNIQUE DEFAULT uuid_generate_v4(),
+    sale_uuid UUID NOT NULL UNIQUE REFERENCES sales(uuid),
+    store_id UUID NOT NULL REFERENCES stores(id),
+    device_id UUID NOT NULL REFERENCES devices(id),
+
+    chain_sequence_id BIGINT NOT NULL CHECK (chain_sequence_id > 0),
+    previous_record_hash CHAR(64) NOT NULL CHECK (previous_record_hash ~ '^[0-9a-f]{64}$'),
+    record_hash CHAR(64) NOT NULL CHECK (record_hash ~ '^[0-9a-f]{64}$'),
+    signature TEXT,
+
+    software_id VARCHAR(100) NOT NULL,
+    software_version VARCHAR(50) NOT NULL,
+    developer_id VARCHAR(100) NOT NULL,
+
+    invoice_amount BIGINT NOT NULL, -- céntimos
+    currency CHAR(3) NOT NULL,
+    invoice_date TIMESTAMPTZ NOT NULL,
+    aeat_status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (aeat_status IN ('PENDING', 'SENT', 'ACCEPTED')),
+
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    UNIQUE (device_id, chain_sequence_id)
+);
+
+CREATE TABLE fiscal_chain_heads (
+    device_id UUID PRIMARY KEY REFERENCES devices(id),
+    chain_sequence_id BIGINT NOT NULL,
+    record_hash CHAR(64) NOT NULL
+);
+
+-- El registro debe continuar exactamente la cadena de su dispositivo.
+-- Las filas anteriores de la misma sentencia ya son visibles aquí, así que
+-- un lote encadenado en un único INSERT también se comprueba.
+CREATE OR REPLACE FUNCTION fiscal_audit_log_check_chain() RETURNS trigger AS $$
+BEGIN
+    IF NEW.chain_sequence_id = 1 THEN
+        IF NEW.previous_record_hash <> repeat('0', 64) THEN
+            RAISE EXCEPTION 'Fiscal chain of device % must start from the genesis hash', NEW.device_id;
+        END IF;
+    ELSIF NOT EXISTS (
+        SELECT 1 FROM fiscal_audit_log
+        WHERE device_id = NEW.device_id
+          AND chain_sequence_id = NEW.chain_sequence_id - 1
+          AND record_hash = NEW.previous_record_hash
+    ) THEN
+        RAISE EXCEPTION 'Fiscal record % of device % does not continue its chain',
+            NEW.chain_sequence_id, NEW.device_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql VOLATILE;
+
+CREATE TRIGGER trg_fiscal_audit_log_chain
+    BEFORE INSERT ON fiscal_audit_log
+    FOR EACH ROW EXECUTE FUNCTION fiscal_audit_log_check_chain();
+
+CREATE OR REPLACE FUNCTION fiscal_audit_log_immutable() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        RAISE EXCEPTION 'Fiscal records cannot be deleted';
+    END IF;
+    IF (NEW.id, NEW.uuid, NEW.sale_uuid, NEW.store_id, NEW.device_id, NEW.chain_sequence_id,
+        NEW.previous_record_hash, NEW.record_hash, NEW.signature, NEW.software_id, NEW.software_version,
+        NEW.developer_id, NEW.invoice_amount, NEW.currency, NEW.invoice_date, NEW.created_at)
+       IS DISTINCT FROM
+       (OLD.id, OLD.uuid, OLD.sale_uuid, OLD.store_id, OLD.device_id, OLD.chain_sequence_id,
+        OLD.previous_record_hash, OLD.record_hash, OLD.signature, OLD.software_id, OLD.software_version,
+        OLD.developer_id, OLD.invoice_amount, OLD.currency, OLD.invoice_date, OLD.created_at) THEN
+        RAISE EXCEPTION 'Fiscal records are immutable';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_fiscal_audit_log_immutable
+    BEFORE UPDATE OR DELETE ON fiscal_audit_log
+    FOR EACH ROW EXECUTE FUNCTION fiscal_audit_log_immutable();
@@ -0,0 +1,34 @@
+-- ==================================================================================
+-- TERENCIO ERP - INVENTORY
+-- Stock actual por producto y almacén, y el libro de movimientos que lo
+-- explica. Los movimientos solo se insertan: cada uno parte del saldo que dejó
+-- el anterior (saldo previo + cantidad = saldo nuevo). El stock puede quedar
+-- negativo porque los TPV siguen vendiendo sin conexión.
+-- ==================================================================================
+
+CREATE TABLE inventory_stock (
+    product_id BIGINT NOT NULL, -- sin FK: el catálogo de productos aún no vive en esta base de datos
+    warehouse_id UUID NOT NULL REFERENCES warehouses(id),
+    quantity NUMERIC(15, 3) NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0, -- sube con cada cambio
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (product_id, warehouse_id)
+);
+
+CREATE TABLE stock_movements (
+    id BIGSERIAL PRIMARY KEY,
+    uuid UUID NOT NULL UNIQUE,
+    product_id BIGINT NOT NULL,
+    warehouse_id UUID NOT NULL REFERENCES warehouses(id),
+    type VARCHAR(20) NOT NULL,
+    quantity NUMERIC(15, 3) NOT NULL, -- positiva entra, negativa sale
+    previous_balance NUMERIC(15, 3) NOT NULL,
+    new_balance NUMERIC(15, 3) NOT NULL,
+    reason VARCHAR(255),
+    reference_uuid UUID, -- documento de origen, p. ej. la venta
+    employee_id BIGINT REFERENCES employees(id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CHECK (previous_balance + quantity = new_balance)
+);
+CREATE INDEX idx_stock_movements_stock ON stock_movements(product_id, warehouse_id, id);
+CREATE INDEX idx_stock_movements_reference ON stock_movements(reference_uuid) WHERE reference_uuid IS NOT NULL;
@@ -0,0 +1,80 @@
+-- ==================================================================================
+-- TERENCIO ERP - CATALOG PRICES
+-- Tarifas de cada empresa y el precio de cada producto en ellas. El precio de
+-- venta sale de la tarifa del cliente, si no de la tarifa por defecto de la
+-- tienda (store_settings.default_tariff_id) y si no de la tarifa base de la
+-- empresa (is_default). Cada nodo mantiene los precios en memoria por empresa;
+-- cualquier cambio lo avisa con NOTIFY (payload: id de la empresa).
+-- ==================================================================================
+
+CREATE TABLE tariffs (
+    id BIGSERIAL PRIMARY KEY,
+    company_id UUID NOT NULL REFERENCES companies(id),
+    name VARCHAR(100) NOT NULL,
+    priority INTEGER NOT NULL DEFAULT 0,
+    price_type VARCHAR(20) NOT NULL DEFAULT 'RETAIL', -- RETAIL, WHOLESALE
+    is_default BOOLEAN NOT NULL DEFAULT FALSE,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX idx_tariffs_company ON tariffs(company_id);
+-- Una sola tarifa base activa por empresa
+CREATE UNIQUE INDEX idx_tariffs_company_default ON tariffs(company_id) WHERE is_default AND active;
+
+CREATE TABLE product_prices (
+    tariff_id BIGINT NOT NULL REFERENCES tariffs(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL, -- sin FK: el catálogo de productos aún no vive en esta base de datos
+    price BIGINT NOT NULL CHECK (price >= 0), -- céntimos
+    cost_price BIGINT, -- céntimos, solo referencia
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (tariff_id, product_id)
+);
+
+-- Tarifas: una notificación por fila (Postgres agrupa las repetidas en la transacción)
+CREATE OR REPLACE FUNCTION notify_tariff_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('catalog_prices_changed', COALESCE(NEW.company_id, OLD.company_id)::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tariffs_prices_notify
+    AFTER INSERT OR UPDATE OR DELETE ON tariffs
+    FOR EACH ROW EXECUTE FUNCTION notify_tariff_changed();
+
+-- Precios: por sentencia, para que una importación masiva no consulte la tarifa fila a fila
+CREATE OR REPLACE FUNCTION notify_product_prices_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('catalog_prices_changed', t.company_id::text)
+    FROM (SELECT DISTINCT tariff_id FROM changed_prices) c
+    JOIN tariffs t ON t.id = c.tariff_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_product_prices_insert_notify
+    AFTER INSERT ON product_prices REFERENCING NEW TABLE AS changed_prices
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_product_prices_changed();
+
+CREATE TRIGGER trg_product_prices_update_notify
+    AFTER UPDATE ON product_prices REFERENCING NEW TABLE AS changed_prices
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_product_prices_changed();
+
+CREATE TRIGGER trg_product_prices_delete_notify
+    AFTER DELETE ON product_prices REFERENCING OLD TABLE AS changed_prices
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_product_prices_changed();
+
+-- Tarifa por defecto de cada tienda
+CREATE OR REPLACE FUNCTION notify_store_default_tariff_changed() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('catalog_prices_changed', s.company_id::text)
+    FROM stores s
+    WHERE s.id = COALESCE(NEW.store_id, OLD.store_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_store_settings_prices_notify
+    AFTER INSERT OR DELETE OR UPDATE OF default_tariff_id ON store_settings
+    FOR EACH ROW EXECUTE FUNCTION notify_store_default_tariff_changed();
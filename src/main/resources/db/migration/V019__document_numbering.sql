@@ -0,0 +1,35 @@
+-- ==================================================================================
+-- TERENCIO ERP - DOCUMENT NUMBERING
+-- Numeración de documentos por serie (p. ej. "CAJA1-2024-0001"). El contador
+-- de cada serie solo se toca al reservar un bloque de números para un
+-- dispositivo; el dispositivo numera dentro de su bloque sin volver a
+-- consultarlo, también sin conexión. Cada bloque queda registrado con su
+-- dueño, y al cerrarlo se anota el último número usado: los siguientes no se
+-- emitieron nunca, así que todo hueco de la serie queda justificado.
+-- ==================================================================================
+
+CREATE TABLE document_series_counters (
+    company_id UUID NOT NULL REFERENCES companies(id),
+    series VARCHAR(30) NOT NULL,
+    next_number BIGINT NOT NULL, -- primer número aún no reservado
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (company_id, series),
+    CHECK (next_number >= 1)
+);
+
+CREATE TABLE document_number_blocks (
+    id BIGSERIAL PRIMARY KEY,
+    company_id UUID NOT NULL REFERENCES companies(id),
+    series VARCHAR(30) NOT NULL,
+    device_id UUID NOT NULL REFERENCES devices(id),
+    first_number BIGINT NOT NULL,
+    last_number BIGINT NOT NULL,
+    reserved_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    closed_at TIMESTAMPTZ,
+    last_used_number BIGINT, -- first_number - 1 si no se usó ninguno
+    UNIQUE (company_id, series, first_number),
+    CHECK (first_number >= 1 AND last_number >= first_number),
+    CHECK ((closed_at IS NULL) = (last_used_number IS NULL)),
+    CHECK (last_used_number IS NULL OR last_used_number BETWEEN first_number - 1 AND last_number)
+);
+CREATE INDEX idx_document_number_blocks_open ON document_number_blocks(device_id) WHERE closed_at IS NULL;
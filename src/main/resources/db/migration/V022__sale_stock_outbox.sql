@@ -0,0 +1,19 @@
+-- ==================================================================================
+-- TERENCIO ERP - SALE STOCK OUTBOX
+-- Ventas cuyo descuento de stock aún no consta en el libro de inventario. Se
+-- anotan en la misma transacción que la venta; tras el commit se aplican los
+-- movimientos y se borra la fila. Si falla, un job reintenta: calcula por
+-- venta y producto lo que falta comparando las líneas con los movimientos
+-- SALE que ya hacen referencia a la venta, así que nunca se descuenta dos
+-- veces. next_attempt_at actúa de lease entre nodos.
+-- ==================================================================================
+
+CREATE TABLE sale_stock_outbox (
+    sale_uuid UUID PRIMARY KEY REFERENCES sales(uuid) ON DELETE CASCADE,
+    warehouse_id UUID NOT NULL REFERENCES warehouses(id),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX idx_sale_stock_outbox_next_attempt ON sale_stock_outbox(next_attempt_at);
@@ -16,6 +16,9 @@ import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
@@ -38,6 +41,9 @@ public abstract class AbstractIntegrationTest {
         @Autowired
         protected org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
         static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
                         DockerImageName.parse("postgres:17-alpine"));
 
@@ -66,90 +72,97 @@ public abstract class AbstractIntegrationTest {
         @BeforeEach
         public void setupGlobalState() {
                 if (!globalDataInitialized) {
-                        // 1. Wipe EVERYTHING once at the very start of the test suite
-                        cleanEntireDatabase();
+                        // Committed on its own so that @Transactional test classes cannot roll it back
+                        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+                        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                        transaction.executeWithoutResult(status -> initializeGlobalData());
 
-                        // 2. Setup standard global data to be reused across all tests
-                        globalOrgId = UUID.randomUUID();
-                        jdbcClient.sql(
-                                        "INSERT INTO organizations (id, name, slug, subscription_plan) VALUES (:id, 'Global Test Org', 'global-test-org', 'STANDARD')")
-                                        .param("id", globalOrgId).update();
+                        globalDataInitialized = true;
+                        globalAdminHeaders = loginAndGetHeaders("admin", "admin123");
+                } else {
+                        // 3. For subsequent tests, ONLY wipe transactional data to prevent test
+                        // pollution
+                        cleanTransactionalTables();
+                }
+        }
 
-                        globalCompanyId = UUID.randomUUID();
-                        jdbcClient.sql(
-                                        "INSERT INTO companies (id, organization_id, name, slug, tax_id, currency_code, fiscal_regime, price_includes_tax, rounding_mode, is_active, created_at, updated_at, version) VALUES (:id, :orgId, 'Global Test Company', 'global-test-co', 'B11111111', 'EUR', 'COMMON', TRUE, 'LINE', TRUE, NOW(), NOW(), 1)")
-                                        .param("id", globalCompanyId).param("orgId", globalOrgId).update();
+        private void initializeGlobalData() {
+                // 1. Wipe EVERYTHING once at the very start of the test suite
+                cleanEntireDatabase();
 
-                        globalStoreId = UUID.randomUUID();
-                        jdbcClient.sql(
-                                        "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'GLOBAL-STORE', 'Global Test Store', 'global-test-store', 'Global Test Address', TRUE)")
-                                        .param("id", globalStoreId).param("companyId", globalCompanyId).update();
+                // 2. Setup standard global data to be reused across all tests
+                globalOrgId = UUID.randomUUID();
+                jdbcClient.sql(
+                                "INSERT INTO organizations (id, name, slug, subscription_plan) VALUES (:id, 'Global Test Org', 'global-test-org', 'STANDARD')")
+                                .param("id", globalOrgId).update();
 
-                        jdbcClient.sql(
-                                        "INSERT INTO store_settings (store_id, allow_negative_stock, print_ticket_automatically) VALUES (:storeId, FALSE, TRUE)")
-                                        .param("storeId", globalStoreId).update();
+                globalCompanyId = UUID.randomUUID();
+                jdbcClient.sql(
+                                "INSERT INTO companies (id, organization_id, name, slug, tax_id, currency_code, fiscal_regime, price_includes_tax, rounding_mode, is_active, created_at, updated_at, version) VALUES (:id, :orgId, 'Global Test Company', 'global-test-co', 'B11111111', 'EUR', 'COMMON', TRUE, 'LINE', TRUE, NOW(), NOW(), 1)")
+                                .param("id", globalCompanyId).param("orgId", globalOrgId).update();
 
-                        // Setup Roles & Permissions FIRST to avoid FK violations
-                        jdbcClient.sql(
-                                        "INSERT INTO roles (name, description) VALUES ('ADMIN', 'Administrator') ON CONFLICT DO NOTHING")
-                                        .update();
-                        jdbcClient.sql(
-                                        "INSERT INTO roles (name, description) VALUES ('MARKETING_MANAGER', 'Marketing Manager') ON CONFLICT DO NOTHING")
-                                        .update();
-
-                        String[] permissions = {
-                                        "customer:view", "customer:create", "customer:update", "customer:delete",
-                                        "marketing:campaign:view", "marketing:campaign:launch",
-                                        "marketing:campaign:create",
-                                        "marketing:email:preview", "marketing:template:view",
-                                        "marketing:template:create",
-                                        "marketing:template:edit", "marketing:template:delete",
-                                        "device:view", "device:manage",
-                                        "organization:company:view", "organization:company:create",
-                                        "organization:company:update",
-                                        "organization:company:delete",
-                                        "organization:store:view", "organization:store:create",
-                                        "organization:store:update",
-                                        "organization:store:delete",
-                                        "employee:view", "employee:create", "employee:update", "employee:delete"
-                        };
-
-                        for (String perm : permissions) {
-                                jdbcClient.sql(
-                                                "INSERT INTO permissions (code, name, description, module) VALUES (:code, :code, 'desc', 'SYSTEM') ON CONFLICT (code) DO NOTHING")
-                                                .param("code", perm).update();
-                                jdbcClient.sql(
-                                                "INSERT INTO role_permissions (role_name, permission_code) VALUES ('ADMIN', :code) ON CONFLICT DO NOTHING")
-                                                .param("code", perm).update();
-                                jdbcClient.sql(
-                                                "INSERT INTO role_permissions (role_name, permission_code) VALUES ('MARKETING_MANAGER', :code) ON CONFLICT DO NOTHING")
-                                                .param("code", perm).update();
-                        }
-
-                        // Create global admin
-                        String encodedPassword = passwordEncoder.encode("admin123");
-                        globalAdminId = jdbcClient.sql(
-                                        "INSERT INTO employees (username, full_name, pin_hash, password_hash, organization_id, is_active, created_at, updated_at) VALUES ('admin', 'Global Admin', 'pin123', :password, :orgId, TRUE, NOW(), NOW()) RETURNING id")
-                                        .param("password", encodedPassword).param("orgId", globalOrgId)
-                                        .query(Long.class).single();
+                globalStoreId = UUID.randomUUID();
+                jdbcClient.sql(
+                                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'GLOBAL-STORE', 'Global Test Store', 'global-test-store', 'Global Test Address', TRUE)")
+                                .param("id", globalStoreId).param("companyId", globalCompanyId).update();
 
+                jdbcClient.sql(
+                                "INSERT INTO store_settings (store_id, allow_negative_stock, print_ticket_automatically) VALUES (:storeId, FALSE, TRUE)")
+                                .param("storeId", globalStoreId).update();
+
+                // Setup Roles & Permissions FIRST to avoid FK violations
+                jdbcClient.sql(
+                                "INSERT INTO roles (name, description) VALUES ('ADMIN', 'Administrator') ON CONFLICT DO NOTHING")
+                                .update();
+                jdbcClient.sql(
+                                "INSERT INTO roles (name, description) VALUES ('MARKETING_MANAGER', 'Marketing Manager') ON CONFLICT DO NOTHING")
+                                .update();
+
+                String[] permissions = {
+                                "customer:view", "customer:create", "customer:update", "customer:delete",
+                                "marketing:campaign:view", "marketing:campaign:launch",
+                                "marketing:campaign:create",
+                                "marketing:email:preview", "marketing:template:view",
+                                "marketing:template:create",
+                                "marketing:template:edit", "marketing:template:delete",
+                                "device:view", "device:manage",
+                                "organization:company:view", "organization:company:create",
+                                "organization:company:update",
+                                "organization:company:delete",
+                                "organization:store:view", "organization:store:create",
+                                "organization:store:update",
+                                "organization:store:delete",
+                                "employee:view", "employee:create", "employee:update", "employee:delete"
+                };
+
+                for (String perm : permissions) {
                         jdbcClient.sql(
-                                        "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'COMPANY', :targetId, 'ADMIN', NOW())")
-                                        .param("employeeId", globalAdminId).param("targetId", globalCompanyId).update();
+                                        "INSERT INTO permissions (code, name, description, module) VALUES (:code, :code, 'desc', 'SYSTEM') ON CONFLICT (code) DO NOTHING")
+                                        .param("code", perm).update();
                         jdbcClient.sql(
-                                        "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'STORE', :targetId, 'ADMIN', NOW())")
-                                        .param("employeeId", globalAdminId).param("targetId", globalStoreId).update();
+                                        "INSERT INTO role_permissions (role_name, permission_code) VALUES ('ADMIN', :code) ON CONFLICT DO NOTHING")
+                                        .param("code", perm).update();
                         jdbcClient.sql(
-                                        "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'ORGANIZATION', :targetId, 'ADMIN', NOW())")
-                                        .param("employeeId", globalAdminId).param("targetId", globalOrgId).update();
-
-                        globalDataInitialized = true;
-                        globalAdminHeaders = loginAndGetHeaders("admin", "admin123");
-                } else {
-                        // 3. For subsequent tests, ONLY wipe transactional data to prevent test
-                        // pollution
-                        cleanTransactionalTables();
+                                        "INSERT INTO role_permissions (role_name, permission_code) VALUES ('MARKETING_MANAGER', :code) ON CONFLICT DO NOTHING")
+                                        .param("code", perm).update();
                 }
+
+                // Create global admin
+                String encodedPassword = passwordEncoder.encode("admin123");
+                globalAdminId = jdbcClient.sql(
+                                "INSERT INTO employees (username, full_name, pin_hash, password_hash, organization_id, is_active, created_at, updated_at) VALUES ('admin', 'Global Admin', 'pin123', :password, :orgId, TRUE, NOW(), NOW()) RETURNING id")
+                                .param("password", encodedPassword).param("orgId", globalOrgId)
+                                .query(Long.class).single();
+
+                jdbcClient.sql(
+                                "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'COMPANY', :targetId, 'ADMIN', NOW())")
+                                .param("employeeId", globalAdminId).param("targetId", globalCompanyId).update();
+                jdbcClient.sql(
+                                "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'STORE', :targetId, 'ADMIN', NOW())")
+                                .param("employeeId", globalAdminId).param("targetId", globalStoreId).update();
+                jdbcClient.sql(
+                                "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'ORGANIZATION', :targetId, 'ADMIN', NOW())")
+                                .param("employeeId", globalAdminId).param("targetId", globalOrgId).update();
         }
 
         private void cleanEntireDatabase() {
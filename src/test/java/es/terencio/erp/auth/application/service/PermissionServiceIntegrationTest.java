@@ -0,0 +1,84 @@
+package es.terencio.erp.auth.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.auth.domain.model.AccessScope;
+
+/**
+ * Not transactional: the invalidations are NOTIFYs delivered on commit.
+ */
+class PermissionServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long NOTIFICATION_TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    private Long employeeId;
+
+    @BeforeEach
+    void setUp() {
+        employeeId = jdbcClient.sql(
+                "INSERT INTO employees (username, full_name, pin_hash, password_hash, organization_id, is_active, created_at, updated_at) VALUES ('perm-cache', 'Permission Cache', 'pin', 'hash', :orgId, TRUE, NOW(), NOW()) RETURNING id")
+                .param("orgId", globalOrgId).query(Long.class).single();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.sql("DELETE FROM employee_access_grants WHERE employee_id = :id").param("id", employeeId).update();
+        jdbcClient.sql("DELETE FROM employees WHERE id = :id").param("id", employeeId).update();
+    }
+
+    @Test
+    void testHasPermission_WhenGrantIsAddedAndRemoved_ShouldFollowTheNotifications() {
+        assertThat(canViewCustomers()).isFalse();
+
+        jdbcClient.sql(
+                "INSERT INTO employee_access_grants (employee_id, scope, target_id, role, created_at) VALUES (:employeeId, 'COMPANY', :companyId, 'ADMIN', NOW())")
+                .param("employeeId", employeeId).param("companyId", globalCompanyId).update();
+        assertThat(eventually(this::canViewCustomers)).isTrue();
+
+        jdbcClient.sql("DELETE FROM employee_access_grants WHERE employee_id = :id").param("id", employeeId).update();
+        assertThat(eventually(() -> !canViewCustomers())).isTrue();
+    }
+
+    @Test
+    void testGeneration_WhenRolePermissionsChange_ShouldInvalidateEverything() {
+        long before = permissionService.generation();
+
+        // Statement-level trigger: fires even though nothing is inserted
+        jdbcClient.sql(
+                "INSERT INTO role_permissions (role_name, permission_code) VALUES ('ADMIN', 'customer:view') ON CONFLICT DO NOTHING")
+                .update();
+
+        assertThat(eventually(() -> permissionService.generation() > before)).isTrue();
+    }
+
+    private boolean canViewCustomers() {
+        return permissionService.hasPermission(employeeId, "customer:view", globalCompanyId, AccessScope.COMPANY);
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,97 @@
+package es.terencio.erp.auth.infrastructure.config.security.aop;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import es.terencio.erp.auth.domain.model.AccessScope;
+import es.terencio.erp.auth.domain.model.Permission;
+
+class TargetIdExtractorsTest {
+
+    private static final UUID COMPANY_ID = UUID.randomUUID();
+
+    private final TargetIdExtractors extractors = new TargetIdExtractors();
+
+    @Test
+    void testExtract_WhenTargetIsANamedArgument_ShouldReadUuidAndString() throws Throwable {
+        extractors.postProcessBeforeInitialization(new SecuredController(), "securedController");
+
+        assertThat(extractor("byUuid").extract(new Object[] { "ignored", COMPANY_ID })).isEqualTo(COMPANY_ID);
+        assertThat(extractor("byString").extract(new Object[] { COMPANY_ID.toString() })).isEqualTo(COMPANY_ID);
+        assertThat(extractor("byString").extract(new Object[] { null })).isNull();
+    }
+
+    @Test
+    void testExtract_WhenTargetIsOnTheRequestBody_ShouldUseItsAccessor() throws Throwable {
+        extractors.postProcessBeforeInitialization(new SecuredController(), "securedController");
+
+        assertThat(extractor("byRecord").extract(new Object[] { new RecordBody(COMPANY_ID, "name") }))
+                .isEqualTo(COMPANY_ID);
+        assertThat(extractor("byGetter").extract(new Object[] { new BeanBody(COMPANY_ID) })).isEqualTo(COMPANY_ID);
+        assertThat(extractor("byRecord").extract(new Object[] { null })).isNull();
+    }
+
+    @Test
+    void testPostProcess_WhenTargetCannotBeResolved_ShouldFailTheBean() {
+        assertThatThrownBy(() -> extractors.postProcessBeforeInitialization(new MisconfiguredController(),
+                "misconfiguredController"))
+                .isInstanceOf(BeanInitializationException.class)
+                .hasMessageContaining("misconfiguredController");
+    }
+
+    private TargetIdExtractor extractor(String methodName) {
+        for (Method method : SecuredController.class.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                return extractors.forMethod(method, "companyId");
+            }
+        }
+        throw new IllegalArgumentException(methodName);
+    }
+
+    record RecordBody(UUID companyId, String name) {
+    }
+
+    static class BeanBody {
+        private final UUID companyId;
+
+        BeanBody(UUID companyId) {
+            this.companyId = companyId;
+        }
+
+        public UUID getCompanyId() {
+            return companyId;
+        }
+    }
+
+    static class SecuredController {
+
+        @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
+        public void byUuid(String other, UUID companyId) {
+        }
+
+        @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
+        public void byString(String companyId) {
+        }
+
+        @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
+        public void byRecord(RecordBody body) {
+        }
+
+        @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
+        public void byGetter(BeanBody body) {
+        }
+    }
+
+    static class MisconfiguredController {
+
+        @RequiresPermission(permission = Permission.CUSTOMER_VIEW, scope = AccessScope.COMPANY, targetIdParam = "companyId")
+        public void byNothing(UUID storeId) {
+        }
+    }
+}
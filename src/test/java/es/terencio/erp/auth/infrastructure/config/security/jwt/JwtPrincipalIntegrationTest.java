@@ -0,0 +1,76 @@
+package es.terencio.erp.auth.infrastructure.config.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.auth.infrastructure.config.security.CustomUserDetails;
+
+@Transactional
+class JwtPrincipalIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    private Long employeeId;
+
+    @BeforeEach
+    void setUp() {
+        employeeId = jdbcClient.sql(
+                "INSERT INTO employees (username, full_name, pin_hash, password_hash, organization_id, is_active, created_at, updated_at) VALUES ('cashier-jwt', 'Cashier Jwt', 'pin', 'hash', :orgId, TRUE, NOW(), NOW()) RETURNING id")
+                .param("orgId", globalOrgId).query(Long.class).single();
+    }
+
+    @Test
+    void testAccessToken_WhenParsed_ShouldRebuildThePrincipalFromClaims() {
+        UUID uuid = UUID.randomUUID();
+        String token = tokenProvider.generateAccessToken(authentication(
+                new CustomUserDetails(employeeId, uuid, "cashier-jwt", "Cashier Jwt", "secret", 3)));
+
+        CustomUserDetails principal = tokenProvider.getPrincipalFromAccessToken(token).orElseThrow();
+
+        assertThat(principal.getId()).isEqualTo(employeeId);
+        assertThat(principal.getUuid()).isEqualTo(uuid);
+        assertThat(principal.getUsername()).isEqualTo("cashier-jwt");
+        assertThat(principal.getFullName()).isEqualTo("Cashier Jwt");
+        assertThat(principal.getTokenVersion()).isEqualTo(3);
+        assertThat(principal.getPassword()).isNull();
+    }
+
+    @Test
+    void testRevocation_WhenTokenVersionIsBumped_ShouldRejectOlderTokensOnly() {
+        assertThat(revocationRegistry.accepts(employeeId, 0)).isTrue();
+
+        jdbcClient.sql("UPDATE employees SET token_version = 1, updated_at = NOW() WHERE id = :id")
+                .param("id", employeeId).update();
+        revocationRegistry.refresh();
+
+        assertThat(revocationRegistry.accepts(employeeId, 0)).isFalse();
+        assertThat(revocationRegistry.accepts(employeeId, 1)).isTrue();
+    }
+
+    @Test
+    void testRevocation_WhenEmployeeIsDeactivated_ShouldRejectEveryToken() {
+        jdbcClient.sql("UPDATE employees SET is_active = FALSE, updated_at = NOW() WHERE id = :id")
+                .param("id", employeeId).update();
+        revocationRegistry.refresh();
+
+        assertThat(revocationRegistry.accepts(employeeId, 0)).isFalse();
+        assertThat(revocationRegistry.accepts(employeeId, 5)).isFalse();
+        assertThat(revocationRegistry.accepts(globalAdminId, 0)).isTrue();
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(CustomUserDetails principal) {
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of());
+    }
+}
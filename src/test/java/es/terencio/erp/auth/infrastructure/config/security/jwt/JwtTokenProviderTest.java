@@ -0,0 +1,85 @@
+package es.terencio.erp.auth.infrastructure.config.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import es.terencio.erp.auth.infrastructure.config.security.CustomUserDetails;
+
+class JwtTokenProviderTest {
+
+    private static final String ACCESS_SECRET = secret("access-secret-for-the-unit-tests!");
+    private static final String REFRESH_SECRET = secret("refresh-secret-for-the-unit-tests");
+
+    private final UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            new CustomUserDetails(7L, UUID.randomUUID(), "cashier", "Cashier", null, 1), null, List.of());
+
+    @Test
+    void testAccessToken_WhenVerifiedTwice_ShouldServeTheSecondFromCache() {
+        JwtTokenProvider provider = provider(60_000);
+        String token = provider.generateAccessToken(authentication);
+
+        CustomUserDetails first = provider.getPrincipalFromAccessToken(token).orElseThrow();
+        CustomUserDetails second = provider.getPrincipalFromAccessToken(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getUsername()).isEqualTo("cashier");
+    }
+
+    @Test
+    void testTokens_WhenUsedWithTheOtherKey_ShouldBeRejected() {
+        JwtTokenProvider provider = provider(60_000);
+
+        String access = provider.generateAccessToken(authentication);
+        String refresh = provider.generateRefreshToken(authentication);
+
+        assertThat(provider.getPrincipalFromAccessToken(refresh)).isEmpty();
+        assertThat(provider.getPrincipalFromRefreshToken(access)).isEmpty();
+        assertThat(provider.getPrincipalFromRefreshToken(refresh)).isPresent();
+    }
+
+    @Test
+    void testAccessToken_WhenSignatureIsTampered_ShouldBeRejected() {
+        JwtTokenProvider provider = provider(60_000);
+        String token = provider.generateAccessToken(authentication);
+        int signature = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signature);
+        String tampered = token.substring(0, signature) + (first == 'A' ? 'B' : 'A') + token.substring(signature + 1);
+
+        assertThat(provider.getPrincipalFromAccessToken(tampered)).isEmpty();
+        assertThat(provider.getPrincipalFromAccessToken("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void testAccessToken_WhenCachedTokenExpires_ShouldBeRejected() throws InterruptedException {
+        JwtTokenProvider provider = provider(1_000);
+        String token = provider.generateAccessToken(authentication);
+        assertThat(provider.getPrincipalFromAccessToken(token)).isPresent();
+
+        Thread.sleep(1_100);
+
+        assertThat(provider.getPrincipalFromAccessToken(token)).isEmpty();
+    }
+
+    private static JwtTokenProvider provider(long accessExpirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret", ACCESS_SECRET);
+        ReflectionTestUtils.setField(provider, "accessExpirationMs", accessExpirationMs);
+        ReflectionTestUtils.setField(provider, "refreshSecret", REFRESH_SECRET);
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", 600_000L);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", 100L);
+        provider.init();
+        return provider;
+    }
+
+    private static String secret(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,113 @@
+package es.terencio.erp.auth.infrastructure.config.security.password;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import es.terencio.erp.shared.exception.CapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testEncode_WhenPasswordIsHashed_ShouldMatchItOnly() {
+        encoder = new BoundedPasswordEncoder(4, 2, 10, Duration.ofSeconds(1), meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hashing.duration").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testUpgradeEncoding_WhenHashIsBelowTheConfiguredCost_ShouldAskForARehash() {
+        BoundedPasswordEncoder cheap = new BoundedPasswordEncoder(4, 1, 10, Duration.ofSeconds(1), meterRegistry);
+        String cheapHash = cheap.encode("secret");
+        cheap.shutdown();
+
+        encoder = new BoundedPasswordEncoder(5, 1, 10, Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+        assertThat(encoder.upgradeEncoding(cheapHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void testEncode_WhenPoolAndQueueAreFull_ShouldShedWithRetryAfter() throws Exception {
+        encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofSeconds(7), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(
+                () -> encoder.encode(new BlockingPassword(started, release)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        waitForQueuedHashes(1);
+
+        assertThatThrownBy(() -> encoder.encode("shed"))
+                .isInstanceOf(CapacityExceededException.class)
+                .satisfies(e -> assertThat(((CapacityExceededException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(7)));
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isNotBlank();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotBlank();
+    }
+
+    private void waitForQueuedHashes(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("auth.password.hashing.queued").gauge().value() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /** Holds the hashing thread until released; BCrypt reads the password through toString(). */
+    private record BlockingPassword(CountDownLatch started, CountDownLatch release) implements CharSequence {
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocking";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
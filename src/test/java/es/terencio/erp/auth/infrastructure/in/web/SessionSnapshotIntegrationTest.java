@@ -0,0 +1,130 @@
+package es.terencio.erp.auth.infrastructure.in.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.auth.application.dto.AuthDtos.EmployeeInfoDto;
+import es.terencio.erp.auth.application.dto.AuthDtos.SessionDeltaDto;
+import es.terencio.erp.shared.presentation.ApiResponse;
+
+/**
+ * Not transactional: requests run on the server's threads and profile
+ * changes reach the snapshot cache as NOTIFYs delivered on commit.
+ */
+class SessionSnapshotIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long NOTIFICATION_TIMEOUT_MS = 10_000;
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.sql("UPDATE employees SET full_name = 'Global Admin' WHERE id = :id")
+                .param("id", globalAdminId).update();
+        // Let the restore reach the cache so the next test starts from a settled snapshot
+        eventually(() -> "Global Admin".equals(me(null).getBody().getData().fullName()));
+    }
+
+    @Test
+    void testMe_WhenETagIsCurrent_ShouldReturnNotModified() {
+        ResponseEntity<ApiResponse<EmployeeInfoDto>> first = me(null);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getData().username()).isEqualTo("admin");
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotBlank();
+
+        ResponseEntity<ApiResponse<EmployeeInfoDto>> second = me(etag);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+
+        // Weak validators and lists are accepted as well
+        assertThat(me("\"stale\", W/" + etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void testMe_WhenProfileChanges_ShouldServeANewETag() {
+        String etag = me(null).getHeaders().getETag();
+
+        jdbcClient.sql("UPDATE employees SET full_name = 'Renamed Admin' WHERE id = :id")
+                .param("id", globalAdminId).update();
+
+        assertThat(eventually(() -> me(etag).getStatusCode() == HttpStatus.OK)).isTrue();
+        ResponseEntity<ApiResponse<EmployeeInfoDto>> changed = me(etag);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(changed.getBody().getData().fullName()).isEqualTo("Renamed Admin");
+    }
+
+    @Test
+    void testMeDelta_WhenOnlyProfileChanges_ShouldReturnOnlyTheProfile() {
+        String etag = me(null).getHeaders().getETag();
+
+        jdbcClient.sql("UPDATE employees SET full_name = 'Renamed Admin' WHERE id = :id")
+                .param("id", globalAdminId).update();
+        assertThat(eventually(() -> me(etag).getStatusCode() == HttpStatus.OK)).isTrue();
+
+        ResponseEntity<ApiResponse<SessionDeltaDto>> delta = delta(etag);
+        assertThat(delta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        SessionDeltaDto body = delta.getBody().getData();
+        assertThat(body.etag()).isEqualTo(delta.getHeaders().getETag());
+        assertThat(body.profile().fullName()).isEqualTo("Renamed Admin");
+        assertThat(body.companies()).isNull();
+        assertThat(body.permissions()).isNull();
+
+        assertThat(delta(body.etag()).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void testMeDelta_WhenETagIsUnknown_ShouldReturnEveryPart() {
+        SessionDeltaDto body = delta("\"unknown\"").getBody().getData();
+
+        assertThat(body.profile()).isNotNull();
+        assertThat(body.companies()).isNotNull();
+        assertThat(body.permissions()).isNotNull();
+    }
+
+    private ResponseEntity<ApiResponse<EmployeeInfoDto>> me(String ifNoneMatch) {
+        return restTemplate.exchange("/api/v1/auth/me", HttpMethod.GET, new HttpEntity<>(headers(ifNoneMatch)),
+                new ParameterizedTypeReference<>() {
+                });
+    }
+
+    private ResponseEntity<ApiResponse<SessionDeltaDto>> delta(String ifNoneMatch) {
+        return restTemplate.exchange("/api/v1/auth/me/delta", HttpMethod.GET,
+                new HttpEntity<>(headers(ifNoneMatch)), new ParameterizedTypeReference<>() {
+                });
+    }
+
+    private HttpHeaders headers(String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(globalAdminHeaders);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return headers;
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
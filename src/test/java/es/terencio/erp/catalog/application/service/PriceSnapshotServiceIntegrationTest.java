@@ -0,0 +1,161 @@
+package es.terencio.erp.catalog.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.catalog.application.port.in.ResolveEffectivePriceUseCase;
+import es.terencio.erp.catalog.domain.model.PricingContext;
+import es.terencio.erp.catalog.domain.model.PricingResult;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+
+/**
+ * Not transactional: the snapshot is shared by every caller and is rebuilt
+ * from NOTIFYs delivered on commit, so rolled-back prices must never reach it.
+ */
+class PriceSnapshotServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long NOTIFICATION_TIMEOUT_MS = 10_000;
+
+    private static final ProductId COFFEE = new ProductId(1L);
+    private static final ProductId TEA = new ProductId(2L);
+    private static final ProductId WATER = new ProductId(3L);
+    private static final ProductId UNPRICED = new ProductId(4L);
+
+    @Autowired
+    private ResolveEffectivePriceUseCase resolveEffectivePrice;
+
+    private Long baseTariffId;
+    private Long storeTariffId;
+    private Long customerTariffId;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        baseTariffId = tariff("Base", true);
+        storeTariffId = tariff("Store", false);
+        customerTariffId = tariff("Customer", false);
+        price(baseTariffId, COFFEE, 1000);
+        price(baseTariffId, TEA, 2000);
+        price(baseTariffId, WATER, 3000);
+        price(storeTariffId, COFFEE, 900);
+        price(storeTariffId, TEA, 1900);
+        price(customerTariffId, COFFEE, 800);
+        jdbcClient.sql("UPDATE store_settings SET default_tariff_id = :tariffId WHERE store_id = :storeId")
+                .param("tariffId", storeTariffId).param("storeId", globalStoreId).update();
+
+        customerId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO customers (uuid, company_id, tax_id, legal_name, commercial_name, country, allow_credit, credit_limit, surcharge_apply, active, tariff_id, created_at, updated_at) VALUES (:uuid, :companyId, 'B00000049', 'Tariff Customer SL', 'Tariff Customer', 'ES', FALSE, 0, FALSE, TRUE, :tariffId, NOW(), NOW())")
+                .param("uuid", customerId).param("companyId", globalCompanyId).param("tariffId", customerTariffId)
+                .update();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.sql("UPDATE store_settings SET default_tariff_id = NULL WHERE store_id = :storeId")
+                .param("storeId", globalStoreId).update();
+        jdbcClient.sql("DELETE FROM customers WHERE uuid = :uuid").param("uuid", customerId).update();
+        jdbcClient.sql("DELETE FROM tariffs WHERE company_id = :companyId").param("companyId", globalCompanyId)
+                .update();
+    }
+
+    @Test
+    void testResolveAll_WhenCustomerHasATariff_ShouldFallBackFromCustomerToStoreToBase() {
+        // A snapshot cached by an earlier test is rebuilt from the fixture's NOTIFYs
+        assertThat(eventually(() -> cents(resolve(customerId, COFFEE)) == 800)).isTrue();
+
+        Map<ProductId, PricingResult> prices = resolveEffectivePrice.resolveAll(new StoreId(globalStoreId),
+                customerId, List.of(COFFEE, TEA, WATER, UNPRICED));
+
+        assertThat(prices).hasSize(3);
+        assertPrice(prices.get(COFFEE), 800, customerTariffId, PricingContext.CUSTOMER_TARIFF);
+        assertPrice(prices.get(TEA), 1900, storeTariffId, PricingContext.STORE_TARIFF);
+        assertPrice(prices.get(WATER), 3000, baseTariffId, PricingContext.BASE_TARIFF);
+        assertThat(prices.get(UNPRICED)).isNull();
+    }
+
+    @Test
+    void testResolve_WhenNoCustomerIsGiven_ShouldUseTheStoreTariff() {
+        assertThat(eventually(() -> cents(resolve(null, COFFEE)) == 900)).isTrue();
+
+        assertPrice(resolve(null, COFFEE).orElseThrow(), 900, storeTariffId, PricingContext.STORE_TARIFF);
+        assertPrice(resolve(null, WATER).orElseThrow(), 3000, baseTariffId, PricingContext.BASE_TARIFF);
+    }
+
+    @Test
+    void testResolve_WhenAPriceIsUpdated_ShouldServeTheNewPrice() {
+        assertThat(eventually(() -> cents(resolve(null, COFFEE)) == 900)).isTrue();
+
+        jdbcClient.sql("UPDATE product_prices SET price = 950 WHERE tariff_id = :tariffId AND product_id = :productId")
+                .param("tariffId", storeTariffId).param("productId", COFFEE.value()).update();
+
+        assertThat(eventually(() -> cents(resolve(null, COFFEE)) == 950)).isTrue();
+        // The customer's own price is untouched
+        assertThat(cents(resolve(customerId, COFFEE))).isEqualTo(800);
+    }
+
+    @Test
+    void testResolve_WhenStoreLosesItsDefaultTariff_ShouldFallBackToTheBaseTariff() {
+        assertThat(eventually(() -> cents(resolve(null, COFFEE)) == 900)).isTrue();
+
+        jdbcClient.sql("UPDATE store_settings SET default_tariff_id = NULL WHERE store_id = :storeId")
+                .param("storeId", globalStoreId).update();
+
+        assertThat(eventually(() -> cents(resolve(null, COFFEE)) == 1000)).isTrue();
+        assertPrice(resolve(null, COFFEE).orElseThrow(), 1000, baseTariffId, PricingContext.BASE_TARIFF);
+    }
+
+    private Long tariff(String name, boolean base) {
+        return jdbcClient.sql(
+                "INSERT INTO tariffs (company_id, name, is_default) VALUES (:companyId, :name, :base) RETURNING id")
+                .param("companyId", globalCompanyId).param("name", name).param("base", base)
+                .query(Long.class).single();
+    }
+
+    private void price(Long tariffId, ProductId productId, long cents) {
+        jdbcClient.sql("INSERT INTO product_prices (tariff_id, product_id, price) VALUES (:tariffId, :productId, :price)")
+                .param("tariffId", tariffId).param("productId", productId.value()).param("price", cents).update();
+    }
+
+    private Optional<PricingResult> resolve(UUID customer, ProductId productId) {
+        return resolveEffectivePrice.resolve(new StoreId(globalStoreId), customer, productId);
+    }
+
+    private static long cents(Optional<PricingResult> result) {
+        return result.map(price -> price.unitPrice().cents()).orElse(-1L);
+    }
+
+    private static void assertPrice(PricingResult result, long cents, Long tariffId, PricingContext context) {
+        assertThat(result.unitPrice().cents()).isEqualTo(cents);
+        assertThat(result.tariffId()).isEqualTo(tariffId);
+        assertThat(result.context()).isEqualTo(context);
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,80 @@
+package es.terencio.erp.catalog.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import es.terencio.erp.shared.domain.identifier.ProductId;
+
+class PriceSnapshotTest {
+
+    private static final long BASE = 1;
+    private static final long STORE = 2;
+    private static final long CUSTOMER = 3;
+
+    private final UUID storeId = UUID.randomUUID();
+    private final PriceSnapshot snapshot = PriceSnapshot.builder(UUID.randomUUID(), Currency.getInstance("EUR"))
+            .tariff(BASE, true)
+            .tariff(STORE, false)
+            .tariff(CUSTOMER, false)
+            .price(BASE, 10, 1000).price(BASE, 20, 2000).price(BASE, 30, 3000)
+            .price(STORE, 10, 900).price(STORE, 20, 1900)
+            .price(CUSTOMER, 10, 800)
+            // Not registered as active: ignored
+            .price(99, 40, 4000)
+            .storeDefaultTariff(storeId, STORE)
+            .build();
+
+    @Test
+    void testResolveAll_WhenTariffsOverlap_ShouldTakeCustomerThenStoreThenBase() {
+        Map<ProductId, PricingResult> prices = snapshot.resolveAll(
+                List.of(new ProductId(10L), new ProductId(20L), new ProductId(30L), new ProductId(40L)), storeId,
+                CUSTOMER);
+
+        assertThat(prices).hasSize(3);
+        assertResolved(prices.get(new ProductId(10L)), 800, CUSTOMER, PricingContext.CUSTOMER_TARIFF);
+        assertResolved(prices.get(new ProductId(20L)), 1900, STORE, PricingContext.STORE_TARIFF);
+        assertResolved(prices.get(new ProductId(30L)), 3000, BASE, PricingContext.BASE_TARIFF);
+        assertThat(prices.get(new ProductId(10L)).unitPrice().currencyCode()).isEqualTo("EUR");
+    }
+
+    @Test
+    void testResolve_WhenStoreHasNoDefaultTariffOrCustomerTariffIsUnknown_ShouldFallBack() {
+        assertResolved(snapshot.resolve(new ProductId(10L), UUID.randomUUID(), null).orElseThrow(), 1000, BASE,
+                PricingContext.BASE_TARIFF);
+        assertResolved(snapshot.resolve(new ProductId(10L), storeId, 12345L).orElseThrow(), 900, STORE,
+                PricingContext.STORE_TARIFF);
+        assertThat(snapshot.resolve(new ProductId(40L), storeId, null)).isEmpty();
+    }
+
+    @Test
+    void testBuild_WhenTariffHasManyPrices_ShouldFindEveryOne() {
+        PriceSnapshot.Builder builder = PriceSnapshot.builder(UUID.randomUUID(), Currency.getInstance("EUR"))
+                .tariff(BASE, true);
+        List<ProductId> products = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            builder.price(BASE, id * 7, id);
+            products.add(new ProductId(id * 7));
+        }
+        PriceSnapshot large = builder.build();
+
+        Map<ProductId, PricingResult> prices = large.resolveAll(products, null, null);
+
+        assertThat(large.priceCount()).isEqualTo(5_000);
+        assertThat(prices).hasSize(5_000);
+        assertThat(prices.get(new ProductId(7L * 4_321)).unitPrice().cents()).isEqualTo(4_321);
+        assertThat(large.resolve(new ProductId(8L), null, null)).isEmpty();
+    }
+
+    private static void assertResolved(PricingResult result, long cents, long tariffId, PricingContext context) {
+        assertThat(result.unitPrice().cents()).isEqualTo(cents);
+        assertThat(result.tariffId()).isEqualTo(tariffId);
+        assertThat(result.context()).isEqualTo(context);
+    }
+}
@@ -0,0 +1,110 @@
+package es.terencio.erp.crm.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.crm.application.port.in.CustomerFacetsUseCase;
+import es.terencio.erp.crm.application.port.in.IngestLeadUseCase;
+import es.terencio.erp.crm.application.port.in.ManageCustomerUseCase;
+import es.terencio.erp.crm.application.port.in.command.ContactInfoCommand;
+import es.terencio.erp.crm.application.port.in.command.CreateCustomerCommand;
+import es.terencio.erp.crm.application.port.in.command.IngestLeadCommand;
+import es.terencio.erp.crm.application.port.in.command.UpdateCustomerCommand;
+import es.terencio.erp.crm.application.port.out.CustomerFacetCounterPort;
+import es.terencio.erp.crm.domain.model.Customer;
+import es.terencio.erp.crm.domain.model.CustomerFacetCounts;
+import es.terencio.erp.crm.domain.model.CustomerType;
+import es.terencio.erp.shared.domain.identifier.CompanyId;
+
+@Transactional
+class CustomerFacetsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ManageCustomerUseCase manageCustomerUseCase;
+    @Autowired
+    private IngestLeadUseCase ingestLeadUseCase;
+    @Autowired
+    private CustomerFacetsUseCase customerFacetsUseCase;
+    @Autowired
+    private CustomerFacetCounterPort facetCounter;
+
+    private UUID companyId;
+
+    @BeforeEach
+    void setUp() {
+        // A company of its own, so counters start at zero
+        companyId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO companies (id, organization_id, name, slug, tax_id, currency_code, fiscal_regime, price_includes_tax, rounding_mode, is_active, created_at, updated_at, version) VALUES (:id, :orgId, 'Facets Company', 'facets-co', 'B22222222', 'EUR', 'COMMON', TRUE, 'LINE', TRUE, NOW(), NOW(), 1)")
+                .param("id", companyId).param("orgId", globalOrgId).update();
+    }
+
+    @Test
+    void testFacets_WhenCustomersAreCreatedUpdatedAndDeleted_ShouldFollowEachChange() {
+        Customer alpha = manageCustomerUseCase.create(companyId,
+                new CreateCustomerCommand("Alpha SL", null, CustomerType.CLIENT_RETAIL, null, null));
+        Customer beta = manageCustomerUseCase.create(companyId,
+                new CreateCustomerCommand("Beta SL", null, CustomerType.PARTNER_PRO, null, null));
+
+        CustomerFacetCounts counts = customerFacetsUseCase.getFacets(companyId);
+        assertThat(counts.total()).isEqualTo(2);
+        assertThat(counts.byType()).containsEntry("CLIENT_RETAIL", 1L).containsEntry("PARTNER_PRO", 1L);
+
+        manageCustomerUseCase.update(companyId, alpha.getUuid(), moveTo("Madrid"));
+        assertThat(customerFacetsUseCase.getFacets(companyId).byCity()).containsEntry("Madrid", 1L);
+
+        manageCustomerUseCase.update(companyId, alpha.getUuid(), moveTo("Sevilla"));
+        counts = customerFacetsUseCase.getFacets(companyId);
+        assertThat(counts.byCity()).containsEntry("Sevilla", 1L).doesNotContainKey("Madrid");
+
+        manageCustomerUseCase.delete(companyId, beta.getUuid());
+        counts = customerFacetsUseCase.getFacets(companyId);
+        assertThat(counts.total()).isEqualTo(1);
+        assertThat(counts.byType()).containsEntry("CLIENT_RETAIL", 1L).doesNotContainKey("PARTNER_PRO");
+    }
+
+    @Test
+    void testFacets_WhenLeadIsIngested_ShouldCountOriginTagsAndStatus() {
+        ingestLeadUseCase.ingest(companyId, new IngestLeadCommand("lead@facets.test", "Lead", null, "WEB",
+                List.of("vip", "newsletter"), null, true));
+
+        CustomerFacetCounts counts = customerFacetsUseCase.getFacets(companyId);
+        assertThat(counts.total()).isEqualTo(1);
+        assertThat(counts.byType()).containsEntry("LEAD", 1L);
+        assertThat(counts.byOrigin()).containsEntry("WEB", 1L);
+        assertThat(counts.byTag()).containsEntry("vip", 1L).containsEntry("newsletter", 1L);
+        assertThat(counts.byMarketingStatus()).containsEntry("SUBSCRIBED", 1L);
+    }
+
+    @Test
+    void testReconcile_WhenCustomerWrittenBehindTheService_ShouldCorrectDrift() {
+        manageCustomerUseCase.create(companyId,
+                new CreateCustomerCommand("Alpha SL", null, CustomerType.CLIENT_RETAIL, null, null));
+        jdbcClient.sql(
+                "INSERT INTO customers (uuid, company_id, legal_name, commercial_name, type, city, country, allow_credit, credit_limit, surcharge_apply, active, created_at, updated_at) VALUES (:uuid, :companyId, 'Direct SL', 'Direct SL', 'CLIENT_RETAIL', 'Bilbao', 'ES', FALSE, 0, FALSE, TRUE, NOW(), NOW())")
+                .param("uuid", UUID.randomUUID()).param("companyId", companyId).update();
+        assertThat(customerFacetsUseCase.getFacets(companyId).total()).isEqualTo(1);
+
+        int fixed = facetCounter.reconcile(new CompanyId(companyId));
+
+        assertThat(fixed).isGreaterThan(0);
+        CustomerFacetCounts counts = customerFacetsUseCase.getFacets(companyId);
+        assertThat(counts.total()).isEqualTo(2);
+        assertThat(counts.byType()).containsEntry("CLIENT_RETAIL", 2L);
+        assertThat(counts.byCity()).containsEntry("Bilbao", 1L);
+        assertThat(facetCounter.reconcile(new CompanyId(companyId))).isZero();
+    }
+
+    private static UpdateCustomerCommand moveTo(String city) {
+        return new UpdateCustomerCommand(null, null, null,
+                new ContactInfoCommand(null, null, "Main Street 1", "28001", city, "ES"), null, null);
+    }
+}
@@ -0,0 +1,116 @@
+package es.terencio.erp.devices.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.devices.application.dto.DeviceAuthResult;
+import es.terencio.erp.devices.application.dto.DeviceAuthResult.Outcome;
+import es.terencio.erp.devices.infrastructure.security.DeviceApiKeyGenerator;
+
+/**
+ * Not transactional: credential changes reach the cache as NOTIFYs delivered
+ * on commit.
+ */
+class DeviceAuthenticationServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long NOTIFICATION_TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private DeviceAuthenticationService authenticationService;
+    @Autowired
+    private DeviceActivityTracker activityTracker;
+    @Autowired
+    private DeviceApiKeyGenerator apiKeyGenerator;
+
+    private UUID deviceId;
+    private String deviceSecret;
+
+    @BeforeEach
+    void setUp() {
+        deviceId = UUID.randomUUID();
+        deviceSecret = apiKeyGenerator.generateDeviceSecret();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status, device_secret, api_key_version) VALUES (:id, :storeId, 'POS Auth', 'AUTH-POS-1', 'hw-auth-1', 'ACTIVE', :secret, 1)")
+                .param("id", deviceId).param("storeId", globalStoreId).param("secret", deviceSecret).update();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.sql("DELETE FROM devices WHERE id = :id").param("id", deviceId).update();
+    }
+
+    @Test
+    void testAuthenticate_WhenKeyIsValid_ShouldAuthenticateAndRecordActivity() {
+        DeviceAuthResult result = authenticationService.authenticate(apiKey(1));
+
+        assertThat(result.outcome()).isEqualTo(Outcome.AUTHENTICATED);
+        assertThat(result.storeId()).isEqualTo(globalStoreId);
+        // Served from the cached digest the second time
+        assertThat(authenticationService.authenticate(apiKey(1)).outcome()).isEqualTo(Outcome.AUTHENTICATED);
+
+        activityTracker.flush();
+        Boolean recorded = jdbcClient.sql("SELECT last_authenticated_at IS NOT NULL FROM devices WHERE id = :id")
+                .param("id", deviceId).query(Boolean.class).single();
+        assertThat(recorded).isTrue();
+    }
+
+    @Test
+    void testAuthenticate_WhenKeyIsForgedOrUnknown_ShouldReject() {
+        assertThat(authenticationService.authenticate(apiKey(1)).outcome()).isEqualTo(Outcome.AUTHENTICATED);
+
+        String forged = apiKeyGenerator.generateApiKey(deviceId, apiKeyGenerator.generateDeviceSecret(), 1);
+        assertThat(authenticationService.authenticate(forged).outcome()).isEqualTo(Outcome.REJECTED);
+        String unknown = apiKeyGenerator.generateApiKey(UUID.randomUUID(), deviceSecret, 1);
+        assertThat(authenticationService.authenticate(unknown).outcome()).isEqualTo(Outcome.REJECTED);
+        assertThat(authenticationService.authenticate("not-a-key").outcome()).isEqualTo(Outcome.REJECTED);
+    }
+
+    @Test
+    void testAuthenticate_WhenDeviceIsBlocked_ShouldSeeItAfterTheNotification() {
+        assertThat(authenticationService.authenticate(apiKey(1)).outcome()).isEqualTo(Outcome.AUTHENTICATED);
+
+        jdbcClient.sql("UPDATE devices SET status = 'BLOCKED' WHERE id = :id").param("id", deviceId).update();
+
+        assertThat(eventually(() -> authenticationService.authenticate(apiKey(1)).outcome() == Outcome.BLOCKED))
+                .isTrue();
+    }
+
+    @Test
+    void testAuthenticate_WhenKeyIsRotated_ShouldRejectTheOldKey() {
+        assertThat(authenticationService.authenticate(apiKey(1)).outcome()).isEqualTo(Outcome.AUTHENTICATED);
+
+        jdbcClient.sql("UPDATE devices SET api_key_version = 2 WHERE id = :id").param("id", deviceId).update();
+
+        assertThat(eventually(() -> authenticationService.authenticate(apiKey(1)).outcome() == Outcome.REJECTED))
+                .isTrue();
+        assertThat(authenticationService.authenticate(apiKey(2)).outcome()).isEqualTo(Outcome.AUTHENTICATED);
+    }
+
+    private String apiKey(int version) {
+        return apiKeyGenerator.generateApiKey(deviceId, deviceSecret, version);
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,164 @@
+package es.terencio.erp.devices.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.devices.application.dto.DeviceChange;
+import es.terencio.erp.shared.exception.CapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Not transactional: waiters are woken by the NOTIFYs that store and device
+ * changes send on commit.
+ */
+class DeviceChangeServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long NOTIFICATION_TIMEOUT_MS = 10_000;
+    private static final Duration LONG_POLL = Duration.ofSeconds(20);
+
+    @Autowired
+    private DeviceChangeService service;
+    @Autowired
+    private ActiveDeviceResolver activeDevices;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UUID storeId;
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'PUSH-STORE', 'Push Store', 'push-store', 'Push Address', TRUE)")
+                .param("id", storeId).param("companyId", globalCompanyId).update();
+
+        deviceId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, 'POS Push', 'PUSH-POS-1', 'hw-push-1', 'ACTIVE')")
+                .param("id", deviceId).param("storeId", storeId).update();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.sql("DELETE FROM devices WHERE id = :id").param("id", deviceId).update();
+        jdbcClient.sql("DELETE FROM stores WHERE id = :id").param("id", storeId).update();
+    }
+
+    @Test
+    void testAwaitChange_WhenVersionIsBehind_ShouldReturnImmediately() {
+        long version = currentVersion();
+
+        Optional<DeviceChange> change = service.awaitChange(deviceId, version - 1, LONG_POLL);
+
+        assertThat(change).contains(new DeviceChange(version, DeviceChange.Reason.CONTEXT_CHANGED));
+    }
+
+    @Test
+    void testAwaitChange_WhenNothingChanges_ShouldTimeOutEmpty() {
+        assertThat(service.awaitChange(deviceId, currentVersion(), Duration.ofMillis(200))).isEmpty();
+        assertThat(waiting()).isZero();
+    }
+
+    @Test
+    void testAwaitChange_WhenStoreChanges_ShouldWakeUpWithTheNewVersion() throws Exception {
+        long version = currentVersion();
+        CompletableFuture<Optional<DeviceChange>> poll = park(version);
+
+        jdbcClient.sql("UPDATE stores SET name = 'Renamed Push Store' WHERE id = :id").param("id", storeId).update();
+
+        Optional<DeviceChange> change = poll.get(NOTIFICATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertThat(change).isPresent();
+        assertThat(change.get().reason()).isEqualTo(DeviceChange.Reason.CONTEXT_CHANGED);
+        assertThat(change.get().version()).isGreaterThan(version).isEqualTo(currentVersion());
+    }
+
+    @Test
+    void testAwaitChange_WhenDeviceIsBlocked_ShouldWakeUpTheDevice() throws Exception {
+        CompletableFuture<Optional<DeviceChange>> poll = park(currentVersion());
+
+        jdbcClient.sql("UPDATE devices SET status = 'BLOCKED' WHERE id = :id").param("id", deviceId).update();
+
+        Optional<DeviceChange> change = poll.get(NOTIFICATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertThat(change.map(DeviceChange::reason)).contains(DeviceChange.Reason.DEVICE_CHANGED);
+    }
+
+    @Test
+    void testAwaitChange_WhenDevicePollsAgain_ShouldReleaseTheOlderPoll() throws Exception {
+        long version = currentVersion();
+        CompletableFuture<Optional<DeviceChange>> older = park(version);
+
+        CompletableFuture<Optional<DeviceChange>> newer = CompletableFuture
+                .supplyAsync(() -> service.awaitChange(deviceId, version, LONG_POLL));
+
+        assertThat(older.get(NOTIFICATION_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isEmpty();
+        assertThat(newer).isNotDone();
+        service.deviceChanged(deviceId);
+        assertThat(newer.get(NOTIFICATION_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isPresent();
+    }
+
+    @Test
+    void testAwaitChange_WhenWaitersAreAtTheCap_ShouldRejectWithRetryAfter() throws Exception {
+        SimpleMeterRegistry cappedMeters = new SimpleMeterRegistry();
+        DeviceChangeService capped = new DeviceChangeService(activeDevices, cappedMeters, 1);
+        long version = currentVersion();
+        CompletableFuture<Optional<DeviceChange>> parked = CompletableFuture
+                .supplyAsync(() -> capped.awaitChange(deviceId, version, LONG_POLL));
+        assertThat(eventually(() -> cappedMeters.get("pos.sync.waiting").gauge().value() == 1)).isTrue();
+
+        assertThatThrownBy(() -> capped.awaitChange(deviceId, version, LONG_POLL))
+                .isInstanceOf(CapacityExceededException.class)
+                .satisfies(e -> assertThat(((CapacityExceededException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(5)));
+
+        capped.releaseAll();
+        assertThat(parked.get(NOTIFICATION_TIMEOUT_MS, TimeUnit.MILLISECONDS).map(DeviceChange::reason))
+                .contains(DeviceChange.Reason.RESYNC);
+    }
+
+    private CompletableFuture<Optional<DeviceChange>> park(long version) {
+        double before = waiting();
+        CompletableFuture<Optional<DeviceChange>> poll = CompletableFuture
+                .supplyAsync(() -> service.awaitChange(deviceId, version, LONG_POLL));
+        assertThat(eventually(() -> waiting() > before)).isTrue();
+        return poll;
+    }
+
+    private long currentVersion() {
+        return activeDevices.syncState(deviceId).version();
+    }
+
+    private double waiting() {
+        return meterRegistry.get("pos.sync.waiting").gauge().value();
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,150 @@
+package es.terencio.erp.devices.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.devices.application.port.in.DeviceContextSink;
+import es.terencio.erp.devices.application.port.in.DeviceContextStream;
+import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
+import es.terencio.erp.organization.domain.model.Store;
+import es.terencio.erp.organization.domain.model.StoreSettings;
+
+@Transactional
+class GetDeviceContextServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private GetDeviceContextService service;
+
+    private UUID storeId;
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'SYNC-STORE', 'Sync Store', 'sync-store', 'Sync Address', TRUE)")
+                .param("id", storeId).param("companyId", globalCompanyId).update();
+        jdbcClient.sql(
+                "INSERT INTO store_settings (store_id, allow_negative_stock, print_ticket_automatically) VALUES (:storeId, FALSE, TRUE)")
+                .param("storeId", storeId).update();
+
+        deviceId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, 'POS 1', 'SYNC-POS-1', 'hw-sync-1', 'ACTIVE')")
+                .param("id", deviceId).param("storeId", storeId).update();
+    }
+
+    @Test
+    void testOpenContext_WhenVersionIsCurrent_ShouldReturnNothing() {
+        long version = service.openContext(deviceId, null).orElseThrow().version();
+
+        assertThat(service.openContext(deviceId, version)).isEmpty();
+    }
+
+    @Test
+    void testOpenContext_WhenStoreChanged_ShouldReturnOnlyTheStore() {
+        long version = service.openContext(deviceId, null).orElseThrow().version();
+
+        jdbcClient.sql("UPDATE stores SET name = 'Renamed Store' WHERE id = :id").param("id", storeId).update();
+
+        DeviceContextStream delta = service.openContext(deviceId, version).orElseThrow();
+        RecordingSink sink = write(delta);
+        assertThat(delta.full()).isFalse();
+        assertThat(delta.version()).isGreaterThan(version);
+        assertThat(sink.store).isNotNull();
+        assertThat(sink.store.name()).isEqualTo("Renamed Store");
+        assertThat(sink.settings).isNull();
+        assertThat(sink.users).isEmpty();
+        assertThat(sink.removedUsers).isEmpty();
+    }
+
+    @Test
+    void testOpenContext_WhenSettingsChanged_ShouldReturnOnlyTheSettings() {
+        long version = service.openContext(deviceId, null).orElseThrow().version();
+
+        jdbcClient.sql("UPDATE store_settings SET allow_negative_stock = TRUE WHERE store_id = :id")
+                .param("id", storeId).update();
+
+        DeviceContextStream delta = service.openContext(deviceId, version).orElseThrow();
+        RecordingSink sink = write(delta);
+        assertThat(delta.full()).isFalse();
+        assertThat(sink.store).isNull();
+        assertThat(sink.settings).isNotNull();
+        assertThat(sink.settings.allowNegativeStock()).isTrue();
+    }
+
+    @Test
+    void testOpenContext_WhenStoreAndSettingsChanged_ShouldReturnBothAtTheLatestVersion() {
+        long version = service.openContext(deviceId, null).orElseThrow().version();
+
+        jdbcClient.sql("UPDATE stores SET name = 'Renamed Store' WHERE id = :id").param("id", storeId).update();
+        jdbcClient.sql("UPDATE store_settings SET print_ticket_automatically = FALSE WHERE store_id = :id")
+                .param("id", storeId).update();
+
+        DeviceContextStream delta = service.openContext(deviceId, version).orElseThrow();
+        RecordingSink sink = write(delta);
+        assertThat(sink.store.name()).isEqualTo("Renamed Store");
+        assertThat(sink.settings.printTicketAutomatically()).isFalse();
+
+        Long stored = jdbcClient.sql("SELECT version FROM pos_sync_stores WHERE store_id = :id")
+                .param("id", storeId).query(Long.class).single();
+        assertThat(delta.version()).isEqualTo(stored);
+        assertThat(service.openContext(deviceId, delta.version())).isEmpty();
+    }
+
+    @Test
+    void testOpenContext_WhenVersionIsUnknown_ShouldReturnFullContext() {
+        long version = service.openContext(deviceId, null).orElseThrow().version();
+
+        Optional<DeviceContextStream> context = service.openContext(deviceId, version + 100);
+
+        assertThat(context).isPresent();
+        assertThat(context.get().full()).isTrue();
+        RecordingSink sink = write(context.get());
+        assertThat(sink.store).isNotNull();
+        assertThat(sink.settings).isNotNull();
+    }
+
+    private static RecordingSink write(DeviceContextStream stream) {
+        RecordingSink sink = new RecordingSink();
+        stream.writeTo(sink);
+        return sink;
+    }
+
+    private static final class RecordingSink implements DeviceContextSink {
+        Store store;
+        StoreSettings settings;
+        final List<EmployeeSyncDto> users = new ArrayList<>();
+        final List<Long> removedUsers = new ArrayList<>();
+
+        @Override
+        public void store(Store store) {
+            this.store = store;
+        }
+
+        @Override
+        public void settings(StoreSettings settings) {
+            this.settings = settings;
+        }
+
+        @Override
+        public void user(EmployeeSyncDto user) {
+            users.add(user);
+        }
+
+        @Override
+        public void removedUsers(List<Long> employeeIds) {
+            removedUsers.addAll(employeeIds);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package es.terencio.erp.devices.infrastructure.in.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import es.terencio.erp.devices.application.port.in.DeviceContextSink;
+import es.terencio.erp.devices.application.port.in.DeviceContextStream;
+import es.terencio.erp.employees.application.dto.EmployeeSyncDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeviceContextResponseWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeviceContextResponseWriter writer = new DeviceContextResponseWriter(
+            Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.json(), meterRegistry);
+
+    @Test
+    void testWrite_WhenJson_ShouldWrapTheContextInTheEnvelope() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(context(true, List.of(user(1L), user(2L)), List.of()), false, false, response);
+
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        JsonNode body = new ObjectMapper().readTree(response.getContentAsByteArray());
+        assertThat(body.get("success").asBoolean()).isTrue();
+        assertThat(body.get("message").asText()).isEqualTo("Device context fetched");
+        assertThat(body.has("meta")).isTrue();
+        JsonNode data = body.get("data");
+        assertThat(data.get("version").asLong()).isEqualTo(42);
+        assertThat(data.get("full").asBoolean()).isTrue();
+        assertThat(data.get("users")).hasSize(2);
+        assertThat(data.get("users").get(1).get("username").asText()).isEqualTo("user-2");
+        assertThat(data.get("removedUserIds")).isEmpty();
+    }
+
+    @Test
+    void testWrite_WhenDeltaHasNoUsers_ShouldStillWriteAnEmptyUsersArray() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(context(false, List.of(), List.of(7L)), false, false, response);
+
+        JsonNode body = new ObjectMapper().readTree(response.getContentAsByteArray());
+        assertThat(body.get("message").asText()).isEqualTo("Device context changes fetched");
+        JsonNode data = body.get("data");
+        assertThat(data.get("full").asBoolean()).isFalse();
+        assertThat(data.has("store")).isFalse();
+        assertThat(data.get("users")).isEmpty();
+        assertThat(data.get("removedUserIds").get(0).asLong()).isEqualTo(7);
+    }
+
+    @Test
+    void testWrite_WhenCborAndGzip_ShouldWriteTheBareContextCompressed() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(context(true, List.of(user(1L)), List.of(9L)), true, true, response);
+
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            JsonNode body = new ObjectMapper(new CBORFactory()).readTree(in);
+            assertThat(body.has("success")).isFalse();
+            assertThat(body.get("version").asLong()).isEqualTo(42);
+            assertThat(body.get("users").get(0).get("fullName").asText()).isEqualTo("User 1");
+            assertThat(body.get("removedUserIds").get(0).asLong()).isEqualTo(9);
+        }
+    }
+
+    @Test
+    void testWrite_WhenContextIsWritten_ShouldRecordWireBytesPerEncoding() throws IOException {
+        MockHttpServletResponse json = new MockHttpServletResponse();
+        writer.write(context(true, List.of(user(1L), user(2L)), List.of()), false, false, json);
+        MockHttpServletResponse cbor = new MockHttpServletResponse();
+        writer.write(context(true, List.of(user(1L), user(2L)), List.of()), true, false, cbor);
+
+        double jsonBytes = meterRegistry.get("pos.sync.payload").tag("encoding", "json")
+                .tag("compression", "identity").summary().totalAmount();
+        double cborBytes = meterRegistry.get("pos.sync.payload").tag("encoding", "cbor")
+                .tag("compression", "identity").summary().totalAmount();
+        assertThat(jsonBytes).isEqualTo(json.getContentAsByteArray().length);
+        assertThat(cborBytes).isEqualTo(cbor.getContentAsByteArray().length);
+        assertThat(cborBytes).isLessThan(jsonBytes);
+        assertThat(meterRegistry.get("pos.sync.write").tag("encoding", "cbor").timer().count()).isEqualTo(1);
+    }
+
+    private static DeviceContextStream context(boolean full, List<EmployeeSyncDto> users, List<Long> removed) {
+        return new DeviceContextStream() {
+            @Override
+            public long version() {
+                return 42;
+            }
+
+            @Override
+            public boolean full() {
+                return full;
+            }
+
+            @Override
+            public void writeTo(DeviceContextSink sink) {
+                sink.store(null);
+                sink.settings(null);
+                users.forEach(sink::user);
+                sink.removedUsers(removed);
+            }
+        };
+    }
+
+    private static EmployeeSyncDto user(Long id) {
+        return new EmployeeSyncDto(id, "user-" + id, "User " + id, "CASHIER", "$2a$10$pinhash", null, null);
+    }
+}
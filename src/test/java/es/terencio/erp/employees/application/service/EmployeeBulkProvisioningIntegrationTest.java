@@ -0,0 +1,68 @@
+package es.terencio.erp.employees.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.employees.application.dto.BulkEmployeeResult;
+import es.terencio.erp.employees.application.dto.BulkEmployeeResult.Status;
+import es.terencio.erp.employees.application.dto.CreateEmployeeRequest;
+import es.terencio.erp.employees.application.port.in.ManageEmployeesUseCase;
+
+@Transactional
+class EmployeeBulkProvisioningIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ManageEmployeesUseCase manageEmployeesUseCase;
+
+    @Test
+    void testCreateAll_WhenBatchMixesNewDuplicateAndForeignRows_ShouldReportEachRowInOrder() {
+        List<CreateEmployeeRequest> requests = List.of(
+                request("bulk-ana", globalOrgId, globalStoreId),
+                request("bulk-luis", globalOrgId, null),
+                request("bulk-ana", globalOrgId, null),
+                request("admin", globalOrgId, null),
+                request("bulk-other", UUID.randomUUID(), null),
+                request("bulk-eva", globalOrgId, globalStoreId));
+
+        List<BulkEmployeeResult> results = manageEmployeesUseCase.createAll(globalOrgId, requests);
+
+        assertThat(results).extracting(BulkEmployeeResult::status).containsExactly(
+                Status.CREATED, Status.CREATED, Status.DUPLICATE, Status.DUPLICATE, Status.FAILED, Status.CREATED);
+        assertThat(results).extracting(BulkEmployeeResult::index).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(0).id()).isNotNull();
+        assertThat(results.get(4).error()).contains("another organization");
+    }
+
+    @Test
+    void testCreateAll_WhenEmployeesAreCreated_ShouldStoreHashedCredentialsAndGrants() {
+        List<BulkEmployeeResult> results = manageEmployeesUseCase.createAll(globalOrgId,
+                List.of(request("bulk-store", globalOrgId, globalStoreId), request("bulk-company", globalOrgId, null)));
+
+        Map<String, Object> row = jdbcClient.sql("SELECT pin_hash, password_hash FROM employees WHERE id = :id")
+                .param("id", results.get(0).id()).query().singleRow();
+        assertThat(passwordEncoder.matches("123456", (String) row.get("pin_hash"))).isTrue();
+        assertThat(passwordEncoder.matches("password-123", (String) row.get("password_hash"))).isTrue();
+
+        assertThat(grantScope(results.get(0).id(), globalStoreId)).isEqualTo("STORE");
+        assertThat(grantScope(results.get(1).id(), globalCompanyId)).isEqualTo("COMPANY");
+    }
+
+    private String grantScope(Long employeeId, UUID targetId) {
+        return jdbcClient.sql(
+                "SELECT scope FROM employee_access_grants WHERE employee_id = :employeeId AND target_id = :targetId AND role = 'ADMIN'")
+                .param("employeeId", employeeId).param("targetId", targetId).query(String.class).single();
+    }
+
+    private CreateEmployeeRequest request(String username, UUID organizationId, UUID storeId) {
+        return new CreateEmployeeRequest(username, username + "@bulk.test", "123456", "password-123",
+                "Bulk " + username, "ADMIN", organizationId, globalCompanyId, storeId);
+    }
+}
@@ -0,0 +1,148 @@
+package es.terencio.erp.fiscal.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.fiscal.application.dto.ChainVerificationResult;
+import es.terencio.erp.sales.application.dto.SaleAck;
+import es.terencio.erp.sales.application.dto.SaleUpload;
+import es.terencio.erp.sales.application.port.in.UploadSalesUseCase;
+
+/**
+ * Fiscal records cannot be deleted, so everything here runs in the test
+ * transaction and is rolled back.
+ */
+@Transactional
+class FiscalChainIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UploadSalesUseCase uploadSalesUseCase;
+    @Autowired
+    private FiscalChainVerificationJob verificationJob;
+
+    private UUID storeId;
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'FISCAL-STORE', 'Fiscal Store', 'fiscal-store', 'Fiscal Address', TRUE)")
+                .param("id", storeId).param("companyId", globalCompanyId).update();
+
+        deviceId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, 'POS Fiscal', 'FISCAL-POS-1', 'hw-fiscal-1', 'ACTIVE')")
+                .param("id", deviceId).param("storeId", storeId).update();
+    }
+
+    @Test
+    void testUpload_WhenSalesAreRecordedInBatches_ShouldExtendOneContinuousChain() {
+        upload(sale(), sale());
+        upload(sale());
+
+        List<Long> sequences = jdbcClient
+                .sql("SELECT chain_sequence_id FROM fiscal_audit_log WHERE device_id = :deviceId ORDER BY chain_sequence_id")
+                .param("deviceId", deviceId).query(Long.class).list();
+        assertThat(sequences).containsExactly(1L, 2L, 3L);
+
+        String lastHash = jdbcClient
+                .sql("SELECT record_hash FROM fiscal_audit_log WHERE device_id = :deviceId AND chain_sequence_id = 3")
+                .param("deviceId", deviceId).query(String.class).single();
+        Long headSequence = jdbcClient
+                .sql("SELECT chain_sequence_id FROM fiscal_chain_heads WHERE device_id = :deviceId AND record_hash = :hash")
+                .param("deviceId", deviceId).param("hash", lastHash).query(Long.class).single();
+        assertThat(headSequence).isEqualTo(3);
+
+        ChainVerificationResult result = verificationJob.verifyChain(deviceId);
+        assertThat(result.intact()).isTrue();
+        assertThat(result.recordsChecked()).isEqualTo(3);
+    }
+
+    @Test
+    void testUpload_WhenBatchIsRetried_ShouldNotChainTheSalesAgain() {
+        SaleUpload first = sale();
+        SaleUpload second = sale();
+        upload(first, second);
+
+        upload(first, second);
+
+        Integer records = jdbcClient.sql("SELECT COUNT(*) FROM fiscal_audit_log WHERE device_id = :deviceId")
+                .param("deviceId", deviceId).query(Integer.class).single();
+        assertThat(records).isEqualTo(2);
+        assertThat(verificationJob.verifyChain(deviceId).intact()).isTrue();
+    }
+
+    @Test
+    void testInsert_WhenRecordDoesNotContinueTheChain_ShouldBeRejectedByTheDatabase() {
+        upload(sale());
+        UUID saleId = UUID.randomUUID();
+        insertSaleRow(saleId);
+
+        assertThatThrownBy(() -> jdbcClient.sql(
+                "INSERT INTO fiscal_audit_log (sale_uuid, store_id, device_id, chain_sequence_id, previous_record_hash, record_hash, software_id, software_version, developer_id, invoice_amount, currency, invoice_date) VALUES (:saleId, :storeId, :deviceId, 2, :prev, :hash, 'X', '1', 'X', 100, 'EUR', NOW())")
+                .param("saleId", saleId).param("storeId", storeId).param("deviceId", deviceId)
+                .param("prev", "a".repeat(64)).param("hash", "b".repeat(64)).update())
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("does not continue its chain");
+    }
+
+    @Test
+    void testUpdate_WhenRecordIsAltered_ShouldBeRejectedByTheDatabase() {
+        upload(sale());
+
+        assertThatThrownBy(() -> jdbcClient
+                .sql("UPDATE fiscal_audit_log SET invoice_amount = 1 WHERE device_id = :deviceId")
+                .param("deviceId", deviceId).update())
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("immutable");
+    }
+
+    @Test
+    void testVerifyChain_WhenRecordWasAltered_ShouldReportTheFirstBrokenRecord() {
+        upload(sale(), sale(), sale());
+        // Bypass the guard (rolled back with the test) to alter the stored data
+        jdbcClient.sql("ALTER TABLE fiscal_audit_log DISABLE TRIGGER trg_fiscal_audit_log_immutable").update();
+        jdbcClient.sql("UPDATE fiscal_audit_log SET invoice_amount = 1 WHERE device_id = :deviceId AND chain_sequence_id = 2")
+                .param("deviceId", deviceId).update();
+
+        ChainVerificationResult result = verificationJob.verifyChain(deviceId);
+
+        assertThat(result.intact()).isFalse();
+        assertThat(result.firstBrokenSequence()).isEqualTo(2);
+        assertThat(result.recordsChecked()).isEqualTo(2);
+        assertThat(result.problem()).contains("hash");
+    }
+
+    private void upload(SaleUpload... sales) {
+        List<SaleAck> acks = uploadSalesUseCase.upload(deviceId, List.of(sales));
+        assertThat(acks).extracting(SaleAck::status).doesNotContain(SaleAck.Status.REJECTED, SaleAck.Status.FAILED);
+    }
+
+    private void insertSaleRow(UUID saleId) {
+        jdbcClient.sql(
+                "INSERT INTO sales (uuid, company_id, store_id, device_id, employee_id, currency, total_net, total_tax, total, issued_at) VALUES (:uuid, :companyId, :storeId, :deviceId, :employeeId, 'EUR', 0, 0, 0, NOW())")
+                .param("uuid", saleId).param("companyId", globalCompanyId).param("storeId", storeId)
+                .param("deviceId", deviceId).param("employeeId", globalAdminId).update();
+    }
+
+    // The global company's prices include tax and are rounded per line
+    private SaleUpload sale() {
+        SaleUpload.Line line = new SaleUpload.Line(1, null, "Coffee", BigDecimal.ONE, 1210, null,
+                new BigDecimal("21"), 1000, 210, 1210);
+        return new SaleUpload(UUID.randomUUID(), globalAdminId, null, Instant.now(), "EUR", 1210, List.of(line),
+                List.of(new SaleUpload.Payment("CASH", 1210)));
+    }
+}
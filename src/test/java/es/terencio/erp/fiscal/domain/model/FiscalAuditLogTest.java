@@ -0,0 +1,78 @@
+package es.terencio.erp.fiscal.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+import es.terencio.erp.shared.domain.identifier.DeviceId;
+import es.terencio.erp.shared.domain.identifier.SaleId;
+import es.terencio.erp.shared.domain.identifier.StoreId;
+import es.terencio.erp.shared.domain.valueobject.Money;
+
+class FiscalAuditLogTest {
+
+    private static final FiscalSoftware SOFTWARE = new FiscalSoftware("TERENCIO-ERP", "0.0.1", "TERENCIO");
+
+    private final MessageDigest sha256 = FiscalAuditLog.newDigest();
+    private final StoreId storeId = new StoreId(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    @Test
+    void testChain_WhenStartingFromGenesis_ShouldLinkEachRecordToThePreviousOne() {
+        FiscalAuditLog first = chain(ChainHead.genesis(), 1210);
+        FiscalAuditLog second = chain(first.asHead(), 500);
+
+        assertThat(first.chainSequenceId()).isEqualTo(1);
+        assertThat(first.previousRecordHash()).isEqualTo(ChainHead.GENESIS_HASH);
+        assertThat(first.follows(ChainHead.genesis())).isTrue();
+        assertThat(second.chainSequenceId()).isEqualTo(2);
+        assertThat(second.previousRecordHash()).isEqualTo(first.recordHash());
+        assertThat(second.follows(first.asHead())).isTrue();
+        assertThat(second.follows(ChainHead.genesis())).isFalse();
+        assertThat(second.aeatStatus()).isEqualTo(AeatStatus.PENDING);
+    }
+
+    @Test
+    void testHashMatches_WhenStoredDataIsAltered_ShouldFail() {
+        FiscalAuditLog record = chain(ChainHead.genesis(), 1210);
+
+        FiscalAuditLog stored = restore(record, record.invoiceAmount());
+        FiscalAuditLog altered = restore(record, Money.ofCents(1, "EUR"));
+
+        assertThat(stored.hashMatches(sha256)).isTrue();
+        assertThat(altered.hashMatches(sha256)).isFalse();
+    }
+
+    @Test
+    void testChain_WhenDateHasNanoseconds_ShouldHashWhatTheDatabaseKeeps() {
+        FiscalAuditLog record = FiscalAuditLog.chain(ChainHead.genesis(), SaleId.create(), storeId, deviceId,
+                SOFTWARE, Money.ofCents(1210, "EUR"), Instant.parse("2026-03-01T10:15:30.123456789Z"), sha256);
+
+        assertThat(record.invoiceDate()).isEqualTo(Instant.parse("2026-03-01T10:15:30.123456Z"));
+        assertThat(restore(record, record.invoiceAmount()).hashMatches(sha256)).isTrue();
+    }
+
+    @Test
+    void testChain_WhenStoreIsMissing_ShouldReject() {
+        assertThatThrownBy(() -> FiscalAuditLog.chain(ChainHead.genesis(), SaleId.create(), null, deviceId,
+                SOFTWARE, Money.ofCents(1210, "EUR"), Instant.now(), sha256))
+                .isInstanceOf(InvariantViolationException.class);
+    }
+
+    private FiscalAuditLog chain(ChainHead previous, long cents) {
+        return FiscalAuditLog.chain(previous, SaleId.create(), storeId, deviceId, SOFTWARE,
+                Money.ofCents(cents, "EUR"), Instant.now(), sha256);
+    }
+
+    private static FiscalAuditLog restore(FiscalAuditLog record, Money amount) {
+        return FiscalAuditLog.restore(record.saleId(), record.storeId(), record.deviceId(), record.chainSequenceId(),
+                record.previousRecordHash(), record.recordHash(), record.software(), amount, record.invoiceDate(),
+                record.aeatStatus());
+    }
+}
@@ -0,0 +1,144 @@
+package es.terencio.erp.inventory.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.inventory.application.dto.StockMovementCommand;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovement;
+import es.terencio.erp.inventory.domain.model.StockMovementType;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.WarehouseId;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+/**
+ * Not transactional: the ledger writes each drain in a transaction of its
+ * own, which has to see the warehouse.
+ */
+class StockLedgerServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private StockLedgerService ledger;
+
+    private UUID storeId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'LEDGER-STORE', 'Ledger Store', 'ledger-store', 'Ledger Address', TRUE)")
+                .param("id", storeId).param("companyId", globalCompanyId).update();
+        warehouseId = UUID.randomUUID();
+        jdbcClient.sql("INSERT INTO warehouses (id, store_id, name, code) VALUES (:id, :storeId, 'Ledger Warehouse', 'LW')")
+                .param("id", warehouseId).param("storeId", storeId).update();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.sql("DELETE FROM stock_movements WHERE warehouse_id = :id").param("id", warehouseId).update();
+        jdbcClient.sql("DELETE FROM inventory_stock WHERE warehouse_id = :id").param("id", warehouseId).update();
+        jdbcClient.sql("DELETE FROM warehouses WHERE id = :id").param("id", warehouseId).update();
+        jdbcClient.sql("DELETE FROM stores WHERE id = :id").param("id", storeId).update();
+    }
+
+    @Test
+    void testApply_WhenMovementsShareAStock_ShouldChainTheirBalancesInOrder() {
+        List<StockMovement> movements = ledger.apply(List.of(
+                movement(1L, StockMovementType.ADJUSTMENT, 10),
+                movement(2L, StockMovementType.ADJUSTMENT, 5),
+                movement(1L, StockMovementType.SALE, -3),
+                movement(1L, StockMovementType.SALE, -2)));
+
+        assertThat(movements).hasSize(4);
+        assertThat(movements.get(0).previousBalance()).isEqualTo(Quantity.zero());
+        assertThat(movements.get(2).previousBalance()).isEqualTo(movements.get(0).newBalance());
+        assertThat(movements.get(3).previousBalance()).isEqualTo(movements.get(2).newBalance());
+        assertThat(movements.get(3).newBalance()).isEqualTo(Quantity.of(5));
+        assertThat(stock(1L)).isEqualByComparingTo("5");
+        assertThat(stock(2L)).isEqualByComparingTo("5");
+
+        // The next call continues from the stored balance
+        StockMovement next = ledger.apply(List.of(movement(1L, StockMovementType.SALE, -6))).get(0);
+        assertThat(next.previousBalance()).isEqualTo(Quantity.of(5));
+        assertThat(stock(1L)).isEqualByComparingTo("-1");
+    }
+
+    @Test
+    void testApply_WhenCallersHitTheSameStockConcurrently_ShouldKeepOneContinuousLedger() throws Exception {
+        int callers = 8;
+        int perCaller = 25;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<StockMovement>>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int c = 0; c < callers; c++) {
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    List<StockMovement> applied = new ArrayList<>();
+                    for (int i = 0; i < perCaller; i++) {
+                        applied.addAll(ledger.apply(List.of(movement(1L, StockMovementType.SALE, -1))));
+                    }
+                    return applied;
+                }, executor));
+            }
+            start.countDown();
+            for (CompletableFuture<List<StockMovement>> call : calls) {
+                assertThat(call.get(30, TimeUnit.SECONDS)).hasSize(perCaller);
+            }
+        }
+
+        assertThat(stock(1L)).isEqualByComparingTo(String.valueOf(-callers * perCaller));
+        // Every balance from -1 down appears exactly once: no movement started from a stale balance
+        List<BigDecimal> balances = jdbcClient.sql(
+                "SELECT new_balance FROM stock_movements WHERE warehouse_id = :id AND product_id = 1 ORDER BY id")
+                .param("id", warehouseId).query(BigDecimal.class).list();
+        assertThat(balances).hasSize(callers * perCaller);
+        for (int i = 0; i < balances.size(); i++) {
+            assertThat(balances.get(i)).isEqualByComparingTo(String.valueOf(-(i + 1)));
+        }
+    }
+
+    @Test
+    void testApply_WhenMovementDoesNotChangeTheStock_ShouldRejectTheCall() {
+        assertThatThrownBy(() -> ledger.apply(List.of(movement(1L, StockMovementType.ADJUSTMENT, 0))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Integer written = jdbcClient.sql("SELECT COUNT(*) FROM stock_movements WHERE warehouse_id = :id")
+                .param("id", warehouseId).query(Integer.class).single();
+        assertThat(written).isZero();
+    }
+
+    private StockMovementCommand movement(Long productId, StockMovementType type, int quantity) {
+        return new StockMovementCommand(new StockKey(new ProductId(productId), new WarehouseId(warehouseId)), type,
+                Quantity.of(quantity), null, null, globalAdminId);
+    }
+
+    private BigDecimal stock(Long productId) {
+        return jdbcClient.sql("SELECT quantity FROM inventory_stock WHERE product_id = :productId AND warehouse_id = :id")
+                .param("productId", productId).param("id", warehouseId).query(BigDecimal.class).single();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package es.terencio.erp.marketing.application.service.segment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.crm.application.port.in.ManageCustomerUseCase;
+import es.terencio.erp.crm.application.port.in.command.ContactInfoCommand;
+import es.terencio.erp.crm.application.port.in.command.CreateCustomerCommand;
+import es.terencio.erp.crm.application.port.in.command.UpdateCustomerCommand;
+import es.terencio.erp.crm.domain.model.Customer;
+import es.terencio.erp.crm.domain.model.CustomerType;
+import es.terencio.erp.marketing.application.port.in.SegmentMembershipUseCase;
+
+@Transactional
+class SegmentMembershipIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ManageCustomerUseCase manageCustomerUseCase;
+    @Autowired
+    private SegmentMembershipUseCase segmentMembershipUseCase;
+
+    private UUID companyId;
+
+    @BeforeEach
+    void setUp() {
+        companyId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO companies (id, organization_id, name, slug, tax_id, currency_code, fiscal_regime, price_includes_tax, rounding_mode, is_active, created_at, updated_at, version) VALUES (:id, :orgId, 'Segments Company', 'segments-co', 'B33333333', 'EUR', 'COMMON', TRUE, 'LINE', TRUE, NOW(), NOW(), 1)")
+                .param("id", companyId).param("orgId", globalOrgId).update();
+    }
+
+    @Test
+    void testMembership_WhenCustomerMovesInAndOutOfTheFilteredCity_ShouldFollowTheCustomer() {
+        Long segmentId = createSegment("Madrid", true);
+        Customer customer = manageCustomerUseCase.create(companyId,
+                new CreateCustomerCommand("Alpha SL", null, CustomerType.CLIENT_RETAIL, null, null));
+        assertThat(isMember(segmentId, customer.getId().value())).isFalse();
+
+        manageCustomerUseCase.update(companyId, customer.getUuid(), moveTo("Madrid"));
+        assertThat(isMember(segmentId, customer.getId().value())).isTrue();
+
+        manageCustomerUseCase.update(companyId, customer.getUuid(), moveTo("Sevilla"));
+        assertThat(isMember(segmentId, customer.getId().value())).isFalse();
+    }
+
+    @Test
+    void testMembership_WhenCustomerIsDeleted_ShouldLeaveEverySegment() {
+        Long segmentId = createSegment(null, true);
+        Customer customer = manageCustomerUseCase.create(companyId,
+                new CreateCustomerCommand("Alpha SL", null, CustomerType.CLIENT_RETAIL, null, null));
+        assertThat(isMember(segmentId, customer.getId().value())).isTrue();
+
+        manageCustomerUseCase.delete(companyId, customer.getUuid());
+
+        assertThat(isMember(segmentId, customer.getId().value())).isFalse();
+    }
+
+    @Test
+    void testRebuild_WhenSegmentIsStale_ShouldPickUpExistingCustomersAndStampIt() {
+        Long customerId = jdbcClient.sql(
+                "INSERT INTO customers (uuid, company_id, legal_name, commercial_name, type, city, country, allow_credit, credit_limit, surcharge_apply, active, created_at, updated_at) VALUES (:uuid, :companyId, 'Direct SL', 'Direct SL', 'CLIENT_RETAIL', 'Madrid', 'ES', FALSE, 0, FALSE, TRUE, NOW(), NOW()) RETURNING id")
+                .param("uuid", UUID.randomUUID()).param("companyId", companyId).query(Long.class).single();
+        Long segmentId = createSegment("Madrid", false);
+        assertThat(isMember(segmentId, customerId)).isFalse();
+
+        segmentMembershipUseCase.rebuildStaleSegments();
+
+        assertThat(isMember(segmentId, customerId)).isTrue();
+        Boolean fresh = jdbcClient.sql(
+                "SELECT members_refreshed_at IS NOT NULL AND members_refreshed_at >= updated_at FROM marketing_segments WHERE id = :id")
+                .param("id", segmentId).query(Boolean.class).single();
+        assertThat(fresh).isTrue();
+    }
+
+    private Long createSegment(String city, boolean fresh) {
+        return jdbcClient.sql(
+                "INSERT INTO marketing_segments (company_id, name, filter_city, filter_marketing_status, members_refreshed_at) VALUES (:companyId, 'Segment', :city, NULL, CASE WHEN :fresh THEN NOW() END) RETURNING id")
+                .param("companyId", companyId).param("city", city).param("fresh", fresh)
+                .query(Long.class).single();
+    }
+
+    private boolean isMember(Long segmentId, Long customerId) {
+        return jdbcClient.sql(
+                "SELECT EXISTS (SELECT 1 FROM marketing_segment_members WHERE segment_id = :segmentId AND customer_id = :customerId)")
+                .param("segmentId", segmentId).param("customerId", customerId).query(Boolean.class).single();
+    }
+
+    private static UpdateCustomerCommand moveTo(String city) {
+        return new UpdateCustomerCommand(null, null, null,
+                new ContactInfoCommand(null, null, "Main Street 1", "28001", city, "ES"), null, null);
+    }
+}
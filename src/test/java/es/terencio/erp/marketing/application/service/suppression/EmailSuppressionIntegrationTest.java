@@ -0,0 +1,95 @@
+package es.terencio.erp.marketing.application.service.suppression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.marketing.application.port.in.WebhookProcessingUseCase;
+import es.terencio.erp.marketing.application.port.out.EmailSuppressionRepositoryPort;
+import es.terencio.erp.marketing.domain.model.EmailHash;
+import es.terencio.erp.marketing.domain.model.SuppressionReason;
+
+@Transactional
+class EmailSuppressionIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WebhookProcessingUseCase webhookProcessingUseCase;
+    @Autowired
+    private EmailSuppressionService suppressionService;
+    @Autowired
+    private EmailSuppressionRepositoryPort suppressionRepository;
+
+    @Test
+    void testWebhook_WhenBounceIsPermanent_ShouldSuppressTheAddressEverywhere() {
+        String email = uniqueEmail();
+
+        webhookProcessingUseCase.processSesEvent(bounce(email.toUpperCase(), "Permanent"));
+
+        assertThat(suppressionService.isSuppressed(email)).isTrue();
+        assertThat(suppressionService.findSuppressed(List.of(" " + email + " ", uniqueEmail())))
+                .containsExactly(" " + email + " ");
+    }
+
+    @Test
+    void testWebhook_WhenBounceIsTransient_ShouldNotSuppress() {
+        String email = uniqueEmail();
+
+        webhookProcessingUseCase.processSesEvent(bounce(email, "Transient"));
+        webhookProcessingUseCase.processSesEvent(bounce(email, "Undetermined"));
+
+        assertThat(suppressionService.isSuppressed(email)).isFalse();
+        assertThat(row(email)).isNull();
+    }
+
+    @Test
+    void testWebhook_WhenComplaintFollowsBounce_ShouldKeepOneRowAndEscalateTheReason() {
+        String email = uniqueEmail();
+
+        webhookProcessingUseCase.processSesEvent(bounce(email, "Permanent"));
+        webhookProcessingUseCase.processSesEvent("""
+                {"eventType": "Complaint",
+                 "mail": {"messageId": "%s", "destination": ["%s"]},
+                 "complaint": {"complainedRecipients": [{"emailAddress": "%s"}]}}
+                """.formatted(UUID.randomUUID(), email, email));
+
+        Map<String, Object> row = row(email);
+        assertThat(row.get("reason")).isEqualTo(SuppressionReason.COMPLAINT.name());
+        assertThat(((Number) row.get("events")).intValue()).isEqualTo(2);
+    }
+
+    @Test
+    void testRefresh_WhenAnotherNodeSuppressedAnAddress_ShouldSeeIt() {
+        String email = uniqueEmail();
+        suppressionService.refresh();
+
+        suppressionRepository.suppress(EmailHash.of(email), SuppressionReason.HARD_BOUNCE, null);
+        suppressionService.refresh();
+
+        assertThat(suppressionService.isSuppressed(email)).isTrue();
+    }
+
+    private static String uniqueEmail() {
+        return "user-" + UUID.randomUUID() + "@suppression.test";
+    }
+
+    private static String bounce(String email, String bounceType) {
+        return """
+                {"eventType": "Bounce",
+                 "mail": {"messageId": "%s", "destination": ["%s"]},
+                 "bounce": {"bounceType": "%s", "bouncedRecipients": [{"emailAddress": "%s"}]}}
+                """.formatted(UUID.randomUUID(), email, bounceType, email);
+    }
+
+    private Map<String, Object> row(String email) {
+        return jdbcClient.sql("SELECT reason, events FROM marketing_email_suppressions WHERE email_hash = :hash")
+                .param("hash", EmailHash.of(email).value())
+                .query().listOfRows().stream().findFirst().orElse(null);
+    }
+}
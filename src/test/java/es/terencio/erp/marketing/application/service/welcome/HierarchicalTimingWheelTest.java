@@ -0,0 +1,74 @@
+package es.terencio.erp.marketing.application.service.welcome;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void testAdd_WhenItemIsAlreadyDue_ShouldRefuseIt() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 8, 1_000);
+
+        assertThat(wheel.add(1_000, "now")).isFalse();
+        assertThat(wheel.add(500, "past")).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testAdvance_WhenItemIsInTheFinestLevel_ShouldNeverFireEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 8, 1_000);
+        wheel.add(1_250, "a");
+
+        assertThat(wheel.advance(1_200)).isEmpty();
+        assertThat(wheel.advance(1_299)).isEmpty();
+        assertThat(wheel.advance(1_300)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testAdvance_WhenItemsOverflowSeveralLevels_ShouldCascadeAndFireInTime() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        long[] dues = { 15, 45, 170, 650, 2_000 };
+        for (long due : dues) {
+            assertThat(wheel.add(due, due)).isTrue();
+        }
+        assertThat(wheel.size()).isEqualTo(dues.length);
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 10; now <= 2_100; now += 10) {
+            for (Long item : wheel.advance(now)) {
+                fired.add(new long[] { item, now });
+            }
+        }
+
+        assertThat(fired).hasSize(dues.length);
+        for (long[] firing : fired) {
+            // Fires at the first tick at or after its due time
+            assertThat(firing[1]).isGreaterThanOrEqualTo(firing[0]).isLessThan(firing[0] + 10);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testAdvance_WhenClockJumpsPastEverything_ShouldReturnAllItems() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        wheel.add(25, "near");
+        wheel.add(900, "far");
+
+        assertThat(wheel.advance(10_000)).containsExactlyInAnyOrder("near", "far");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testConstructor_WhenWheelIsDegenerate_ShouldThrow() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(0, 8, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(10, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,113 @@
+package es.terencio.erp.marketing.infrastructure.out.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.marketing.application.dto.campaign.CampaignAudienceMember;
+import es.terencio.erp.marketing.application.port.out.CampaignRepositoryPort;
+import es.terencio.erp.shared.domain.query.PageResult;
+
+@Transactional
+class JdbcCampaignRepositoryIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private CampaignRepositoryPort repository;
+
+    private UUID companyId;
+    private Long templateId;
+
+    private Long vipRetail;
+    private Long vipLead;
+    private Long plainRetail;
+    private Long vipRetailUnsubscribed;
+    private Long vipRetailSnoozed;
+
+    @BeforeEach
+    void setUp() {
+        companyId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO companies (id, organization_id, name, slug, tax_id, currency_code, fiscal_regime, price_includes_tax, rounding_mode, is_active, created_at, updated_at, version) VALUES (:id, :orgId, 'Audience Company', 'audience-co', 'B44444444', 'EUR', 'COMMON', TRUE, 'LINE', TRUE, NOW(), NOW(), 1)")
+                .param("id", companyId).param("orgId", globalOrgId).update();
+        templateId = jdbcClient.sql(
+                "INSERT INTO marketing_templates (company_id, name, subject_template, body_html) VALUES (:companyId, 'Template', 'Subject', '<p>Body</p>') RETURNING id")
+                .param("companyId", companyId).query(Long.class).single();
+
+        vipRetail = customer("vip-retail@audience.test", "CLIENT_RETAIL", "{vip}", "SUBSCRIBED", false);
+        vipLead = customer("vip-lead@audience.test", "LEAD", "{vip}", "SUBSCRIBED", false);
+        plainRetail = customer("plain-retail@audience.test", "CLIENT_RETAIL", "{newsletter}", "SUBSCRIBED", false);
+        vipRetailUnsubscribed = customer("unsubscribed@audience.test", "CLIENT_RETAIL", "{vip}", "UNSUBSCRIBED", false);
+        vipRetailSnoozed = customer("snoozed@audience.test", "CLIENT_RETAIL", "{vip}", "SNOOZED", true);
+    }
+
+    @Test
+    void testAudience_WhenFilterSetsTagsAndType_ShouldApplyBothPredicates() {
+        Long campaignId = campaign(null, "{\"tags\": [\" vip \", \"vip\"], \"customerType\": \"client_retail\"}");
+
+        assertThat(repository.countCampaignRecipients(companyId, campaignId)).isEqualTo(1);
+        assertThat(ids(repository.findCampaignAudienceBatch(companyId, campaignId, null, 100)))
+                .containsExactly(vipRetail);
+
+        // The audience listing also shows unsubscribed customers but hides active snoozes
+        PageResult<CampaignAudienceMember> page = repository.findCampaignAudience(companyId, campaignId, 0, 50);
+        assertThat(ids(page.content())).containsExactlyInAnyOrder(vipRetail, vipRetailUnsubscribed)
+                .doesNotContain(vipRetailSnoozed);
+        assertThat(page.totalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void testAudience_WhenCampaignTargetsSegment_ShouldReadMaterializedMembers() {
+        Long segmentId = jdbcClient.sql(
+                "INSERT INTO marketing_segments (company_id, name, members_refreshed_at) VALUES (:companyId, 'Segment', NOW()) RETURNING id")
+                .param("companyId", companyId).query(Long.class).single();
+        for (Long customerId : List.of(plainRetail, vipLead)) {
+            jdbcClient.sql(
+                    "INSERT INTO marketing_segment_members (segment_id, customer_id, company_id) VALUES (:segmentId, :customerId, :companyId)")
+                    .param("segmentId", segmentId).param("customerId", customerId).param("companyId", companyId)
+                    .update();
+        }
+        Long campaignId = campaign(segmentId, null);
+
+        assertThat(repository.countCampaignRecipients(companyId, campaignId)).isEqualTo(2);
+        List<CampaignAudienceMember> firstBatch = repository.findCampaignAudienceBatch(companyId, campaignId, null, 1);
+        assertThat(firstBatch).hasSize(1);
+        List<CampaignAudienceMember> secondBatch = repository.findCampaignAudienceBatch(companyId, campaignId,
+                firstBatch.get(0).customerId(), 1);
+        assertThat(ids(List.of(firstBatch.get(0), secondBatch.get(0))))
+                .containsExactly(Math.min(plainRetail, vipLead), Math.max(plainRetail, vipLead));
+    }
+
+    @Test
+    void testAudience_WhenCampaignBelongsToAnotherCompany_ShouldBeEmpty() {
+        Long campaignId = campaign(null, null);
+
+        assertThat(repository.countCampaignRecipients(globalCompanyId, campaignId)).isZero();
+        assertThat(repository.findCampaignAudienceBatch(globalCompanyId, campaignId, null, 100)).isEmpty();
+    }
+
+    private Long customer(String email, String type, String tags, String status, boolean snoozed) {
+        return jdbcClient.sql(
+                "INSERT INTO customers (company_id, legal_name, email, type, tags, marketing_status, marketing_snooze_until, active) VALUES (:companyId, :email, :email, :type, CAST(:tags AS text[]), :status, CASE WHEN :snoozed THEN NOW() + INTERVAL '7 days' END, TRUE) RETURNING id")
+                .param("companyId", companyId).param("email", email).param("type", type).param("tags", tags)
+                .param("status", status).param("snoozed", snoozed)
+                .query(Long.class).single();
+    }
+
+    private Long campaign(Long segmentId, String audienceFilter) {
+        return jdbcClient.sql(
+                "INSERT INTO marketing_campaigns (company_id, name, template_id, segment_id, audience_filter) VALUES (:companyId, 'Campaign', :templateId, :segmentId, CAST(:filter AS jsonb)) RETURNING id")
+                .param("companyId", companyId).param("templateId", templateId).param("segmentId", segmentId)
+                .param("filter", audienceFilter).query(Long.class).single();
+    }
+
+    private static List<Long> ids(List<CampaignAudienceMember> members) {
+        return members.stream().map(CampaignAudienceMember::customerId).toList();
+    }
+}
@@ -0,0 +1,119 @@
+package es.terencio.erp.marketing.infrastructure.out.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.marketing.application.dto.welcome.WelcomeRecipient;
+import es.terencio.erp.marketing.application.port.out.WelcomeEmailJobRepositoryPort;
+import es.terencio.erp.marketing.domain.model.WelcomeEmailJob;
+
+@Transactional
+class JdbcWelcomeEmailJobRepositoryIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String NODE_A = "node-a";
+    private static final String NODE_B = "node-b";
+
+    @Autowired
+    private WelcomeEmailJobRepositoryPort repository;
+
+    private UUID companyId;
+    private Long templateId;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        companyId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO companies (id, organization_id, name, slug, tax_id, currency_code, fiscal_regime, price_includes_tax, rounding_mode, is_active, created_at, updated_at, version) VALUES (:id, :orgId, 'Welcome Company', 'welcome-co', 'B55555555', 'EUR', 'COMMON', TRUE, 'LINE', TRUE, NOW(), NOW(), 1)")
+                .param("id", companyId).param("orgId", globalOrgId).update();
+        templateId = jdbcClient.sql(
+                "INSERT INTO marketing_templates (company_id, name, subject_template, body_html) VALUES (:companyId, 'Welcome', 'Welcome', '<p>Hi</p>') RETURNING id")
+                .param("companyId", companyId).query(Long.class).single();
+        customerId = jdbcClient.sql(
+                "INSERT INTO customers (company_id, legal_name, email, marketing_status) VALUES (:companyId, 'New SL', 'new@welcome.test', 'SUBSCRIBED') RETURNING id")
+                .param("companyId", companyId).query(Long.class).single();
+    }
+
+    @Test
+    void testEnqueue_WhenCustomerAlreadyHasAJob_ShouldNotQueueASecondOne() {
+        Instant dueAt = Instant.now().plus(Duration.ofMinutes(10));
+
+        assertThat(repository.enqueue(companyId, customerId, templateId, dueAt)).isPresent();
+        assertThat(repository.enqueue(companyId, customerId, templateId, dueAt)).isEmpty();
+    }
+
+    @Test
+    void testClaim_WhenAnotherNodeHoldsALiveLease_ShouldLeaveTheJobAlone() {
+        WelcomeEmailJob job = enqueueDueIn(Duration.ofMinutes(1));
+        Instant horizon = Instant.now().plus(Duration.ofMinutes(5));
+
+        assertThat(repository.claim(job.id(), NODE_A, Instant.now().plus(Duration.ofMinutes(10)))).isTrue();
+        assertThat(repository.claim(job.id(), NODE_B, Instant.now().plus(Duration.ofMinutes(10)))).isFalse();
+        assertThat(claimedIds(horizon, NODE_B)).doesNotContain(job.id());
+    }
+
+    @Test
+    void testClaimDueBefore_WhenLeaseExpired_ShouldHandTheJobToAnotherNode() {
+        WelcomeEmailJob job = enqueueDueIn(Duration.ofMinutes(1));
+        repository.claim(job.id(), NODE_A, Instant.now().plus(Duration.ofMinutes(10)));
+        assertThat(repository.startSending(companyId, List.of(job.id()), NODE_A)).hasSize(1);
+
+        // Node A dies mid-send
+        jdbcClient.sql("UPDATE marketing_welcome_jobs SET claimed_until = NOW() - INTERVAL '1 minute' WHERE id = :id")
+                .param("id", job.id()).update();
+
+        assertThat(claimedIds(Instant.now().plus(Duration.ofMinutes(5)), NODE_B)).contains(job.id());
+        assertThat(repository.startSending(companyId, List.of(job.id()), NODE_A)).isEmpty();
+        List<WelcomeRecipient> recipients = repository.startSending(companyId, List.of(job.id()), NODE_B);
+        assertThat(recipients).hasSize(1);
+        assertThat(recipients.get(0).attempts()).isEqualTo(2);
+        assertThat(recipients.get(0).email()).isEqualTo("new@welcome.test");
+    }
+
+    @Test
+    void testClaimDueBefore_WhenJobIsDueAfterTheHorizon_ShouldNotClaimIt() {
+        WelcomeEmailJob job = enqueueDueIn(Duration.ofHours(2));
+
+        assertThat(claimedIds(Instant.now().plus(Duration.ofMinutes(5)), NODE_A)).doesNotContain(job.id());
+    }
+
+    @Test
+    void testMarkFailed_WhenRetryIsScheduled_ShouldRequeueUnclaimed() {
+        WelcomeEmailJob job = enqueueDueIn(Duration.ofMinutes(1));
+        repository.claim(job.id(), NODE_A, Instant.now().plus(Duration.ofMinutes(10)));
+        Instant retryAt = Instant.now().plus(Duration.ofMinutes(30));
+
+        repository.markFailed(job.id(), "Throttled", retryAt);
+        assertThat(status(job.id())).isEqualTo("PENDING");
+        assertThat(repository.claim(job.id(), NODE_B, Instant.now().plus(Duration.ofMinutes(40)))).isTrue();
+
+        repository.markFailed(job.id(), "Rejected", null);
+        assertThat(status(job.id())).isEqualTo("FAILED");
+        assertThat(claimedIds(retryAt.plus(Duration.ofMinutes(1)), NODE_A)).doesNotContain(job.id());
+    }
+
+    private WelcomeEmailJob enqueueDueIn(Duration delay) {
+        return repository.enqueue(companyId, customerId, templateId, Instant.now().plus(delay)).orElseThrow();
+    }
+
+    private List<Long> claimedIds(Instant horizon, String nodeId) {
+        return repository.claimDueBefore(horizon, nodeId, horizon.plus(Duration.ofMinutes(10)), 100).stream()
+                .map(WelcomeEmailJob::id)
+                .toList();
+    }
+
+    private String status(Long jobId) {
+        return jdbcClient.sql("SELECT status FROM marketing_welcome_jobs WHERE id = :id")
+                .param("id", jobId).query(String.class).single();
+    }
+}
@@ -0,0 +1,82 @@
+package es.terencio.erp.organization.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.organization.application.port.in.OrganizationGraphUseCase;
+import es.terencio.erp.organization.domain.model.OrganizationGraph;
+import es.terencio.erp.organization.domain.model.OrganizationGraph.NodeType;
+
+/**
+ * Not transactional: the graph reloads on NOTIFYs delivered on commit.
+ */
+class OrganizationGraphServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long NOTIFICATION_TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private OrganizationGraphUseCase organizationGraph;
+
+    private UUID storeId;
+
+    @AfterEach
+    void tearDown() {
+        if (storeId != null) {
+            jdbcClient.sql("DELETE FROM stores WHERE id = :id").param("id", storeId).update();
+        }
+    }
+
+    @Test
+    void testCurrentContaining_WhenStoreWasJustCreated_ShouldResolveItsAncestry() {
+        organizationGraph.current();
+        storeId = createStore();
+
+        assertThat(eventually(() -> organizationGraph.currentContaining(storeId).contains(storeId))).isTrue();
+        OrganizationGraph graph = organizationGraph.current();
+        assertThat(graph.ancestorOfType(storeId, NodeType.COMPANY)).contains(globalCompanyId);
+        assertThat(graph.ancestorOfType(storeId, NodeType.ORGANIZATION)).contains(globalOrgId);
+    }
+
+    @Test
+    void testCurrent_WhenStoreIsRenamed_ShouldReloadANewVersion() {
+        storeId = createStore();
+        assertThat(eventually(() -> organizationGraph.current().contains(storeId))).isTrue();
+        long version = organizationGraph.current().version();
+
+        jdbcClient.sql("UPDATE stores SET name = 'Renamed Graph Store' WHERE id = :id").param("id", storeId).update();
+
+        assertThat(eventually(() -> organizationGraph.current().version() > version)).isTrue();
+        assertThat(organizationGraph.current().find(storeId).orElseThrow().name()).isEqualTo("Renamed Graph Store");
+    }
+
+    private UUID createStore() {
+        UUID id = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'GRAPH-STORE', 'Graph Store', 'graph-store', 'Graph Address', TRUE)")
+                .param("id", id).param("companyId", globalCompanyId).update();
+        return id;
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
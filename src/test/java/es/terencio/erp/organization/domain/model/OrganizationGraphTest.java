@@ -0,0 +1,57 @@
+package es.terencio.erp.organization.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import es.terencio.erp.organization.domain.model.OrganizationGraph.Node;
+import es.terencio.erp.organization.domain.model.OrganizationGraph.NodeType;
+
+class OrganizationGraphTest {
+
+    private final UUID orgId = UUID.randomUUID();
+    private final UUID companyId = UUID.randomUUID();
+    private final UUID madridId = UUID.randomUUID();
+    private final UUID bilbaoId = UUID.randomUUID();
+    private final UUID closedId = UUID.randomUUID();
+
+    private final OrganizationGraph graph = OrganizationGraph.build(1, List.of(
+            new Node(madridId, NodeType.STORE, companyId, "Madrid", "madrid", "MAD", true),
+            new Node(orgId, NodeType.ORGANIZATION, null, "Org", "org", null, true),
+            new Node(closedId, NodeType.STORE, companyId, "Alcalá", "alcala", "ALC", false),
+            new Node(companyId, NodeType.COMPANY, orgId, "Company", "company", null, true),
+            new Node(bilbaoId, NodeType.STORE, companyId, "bilbao", "bilbao", "BIO", true)));
+
+    @Test
+    void testAncestorOfType_WhenNodeIsAStore_ShouldWalkUpToEachLevel() {
+        assertThat(graph.ancestorOfType(madridId, NodeType.STORE)).isEqualTo(Optional.of(madridId));
+        assertThat(graph.ancestorOfType(madridId, NodeType.COMPANY)).isEqualTo(Optional.of(companyId));
+        assertThat(graph.ancestorOfType(madridId, NodeType.ORGANIZATION)).isEqualTo(Optional.of(orgId));
+    }
+
+    @Test
+    void testAncestorOfType_WhenNodeIsAboveTheLevelOrUnknown_ShouldBeEmpty() {
+        assertThat(graph.ancestorOfType(companyId, NodeType.STORE)).isEqualTo(Optional.empty());
+        assertThat(graph.ancestorOfType(UUID.randomUUID(), NodeType.COMPANY)).isEqualTo(Optional.empty());
+        assertThat(graph.ancestorOfType(null, NodeType.COMPANY)).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void testVisibleChildren_WhenSomeAreHidden_ShouldListTheRestByName() {
+        List<UUID> children = graph.visibleChildren(companyId).stream().map(Node::id).toList();
+
+        assertThat(children).containsExactly(bilbaoId, madridId);
+        assertThat(graph.visibleChildren(madridId)).isEmpty();
+    }
+
+    @Test
+    void testContains_WhenNodeIsHidden_ShouldStillKnowIt() {
+        assertThat(graph.contains(closedId)).isTrue();
+        assertThat(graph.contains(null)).isFalse();
+        assertThat(graph.version()).isEqualTo(1L);
+    }
+}
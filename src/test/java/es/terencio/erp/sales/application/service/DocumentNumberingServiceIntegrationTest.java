@@ -0,0 +1,161 @@
+package es.terencio.erp.sales.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.sales.application.port.in.ReserveNumberBlocksUseCase;
+import es.terencio.erp.sales.domain.model.NumberBlock;
+import es.terencio.erp.shared.domain.exception.InvariantViolationException;
+import es.terencio.erp.shared.exception.ConflictException;
+import es.terencio.erp.shared.exception.ResourceNotFoundException;
+
+/**
+ * Not transactional: concurrent reservations run on connections of their
+ * own and must see each other's committed counter.
+ */
+class DocumentNumberingServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int DEVICES = 8;
+
+    @Autowired
+    private ReserveNumberBlocksUseCase numbering;
+
+    private final List<UUID> deviceIds = new ArrayList<>();
+    private String series;
+
+    @BeforeEach
+    void setUp() {
+        series = "CAJA-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase(Locale.ROOT);
+        for (int i = 0; i < DEVICES; i++) {
+            UUID deviceId = UUID.randomUUID();
+            jdbcClient.sql(
+                    "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, :name, :serial, :hardware, 'ACTIVE')")
+                    .param("id", deviceId).param("storeId", globalStoreId).param("name", "POS Numbering " + i)
+                    .param("serial", "NUM-POS-" + i).param("hardware", "hw-num-" + i).update();
+            deviceIds.add(deviceId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (UUID deviceId : deviceIds) {
+            jdbcClient.sql("DELETE FROM document_number_blocks WHERE device_id = :id").param("id", deviceId).update();
+            jdbcClient.sql("DELETE FROM devices WHERE id = :id").param("id", deviceId).update();
+        }
+        jdbcClient.sql("DELETE FROM document_series_counters WHERE series = :series").param("series", series)
+                .update();
+        deviceIds.clear();
+    }
+
+    @Test
+    void testReserve_WhenDevicesReserveConcurrently_ShouldHandOutDisjointConsecutiveBlocks() throws Exception {
+        int blocksPerDevice = 10;
+        int size = 5;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<NumberBlock>>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(DEVICES)) {
+            for (UUID deviceId : deviceIds) {
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    List<NumberBlock> reserved = new ArrayList<>();
+                    for (int i = 0; i < blocksPerDevice; i++) {
+                        NumberBlock block = numbering.reserve(deviceId, series, size);
+                        numbering.close(deviceId, block.id(), block.lastNumber());
+                        reserved.add(block);
+                    }
+                    return reserved;
+                }, executor));
+            }
+            start.countDown();
+            List<NumberBlock> blocks = new ArrayList<>();
+            for (CompletableFuture<List<NumberBlock>> call : calls) {
+                blocks.addAll(call.get(30, TimeUnit.SECONDS));
+            }
+
+            // Sorted by first number, every block starts right after the previous one: no overlap, no gap
+            blocks.sort(Comparator.comparingLong(NumberBlock::firstNumber));
+            assertThat(blocks).hasSize(DEVICES * blocksPerDevice);
+            long next = 1;
+            for (NumberBlock block : blocks) {
+                assertThat(block.firstNumber()).isEqualTo(next);
+                assertThat(block.size()).isEqualTo(size);
+                next = block.lastNumber() + 1;
+            }
+        }
+
+        Long counter = jdbcClient
+                .sql("SELECT next_number FROM document_series_counters WHERE company_id = :companyId AND series = :series")
+                .param("companyId", globalCompanyId).param("series", series).query(Long.class).single();
+        assertThat(counter).isEqualTo(DEVICES * blocksPerDevice * size + 1L);
+    }
+
+    @Test
+    void testClose_WhenLastUsedNumberIsOutsideTheBlock_ShouldRejectItAndKeepTheBlockOpen() {
+        UUID deviceId = deviceIds.get(0);
+        numbering.reserve(deviceId, series, 10);
+        NumberBlock block = numbering.reserve(deviceId, series, 10);
+        assertThat(block.firstNumber()).isEqualTo(11);
+
+        assertThatThrownBy(() -> numbering.close(deviceId, block.id(), 21))
+                .isInstanceOf(InvariantViolationException.class);
+        assertThatThrownBy(() -> numbering.close(deviceId, block.id(), 5))
+                .isInstanceOf(InvariantViolationException.class);
+        assertThat(numbering.findOpenBlocks(deviceId)).hasSize(2);
+
+        // One before the first number closes it with nothing issued
+        numbering.close(deviceId, block.id(), 10);
+        Long lastUsed = jdbcClient.sql("SELECT last_used_number FROM document_number_blocks WHERE id = :id")
+                .param("id", block.id()).query(Long.class).single();
+        assertThat(lastUsed).isEqualTo(10);
+        assertThat(numbering.findOpenBlocks(deviceId)).hasSize(1);
+    }
+
+    @Test
+    void testClose_WhenBlockBelongsToAnotherDevice_ShouldNotFindIt() {
+        NumberBlock block = numbering.reserve(deviceIds.get(0), series, 10);
+
+        assertThatThrownBy(() -> numbering.close(deviceIds.get(1), block.id(), block.lastNumber()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(numbering.findOpenBlocks(deviceIds.get(0))).hasSize(1);
+    }
+
+    @Test
+    void testReserve_WhenDeviceHoldsTheMaximumOpenBlocks_ShouldRejectUntilOneIsClosed() {
+        UUID deviceId = deviceIds.get(0);
+        NumberBlock first = numbering.reserve(deviceId, series, 10);
+        numbering.reserve(deviceId, series, 10);
+
+        assertThatThrownBy(() -> numbering.reserve(deviceId, series, 10))
+                .isInstanceOf(ConflictException.class);
+        // The rejected reservation did not advance the counter
+        assertThat(numbering.reserve(deviceIds.get(1), series, 10).firstNumber()).isEqualTo(21);
+
+        numbering.close(deviceId, first.id(), first.lastNumber());
+        assertThat(numbering.reserve(deviceId, series, 10).firstNumber()).isEqualTo(31);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
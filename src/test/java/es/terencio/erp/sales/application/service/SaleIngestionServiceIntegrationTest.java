@@ -0,0 +1,177 @@
+package es.terencio.erp.sales.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.sales.application.dto.SaleAck;
+import es.terencio.erp.sales.application.dto.SaleUpload;
+
+@Transactional
+class SaleIngestionServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private SaleIngestionService service;
+
+    private UUID storeId;
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'SALES-STORE', 'Sales Store', 'sales-store', 'Sales Address', TRUE)")
+                .param("id", storeId).param("companyId", globalCompanyId).update();
+
+        deviceId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, 'POS 1', 'SALES-POS-1', 'hw-sales-1', 'ACTIVE')")
+                .param("id", deviceId).param("storeId", storeId).update();
+    }
+
+    @Test
+    void testUpload_WhenSalesAreIncompleteOrOverflow_ShouldAckEachSale() {
+        SaleUpload good = sale(UUID.randomUUID(), new BigDecimal("1"));
+        SaleUpload incomplete = sale(UUID.randomUUID(), null);
+        SaleUpload overflowing = sale(UUID.randomUUID(), new BigDecimal("1e20"));
+
+        List<SaleAck> acks = service.upload(deviceId, List.of(good, incomplete, overflowing));
+
+        assertThat(acks).hasSize(3);
+        assertThat(acks.get(0).status()).isEqualTo(SaleAck.Status.ACCEPTED);
+        assertThat(acks.get(1).status()).isEqualTo(SaleAck.Status.REJECTED);
+        assertThat(acks.get(1).saleId()).isEqualTo(incomplete.id());
+        assertThat(acks.get(1).error()).contains("quantity");
+        assertThat(acks.get(2).status()).isEqualTo(SaleAck.Status.REJECTED);
+        assertThat(acks.get(2).saleId()).isEqualTo(overflowing.id());
+
+        Integer recorded = jdbcClient.sql("SELECT COUNT(*) FROM sales WHERE device_id = :deviceId")
+                .param("deviceId", deviceId).query(Integer.class).single();
+        assertThat(recorded).isEqualTo(1);
+    }
+
+    @Test
+    void testUpload_WhenLineAmountsOverflow_ShouldRejectOnlyThatSale() {
+        SaleUpload good = sale(UUID.randomUUID(), new BigDecimal("1"));
+        SaleUpload.Line huge = new SaleUpload.Line(1, null, "Huge", BigDecimal.ONE, Long.MAX_VALUE, null,
+                new BigDecimal("21"), Long.MAX_VALUE, 1, Long.MIN_VALUE);
+        SaleUpload overflowing = new SaleUpload(UUID.randomUUID(), globalAdminId, null, Instant.now(), "EUR",
+                Long.MIN_VALUE, List.of(huge), List.of(new SaleUpload.Payment("CASH", Long.MIN_VALUE)));
+
+        List<SaleAck> acks = service.upload(deviceId, List.of(good, overflowing));
+
+        assertThat(acks).hasSize(2);
+        assertThat(acks.get(0).status()).isEqualTo(SaleAck.Status.ACCEPTED);
+        assertThat(acks.get(1).status()).isEqualTo(SaleAck.Status.REJECTED);
+    }
+
+    @Test
+    void testUpload_WhenLineTaxDoesNotMatchItsRate_ShouldRejectTheSale() {
+        SaleUpload.Line wrongTax = new SaleUpload.Line(1, null, "Coffee", BigDecimal.ONE, 1210, null,
+                new BigDecimal("21"), 1010, 200, 1210);
+        SaleUpload sale = new SaleUpload(UUID.randomUUID(), globalAdminId, null, Instant.now(), "EUR", 1210,
+                List.of(wrongTax), List.of(new SaleUpload.Payment("CASH", 1210)));
+
+        List<SaleAck> acks = service.upload(deviceId, List.of(sale));
+
+        assertThat(acks).hasSize(1);
+        assertThat(acks.get(0).status()).isEqualTo(SaleAck.Status.REJECTED);
+        assertThat(acks.get(0).error()).contains("Line 1");
+    }
+
+    @Test
+    void testUpload_WhenLineIsDiscounted_ShouldAcceptTheRecomputedAmounts() {
+        // 2 x 6.05 less 10% = 10.89 with 21% VAT included: base 9.00, tax 1.89
+        SaleUpload.Line discounted = new SaleUpload.Line(1, null, "Coffee", new BigDecimal("2"), 605,
+                new BigDecimal("10"), new BigDecimal("21"), 900, 189, 1089);
+        SaleUpload sale = new SaleUpload(UUID.randomUUID(), globalAdminId, null, Instant.now(), "EUR", 1089,
+                List.of(discounted), List.of(new SaleUpload.Payment("CARD", 1089)));
+
+        List<SaleAck> acks = service.upload(deviceId, List.of(sale));
+
+        assertThat(acks.get(0).status()).isEqualTo(SaleAck.Status.ACCEPTED);
+    }
+
+    @Test
+    void testUpload_WhenBatchIsRetried_ShouldAckRecordedSalesAsDuplicates() {
+        SaleUpload first = sale(UUID.randomUUID(), BigDecimal.ONE);
+        SaleUpload second = sale(UUID.randomUUID(), BigDecimal.ONE);
+        assertThat(service.upload(deviceId, List.of(first, second)))
+                .extracting(SaleAck::status).containsExactly(SaleAck.Status.ACCEPTED, SaleAck.Status.ACCEPTED);
+
+        SaleUpload third = sale(UUID.randomUUID(), BigDecimal.ONE);
+        List<SaleAck> acks = service.upload(deviceId, List.of(first, second, third));
+
+        assertThat(acks).extracting(SaleAck::status).containsExactly(SaleAck.Status.DUPLICATE,
+                SaleAck.Status.DUPLICATE, SaleAck.Status.ACCEPTED);
+        assertThat(acks).extracting(SaleAck::index).containsExactly(0, 1, 2);
+        Integer recorded = jdbcClient.sql("SELECT COUNT(*) FROM sales WHERE device_id = :deviceId")
+                .param("deviceId", deviceId).query(Integer.class).single();
+        assertThat(recorded).isEqualTo(3);
+    }
+
+    @Test
+    void testUpload_WhenSaleIsRepeatedInTheBatch_ShouldRecordItOnce() {
+        SaleUpload sale = sale(UUID.randomUUID(), BigDecimal.ONE);
+
+        List<SaleAck> acks = service.upload(deviceId, List.of(sale, sale));
+
+        assertThat(acks).extracting(SaleAck::status).containsExactly(SaleAck.Status.ACCEPTED,
+                SaleAck.Status.DUPLICATE);
+        Integer recorded = jdbcClient.sql("SELECT COUNT(*) FROM sales WHERE uuid = :id")
+                .param("id", sale.id()).query(Integer.class).single();
+        assertThat(recorded).isEqualTo(1);
+    }
+
+    @Test
+    void testUpload_WhenSaleIdBelongsToAnotherDevice_ShouldRejectIt() {
+        UUID otherDeviceId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, 'POS 2', 'SALES-POS-2', 'hw-sales-2', 'ACTIVE')")
+                .param("id", otherDeviceId).param("storeId", storeId).update();
+        SaleUpload sale = sale(UUID.randomUUID(), BigDecimal.ONE);
+        service.upload(deviceId, List.of(sale));
+
+        List<SaleAck> acks = service.upload(otherDeviceId, List.of(sale));
+
+        assertThat(acks.get(0).status()).isEqualTo(SaleAck.Status.REJECTED);
+        assertThat(acks.get(0).error()).contains("another device");
+        UUID owner = jdbcClient.sql("SELECT device_id FROM sales WHERE uuid = :id")
+                .param("id", sale.id()).query(UUID.class).single();
+        assertThat(owner).isEqualTo(deviceId);
+    }
+
+    @Test
+    void testUpload_WhenEmployeeHasNoAccessToTheStore_ShouldRejectTheSale() {
+        Long outsider = jdbcClient.sql(
+                "INSERT INTO employees (username, full_name, pin_hash, password_hash, organization_id, is_active, created_at, updated_at) VALUES ('outsider', 'Outsider', 'pin', 'hash', :orgId, TRUE, NOW(), NOW()) RETURNING id")
+                .param("orgId", globalOrgId).query(Long.class).single();
+        SaleUpload.Line line = new SaleUpload.Line(1, null, "Coffee", BigDecimal.ONE, 1210, null,
+                new BigDecimal("21"), 1000, 210, 1210);
+        SaleUpload sale = new SaleUpload(UUID.randomUUID(), outsider, null, Instant.now(), "EUR", 1210,
+                List.of(line), List.of(new SaleUpload.Payment("CASH", 1210)));
+
+        List<SaleAck> acks = service.upload(deviceId, List.of(sale, sale(UUID.randomUUID(), BigDecimal.ONE)));
+
+        assertThat(acks.get(0).status()).isEqualTo(SaleAck.Status.REJECTED);
+        assertThat(acks.get(0).error()).contains("Employee not active");
+        assertThat(acks.get(1).status()).isEqualTo(SaleAck.Status.ACCEPTED);
+    }
+
+    // The global company's prices include tax and are rounded per line
+    private SaleUpload sale(UUID id, BigDecimal quantity) {
+        SaleUpload.Line line = new SaleUpload.Line(1, null, "Coffee", quantity, 1210, null, new BigDecimal("21"),
+                1000, 210, 1210);
+        return new SaleUpload(id, globalAdminId, null, Instant.now(), "EUR", 1210, List.of(line),
+                List.of(new SaleUpload.Payment("CASH", 1210)));
+    }
+}
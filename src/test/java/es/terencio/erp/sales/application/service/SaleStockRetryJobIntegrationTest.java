@@ -0,0 +1,161 @@
+package es.terencio.erp.sales.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.terencio.erp.AbstractIntegrationTest;
+import es.terencio.erp.inventory.application.dto.StockMovementCommand;
+import es.terencio.erp.inventory.application.port.in.ApplyStockMovementsUseCase;
+import es.terencio.erp.inventory.domain.model.StockKey;
+import es.terencio.erp.inventory.domain.model.StockMovementType;
+import es.terencio.erp.shared.domain.identifier.ProductId;
+import es.terencio.erp.shared.domain.identifier.WarehouseId;
+import es.terencio.erp.shared.domain.valueobject.Quantity;
+
+/**
+ * Sales and outbox rows live in the test transaction. The store and its
+ * warehouse are committed beside it, because the ledger writes stock in
+ * transactions of its own that must see the warehouse; they and the stock
+ * written are removed once the test transaction is rolled back.
+ */
+@Transactional
+class SaleStockRetryJobIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long PRODUCT_ID = 4242L;
+
+    @Autowired
+    private SaleStockRetryJob retryJob;
+    @Autowired
+    private ApplyStockMovementsUseCase ledger;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID storeId;
+    private UUID warehouseId;
+    private UUID deviceId;
+
+    @AfterTransaction
+    void dropWarehouse() {
+        jdbcClient.sql("DELETE FROM stock_movements WHERE warehouse_id = :id").param("id", warehouseId).update();
+        jdbcClient.sql("DELETE FROM inventory_stock WHERE warehouse_id = :id").param("id", warehouseId).update();
+        jdbcClient.sql("DELETE FROM warehouses WHERE id = :id").param("id", warehouseId).update();
+        jdbcClient.sql("DELETE FROM stores WHERE id = :id").param("id", storeId).update();
+    }
+
+    @BeforeEach
+    void setUp() {
+        storeId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        TransactionTemplate committed = new TransactionTemplate(transactionManager);
+        committed.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        committed.executeWithoutResult(status -> {
+            jdbcClient.sql(
+                    "INSERT INTO stores (id, company_id, code, name, slug, address, is_active) VALUES (:id, :companyId, 'RETRY-STORE', 'Retry Store', 'retry-store', 'Retry Address', TRUE)")
+                    .param("id", storeId).param("companyId", globalCompanyId).update();
+            jdbcClient.sql("INSERT INTO warehouses (id, store_id, name, code) VALUES (:id, :storeId, 'Retry Warehouse', 'RW')")
+                    .param("id", warehouseId).param("storeId", storeId).update();
+        });
+
+        deviceId = UUID.randomUUID();
+        jdbcClient.sql(
+                "INSERT INTO devices (id, store_id, name, serial_code, hardware_id, status) VALUES (:id, :storeId, 'POS Retry', 'RETRY-POS-1', 'hw-retry-1', 'ACTIVE')")
+                .param("id", deviceId).param("storeId", storeId).update();
+    }
+
+    @Test
+    void testRetryPending_WhenStockWasNotTaken_ShouldTakeItAndClearTheOutbox() {
+        UUID saleId = pendingSale("2", "-1 minute");
+
+        retryJob.retryPending();
+
+        assertThat(stock()).isEqualByComparingTo("-2");
+        assertThat(soldFor(saleId)).isEqualByComparingTo("-2");
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void testRetryPending_WhenStockWasPartlyTaken_ShouldOnlyTakeWhatIsMissing() {
+        UUID saleId = pendingSale("3", "-1 minute");
+        ledger.apply(List.of(new StockMovementCommand(stockKey(), StockMovementType.SALE, Quantity.of(-1), null,
+                saleId, globalAdminId)));
+
+        retryJob.retryPending();
+        retryJob.retryPending();
+
+        assertThat(soldFor(saleId)).isEqualByComparingTo("-3");
+        assertThat(stock()).isEqualByComparingTo("-3");
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void testRetryPending_WhenStockWasTakenButTheRowWasKept_ShouldNotTakeItTwice() {
+        UUID saleId = pendingSale("2", "-1 minute");
+        ledger.apply(List.of(new StockMovementCommand(stockKey(), StockMovementType.SALE, Quantity.of(-2), null,
+                saleId, globalAdminId)));
+
+        retryJob.retryPending();
+
+        assertThat(soldFor(saleId)).isEqualByComparingTo("-2");
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void testRetryPending_WhenRowIsNotDueYet_ShouldLeaveItForLater() {
+        UUID saleId = pendingSale("2", "5 minutes");
+
+        retryJob.retryPending();
+
+        assertThat(soldFor(saleId)).isEqualByComparingTo("0");
+        Integer attempts = jdbcClient.sql("SELECT attempts FROM sale_stock_outbox WHERE sale_uuid = :id")
+                .param("id", saleId).query(Integer.class).single();
+        assertThat(attempts).isZero();
+    }
+
+    /** A recorded sale of {@code quantity} units whose stock is still in the outbox. */
+    private UUID pendingSale(String quantity, String dueIn) {
+        UUID saleId = UUID.randomUUID();
+        Long id = jdbcClient.sql(
+                "INSERT INTO sales (uuid, company_id, store_id, device_id, employee_id, currency, total_net, total_tax, total, issued_at) VALUES (:uuid, :companyId, :storeId, :deviceId, :employeeId, 'EUR', 1000, 210, 1210, NOW()) RETURNING id")
+                .param("uuid", saleId).param("companyId", globalCompanyId).param("storeId", storeId)
+                .param("deviceId", deviceId).param("employeeId", globalAdminId).query(Long.class).single();
+        jdbcClient.sql(
+                "INSERT INTO sale_lines (sale_id, line_number, product_id, description, quantity, unit_price, tax_rate, net_amount, tax_amount, total) VALUES (:saleId, 1, :productId, 'Coffee', :quantity, 1210, 21, 1000, 210, 1210)")
+                .param("saleId", id).param("productId", PRODUCT_ID).param("quantity", new BigDecimal(quantity))
+                .update();
+        jdbcClient.sql(
+                "INSERT INTO sale_stock_outbox (sale_uuid, warehouse_id, next_attempt_at) VALUES (:saleId, :warehouseId, NOW() + CAST(:dueIn AS INTERVAL))")
+                .param("saleId", saleId).param("warehouseId", warehouseId).param("dueIn", dueIn).update();
+        return saleId;
+    }
+
+    private StockKey stockKey() {
+        return new StockKey(new ProductId(PRODUCT_ID), new WarehouseId(warehouseId));
+    }
+
+    private BigDecimal stock() {
+        return jdbcClient.sql("SELECT quantity FROM inventory_stock WHERE product_id = :productId AND warehouse_id = :id")
+                .param("productId", PRODUCT_ID).param("id", warehouseId).query(BigDecimal.class).single();
+    }
+
+    private BigDecimal soldFor(UUID saleId) {
+        return jdbcClient.sql("SELECT COALESCE(SUM(quantity), 0) FROM stock_movements WHERE reference_uuid = :id AND type = 'SALE'")
+                .param("id", saleId).query(BigDecimal.class).single();
+    }
+
+    private int outboxRows() {
+        return jdbcClient.sql("SELECT COUNT(*) FROM sale_stock_outbox WHERE warehouse_id = :id")
+                .param("id", warehouseId).query(Integer.class).single();
+    }
+}
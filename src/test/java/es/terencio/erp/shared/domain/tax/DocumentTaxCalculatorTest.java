@@ -0,0 +1,141 @@
+package es.terencio.erp.shared.domain.tax;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Currency;
+
+import org.junit.jupiter.api.Test;
+
+import es.terencio.erp.shared.domain.valueobject.Money;
+import es.terencio.erp.shared.domain.valueobject.TaxRate;
+
+/**
+ * Known tickets, worked out by hand, in both rounding modes and with prices
+ * with and without tax. Amounts in cents, quantities in thousandths, rates in
+ * ten-thousandths of a percent.
+ */
+public class DocumentTaxCalculatorTest {
+
+    private static final long VAT_21 = 210_000;
+    private static final long VAT_10 = 100_000;
+    private static final long VAT_4 = 40_000;
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    void testGroceryTicket_WhenPricesExcludeTax_ShouldRoundEachLine() {
+        DocumentTaxCalculator calculator = new DocumentTaxCalculator(false, true);
+        calculator.addLine(199, 3_000, 0, VAT_21, 0);     // 3 x 1,99: 5,97 + 1,25
+        calculator.addLine(85, 2_000, 0, VAT_10, 0);      // 2 x 0,85: 1,70 + 0,17
+        calculator.addLine(239, 1_500, 0, VAT_4, 0);      // 1,5 kg x 2,39: 3,585 -> 3,59 + 0,14
+        int discounted = calculator.addLine(333, 1_000, 1_000, VAT_21, 0); // 3,33 - 10%: 3,00 + 0,63
+        calculator.total();
+
+        assertThat(calculator.lineNetCents(discounted)).isEqualTo(300);
+        assertThat(calculator.lineTaxCents(discounted)).isEqualTo(63);
+        assertThat(calculator.netCents()).isEqualTo(1_426);
+        assertThat(calculator.taxCents()).isEqualTo(219);
+        assertThat(calculator.totalCents()).isEqualTo(1_645);
+
+        // Breakdown sorted by rate whatever the order of the lines
+        assertThat(calculator.groupCount()).isEqualTo(3);
+        assertThat(calculator.groupRate(0)).isEqualTo(VAT_4);
+        assertThat(calculator.groupBaseCents(0)).isEqualTo(359);
+        assertThat(calculator.groupTaxCents(0)).isEqualTo(14);
+        assertThat(calculator.groupRate(1)).isEqualTo(VAT_10);
+        assertThat(calculator.groupTaxCents(1)).isEqualTo(17);
+        assertThat(calculator.groupRate(2)).isEqualTo(VAT_21);
+        assertThat(calculator.groupBaseCents(2)).isEqualTo(897);
+        assertThat(calculator.groupTaxCents(2)).isEqualTo(188);
+    }
+
+    @Test
+    void testSmallLines_WhenRoundingPerLineOrOnTotal_ShouldDifferByTheAccumulatedCent() {
+        // Three 0,05 items at 10%: 0,005 of tax each
+        DocumentTaxCalculator perLine = new DocumentTaxCalculator(false, true);
+        DocumentTaxCalculator onTotal = new DocumentTaxCalculator(false, false);
+        for (int i = 0; i < 3; i++) {
+            perLine.addLine(5, 1_000, 0, VAT_10, 0);
+            onTotal.addLine(5, 1_000, 0, VAT_10, 0);
+        }
+        perLine.total();
+        onTotal.total();
+
+        assertThat(perLine.netCents()).isEqualTo(15);
+        assertThat(perLine.taxCents()).isEqualTo(3);
+        assertThat(perLine.totalCents()).isEqualTo(18);
+        assertThat(onTotal.netCents()).isEqualTo(15);
+        assertThat(onTotal.taxCents()).isEqualTo(2);
+        assertThat(onTotal.totalCents()).isEqualTo(17);
+    }
+
+    @Test
+    void testBarTicket_WhenPricesIncludeTax_ShouldKeepTheTotalAndSplitTheBase() {
+        DocumentTaxCalculator perLine = new DocumentTaxCalculator(true, true);
+        DocumentTaxCalculator onTotal = new DocumentTaxCalculator(true, false);
+        for (DocumentTaxCalculator calculator : new DocumentTaxCalculator[] { perLine, onTotal }) {
+            calculator.addLine(100, 1_000, 0, VAT_21, 0); // 1,00 with VAT: 0,83 + 0,17 per line
+            calculator.addLine(100, 1_000, 0, VAT_21, 0);
+            calculator.addLine(250, 2_000, 0, VAT_10, 0); // 5,00 with VAT: 4,55 + 0,45
+            calculator.total();
+            assertThat(calculator.totalCents()).isEqualTo(700);
+        }
+
+        assertThat(perLine.netCents()).isEqualTo(621);
+        assertThat(perLine.taxCents()).isEqualTo(79);
+        // 2,00 / 1,21 = 1,6529 on the group instead of 2 x 0,8264
+        assertThat(onTotal.netCents()).isEqualTo(620);
+        assertThat(onTotal.taxCents()).isEqualTo(80);
+        assertThat(onTotal.groupBaseCents(1)).isEqualTo(165);
+        assertThat(onTotal.groupTaxCents(1)).isEqualTo(35);
+    }
+
+    @Test
+    void testRecargoDeEquivalencia_ShouldBeChargedOnTheBaseOnTopOfTheTaxIncludedPrice() {
+        long surcharge = DocumentTaxCalculator.standardSurcharge(VAT_21);
+        assertThat(surcharge).isEqualTo(52_000);
+
+        DocumentTaxCalculator excluded = new DocumentTaxCalculator(false, true);
+        excluded.addLine(10_000, 1_000, 0, VAT_21, surcharge);
+        DocumentTotals fromBase = excluded.totals(EUR);
+
+        DocumentTaxCalculator included = new DocumentTaxCalculator(true, false);
+        included.addLine(12_100, 1_000, 0, VAT_21, surcharge);
+        DocumentTotals fromPrice = included.totals(EUR);
+
+        for (DocumentTotals totals : new DocumentTotals[] { fromBase, fromPrice }) {
+            assertThat(totals.net()).isEqualTo(Money.ofCents(10_000, EUR));
+            assertThat(totals.tax()).isEqualTo(Money.ofCents(2_100, EUR));
+            assertThat(totals.surcharge()).isEqualTo(Money.ofCents(520, EUR));
+            assertThat(totals.total()).isEqualTo(Money.ofCents(12_620, EUR));
+            assertThat(totals.breakdown()).hasSize(1);
+            assertThat(totals.breakdown().get(0).rate()).isEqualTo(TaxRate.of(21));
+            assertThat(totals.breakdown().get(0).surchargeRate()).isEqualTo(TaxRate.of(5.2));
+        }
+    }
+
+    @Test
+    void testReturnLine_WhenNegativeQuantity_ShouldRoundAwayFromZero() {
+        DocumentTaxCalculator calculator = new DocumentTaxCalculator(false, true);
+        calculator.addLine(199, 3_000, 0, VAT_21, 0);
+        int refund = calculator.addLine(199, -1_000, 0, VAT_21, 0); // -1,99: -0,4179 of VAT
+        calculator.total();
+
+        assertThat(calculator.lineTaxCents(refund)).isEqualTo(-42);
+        assertThat(calculator.netCents()).isEqualTo(398);
+        assertThat(calculator.taxCents()).isEqualTo(83);
+    }
+
+    @Test
+    void testReset_ShouldStartAnEmptyDocument() {
+        DocumentTaxCalculator calculator = new DocumentTaxCalculator(false, false);
+        calculator.addLine(1_000, 1_000, 0, VAT_21, 0);
+        calculator.total();
+        calculator.reset();
+        calculator.addLine(1_000, 1_000, 0, VAT_4, 0);
+        calculator.total();
+
+        assertThat(calculator.lineCount()).isEqualTo(1);
+        assertThat(calculator.groupCount()).isEqualTo(1);
+        assertThat(calculator.totalCents()).isEqualTo(1_040);
+    }
+}
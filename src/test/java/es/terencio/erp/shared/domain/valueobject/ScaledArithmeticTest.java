@@ -0,0 +1,131 @@
+package es.terencio.erp.shared.domain.valueobject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the scaled-long kernels against the BigDecimal arithmetic they
+ * replaced, including the old {@link Money}, {@link Quantity} and
+ * {@link TaxRate} code paths.
+ */
+public class ScaledArithmeticTest {
+
+    private static final int RANDOM_CASES = 100_000;
+
+    @Test
+    void testDivideHalfUp_WhenTie_ShouldRoundAwayFromZero() {
+        assertThat(ScaledArithmetic.divideHalfUp(5, 10)).isEqualTo(1);
+        assertThat(ScaledArithmetic.divideHalfUp(-5, 10)).isEqualTo(-1);
+        assertThat(ScaledArithmetic.divideHalfUp(15, 10)).isEqualTo(2);
+        assertThat(ScaledArithmetic.divideHalfUp(-15, 10)).isEqualTo(-2);
+        assertThat(ScaledArithmetic.divideHalfUp(-4, 10)).isZero();
+        assertThat(ScaledArithmetic.divideHalfUp(-6, 10)).isEqualTo(-1);
+        assertThat(ScaledArithmetic.divideHalfUp(Long.MIN_VALUE, 2)).isEqualTo(Long.MIN_VALUE / 2);
+        assertThat(ScaledArithmetic.divideHalfUp(Long.MAX_VALUE, Long.MAX_VALUE)).isEqualTo(1);
+    }
+
+    @Test
+    void testMultiplyHalfUp_WhenNegativeTie_ShouldMatchBigDecimal() {
+        // -1.5 and -0.5 cents
+        assertThat(ScaledArithmetic.multiplyHalfUp(-3, 500, 1_000)).isEqualTo(-2)
+                .isEqualTo(reference(-3, 500, 1_000).longValueExact());
+        assertThat(ScaledArithmetic.multiplyHalfUp(-1, 500, 1_000)).isEqualTo(-1)
+                .isEqualTo(reference(-1, 500, 1_000).longValueExact());
+        assertThat(ScaledArithmetic.multiplyHalfUp(1, -500, 1_000)).isEqualTo(-1);
+    }
+
+    @Test
+    void testMultiplyHalfUp_WhenProductOverflows_ShouldFallBackToBigInteger() {
+        long a = Long.MAX_VALUE / 3;
+        assertThat(ScaledArithmetic.multiplyHalfUp(a, 6, 4)).isEqualTo(reference(a, 6, 4).longValueExact());
+        assertThat(ScaledArithmetic.multiplyHalfUp(-a, 6, 4)).isEqualTo(reference(-a, 6, 4).longValueExact());
+        assertThat(ScaledArithmetic.multiplyHalfUp(Long.MIN_VALUE, -1, 2))
+                .isEqualTo(reference(Long.MIN_VALUE, -1, 2).longValueExact());
+        assertThatThrownBy(() -> ScaledArithmetic.multiplyHalfUp(Long.MAX_VALUE, 4, 2))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void testMultiplyHalfUp_WhenRandom_ShouldMatchBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            long a = random.nextLong() >> random.nextInt(64);
+            long b = random.nextLong() >> random.nextInt(64);
+            long divisor = 1 + ((random.nextLong() >>> 1) >> random.nextInt(63));
+            if (!fitsLong(reference(a, b, divisor))) {
+                continue;
+            }
+            assertThat(ScaledArithmetic.multiplyHalfUp(a, b, divisor))
+                    .as("%d * %d / %d", a, b, divisor)
+                    .isEqualTo(reference(a, b, divisor).longValueExact());
+        }
+    }
+
+    @Test
+    void testMoneyTimesQuantity_ShouldMatchOldBigDecimalPath() {
+        Random random = new Random(7);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            long cents = random.nextInt(2_000_000) - 1_000_000;
+            long thousandths = random.nextInt(200_000) - 100_000;
+            Money price = Money.ofCents(cents, "EUR");
+            Quantity quantity = Quantity.ofThousandths(thousandths);
+            long old = BigDecimal.valueOf(cents).multiply(quantity.value())
+                    .setScale(0, RoundingMode.HALF_UP).longValue();
+            assertThat(price.multiply(quantity).cents()).as("%d x %d", cents, thousandths).isEqualTo(old);
+        }
+    }
+
+    @Test
+    void testCalculateTaxAmount_ShouldMatchOldBigDecimalPath() {
+        Random random = new Random(21);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            long cents = random.nextInt(20_000_000) - 10_000_000;
+            // Hundredths of a percent: the old path rounded the factor to four decimals, exact for these
+            BigDecimal percent = BigDecimal.valueOf(random.nextInt(10_001), 2);
+            TaxRate rate = TaxRate.of(percent);
+            BigDecimal oldFactor = percent.setScale(4, RoundingMode.HALF_UP)
+                    .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+            long old = BigDecimal.valueOf(cents).multiply(oldFactor).setScale(0, RoundingMode.HALF_UP).longValue();
+            assertThat(rate.calculateTaxAmount(Money.ofCents(cents, "EUR")).cents())
+                    .as("%d at %s%%", cents, percent)
+                    .isEqualTo(old);
+        }
+    }
+
+    @Test
+    void testScaledValues_ShouldRoundTripThroughBigDecimal() {
+        assertThat(Quantity.of(new BigDecimal("-1.0005")).thousandths()).isEqualTo(-1_001);
+        assertThat(Quantity.of(new BigDecimal("2.0004")).value()).isEqualByComparingTo("2.000");
+        assertThat(TaxRate.of(new BigDecimal("5.2")).tenThousandths()).isEqualTo(52_000);
+        assertThat(TaxRate.of(21).asFactor()).isEqualByComparingTo("0.21");
+    }
+
+    @Test
+    void testMoneyArithmetic_WhenCentsOverflow_ShouldThrow() {
+        Money max = Money.ofCents(Long.MAX_VALUE, "EUR");
+        Money min = Money.ofCents(Long.MIN_VALUE, "EUR");
+        Money oneCent = Money.ofCents(1, "EUR");
+
+        assertThatThrownBy(() -> max.add(oneCent)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> min.subtract(oneCent)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(min::negate).isInstanceOf(ArithmeticException.class);
+        assertThat(max.subtract(oneCent).add(oneCent).cents()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    private static BigDecimal reference(long a, long b, long divisor) {
+        return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+    }
+
+    private static boolean fitsLong(BigDecimal value) {
+        return value.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) >= 0
+                && value.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0;
+    }
+}
@@ -0,0 +1,161 @@
+package es.terencio.erp.shared.infrastructure.web.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+class PublicAdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StubPool pool = new StubPool();
+    private final PublicAdmissionFilter filter = new PublicAdmissionFilter(pool, meterRegistry, true);
+    private final AtomicInteger passed = new AtomicInteger();
+    private final FilterChain countingChain = (request, response) -> passed.incrementAndGet();
+
+    @Test
+    void testFilter_WhenPathIsNotPublic_ShouldPassThrough() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            assertThat(send("/api/v1/auth/me", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        assertThat(passed).hasValue(50);
+    }
+
+    @Test
+    void testFilter_WhenIpExceedsItsBurst_ShouldAnswerTooManyRequests() throws Exception {
+        // DEVICE_SETUP allows a burst of 10 per IP
+        for (int i = 0; i < 10; i++) {
+            assertThat(send("/api/v1/public/devices/setup", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = send("/api/v1/public/devices/setup", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("Too many requests");
+        assertThat(send("/api/v1/public/devices/setup", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(rejectedCount("DEVICE_SETUP", "RATE_LIMIT")).isEqualTo(1);
+        assertThat(passed).hasValue(11);
+    }
+
+    @Test
+    void testFilter_WhenCompanyExceedsItsBurst_ShouldLimitEveryIp() throws Exception {
+        String companyA = "/api/v1/public/companies/aaaa/leads";
+        // LEAD allows a burst of 100 per company, spread here over many addresses
+        for (int i = 0; i < 100; i++) {
+            assertThat(send(companyA, "10.0.1." + i).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(send(companyA, "10.0.2.1").getStatus()).isEqualTo(429);
+        assertThat(send("/api/v1/public/companies/bbbb/leads", "10.0.2.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void testFilter_WhenConnectionsAreAwaited_ShouldShedLowPriorityFirst() throws Exception {
+        pool.total = 10;
+        pool.waiting = 1;
+
+        MockHttpServletResponse shed = send("/api/v1/public/marketing/track/open/1", "10.0.0.1");
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+        assertThat(send("/api/v1/public/marketing/preferences", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        pool.waiting = 10;
+        assertThat(send("/api/v1/public/marketing/preferences", "10.0.0.1").getStatus()).isEqualTo(503);
+        // Device setup is never shed
+        assertThat(send("/api/v1/public/devices/setup", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(rejectedCount("TRACKING", "LOAD")).isEqualTo(1);
+        assertThat(rejectedCount("PREFERENCES", "LOAD")).isEqualTo(1);
+    }
+
+    @Test
+    void testFilter_WhenRouteIsAtItsConcurrencyCap_ShouldRejectWithoutQueueing() throws Exception {
+        // Each admitted request admits another one while still in flight; DEVICE_SETUP allows 8
+        AtomicInteger inFlight = new AtomicInteger();
+        MockHttpServletResponse[] innermost = new MockHttpServletResponse[1];
+        FilterChain nesting = new FilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response)
+                    throws IOException, ServletException {
+                int depth = inFlight.incrementAndGet();
+                MockHttpServletResponse next = new MockHttpServletResponse();
+                filter.doFilter(request("/api/v1/public/devices/setup", "10.0.3." + depth), next, this);
+                if (next.getStatus() != 200) {
+                    innermost[0] = next;
+                }
+            }
+        };
+
+        filter.doFilter(request("/api/v1/public/devices/setup", "10.0.3.0"), new MockHttpServletResponse(), nesting);
+
+        assertThat(inFlight).hasValue(8);
+        assertThat(innermost[0].getStatus()).isEqualTo(503);
+        assertThat(rejectedCount("DEVICE_SETUP", "CONCURRENCY")).isEqualTo(1);
+        // Permits are released once the requests complete
+        assertThat(send("/api/v1/public/devices/setup", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void testFilter_WhenDisabled_ShouldAdmitEverything() throws Exception {
+        PublicAdmissionFilter disabled = new PublicAdmissionFilter(pool, new SimpleMeterRegistry(), false);
+        pool.total = 10;
+        pool.waiting = 10;
+
+        for (int i = 0; i < 20; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            disabled.doFilter(request("/api/v1/public/marketing/track/open/1", "10.0.0.1"), response, countingChain);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(passed).hasValue(20);
+    }
+
+    private MockHttpServletResponse send(String path, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, ip), response, countingChain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private double rejectedCount(String route, String reason) {
+        return meterRegistry.get("public.admission.rejected").tag("route", route).tag("reason", reason).counter()
+                .count();
+    }
+
+    /** Unstarted data source whose pool reports whatever contention the test sets. */
+    private static final class StubPool extends HikariDataSource {
+        volatile int total;
+        volatile int waiting;
+
+        @Override
+        public HikariPoolMXBean getHikariPoolMXBean() {
+            return (HikariPoolMXBean) Proxy.newProxyInstance(HikariPoolMXBean.class.getClassLoader(),
+                    new Class<?>[] { HikariPoolMXBean.class }, (proxy, method, args) -> switch (method.getName()) {
+                        case "getTotalConnections" -> total;
+                        case "getThreadsAwaitingConnection" -> waiting;
+                        case "getIdleConnections", "getActiveConnections" -> 0;
+                        default -> null;
+                    });
+        }
+    }
+}